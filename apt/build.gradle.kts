@@ -0,0 +1,10 @@
+plugins {
+    id("kapper.library-conventions")
+    id("kapper.library-publish")
+}
+
+dependencies {
+    testImplementation(project(":kapper"))
+    testImplementation(libs.bundles.test)
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
@@ -0,0 +1,47 @@
+package net.samyn.kapper.apt
+
+import javax.annotation.processing.AbstractProcessor
+import javax.annotation.processing.RoundEnvironment
+import javax.annotation.processing.SupportedAnnotationTypes
+import javax.lang.model.SourceVersion
+import javax.lang.model.element.TypeElement
+import javax.tools.StandardLocation
+
+private const val MAPPER_PROVIDER_SERVICE = "META-INF/services/net.samyn.kapper.MapperProvider"
+
+/**
+ * Generates mappers for the records annotated with `@GenerateMapper`.
+ *
+ * Each generated mapper is listed as a `MapperProvider` service, so Kapper registers it automatically.
+ */
+@SupportedAnnotationTypes("net.samyn.kapper.GenerateMapper")
+class KapperAnnotationProcessor : AbstractProcessor() {
+    private val mappers = mutableListOf<String>()
+
+    override fun getSupportedSourceVersion(): SourceVersion = SourceVersion.latestSupported()
+
+    override fun process(
+        annotations: Set<TypeElement>,
+        roundEnv: RoundEnvironment,
+    ): Boolean {
+        for (annotation in annotations) {
+            for (element in roundEnv.getElementsAnnotatedWith(annotation)) {
+                val model =
+                    readRecordModel(element, processingEnv.elementUtils, processingEnv.typeUtils, processingEnv.messager)
+                        ?: continue
+                processingEnv.filer.createSourceFile(model.mapperQualifiedName, element).openWriter().use {
+                    it.write(generateRecordMapper(model))
+                }
+                mappers.add(model.mapperQualifiedName)
+            }
+        }
+        if (roundEnv.processingOver() && mappers.isNotEmpty()) {
+            // the service file lists the mappers of all processed records
+            processingEnv.filer.createResource(StandardLocation.CLASS_OUTPUT, "", MAPPER_PROVIDER_SERVICE)
+                .openWriter().use { writer ->
+                    mappers.forEach { writer.appendLine(it) }
+                }
+        }
+        return true
+    }
+}
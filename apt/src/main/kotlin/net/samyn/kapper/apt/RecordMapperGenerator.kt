@@ -0,0 +1,66 @@
+package net.samyn.kapper.apt
+
+private const val GENERATED_MAPPER = "net.samyn.kapper.GeneratedMapper"
+
+/**
+ * Generate the Java source of the mapper of the record described by [model].
+ *
+ * The generated mapper extends `GeneratedMapper` and calls the canonical constructor directly.
+ *  Components without a bound column are `null`, like they are with the reflection based record mapper.
+ *  The `ARG_MAPPERS` of the mapper map the names of the components to their accessors.
+ */
+fun generateRecordMapper(model: RecordModel): String =
+    buildString {
+        val className = model.className
+        val argMappersType = "java.util.Map<String, kotlin.jvm.functions.Function1<$className, Object>>"
+        appendLine("// Generated by kapper-apt. Do not edit.")
+        if (model.packageName.isNotEmpty()) {
+            appendLine("package ${model.packageName};")
+            appendLine()
+        }
+        appendLine("/**")
+        appendLine(" * Mapper of {@link $className}, generated by kapper-apt.")
+        appendLine(" */")
+        appendLine("public final class ${model.mapperName} extends $GENERATED_MAPPER<$className> {")
+        appendLine("    /**")
+        appendLine("     * Argument mappers of the components of {@link $className}.")
+        appendLine("     */")
+        appendLine("    public static final $argMappersType ARG_MAPPERS = argMappers();")
+        appendLine()
+        appendLine("    public ${model.mapperName}() {")
+        appendLine("        super(")
+        appendLine("            $className.class,")
+        appendLine("            java.util.List.of(")
+        appendLine(
+            model.components.joinToString(",\n") { component ->
+                val nullable = !component.isPrimitive
+                "                new $GENERATED_MAPPER.Parameter(" +
+                    "\"${component.name}\", ${component.jvmClass}, $nullable, $nullable)"
+            },
+        )
+        appendLine("            )")
+        appendLine("        );")
+        appendLine("    }")
+        appendLine()
+        appendLine("    @Override")
+        appendLine("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})")
+        appendLine("    protected $className createInstance($GENERATED_MAPPER<$className>.Row row) {")
+        appendLine("        return new $className(")
+        appendLine(
+            model.components.withIndex().joinToString(",\n") { (index, component) ->
+                val getter = if (component.isPrimitive) "get" else "getOrNull"
+                "            row.<${component.typeName}>$getter($index)"
+            },
+        )
+        appendLine("        );")
+        appendLine("    }")
+        appendLine()
+        appendLine("    private static $argMappersType argMappers() {")
+        appendLine("        $argMappersType argMappers = new java.util.LinkedHashMap<>();")
+        for (component in model.components) {
+            appendLine("        argMappers.put(\"${component.name}\", $className::${component.name});")
+        }
+        appendLine("        return java.util.Collections.unmodifiableMap(argMappers);")
+        appendLine("    }")
+        appendLine("}")
+    }
@@ -0,0 +1,43 @@
+package net.samyn.kapper.apt
+
+/**
+ * Description of a record to generate a mapper for.
+ *
+ * @property packageName the package of the record.
+ * @property className the canonical name of the record.
+ * @property simpleNames the simple names of the record and the classes it is nested in, outermost first.
+ * @property components the components of the record, in declaration order.
+ */
+data class RecordModel(
+    val packageName: String,
+    val className: String,
+    val simpleNames: List<String>,
+    val components: List<ComponentModel>,
+) {
+    /**
+     * The simple name of the generated mapper.
+     */
+    val mapperName: String
+        get() = simpleNames.joinToString("_") + "KapperMapper"
+
+    /**
+     * The qualified name of the generated mapper.
+     */
+    val mapperQualifiedName: String
+        get() = if (packageName.isEmpty()) mapperName else "$packageName.$mapperName"
+}
+
+/**
+ * Description of a record component.
+ *
+ * @property name the name of the component.
+ * @property typeName the erased type of the component, boxed when it is a primitive.
+ * @property jvmClass the class literal of the component type, as it appears in the canonical constructor.
+ * @property isPrimitive whether the type of the component is primitive, in which case it cannot be `null`.
+ */
+data class ComponentModel(
+    val name: String,
+    val typeName: String,
+    val jvmClass: String,
+    val isPrimitive: Boolean,
+)
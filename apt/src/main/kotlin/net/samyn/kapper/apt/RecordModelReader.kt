@@ -0,0 +1,74 @@
+package net.samyn.kapper.apt
+
+import javax.annotation.processing.Messager
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.Modifier
+import javax.lang.model.element.TypeElement
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.Elements
+import javax.lang.model.util.Types
+import javax.tools.Diagnostic
+
+/**
+ * Read the [RecordModel] of a record.
+ *
+ * @return the model, or `null` when no mapper can be generated for the element, after reporting the reason.
+ */
+fun readRecordModel(
+    element: Element,
+    elements: Elements,
+    types: Types,
+    messager: Messager,
+): RecordModel? {
+    fun unsupported(reason: String): RecordModel? {
+        messager.printMessage(
+            Diagnostic.Kind.ERROR,
+            "Cannot generate mapper for ${element.simpleName}: $reason",
+            element,
+        )
+        return null
+    }
+
+    if (element.kind != ElementKind.RECORD) {
+        return unsupported("only records are supported, use kapper-ksp for Kotlin data classes")
+    }
+    val record = element as TypeElement
+    if (record.typeParameters.isNotEmpty()) {
+        return unsupported("generic records are not supported")
+    }
+    // the record and the classes it is nested in, outermost first
+    val classes = generateSequence(record) { it.enclosingElement as? TypeElement }.toList().asReversed()
+    if (classes.any { Modifier.PRIVATE in it.modifiers }) {
+        return unsupported("the record and the classes it is nested in cannot be private")
+    }
+    val components =
+        record.recordComponents.map { component ->
+            readComponentModel(component.simpleName.toString(), component.asType(), types)
+                ?: return unsupported("the type of component '${component.simpleName}' is not supported")
+        }
+    return RecordModel(
+        elements.getPackageOf(record).qualifiedName.toString(),
+        record.qualifiedName.toString(),
+        classes.map { it.simpleName.toString() },
+        components,
+    )
+}
+
+private fun readComponentModel(
+    name: String,
+    type: TypeMirror,
+    types: Types,
+): ComponentModel? =
+    when {
+        type.kind.isPrimitive -> {
+            val boxed = types.boxedClass(types.getPrimitiveType(type.kind)).qualifiedName.toString()
+            ComponentModel(name, boxed, "${type.kind.name.lowercase()}.class", true)
+        }
+        type.kind == TypeKind.DECLARED || type.kind == TypeKind.ARRAY -> {
+            val erased = types.erasure(type).toString()
+            ComponentModel(name, erased, "$erased.class", false)
+        }
+        else -> null
+    }
@@ -0,0 +1,106 @@
+package net.samyn.kapper.apt
+
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.paths.shouldNotExist
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import javax.tools.Diagnostic
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaFileObject
+import javax.tools.ToolProvider
+import kotlin.io.path.createDirectories
+import kotlin.io.path.readText
+import kotlin.io.path.writeText
+
+class KapperAnnotationProcessorTest {
+    @TempDir
+    lateinit var dir: Path
+
+    private fun compile(source: String): List<Diagnostic<out JavaFileObject>> {
+        val file = dir.resolve("src/net/samyn/kapper/example/SuperHero.java")
+        file.parent.createDirectories()
+        file.writeText(source)
+        val compiler = ToolProvider.getSystemJavaCompiler()
+        val diagnostics = DiagnosticCollector<JavaFileObject>()
+        compiler.getStandardFileManager(diagnostics, null, null).use { fileManager ->
+            val options =
+                listOf(
+                    "-classpath",
+                    System.getProperty("java.class.path"),
+                    "-d",
+                    dir.resolve("classes").createDirectories().toString(),
+                    "-s",
+                    dir.resolve("generated").createDirectories().toString(),
+                )
+            val task =
+                compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(file))
+            task.setProcessors(listOf(KapperAnnotationProcessor()))
+            task.call()
+        }
+        return diagnostics.diagnostics.filter { it.kind == Diagnostic.Kind.ERROR }
+    }
+
+    @Test
+    fun `generate mapper for record`() {
+        compile(
+            """
+            package net.samyn.kapper.example;
+
+            @net.samyn.kapper.GenerateMapper
+            public record SuperHero(java.util.UUID id, String name, String email, int age) {}
+            """.trimIndent(),
+        ).shouldBeEmpty()
+
+        val mapper = dir.resolve("generated/net/samyn/kapper/example/SuperHeroKapperMapper.java").readText()
+        mapper shouldContain
+            "public final class SuperHeroKapperMapper extends " +
+            "net.samyn.kapper.GeneratedMapper<net.samyn.kapper.example.SuperHero>"
+        mapper shouldContain "new net.samyn.kapper.GeneratedMapper.Parameter(\"age\", int.class, false, false)"
+        mapper shouldContain "row.<java.lang.Integer>get(3)"
+        mapper shouldContain "row.<java.lang.String>getOrNull(2)"
+        mapper shouldContain "argMappers.put(\"email\", net.samyn.kapper.example.SuperHero::email);"
+    }
+
+    @Test
+    fun `list mappers as providers`() {
+        compile(
+            """
+            package net.samyn.kapper.example;
+
+            public class SuperHero {
+                @net.samyn.kapper.GenerateMapper
+                public record Villain(String name) {}
+
+                @net.samyn.kapper.GenerateMapper
+                public record Battle(String hero, String villain) {}
+            }
+            """.trimIndent(),
+        ).shouldBeEmpty()
+
+        dir.resolve("classes/META-INF/services/net.samyn.kapper.MapperProvider").readText().lines() shouldBe
+            listOf(
+                "net.samyn.kapper.example.SuperHero_VillainKapperMapper",
+                "net.samyn.kapper.example.SuperHero_BattleKapperMapper",
+                "",
+            )
+    }
+
+    @Test
+    fun `when not record report error`() {
+        val errors =
+            compile(
+                """
+                package net.samyn.kapper.example;
+
+                @net.samyn.kapper.GenerateMapper
+                public class SuperHero {}
+                """.trimIndent(),
+            )
+
+        errors.single().getMessage(null) shouldContain "only records are supported"
+        dir.resolve("generated/net/samyn/kapper/example/SuperHeroKapperMapper.java").shouldNotExist()
+    }
+}
@@ -0,0 +1,57 @@
+package net.samyn.kapper.apt
+
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import io.kotest.matchers.string.shouldNotContain
+import org.junit.jupiter.api.Test
+
+class RecordMapperGeneratorTest {
+    private val superHero =
+        RecordModel(
+            "net.samyn.kapper.example",
+            "net.samyn.kapper.example.SuperHero",
+            listOf("SuperHero"),
+            listOf(
+                ComponentModel("id", "java.util.UUID", "java.util.UUID.class", false),
+                ComponentModel("name", "java.lang.String", "java.lang.String.class", false),
+                ComponentModel("age", "java.lang.Integer", "int.class", true),
+            ),
+        )
+
+    @Test
+    fun `name mapper after record`() {
+        superHero.mapperQualifiedName shouldBe "net.samyn.kapper.example.SuperHeroKapperMapper"
+        superHero.copy(packageName = "", simpleNames = listOf("Universe", "SuperHero")).mapperQualifiedName shouldBe
+            "Universe_SuperHeroKapperMapper"
+    }
+
+    @Test
+    fun `generate mapper calling canonical constructor`() {
+        val source = generateRecordMapper(superHero)
+
+        source shouldContain "package net.samyn.kapper.example;"
+        source shouldContain "new net.samyn.kapper.GeneratedMapper.Parameter(\"id\", java.util.UUID.class, true, true)"
+        source shouldContain "new net.samyn.kapper.GeneratedMapper.Parameter(\"age\", int.class, false, false)"
+        source shouldContain
+            """
+            |        return new net.samyn.kapper.example.SuperHero(
+            |            row.<java.util.UUID>getOrNull(0),
+            |            row.<java.lang.String>getOrNull(1),
+            |            row.<java.lang.Integer>get(2)
+            |        );
+            """.trimMargin()
+    }
+
+    @Test
+    fun `generate argument mappers for components`() {
+        val source = generateRecordMapper(superHero)
+
+        source shouldContain "argMappers.put(\"id\", net.samyn.kapper.example.SuperHero::id);"
+        source shouldContain "argMappers.put(\"age\", net.samyn.kapper.example.SuperHero::age);"
+    }
+
+    @Test
+    fun `generate mapper in default package`() {
+        generateRecordMapper(superHero.copy(packageName = "")) shouldNotContain "package"
+    }
+}
@@ -66,6 +66,20 @@ tasks.register("jmhMapper") {
     finalizedBy("jmh")
 }
 
+tasks.register("jmhBinding") {
+    group = "benchmarking"
+    description = "Runs JMH benchmarks for parameter binding, with the GC profiler."
+    doFirst {
+        jmh {
+            includes.set(listOf(".*ParameterBindingBenchmark.*"))
+            iterations.set(3)
+            timeOnIteration.set("2s")
+            profilers.set(listOf("gc"))
+        }
+    }
+    finalizedBy("jmh")
+}
+
 tasks.register<Zip>("benchmarkZip") {
     group = "benchmarking"
     description = "Zips the JMH benchmark JAR for distribution."
@@ -6,6 +6,7 @@ import io.kotest.matchers.should
 import io.kotest.matchers.shouldBe
 import net.samyn.kapper.benchmark.hibernate.HibernateStrategy
 import net.samyn.kapper.benchmark.jdbc.JDBCStrategy
+import net.samyn.kapper.benchmark.kapper.KapperInsertAllStrategy
 import net.samyn.kapper.benchmark.kapper.KapperNoAutomapStrategy
 import net.samyn.kapper.benchmark.kapper.KapperRecordStrategy
 import net.samyn.kapper.benchmark.kapper.KapperStrategy
@@ -35,6 +36,7 @@ class SQLiteTest {
                 "Kapper" to KapperStrategy(),
                 "Kapper-No-Automap" to KapperNoAutomapStrategy(),
                 "Kapper-Record" to KapperRecordStrategy(),
+                "Kapper-Insert-All" to KapperInsertAllStrategy(),
                 "JDBC" to JDBCStrategy(),
                 "Hibernate" to HibernateStrategy(),
 //                "Hibernate-Record" to HibernateRecordStrategy(),
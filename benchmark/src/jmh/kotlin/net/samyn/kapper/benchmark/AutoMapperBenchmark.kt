@@ -1,8 +1,10 @@
 package net.samyn.kapper.benchmark
 
+import net.samyn.kapper.benchmark.mapper.ColumnReaderBenchmark
 import net.samyn.kapper.benchmark.mapper.ComplexDataClassMapperBenchmark
 import net.samyn.kapper.benchmark.mapper.ComplexRecordMapperBenchmark
 import net.samyn.kapper.benchmark.mapper.MapperBenchmark
+import net.samyn.kapper.benchmark.mapper.SQLTypesConverterBenchmark
 import net.samyn.kapper.benchmark.mapper.SimpleCustomMapperBenchmark
 import net.samyn.kapper.benchmark.mapper.SimpleDataClassMapperBenchmark
 import net.samyn.kapper.benchmark.mapper.SimpleRecordMapperBenchmark
@@ -21,7 +23,15 @@ import java.util.concurrent.TimeUnit
 open class AutoMapperBenchmark {
     @State(Scope.Thread)
     open class AutoMapperBenchmarkState {
-        @Param("SIMPLE-NOREFLECTION", "SIMPLE-DATACLASS", "SIMPLE-RECORD", "COMPLEX-DATACLASS", "COMPLEX-RECORD")
+        @Param(
+            "SIMPLE-NOREFLECTION",
+            "SIMPLE-DATACLASS",
+            "SIMPLE-RECORD",
+            "COMPLEX-DATACLASS",
+            "COMPLEX-RECORD",
+            "COMPLEX-SQLTYPES-CONVERTER",
+            "COMPLEX-COLUMN-READER",
+        )
         private lateinit var scenario: String
 
         @Param("1", "100")
@@ -41,6 +51,8 @@ open class AutoMapperBenchmark {
                     "SIMPLE-RECORD" -> SimpleRecordMapperBenchmark(resultsCount)
                     "COMPLEX-DATACLASS" -> ComplexDataClassMapperBenchmark(resultsCount)
                     "COMPLEX-RECORD" -> ComplexRecordMapperBenchmark(resultsCount)
+                    "COMPLEX-SQLTYPES-CONVERTER" -> SQLTypesConverterBenchmark(resultsCount)
+                    "COMPLEX-COLUMN-READER" -> ColumnReaderBenchmark(resultsCount)
                     else -> throw IllegalArgumentException("Unknown scenario: $scenario")
                 }
         }
@@ -2,8 +2,10 @@ package net.samyn.kapper.benchmark
 
 import net.samyn.kapper.benchmark.hibernate.HibernateStrategy
 import net.samyn.kapper.benchmark.jdbc.JDBCStrategy
+import net.samyn.kapper.benchmark.kapper.KapperInsertAllStrategy
 import net.samyn.kapper.benchmark.kapper.KapperNoAutomapStrategy
 import net.samyn.kapper.benchmark.kapper.KapperRecordStrategy
+import net.samyn.kapper.benchmark.kapper.KapperStatementCacheStrategy
 import net.samyn.kapper.benchmark.kapper.KapperStrategy
 import net.samyn.kapper.benchmark.ktorm.KtormStrategy
 import net.samyn.kapper.benchmark.setup.DatabaseConfig
@@ -28,7 +30,17 @@ open class KapperBenchmark {
         @Param("SQLITE", "POSTGRESQL")
         private lateinit var databaseType: String
 
-        @Param("JDBC", "KAPPER", "KAPPER-RECORD", "KAPPER-NO-AUTOMAP", "HIBERNATE", "HIBERNATE-RECORD", "KTORM")
+        @Param(
+            "JDBC",
+            "KAPPER",
+            "KAPPER-RECORD",
+            "KAPPER-NO-AUTOMAP",
+            "KAPPER-STATEMENT-CACHE",
+            "KAPPER-INSERT-ALL",
+            "HIBERNATE",
+            "HIBERNATE-RECORD",
+            "KTORM",
+        )
         private lateinit var library: String
 
         @Param("10_000")
@@ -52,6 +64,8 @@ open class KapperBenchmark {
                     "KAPPER" -> KapperStrategy()
                     "KAPPER-RECORD" -> KapperRecordStrategy()
                     "KAPPER-NO-AUTOMAP" -> KapperNoAutomapStrategy()
+                    "KAPPER-STATEMENT-CACHE" -> KapperStatementCacheStrategy()
+                    "KAPPER-INSERT-ALL" -> KapperInsertAllStrategy()
                     "HIBERNATE" -> HibernateStrategy()
 //                    "HIBERNATE-RECORD" -> HibernateRecordStrategy()
                     "HIBERNATE-RECORD" -> throw NotImplementedError("Hibernate doesn't properly support records yet")
@@ -0,0 +1,59 @@
+package net.samyn.kapper.benchmark
+
+import net.samyn.kapper.benchmark.binding.ArgMapperBindingBenchmark
+import net.samyn.kapper.benchmark.binding.ArgsBindingBenchmark
+import net.samyn.kapper.benchmark.binding.BatchBindingBenchmark
+import net.samyn.kapper.benchmark.binding.BindingBenchmark
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures binding parameters to statements, run with the GC profiler to see the allocations per operation.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 3)
+open class ParameterBindingBenchmark {
+    @State(Scope.Thread)
+    open class ParameterBindingBenchmarkState {
+        @Param(
+            "ARGS",
+            "ARG-MAPPERS",
+            "BATCH",
+        )
+        private lateinit var scenario: String
+
+        @Param("1", "100")
+        private lateinit var numberOfObjects: String
+
+        lateinit var benchmarkStrategy: BindingBenchmark
+
+        @Setup
+        fun setup() {
+            val count =
+                numberOfObjects.toIntOrNull()
+                    ?: throw IllegalArgumentException("Invalid number of objects: $numberOfObjects")
+            benchmarkStrategy =
+                when (scenario) {
+                    "ARGS" -> ArgsBindingBenchmark(count)
+                    "ARG-MAPPERS" -> ArgMapperBindingBenchmark(count)
+                    "BATCH" -> BatchBindingBenchmark(count)
+                    else -> throw IllegalArgumentException("Unknown scenario: $scenario")
+                }
+        }
+    }
+
+    @Benchmark
+    fun parameterBindingBenchmark(
+        state: ParameterBindingBenchmarkState,
+        blackhole: Blackhole,
+    ) {
+        blackhole.consume(state.benchmarkStrategy.bind())
+    }
+}
@@ -0,0 +1,61 @@
+package net.samyn.kapper.benchmark.binding
+
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Kapper
+import net.samyn.kapper.KapperConfig
+import net.samyn.kapper.benchmark.kapper.SuperHero
+import java.util.UUID
+
+/**
+ * Bind the parameters of [numberOfObjects] heroes to a statement which does not execute against a database.
+ */
+abstract class BindingBenchmark(
+    val numberOfObjects: Int,
+) {
+    // the flavour is configured, so the connection metadata is not read.
+    protected val kapper = Kapper.createInstance(KapperConfig(dbFlavour = DbFlavour.POSTGRESQL))
+    protected val connection = ConnectionStub(PreparedStatementStub())
+    protected val heroes = List(numberOfObjects) { SuperHero(UUID.randomUUID(), "Hero-$it", "hero-$it@kapper.net", 20 + it) }
+    protected val argMappers: Map<String, (SuperHero) -> Any?> =
+        mapOf(
+            "id" to SuperHero::id,
+            "name" to SuperHero::name,
+            "email" to SuperHero::email,
+            "age" to SuperHero::age,
+        )
+
+    /**
+     * @return the number of updated rows.
+     */
+    abstract fun bind(): Int
+
+    companion object {
+        const val INSERT_SQL = "INSERT INTO super_heroes(id, name, email, age) VALUES(:id, :name, :email, :age)"
+    }
+}
+
+/**
+ * Execute a statement for each hero, with its parameters in a map.
+ */
+class ArgsBindingBenchmark(numberOfObjects: Int) : BindingBenchmark(numberOfObjects) {
+    private val args =
+        heroes.map { hero ->
+            mapOf("id" to hero.id, "name" to hero.name, "email" to hero.email, "age" to hero.age)
+        }
+
+    override fun bind(): Int = args.sumOf { kapper.execute(connection, INSERT_SQL, it) }
+}
+
+/**
+ * Execute a statement for each hero, with its parameters taken from the hero by argument mappers.
+ */
+class ArgMapperBindingBenchmark(numberOfObjects: Int) : BindingBenchmark(numberOfObjects) {
+    override fun bind(): Int = heroes.sumOf { kapper.execute(SuperHero::class.java, connection, INSERT_SQL, it, argMappers) }
+}
+
+/**
+ * Execute a single batch for all heroes, with their parameters taken from the heroes by argument mappers.
+ */
+class BatchBindingBenchmark(numberOfObjects: Int) : BindingBenchmark(numberOfObjects) {
+    override fun bind(): Int = kapper.executeAll(SuperHero::class.java, connection, INSERT_SQL, heroes, argMappers).sum()
+}
@@ -0,0 +1,279 @@
+package net.samyn.kapper.benchmark.binding
+
+import java.sql.Blob
+import java.sql.CallableStatement
+import java.sql.Clob
+import java.sql.Connection
+import java.sql.DatabaseMetaData
+import java.sql.NClob
+import java.sql.PreparedStatement
+import java.sql.SQLWarning
+import java.sql.SQLXML
+import java.sql.Savepoint
+import java.sql.Statement
+import java.sql.Struct
+import java.util.Properties
+import java.util.concurrent.Executor
+
+/**
+ * [Connection] which prepares every statement as the same [statement].
+ */
+class ConnectionStub(
+    private val statement: PreparedStatement,
+) : Connection {
+    override fun abort(arg0: Executor?) {
+        throw NotImplementedError()
+    }
+
+    override fun clearWarnings() {
+        throw NotImplementedError()
+    }
+
+    override fun close() = Unit
+
+    override fun commit() {
+        throw NotImplementedError()
+    }
+
+    override fun createArrayOf(
+        arg0: String?,
+        arg1: Array<Any?>?,
+    ): java.sql.Array {
+        throw NotImplementedError()
+    }
+
+    override fun createBlob(): Blob {
+        throw NotImplementedError()
+    }
+
+    override fun createClob(): Clob {
+        throw NotImplementedError()
+    }
+
+    override fun createNClob(): NClob {
+        throw NotImplementedError()
+    }
+
+    override fun createSQLXML(): SQLXML {
+        throw NotImplementedError()
+    }
+
+    override fun createStatement(): Statement {
+        throw NotImplementedError()
+    }
+
+    override fun createStatement(
+        arg0: Int,
+        arg1: Int,
+        arg2: Int,
+    ): Statement {
+        throw NotImplementedError()
+    }
+
+    override fun createStatement(
+        arg0: Int,
+        arg1: Int,
+    ): Statement {
+        throw NotImplementedError()
+    }
+
+    override fun createStruct(
+        arg0: String?,
+        arg1: Array<Any?>?,
+    ): Struct {
+        throw NotImplementedError()
+    }
+
+    override fun getAutoCommit(): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun getCatalog(): String {
+        throw NotImplementedError()
+    }
+
+    override fun getClientInfo(): Properties {
+        throw NotImplementedError()
+    }
+
+    override fun getClientInfo(arg0: String?): String {
+        throw NotImplementedError()
+    }
+
+    override fun getHoldability(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getMetaData(): DatabaseMetaData {
+        throw NotImplementedError()
+    }
+
+    override fun getNetworkTimeout(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getSchema(): String {
+        throw NotImplementedError()
+    }
+
+    override fun getTransactionIsolation(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getTypeMap(): MutableMap<String?, Class<*>?> {
+        throw NotImplementedError()
+    }
+
+    override fun getWarnings(): SQLWarning {
+        throw NotImplementedError()
+    }
+
+    override fun isClosed(): Boolean = false
+
+    override fun isReadOnly(): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun isValid(arg0: Int): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun nativeSQL(arg0: String?): String {
+        throw NotImplementedError()
+    }
+
+    override fun prepareCall(
+        arg0: String?,
+        arg1: Int,
+        arg2: Int,
+        arg3: Int,
+    ): CallableStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareCall(
+        arg0: String?,
+        arg1: Int,
+        arg2: Int,
+    ): CallableStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareCall(arg0: String?): CallableStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareStatement(
+        arg0: String?,
+        arg1: IntArray?,
+    ): PreparedStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareStatement(
+        arg0: String?,
+        arg1: Array<String?>?,
+    ): PreparedStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareStatement(
+        arg0: String?,
+        arg1: Int,
+        arg2: Int,
+        arg3: Int,
+    ): PreparedStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareStatement(
+        arg0: String?,
+        arg1: Int,
+        arg2: Int,
+    ): PreparedStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareStatement(
+        arg0: String?,
+        arg1: Int,
+    ): PreparedStatement {
+        throw NotImplementedError()
+    }
+
+    override fun prepareStatement(sql: String?): PreparedStatement = statement
+
+    override fun releaseSavepoint(arg0: Savepoint?) {
+        throw NotImplementedError()
+    }
+
+    override fun rollback() {
+        throw NotImplementedError()
+    }
+
+    override fun rollback(arg0: Savepoint?) {
+        throw NotImplementedError()
+    }
+
+    override fun setAutoCommit(arg0: Boolean) {
+        throw NotImplementedError()
+    }
+
+    override fun setCatalog(arg0: String?) {
+        throw NotImplementedError()
+    }
+
+    override fun setClientInfo(
+        arg0: String?,
+        arg1: String?,
+    ) {
+        throw NotImplementedError()
+    }
+
+    override fun setClientInfo(arg0: Properties?) {
+        throw NotImplementedError()
+    }
+
+    override fun setHoldability(arg0: Int) {
+        throw NotImplementedError()
+    }
+
+    override fun setNetworkTimeout(
+        arg0: Executor?,
+        arg1: Int,
+    ) {
+        throw NotImplementedError()
+    }
+
+    override fun setReadOnly(arg0: Boolean) {
+        throw NotImplementedError()
+    }
+
+    override fun setSavepoint(): Savepoint {
+        throw NotImplementedError()
+    }
+
+    override fun setSavepoint(arg0: String?): Savepoint {
+        throw NotImplementedError()
+    }
+
+    override fun setSchema(arg0: String?) {
+        throw NotImplementedError()
+    }
+
+    override fun setTransactionIsolation(arg0: Int) {
+        throw NotImplementedError()
+    }
+
+    override fun setTypeMap(arg0: MutableMap<String?, Class<*>?>?) {
+        throw NotImplementedError()
+    }
+
+    override fun isWrapperFor(arg0: Class<*>?): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun <T : Any?> unwrap(arg0: Class<T>?): T {
+        throw NotImplementedError()
+    }
+}
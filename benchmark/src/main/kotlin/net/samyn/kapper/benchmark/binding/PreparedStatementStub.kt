@@ -0,0 +1,494 @@
+package net.samyn.kapper.benchmark.binding
+
+import java.io.InputStream
+import java.io.Reader
+import java.math.BigDecimal
+import java.net.URL
+import java.sql.Blob
+import java.sql.Clob
+import java.sql.Connection
+import java.sql.Date
+import java.sql.NClob
+import java.sql.ParameterMetaData
+import java.sql.PreparedStatement
+import java.sql.Ref
+import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.sql.RowId
+import java.sql.SQLWarning
+import java.sql.SQLXML
+import java.sql.Time
+import java.sql.Timestamp
+import java.util.Calendar
+
+/**
+ * [PreparedStatement] which discards its parameters and executes without a database,
+ *  so only the cost of binding the parameters is measured.
+ */
+class PreparedStatementStub : PreparedStatement {
+    private var batchSize = 0
+
+    override fun addBatch() {
+        batchSize++
+    }
+
+    override fun clearParameters() = Unit
+
+    override fun execute(): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun executeQuery(): ResultSet {
+        throw NotImplementedError()
+    }
+
+    override fun executeUpdate(): Int = 1
+
+    override fun getMetaData(): ResultSetMetaData {
+        throw NotImplementedError()
+    }
+
+    override fun getParameterMetaData(): ParameterMetaData {
+        throw NotImplementedError()
+    }
+
+    override fun setArray(
+        parameterIndex: Int,
+        x: java.sql.Array?,
+    ) = Unit
+
+    override fun setAsciiStream(
+        parameterIndex: Int,
+        x: InputStream?,
+        arg2: Int,
+    ) = Unit
+
+    override fun setAsciiStream(
+        parameterIndex: Int,
+        x: InputStream?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setAsciiStream(
+        parameterIndex: Int,
+        x: InputStream?,
+    ) = Unit
+
+    override fun setBigDecimal(
+        parameterIndex: Int,
+        x: BigDecimal?,
+    ) = Unit
+
+    override fun setBinaryStream(
+        parameterIndex: Int,
+        x: InputStream?,
+        arg2: Int,
+    ) = Unit
+
+    override fun setBinaryStream(
+        parameterIndex: Int,
+        x: InputStream?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setBinaryStream(
+        parameterIndex: Int,
+        x: InputStream?,
+    ) = Unit
+
+    override fun setBlob(
+        parameterIndex: Int,
+        x: InputStream?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setBlob(
+        parameterIndex: Int,
+        x: InputStream?,
+    ) = Unit
+
+    override fun setBlob(
+        parameterIndex: Int,
+        x: Blob?,
+    ) = Unit
+
+    override fun setBoolean(
+        parameterIndex: Int,
+        x: Boolean,
+    ) = Unit
+
+    override fun setByte(
+        parameterIndex: Int,
+        x: Byte,
+    ) = Unit
+
+    override fun setBytes(
+        parameterIndex: Int,
+        x: ByteArray?,
+    ) = Unit
+
+    override fun setCharacterStream(
+        parameterIndex: Int,
+        x: Reader?,
+        arg2: Int,
+    ) = Unit
+
+    override fun setCharacterStream(
+        parameterIndex: Int,
+        x: Reader?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setCharacterStream(
+        parameterIndex: Int,
+        x: Reader?,
+    ) = Unit
+
+    override fun setClob(
+        parameterIndex: Int,
+        x: Reader?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setClob(
+        parameterIndex: Int,
+        x: Reader?,
+    ) = Unit
+
+    override fun setClob(
+        parameterIndex: Int,
+        x: Clob?,
+    ) = Unit
+
+    override fun setDate(
+        parameterIndex: Int,
+        x: Date?,
+        arg2: Calendar?,
+    ) = Unit
+
+    override fun setDate(
+        parameterIndex: Int,
+        x: Date?,
+    ) = Unit
+
+    override fun setDouble(
+        parameterIndex: Int,
+        x: Double,
+    ) = Unit
+
+    override fun setFloat(
+        parameterIndex: Int,
+        x: Float,
+    ) = Unit
+
+    override fun setInt(
+        parameterIndex: Int,
+        x: Int,
+    ) = Unit
+
+    override fun setLong(
+        parameterIndex: Int,
+        x: Long,
+    ) = Unit
+
+    override fun setNCharacterStream(
+        parameterIndex: Int,
+        x: Reader?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setNCharacterStream(
+        parameterIndex: Int,
+        x: Reader?,
+    ) = Unit
+
+    override fun setNClob(
+        parameterIndex: Int,
+        x: Reader?,
+        arg2: Long,
+    ) = Unit
+
+    override fun setNClob(
+        parameterIndex: Int,
+        x: Reader?,
+    ) = Unit
+
+    override fun setNClob(
+        parameterIndex: Int,
+        x: NClob?,
+    ) = Unit
+
+    override fun setNString(
+        parameterIndex: Int,
+        x: String?,
+    ) = Unit
+
+    override fun setNull(
+        parameterIndex: Int,
+        x: Int,
+        arg2: String?,
+    ) = Unit
+
+    override fun setNull(
+        parameterIndex: Int,
+        x: Int,
+    ) = Unit
+
+    override fun setObject(
+        parameterIndex: Int,
+        x: Any?,
+        arg2: Int,
+        arg3: Int,
+    ) = Unit
+
+    override fun setObject(
+        parameterIndex: Int,
+        x: Any?,
+        arg2: Int,
+    ) = Unit
+
+    override fun setObject(
+        parameterIndex: Int,
+        x: Any?,
+    ) = Unit
+
+    override fun setRef(
+        parameterIndex: Int,
+        x: Ref?,
+    ) = Unit
+
+    override fun setRowId(
+        parameterIndex: Int,
+        x: RowId?,
+    ) = Unit
+
+    override fun setSQLXML(
+        parameterIndex: Int,
+        x: SQLXML?,
+    ) = Unit
+
+    override fun setShort(
+        parameterIndex: Int,
+        x: Short,
+    ) = Unit
+
+    override fun setString(
+        parameterIndex: Int,
+        x: String?,
+    ) = Unit
+
+    override fun setTime(
+        parameterIndex: Int,
+        x: Time?,
+        arg2: Calendar?,
+    ) = Unit
+
+    override fun setTime(
+        parameterIndex: Int,
+        x: Time?,
+    ) = Unit
+
+    override fun setTimestamp(
+        parameterIndex: Int,
+        x: Timestamp?,
+        arg2: Calendar?,
+    ) = Unit
+
+    override fun setTimestamp(
+        parameterIndex: Int,
+        x: Timestamp?,
+    ) = Unit
+
+    override fun setURL(
+        parameterIndex: Int,
+        x: URL?,
+    ) = Unit
+
+    @Deprecated("Deprecated in Java")
+    override fun setUnicodeStream(
+        parameterIndex: Int,
+        x: InputStream?,
+        arg2: Int,
+    ) = Unit
+
+    override fun addBatch(arg0: String?) {
+        throw NotImplementedError()
+    }
+
+    override fun cancel() {
+        throw NotImplementedError()
+    }
+
+    override fun clearBatch() {
+        batchSize = 0
+    }
+
+    override fun clearWarnings() {
+        throw NotImplementedError()
+    }
+
+    override fun close() = Unit
+
+    override fun closeOnCompletion() {
+        throw NotImplementedError()
+    }
+
+    override fun execute(
+        arg0: String?,
+        arg1: IntArray?,
+    ): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun execute(
+        arg0: String?,
+        arg1: Array<String?>?,
+    ): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun execute(
+        arg0: String?,
+        arg1: Int,
+    ): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun execute(arg0: String?): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun executeBatch(): IntArray =
+        IntArray(batchSize) { 1 }.also {
+            batchSize = 0
+        }
+
+    override fun executeQuery(arg0: String?): ResultSet {
+        throw NotImplementedError()
+    }
+
+    override fun executeUpdate(
+        arg0: String?,
+        arg1: IntArray?,
+    ): Int = 1
+
+    override fun executeUpdate(
+        arg0: String?,
+        arg1: Array<String?>?,
+    ): Int = 1
+
+    override fun executeUpdate(
+        arg0: String?,
+        arg1: Int,
+    ): Int = 1
+
+    override fun executeUpdate(arg0: String?): Int = 1
+
+    override fun getConnection(): Connection {
+        throw NotImplementedError()
+    }
+
+    override fun getFetchDirection(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getFetchSize(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getGeneratedKeys(): ResultSet {
+        throw NotImplementedError()
+    }
+
+    override fun getMaxFieldSize(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getMaxRows(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getMoreResults(): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun getMoreResults(arg0: Int): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun getQueryTimeout(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getResultSet(): ResultSet {
+        throw NotImplementedError()
+    }
+
+    override fun getResultSetConcurrency(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getResultSetHoldability(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getResultSetType(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getUpdateCount(): Int {
+        throw NotImplementedError()
+    }
+
+    override fun getWarnings(): SQLWarning {
+        throw NotImplementedError()
+    }
+
+    override fun isCloseOnCompletion(): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun isClosed(): Boolean = false
+
+    override fun isPoolable(): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun isWrapperFor(arg0: Class<*>?): Boolean {
+        throw NotImplementedError()
+    }
+
+    override fun setCursorName(arg0: String?) {
+        throw NotImplementedError()
+    }
+
+    override fun setEscapeProcessing(arg0: Boolean) {
+        throw NotImplementedError()
+    }
+
+    override fun setFetchDirection(arg0: Int) {
+        throw NotImplementedError()
+    }
+
+    override fun setFetchSize(arg0: Int) = Unit
+
+    override fun setMaxFieldSize(arg0: Int) {
+        throw NotImplementedError()
+    }
+
+    override fun setMaxRows(arg0: Int) {
+        throw NotImplementedError()
+    }
+
+    override fun setPoolable(arg0: Boolean) {
+        throw NotImplementedError()
+    }
+
+    override fun setQueryTimeout(arg0: Int) {
+        throw NotImplementedError()
+    }
+
+    override fun <T : Any?> unwrap(arg0: Class<T>?): T {
+        throw NotImplementedError()
+    }
+}
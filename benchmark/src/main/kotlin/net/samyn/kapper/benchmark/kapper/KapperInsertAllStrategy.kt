@@ -0,0 +1,33 @@
+package net.samyn.kapper.benchmark.kapper
+
+import net.samyn.kapper.benchmark.BenchmarkStrategy
+import net.samyn.kapper.insertAll
+import java.sql.Connection
+import java.util.UUID
+
+/**
+ * Runs the [KapperStrategy], but inserts many heroes with a multi-row insert rather than a batch.
+ */
+class KapperInsertAllStrategy(
+    private val strategy: BenchmarkStrategy = KapperStrategy(),
+) : BenchmarkStrategy by strategy {
+    override fun insertManyHeroes(connection: Connection) {
+        val superHeroes =
+            (1..100).map {
+                SuperHero(
+                    UUID.randomUUID(),
+                    "Hero$it",
+                    "hero$it@example.com",
+                    20 + (it % 30),
+                )
+            }
+        connection.insertAll(
+            "INSERT INTO super_heroes (id, name, email, age) VALUES (:id, :name, :email, :age)",
+            superHeroes,
+            "id" to SuperHero::id,
+            "name" to SuperHero::name,
+            "email" to SuperHero::email,
+            "age" to SuperHero::age,
+        )
+    }
+}
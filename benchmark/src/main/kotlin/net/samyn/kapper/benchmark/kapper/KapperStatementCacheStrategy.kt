@@ -0,0 +1,54 @@
+package net.samyn.kapper.benchmark.kapper
+
+import net.samyn.kapper.StatementCachingConnection
+import net.samyn.kapper.benchmark.BenchmarkStrategy
+import net.samyn.kapper.withStatementCache
+import java.sql.Connection
+import java.util.UUID
+
+/**
+ * Runs the [KapperStrategy] on a connection which caches its prepared statements.
+ */
+class KapperStatementCacheStrategy(
+    private val strategy: BenchmarkStrategy = KapperStrategy(),
+) : BenchmarkStrategy {
+    private var connection: Connection? = null
+    private var cachingConnection: StatementCachingConnection? = null
+
+    private fun cached(connection: Connection): Connection {
+        val cachingConnection = this.cachingConnection
+        if (cachingConnection != null && connection === this.connection) return cachingConnection
+        this.connection = connection
+        return connection.withStatementCache().also { this.cachingConnection = it }
+    }
+
+    override fun findHeroById(
+        connection: Connection,
+        id: UUID,
+    ): Any? = strategy.findHeroById(cached(connection), id)
+
+    override fun find100Heroes(connection: Connection): List<Any> = strategy.find100Heroes(cached(connection))
+
+    override fun insertNewHero(
+        connection: Connection,
+        id: UUID,
+        name: String,
+        email: String,
+        age: Int,
+    ) = strategy.insertNewHero(cached(connection), id, name, email, age)
+
+    override fun insertManyHeroes(connection: Connection) = strategy.insertManyHeroes(cached(connection))
+
+    override fun changeHero(
+        connection: Connection,
+        id: UUID,
+        name: String,
+        email: String,
+        age: Int,
+    ) = strategy.changeHero(cached(connection), id, name, email, age)
+
+    override fun findHeroBattles(
+        connection: Connection,
+        heroId: UUID,
+    ): List<Any> = strategy.findHeroBattles(cached(connection), heroId)
+}
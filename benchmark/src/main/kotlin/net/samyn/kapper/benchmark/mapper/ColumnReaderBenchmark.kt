@@ -0,0 +1,46 @@
+package net.samyn.kapper.benchmark.mapper
+
+import net.samyn.kapper.Field
+import net.samyn.kapper.internal.automapper.ColumnReader
+import net.samyn.kapper.internal.automapper.resolveColumnReader
+import net.samyn.kapper.internal.automapper.sqlTypesConverter
+import java.sql.ResultSet
+
+/**
+ * Read all values of the [complexFields], without creating an instance from them.
+ */
+abstract class AbstractColumnReaderBenchmark(
+    override val numberOfResults: Int,
+    private val nullableColumns: Set<Int> = setOf(2, 4, 6, 8, 10),
+) : MapperBenchmark {
+    protected val fields: List<Field> = complexFields.values.toList()
+
+    protected abstract fun readers(): List<(ResultSet) -> Any?>
+
+    override fun map(): List<Any> =
+        ResultSetStub(
+            numberOfResults,
+            nullableColumns = nullableColumns,
+            uuidColumns = fields.filter { it.typeName == "uuid" }.map { it.columnIndex }.toSet(),
+        ).use { rs ->
+            val readers = readers()
+            generateSequence { if (rs.next()) readers.map { it(rs) } else null }
+                .toList()
+        }
+}
+
+/**
+ * Select the conversion of each value from the field type, for every row.
+ */
+class SQLTypesConverterBenchmark(override val numberOfResults: Int) :
+    AbstractColumnReaderBenchmark(numberOfResults) {
+    override fun readers(): List<(ResultSet) -> Any?> = fields.map { field -> { rs -> sqlTypesConverter.convert(field, rs) } }
+}
+
+/**
+ * Resolve a [ColumnReader] for each field once per result, and only invoke the readers for every row.
+ */
+class ColumnReaderBenchmark(override val numberOfResults: Int) :
+    AbstractColumnReaderBenchmark(numberOfResults) {
+    override fun readers(): List<(ResultSet) -> Any?> = fields.map(::resolveColumnReader).map { it::read }
+}
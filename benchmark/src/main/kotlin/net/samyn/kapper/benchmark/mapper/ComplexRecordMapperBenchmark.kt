@@ -8,30 +8,35 @@ import net.samyn.kapper.internal.automapper.RecordMapper
 import java.sql.JDBCType
 import java.util.UUID
 
+/**
+ * 25 fields of different types, 5 of each of VARCHAR, INTEGER, UUID, BOOLEAN and DOUBLE.
+ */
+val complexFields: Map<String, Field> =
+    (1..25).associate { i ->
+        val name = "field$i"
+        val jdbcType =
+            when (i % 5) {
+                0 -> JDBCType.DOUBLE
+                1 -> JDBCType.VARCHAR
+                2 -> JDBCType.INTEGER
+                3 -> JDBCType.OTHER
+                else -> JDBCType.BOOLEAN
+            }
+        name to
+            Field(
+                i,
+                jdbcType,
+                if (jdbcType == JDBCType.OTHER) "uuid" else jdbcType.name,
+                DbFlavour.UNKNOWN,
+            )
+    }
+
 abstract class AbstractComplexMapperBenchmark<T : Any>(
     override val numberOfResults: Int,
     private val mapper: net.samyn.kapper.Mapper<T>,
     private val nullableColumns: Set<Int> = setOf(2, 4, 6, 8, 10),
 ) : MapperBenchmark {
-    private val fields: Map<String, Field> =
-        (1..25).associate { i ->
-            val name = "field$i"
-            val jdbcType =
-                when (i % 5) {
-                    0 -> JDBCType.DOUBLE
-                    1 -> JDBCType.VARCHAR
-                    2 -> JDBCType.INTEGER
-                    3 -> JDBCType.OTHER
-                    else -> JDBCType.BOOLEAN
-                }
-            name to
-                Field(
-                    i,
-                    jdbcType,
-                    if (jdbcType == JDBCType.OTHER) "uuid" else jdbcType.name,
-                    DbFlavour.UNKNOWN,
-                )
-        }
+    private val fields: Map<String, Field> = complexFields
 
     override fun map(): List<Any> =
         ResultSetStub(
@@ -0,0 +1,21 @@
+package net.samyn.kapper.benchmark.binding
+
+import io.kotest.matchers.shouldBe
+import org.junit.jupiter.api.Test
+
+class BindingBenchmarkTest {
+    @Test
+    fun `args binding should execute statement for each object`() {
+        ArgsBindingBenchmark(100).bind() shouldBe 100
+    }
+
+    @Test
+    fun `arg mapper binding should execute statement for each object`() {
+        ArgMapperBindingBenchmark(100).bind() shouldBe 100
+    }
+
+    @Test
+    fun `batch binding should execute batch for all objects`() {
+        BatchBindingBenchmark(100).bind() shouldBe 100
+    }
+}
@@ -56,4 +56,20 @@ class MapperBenchmarkTest {
             println("Time taken: $it")
         }
     }
+
+    @Test
+    fun `sql types converter should return read results`() {
+        val numberOfRows = 1000
+        val benchmark = SQLTypesConverterBenchmark(numberOfRows)
+        benchmark.map().size shouldBe numberOfRows
+    }
+
+    @Test
+    fun `column reader should return read results`() {
+        val numberOfRows = 1000
+        val benchmark = ColumnReaderBenchmark(numberOfRows)
+        val results = benchmark.map()
+        results.size shouldBe numberOfRows
+        (results.first() as List<*>).size shouldBe complexFields.size
+    }
 }
@@ -16,6 +16,8 @@ dependencyLocking {
 dependencies {
     kover(project(":kapper"))
     kover(project(":kapper-coroutines"))
+    kover(project(":kapper-ksp"))
+    kover(project(":kapper-apt"))
 }
 
 semver {
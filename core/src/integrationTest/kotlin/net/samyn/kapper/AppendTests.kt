@@ -0,0 +1,84 @@
+package net.samyn.kapper
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.collections.shouldNotBeEmpty
+import io.kotest.matchers.shouldBe
+import net.samyn.kapper.internal.getDbFlavour
+import org.junit.jupiter.api.Assumptions.assumeTrue
+import org.junit.jupiter.api.Test
+import java.util.UUID
+
+class AppendTests : AbstractDbTests() {
+    @Test
+    fun `Append data classes`() {
+        val heroes = (1..250).map { SuperHero(UUID.randomUUID(), "Appended $it", "hero$it@kapper.net", it % 100) }
+        val appended = connection.appendAll("super_heroes_$testId", heroes)
+        appended.shouldBe(250L)
+        connection.query<SuperHero>(
+            "SELECT * FROM super_heroes_$testId WHERE name LIKE :name",
+            "name" to "Appended %",
+        ).shouldContainExactlyInAnyOrder(heroes)
+    }
+
+    @Test
+    fun `Append sequence with null values`() {
+        val heroes = (1..10).map { SuperHero(UUID.randomUUID(), "Streamed $it") }
+        val appended = connection.appendAll("super_heroes_$testId", heroes.asSequence())
+        appended.shouldBe(10L)
+        connection.query<SuperHero>(
+            "SELECT * FROM super_heroes_$testId WHERE name LIKE :name",
+            "name" to "Streamed %",
+        ).shouldContainExactlyInAnyOrder(heroes)
+    }
+
+    @Test
+    fun `Append rolls back appended rows when appending fails`() {
+        assumeTrue(connection.getDbFlavour() == DbFlavour.DUCKDB, "The appender is only used on DuckDB")
+        val heroes =
+            (1..10).asSequence().map {
+                if (it == 6) throw IllegalStateException("Cannot read hero $it")
+                SuperHero(UUID.randomUUID(), "Failed $it")
+            }
+        shouldThrow<IllegalStateException> {
+            connection.appendAll("super_heroes_$testId", heroes)
+        }
+        connection.query<SuperHero>(
+            "SELECT * FROM super_heroes_$testId WHERE name LIKE :name",
+            "name" to "Failed %",
+        ).shouldBeEmpty()
+        connection.autoCommit shouldBe true
+    }
+
+    @Test
+    fun `Append to quoted and schema qualified tables`() {
+        assumeTrue(connection.getDbFlavour() == DbFlavour.DUCKDB, "The appender is only used on DuckDB")
+        val quoted = (1..5).map { SuperHero(UUID.randomUUID(), "Quoted $it") }
+        connection.appendAll("\"super_heroes_$testId\"", quoted).shouldBe(5L)
+        val qualified = (1..5).map { SuperHero(UUID.randomUUID(), "Qualified $it") }
+        connection.appendAll("${connection.schema}.super_heroes_$testId", qualified).shouldBe(5L)
+        connection.query<SuperHero>(
+            "SELECT * FROM super_heroes_$testId WHERE name LIKE :quoted OR name LIKE :qualified",
+            "quoted" to "Quoted %",
+            "qualified" to "Qualified %",
+        ).shouldContainExactlyInAnyOrder(quoted + qualified)
+    }
+
+    @Test
+    fun `Append fails when the table is not an identifier`() {
+        shouldThrow<IllegalArgumentException> {
+            connection.appendAll("super_heroes_$testId; DROP TABLE super_heroes_$testId", listOf(superman))
+        }
+        connection.query<SuperHero>("SELECT * FROM super_heroes_$testId").shouldNotBeEmpty()
+    }
+
+    data class Sidekick(val id: UUID, val name: String, val hero: String)
+
+    @Test
+    fun `Append fails when a property has no column`() {
+        shouldThrow<KapperMappingException> {
+            connection.appendAll("super_heroes_$testId", listOf(Sidekick(UUID.randomUUID(), "Robin", "Batman")))
+        }
+    }
+}
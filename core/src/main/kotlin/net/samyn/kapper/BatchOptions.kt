@@ -0,0 +1,21 @@
+package net.samyn.kapper
+
+/**
+ * Options of a batch execution.
+ *
+ * @property batchSize The maximum number of statements sent to the database in a single JDBC batch.
+ *  The batch is executed, and its parameters are released, each time it reaches this size, which bounds the memory
+ *  used by the driver for large inputs. Set to `0` to execute all statements in a single batch.
+ * @property commitEachBatch Whether to commit the transaction after each batch is executed,
+ *  so a failure only rolls back the current batch. Requires a connection with auto-commit disabled.
+ */
+data class BatchOptions
+    @JvmOverloads
+    constructor(
+        val batchSize: Int = 0,
+        val commitEachBatch: Boolean = false,
+    ) {
+        init {
+            require(batchSize >= 0) { "batchSize cannot be negative" }
+        }
+    }
@@ -0,0 +1,19 @@
+package net.samyn.kapper
+
+import java.sql.Statement
+
+/**
+ * Aggregate result of a batch execution, which does not keep the update count of every statement.
+ *
+ * @property statementCount the number of statements executed, one per object.
+ * @property batchCount the number of JDBC batches the statements were executed in.
+ * @property updateCount the total number of rows affected by the statements which reported an update count.
+ * @property unknownUpdateCount the number of statements which executed successfully,
+ *  but for which the driver did not report the number of rows affected ([Statement.SUCCESS_NO_INFO]).
+ */
+data class BatchResult(
+    val statementCount: Long,
+    val batchCount: Int,
+    val updateCount: Long,
+    val unknownUpdateCount: Long,
+)
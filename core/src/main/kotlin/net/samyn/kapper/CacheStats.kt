@@ -0,0 +1,24 @@
+package net.samyn.kapper
+
+/**
+ * Point-in-time statistics of a Kapper cache.
+ *
+ * @property hits the number of lookups served from the cache.
+ * @property misses the number of lookups that were not found in the cache.
+ * @property evictions the number of entries removed to keep the cache within its bounds.
+ * @property size the current number of cached entries.
+ * @property maxSize the maximum number of entries the cache holds. `0` means the cache is disabled.
+ */
+data class CacheStats(
+    val hits: Long,
+    val misses: Long,
+    val evictions: Long,
+    val size: Int,
+    val maxSize: Int,
+) {
+    /**
+     * The ratio of hits to lookups, or `0.0` if no lookups were made.
+     */
+    val hitRate: Double
+        get() = if (hits + misses == 0L) 0.0 else hits.toDouble() / (hits + misses)
+}
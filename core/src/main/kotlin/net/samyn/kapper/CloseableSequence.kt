@@ -0,0 +1,20 @@
+package net.samyn.kapper
+
+/**
+ * A [Sequence] backed by a resource, such as the `ResultSet` of a query, which has to be closed.
+ *
+ * The sequence can be iterated only once. The resource is closed when the sequence is exhausted,
+ *  or when the sequence is closed before it is exhausted, for example with [use]:
+ *
+ * ```kotlin
+ * connection.queryAsSequence<User>("SELECT * FROM users").use { users ->
+ *     users.filter { it.active }.forEach { export(it) }
+ * }
+ * ```
+ */
+interface CloseableSequence<T> : Sequence<T>, AutoCloseable {
+    /**
+     * Close the underlying resource. Closing the sequence more than once has no effect.
+     */
+    override fun close()
+}
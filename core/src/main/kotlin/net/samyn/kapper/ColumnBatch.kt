@@ -0,0 +1,153 @@
+package net.samyn.kapper
+
+import java.util.BitSet
+
+/**
+ * The results of a query, stored by column rather than by row.
+ *
+ * Integer, big integer and double precision columns are stored in primitive arrays, so their values are not boxed,
+ *  and all other columns in arrays of the values the auto-mapper reads for their type.
+ *
+ * @property rowCount the number of rows of the result.
+ * @property columns the columns of the result, in the order of the query.
+ */
+class ColumnBatch(
+    val rowCount: Int,
+    val columns: List<Column>,
+) {
+    private val columnsByName = columns.associateBy { it.name }
+
+    /**
+     * The column with the label [name].
+     *
+     * @throws KapperResultException if the result has no column with the label [name].
+     */
+    fun column(name: String): Column = columnsByName[name] ?: throw KapperResultException("Column '$name' not found in $columnNames")
+
+    /**
+     * The column with the label [name], which has an integer type.
+     *
+     * @throws KapperResultException if the result has no such column, or the column is not an [Column.IntColumn].
+     */
+    fun intColumn(name: String): Column.IntColumn = typedColumn(name)
+
+    /**
+     * The column with the label [name], which has a big integer type.
+     *
+     * @throws KapperResultException if the result has no such column, or the column is not a [Column.LongColumn].
+     */
+    fun longColumn(name: String): Column.LongColumn = typedColumn(name)
+
+    /**
+     * The column with the label [name], which has a double precision type.
+     *
+     * @throws KapperResultException if the result has no such column, or the column is not a [Column.DoubleColumn].
+     */
+    fun doubleColumn(name: String): Column.DoubleColumn = typedColumn(name)
+
+    /**
+     * The column with the label [name], which is not stored in a primitive array.
+     *
+     * @throws KapperResultException if the result has no such column, or the column is not an [Column.ObjectColumn].
+     */
+    fun objectColumn(name: String): Column.ObjectColumn = typedColumn(name)
+
+    private val columnNames: List<String>
+        get() = columns.map { it.name }
+
+    private inline fun <reified C : Column> typedColumn(name: String): C =
+        column(name) as? C
+            ?: throw KapperResultException("Column '$name' of type ${column(name).field.typeName} is not stored as ${C::class.simpleName}")
+}
+
+/**
+ * The values of a single column of a [ColumnBatch].
+ *
+ * @property name the label of the column.
+ * @property field the metadata of the column.
+ * @property size the number of values of the column, which is the number of rows of the batch.
+ */
+sealed class Column(
+    val name: String,
+    val field: Field,
+    val size: Int,
+    private val nulls: BitSet,
+) {
+    /**
+     * Whether the value of the column is SQL `NULL` in the [row].
+     */
+    fun isNull(row: Int): Boolean {
+        if (row !in 0 until size) throw IndexOutOfBoundsException("Row $row is out of bounds for $size rows")
+        return nulls[row]
+    }
+
+    /**
+     * The value of the column in the [row], or `null` if it is SQL `NULL`. Primitive values are boxed.
+     */
+    abstract fun getObject(row: Int): Any?
+
+    /**
+     * A column of an integer type: `INTEGER`, `SMALLINT` or `TINYINT`.
+     *
+     * @property values the values of the column, SQL `NULL` values are `0`, see [isNull].
+     */
+    class IntColumn(
+        name: String,
+        field: Field,
+        val values: IntArray,
+        nulls: BitSet,
+    ) : Column(name, field, values.size, nulls) {
+        operator fun get(row: Int): Int = values[row]
+
+        override fun getObject(row: Int): Any? = if (isNull(row)) null else values[row]
+    }
+
+    /**
+     * A column of a big integer type: `BIGINT`.
+     *
+     * @property values the values of the column, SQL `NULL` values are `0`, see [isNull].
+     */
+    class LongColumn(
+        name: String,
+        field: Field,
+        val values: LongArray,
+        nulls: BitSet,
+    ) : Column(name, field, values.size, nulls) {
+        operator fun get(row: Int): Long = values[row]
+
+        override fun getObject(row: Int): Any? = if (isNull(row)) null else values[row]
+    }
+
+    /**
+     * A column of a double precision type: `DOUBLE`.
+     *
+     * @property values the values of the column, SQL `NULL` values are `0.0`, see [isNull].
+     */
+    class DoubleColumn(
+        name: String,
+        field: Field,
+        val values: DoubleArray,
+        nulls: BitSet,
+    ) : Column(name, field, values.size, nulls) {
+        operator fun get(row: Int): Double = values[row]
+
+        override fun getObject(row: Int): Any? = if (isNull(row)) null else values[row]
+    }
+
+    /**
+     * A column of any other type, such as strings, decimals, dates and timestamps.
+     *  The values are converted as they are by the auto-mapper.
+     *
+     * @property values the values of the column, SQL `NULL` values are `null`.
+     */
+    class ObjectColumn(
+        name: String,
+        field: Field,
+        val values: Array<Any?>,
+        nulls: BitSet,
+    ) : Column(name, field, values.size, nulls) {
+        operator fun get(row: Int): Any? = values[row]
+
+        override fun getObject(row: Int): Any? = values[row]
+    }
+}
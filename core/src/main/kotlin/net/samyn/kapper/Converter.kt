@@ -0,0 +1,8 @@
+package net.samyn.kapper
+
+/**
+ * Converts a value read from the database to the type of a property, see [ConverterRegistry].
+ */
+fun interface Converter<in S : Any, out T : Any> {
+    fun convert(value: S): T
+}
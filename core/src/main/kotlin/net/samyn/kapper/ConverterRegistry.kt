@@ -0,0 +1,126 @@
+package net.samyn.kapper
+
+import net.samyn.kapper.internal.builtInConverter
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A registry for converters.
+ *
+ * The auto-mapper converts values read from the database which are not of the type of the property they map to,
+ * for example to map a `BigDecimal` column to a `Money` property, or a JSON string to an object.
+ * Converters are registered for a source and a target class, and apply to values of the source class and its subtypes.
+ * Register a converter with [Any] as the source class to convert values of any class to the target class.
+ * Registered converters take precedence over the built-in conversions.
+ *
+ * The converter for each pair of source and target class is resolved once and cached,
+ * so converting a value costs a lookup and a single call. Register converters before executing queries.
+ */
+class ConverterRegistry {
+    // registered converters by target, then by source class
+    private val registry = ConcurrentHashMap<Class<*>, ConcurrentHashMap<Class<*>, Converter<Any, Any>>>()
+
+    // resolved converters by source, then by target class
+    private val resolved = ConcurrentHashMap<Class<*>, ConcurrentHashMap<Class<*>, Converter<Any, Any>>>()
+
+    /**
+     * Registers a converter from a source class to a target class.
+     *
+     * @param converter The converter to register.
+     * @throws IllegalStateException if a converter from the source to the target class is already registered.
+     */
+    inline fun <reified S : Any, reified T : Any> register(converter: Converter<S, T>) = register(S::class.java, T::class.java, converter)
+
+    /**
+     * Registers a converter from a source class to a target class.
+     *
+     * @param source The class of the values the converter converts, including its subtypes.
+     * @param target The class the converter converts values to.
+     * @param converter The converter to register.
+     * @throws IllegalStateException if a converter from the source to the target class is already registered.
+     */
+    fun <S : Any, T : Any> register(
+        source: Class<S>,
+        target: Class<T>,
+        converter: Converter<S, T>,
+    ) {
+        @Suppress("UNCHECKED_CAST")
+        check(registry.computeIfAbsent(target) { ConcurrentHashMap() }.putIfAbsent(source, converter as Converter<Any, Any>) == null) {
+            "Converter from $source to $target is already registered."
+        }
+        resolved.clear()
+    }
+
+    /**
+     * Retrieves the converter from a source class to a target class.
+     *
+     * This is the registered converter for the most specific supertype of the source class,
+     * or the built-in conversion to the target class. When there is neither, the converter throws
+     * a [KapperUnsupportedOperationException].
+     */
+    fun converter(
+        source: Class<*>,
+        target: Class<*>,
+    ): Converter<Any, Any> = resolved.computeIfAbsent(source) { ConcurrentHashMap() }.computeIfAbsent(target) { resolve(source, it) }
+
+    /**
+     * Converts the [value] to the [target] class.
+     *
+     * @throws KapperUnsupportedOperationException if the value cannot be converted to the target class.
+     */
+    fun convert(
+        value: Any,
+        target: Class<*>,
+    ): Any = converter(value.javaClass, target).convert(value)
+
+    /**
+     * Whether a converter is registered from the source class, or one of its supertypes, to the target class.
+     *  The auto-mapper does not read primitive values directly from the result set when it is.
+     */
+    internal fun isRegistered(
+        source: Class<*>,
+        target: Class<*>,
+    ): Boolean = registeredConverter(source, target) != null
+
+    private fun resolve(
+        source: Class<*>,
+        target: Class<*>,
+    ): Converter<Any, Any> =
+        registeredConverter(source, target)
+            ?: builtInConverter(target)
+            ?: Converter { value ->
+                throw KapperUnsupportedOperationException("Cannot auto-convert from ${value.javaClass} to ${target.canonicalName}")
+            }
+
+    private fun registeredConverter(
+        source: Class<*>,
+        target: Class<*>,
+    ): Converter<Any, Any>? =
+        registered(source, target)
+            // values of primitive properties are passed boxed
+            ?: target.takeIf { it.isPrimitive }?.let { registered(source, it.kotlin.javaObjectType) }
+
+    private fun registered(
+        source: Class<*>,
+        target: Class<*>,
+    ): Converter<Any, Any>? {
+        val converters = registry[target] ?: return null
+        return sourceTypes(source).firstNotNullOfOrNull { converters[it] }
+    }
+
+    // the source class, its superclasses, then their interfaces and lastly Any: the most specific type first.
+    private fun sourceTypes(source: Class<*>): Sequence<Class<*>> =
+        sequence {
+            val classes = generateSequence(source) { it.superclass }.filter { it != Any::class.java }.toList()
+            yieldAll(classes)
+            val interfaces = ArrayDeque(classes.flatMap { it.interfaces.toList() })
+            val seen = HashSet<Class<*>>()
+            while (interfaces.isNotEmpty()) {
+                val type = interfaces.removeFirst()
+                if (seen.add(type)) {
+                    yield(type)
+                    interfaces.addAll(type.interfaces)
+                }
+            }
+            yield(Any::class.java)
+        }
+}
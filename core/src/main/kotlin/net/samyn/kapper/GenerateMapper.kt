@@ -0,0 +1,19 @@
+package net.samyn.kapper
+
+/**
+ * Generate a [Mapper] for the annotated class at compile time, instead of mapping it with the reflection based
+ *  auto-mapper.
+ *
+ * Add the `kapper-ksp` processor to a Kotlin project to generate mappers for data classes.
+ *  The generated mappers are registered in [Kapper.mapperRegistry] automatically, see [MapperProvider].
+ *
+ * **Example**
+ * ```kotlin
+ * @GenerateMapper
+ * data class SuperHero(val id: UUID, val name: String, val email: String? = null, val age: Int? = null)
+ * ```
+ */
+@Target(AnnotationTarget.CLASS)
+@Retention(AnnotationRetention.SOURCE)
+@MustBeDocumented
+annotation class GenerateMapper
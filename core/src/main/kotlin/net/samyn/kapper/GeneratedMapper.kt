@@ -0,0 +1,144 @@
+package net.samyn.kapper
+
+import net.samyn.kapper.internal.autoConverter
+import net.samyn.kapper.internal.automapper.ColumnBinding
+import net.samyn.kapper.internal.automapper.ColumnReader
+import net.samyn.kapper.internal.automapper.ConstructorInvoker
+import net.samyn.kapper.internal.automapper.FieldsCache
+import net.samyn.kapper.internal.automapper.FieldsConverter
+import net.samyn.kapper.internal.automapper.invoker
+import net.samyn.kapper.internal.automapper.normalisedColumnName
+import net.samyn.kapper.internal.automapper.primitiveDefaults
+import java.sql.ResultSet
+import kotlin.jvm.internal.DefaultConstructorMarker
+
+/**
+ * Base class of the mappers generated for classes annotated with [GenerateMapper].
+ *
+ * Generated mappers call the constructor of the mapped class directly and do not use `kotlin-reflect`.
+ *  Columns are bound to the constructor parameters like the auto-mapper binds them: by name, ignoring case,
+ *  underscores and dashes, once per result. Values of a different type are converted to the parameter type.
+ *
+ * Every generated mapper is also a [MapperProvider] for its class, so it is registered automatically.
+ *
+ * @param type the mapped class.
+ * @param parameters the parameters of the constructor of [type], in declaration order.
+ */
+abstract class GeneratedMapper<T : Any>(
+    final override val type: Class<T>,
+    private val parameters: List<Parameter>,
+) : Mapper<T>, MapperProvider<T> {
+    /**
+     * A parameter of the constructor of the mapped class.
+     *
+     * @property name the name of the parameter.
+     * @property type the JVM type of the parameter, which is a primitive type for non-nullable primitives.
+     * @property isNullable whether the parameter accepts `null`.
+     * @property isOptional whether the parameter has a default value.
+     */
+    class Parameter
+        @JvmOverloads
+        constructor(
+            val name: String,
+            val type: Class<*>,
+            val isNullable: Boolean = false,
+            val isOptional: Boolean = false,
+        )
+
+    /**
+     * A row of the result, with its columns bound to the constructor parameters by index.
+     */
+    inner class Row internal constructor(
+        private val resultSet: ResultSet,
+        private val readers: Array<ColumnReader?>,
+    ) {
+        /**
+         * Whether a column is bound to the parameter at [index].
+         *  Only optional parameters can be unbound.
+         */
+        fun isBound(index: Int): Boolean = readers[index] != null
+
+        /**
+         * The value of the non-nullable parameter at [index].
+         *
+         * @throws KapperMappingException if the value is `null`.
+         */
+        fun <V : Any> get(index: Int): V =
+            getOrNull(index)
+                ?: throw KapperMappingException("The property '${parameters[index].name}' cannot be null.")
+
+        /**
+         * The value of the nullable parameter at [index], converted to the type of the parameter.
+         */
+        fun <V> getOrNull(index: Int): V? {
+            val value = readers[index]?.read(resultSet) ?: return null
+            @Suppress("UNCHECKED_CAST")
+            return (if (boxedTypes[index].isInstance(value)) value else autoConverter.convert(value, types[index])) as V
+        }
+    }
+
+    private val names = parameters.map { it.name.normalisedColumnName() }
+    private val types = parameters.map { it.type }
+    private val boxedTypes = types.map { it.kotlin.javaObjectType }
+    private val fieldsConverter = FieldsConverter()
+    private val maskCount = (parameters.size + Int.SIZE_BITS - 1) / Int.SIZE_BITS
+
+    // the constructor the Kotlin compiler generates for default arguments, with the masks of the absent arguments
+    private val defaultsConstructor: ConstructorInvoker<T> by lazy {
+        type.getDeclaredConstructor(
+            *types.toTypedArray(),
+            *Array(maskCount) { Int::class.javaPrimitiveType!! },
+            DefaultConstructorMarker::class.java,
+        ).invoker()
+    }
+
+    // bindings by fields map, results of the same query share the same fields map.
+    private val bindings = FieldsCache<ColumnBinding>()
+
+    final override val mapper: Mapper<T>
+        get() = this
+
+    /**
+     * Create an instance of the mapped class from a [row].
+     */
+    protected abstract fun createInstance(row: Row): T
+
+    /**
+     * Create an instance of the mapped class from a [row] where optional parameters are not bound,
+     *  using the default values of those parameters.
+     */
+    protected fun newInstance(row: Row): T {
+        val size = parameters.size
+        val args = arrayOfNulls<Any?>(size + maskCount + 1)
+        val masks = IntArray(maskCount)
+        for (index in 0 until size) {
+            if (row.isBound(index)) {
+                args[index] = if (parameters[index].isNullable) row.getOrNull(index) else row.get(index)
+            } else {
+                args[index] = primitiveDefaults[types[index]]
+                masks[index / Int.SIZE_BITS] = masks[index / Int.SIZE_BITS] or (1 shl (index % Int.SIZE_BITS))
+            }
+        }
+        for (m in 0 until maskCount) args[size + m] = masks[m]
+        return defaultsConstructor.invoke(args)
+    }
+
+    final override fun createInstance(
+        resultSet: ResultSet,
+        fields: Map<String, Field>,
+    ): T = createInstance(Row(resultSet, binding(fields).readers))
+
+    private fun binding(fields: Map<String, Field>): ColumnBinding = bindings.getOrPut(fields, ::newBinding)
+
+    private fun newBinding(fields: Map<String, Field>): ColumnBinding {
+        val binding = fieldsConverter.bind(fields, names)
+        val missing =
+            parameters.filterIndexed { index, parameter ->
+                binding.readers[index] == null && !parameter.isOptional
+            }.map { it.name }
+        if (missing.isNotEmpty()) {
+            throw KapperMappingException("The following properties are non-optional and missing: $missing")
+        }
+        return binding
+    }
+}
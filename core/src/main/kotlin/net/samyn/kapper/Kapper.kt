@@ -4,6 +4,8 @@ import net.samyn.kapper.internal.KapperImpl
 import net.samyn.kapper.internal.logger
 import java.sql.Connection
 import java.sql.ResultSet
+import java.util.function.Consumer
+import java.util.stream.Stream
 
 typealias Args = Map<String, Any?>
 
@@ -26,6 +28,15 @@ interface Kapper {
         @JvmStatic
         fun createInstance(): Kapper = KapperImpl()
 
+        /**
+         * Create a new instance of the Kapper with the given configuration.
+         *
+         * @param config The configuration of the instance, for example to size or disable the query cache.
+         * @return A new instance of [Kapper].
+         */
+        @JvmStatic
+        fun createInstance(config: KapperConfig): Kapper = KapperImpl(config = config)
+
         /**
          * Singleton instance of the Kapper.
          */
@@ -36,8 +47,24 @@ interface Kapper {
 
         @JvmStatic
         val mapperRegistry: MapperRegistry = MapperRegistry()
+
+        /**
+         * The converters the auto-mapper uses to convert values to the types of properties, see [ConverterRegistry].
+         */
+        @JvmStatic
+        val converterRegistry: ConverterRegistry = ConverterRegistry()
+
+        /**
+         * The number of rows fetched from the database at a time by [stream], [forEach] and [queryColumns], unless specified otherwise.
+         */
+        const val DEFAULT_FETCH_SIZE = 1000
     }
 
+    /**
+     * Statistics of the cache of parsed SQL templates used by this instance.
+     */
+    val queryCacheStats: CacheStats
+
     /**
      * Execute a SQL query and map the results to a list of instances of the specified class.
      *
@@ -81,6 +108,235 @@ interface Kapper {
         args: Args,
     ): List<T>
 
+    /**
+     * Execute a SQL query and map the results to a list of instances of the specified class, applying the [options] to the statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return The query result as a list of [T] instances.
+     */
+    fun <T : Any> query(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+        options: QueryOptions,
+    ): List<T> {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating mapper for $clazz", e)
+            }
+        return query(clazz, connection, sql, mapper::createInstance, args.toMap(), options)
+    }
+
+    /**
+     * Execute a SQL query and map the results to a list of instances of the specified class with a mapping function, applying the [options] to the statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return The query result as a list of [T] instances.
+     */
+    fun <T : Any> query(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+    ): List<T>
+
+    /**
+     * Execute a SQL query and map the results lazily to a sequence of instances of the specified class.
+     *
+     * Rows are mapped while the sequence is iterated, so only the rows fetched by the driver are held in memory.
+     * The sequence must be closed, or iterated until the end, to close the result set and statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param fetchSize The number of rows to fetch from the database at a time, `0` to use the default of the driver.
+     * @return The query result as a [CloseableSequence] of [T] instances.
+     */
+    fun <T : Any> queryAsSequence(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        fetchSize: Int,
+    ): CloseableSequence<T>
+
+    /**
+     * Execute a SQL query and map the results to a [Stream] of instances of the specified class,
+     *  fetching [DEFAULT_FETCH_SIZE] rows from the database at a time.
+     *
+     * The stream must be closed, for example with try-with-resources, to close the result set and statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return The query result as a [Stream] of [T] instances.
+     */
+    fun <T : Any> stream(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): Stream<T> = stream(clazz, connection, sql, args, DEFAULT_FETCH_SIZE)
+
+    /**
+     * Execute a SQL query and map the results to a [Stream] of instances of the specified class.
+     *
+     * The stream must be closed, for example with try-with-resources, to close the result set and statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param fetchSize The number of rows to fetch from the database at a time, `0` to use the default of the driver.
+     * @return The query result as a [Stream] of [T] instances.
+     */
+    fun <T : Any> stream(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+        fetchSize: Int,
+    ): Stream<T> {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating mapper for $clazz", e)
+            }
+        return stream(clazz, connection, sql, mapper::createInstance, args.toMap(), fetchSize)
+    }
+
+    /**
+     * Execute a SQL query and map the results to a [Stream] of instances of the specified class.
+     *
+     * The rows are read from the result set by a single thread while the stream is consumed.
+     * When the stream is parallel, the rows are handed to the other threads in batches of mapped rows,
+     * the size of the fetch size, or [DEFAULT_FETCH_SIZE] when the fetch size is `0`.
+     * The stream must be closed, for example with try-with-resources, to close the result set and statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param fetchSize The number of rows to fetch from the database at a time, `0` to use the default of the driver.
+     * @return The query result as a [Stream] of [T] instances.
+     */
+    fun <T : Any> stream(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        fetchSize: Int,
+    ): Stream<T>
+
+    /**
+     * Execute a SQL query and pass each result, mapped to an instance of the specified class, to the [action].
+     *
+     * Rows are mapped and passed on one at a time, without collecting the results, so memory use does not depend on the size of the result.
+     * The statement fetches [DEFAULT_FETCH_SIZE] rows from the database at a time, unless a fetch size is configured for the instance.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param action The action invoked for every result, in the order of the rows.
+     */
+    fun <T : Any> forEach(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+        action: Consumer<in T>,
+    ) {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating auto-mapper for $clazz", e)
+            }
+        forEach(clazz, connection, sql, mapper::createInstance, args, action)
+    }
+
+    /**
+     * Execute a SQL query and pass each result, mapped to an instance of the specified class with a mapping function, to the [action].
+     *
+     * Rows are mapped and passed on one at a time, without collecting the results, so memory use does not depend on the size of the result.
+     * The statement fetches [DEFAULT_FETCH_SIZE] rows from the database at a time, unless a fetch size is configured for the instance.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param action The action invoked for every result, in the order of the rows.
+     */
+    fun <T : Any> forEach(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        action: Consumer<in T>,
+    )
+
+    /**
+     * Execute a SQL query and return the results as untyped [ResultRow]s, without mapping them to a class.
+     *
+     * Each row holds the values of its columns in an array, and the column labels are shared by all rows of the result.
+     *  Use [ResultRow.asMap] to view a row as a [Map].
+     *
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return The rows of the query result.
+     */
+    fun queryRows(
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): List<ResultRow>
+
+    /**
+     * Execute a SQL query and read the results into a [ColumnBatch], which stores the values of each column in an array.
+     *
+     * Integer, big integer and double precision columns are read into primitive arrays, so their values are not boxed,
+     *  which takes far less memory than mapping large numeric results to objects.
+     * The statement fetches [DEFAULT_FETCH_SIZE] rows from the database at a time, unless a fetch size is configured for the instance.
+     *
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return The columns of the query result.
+     */
+    fun queryColumns(
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): ColumnBatch
+
     /**
      * Execute a SQL query and map the result to a single instance of the specified class, or null of no results found.
      *
@@ -124,6 +380,157 @@ interface Kapper {
         args: Args,
     ): T?
 
+    /**
+     * Execute a SQL query and map the result to a single instance of the specified class, or null if no results found, applying the [options] to the statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return Returns a single result or `null` if no results are found. Throws an exception if more than one result is present.
+     */
+    fun <T : Any> querySingle(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+        options: QueryOptions,
+    ): T? {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating auto-mapper for $clazz", e)
+            }
+        return querySingle(clazz, connection, sql, mapper::createInstance, args.toMap(), options)
+    }
+
+    /**
+     * Execute a SQL query and map the result to a single instance of the specified class, or null if no results found with a mapping function, applying the [options] to the statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return Returns a single result or `null` if no results are found. Throws an exception if more than one result is present.
+     */
+    fun <T : Any> querySingle(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+    ): T?
+
+    /**
+     * Execute a SQL query and map the first result to an instance of the specified class, or null if no results found.
+     *  Only the first row is read, the statement is limited to a single row.
+     *
+     * @param clazz The class to map the result to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return Returns the first result or `null` if no results are found.
+     */
+    fun <T : Any> queryFirstOrNull(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): T? {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating auto-mapper for $clazz", e)
+            }
+        return queryFirstOrNull(clazz, connection, sql, mapper::createInstance, args)
+    }
+
+    /**
+     * Execute a SQL query and map the first result to an instance of the specified class with a mapping function, or null if no results found.
+     *  Only the first row is read, the statement is limited to a single row.
+     *
+     * @param clazz The class to map the result to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return Returns the first result or `null` if no results are found.
+     */
+    fun <T : Any> queryFirstOrNull(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+    ): T?
+
+    /**
+     * Execute a SQL query and map the first result to an instance of the specified class with a mapping function, or null if no results found,
+     *  applying the [options] to the statement. Only the first row is read, the statement is limited to a single row.
+     *
+     * @param clazz The class to map the result to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, timeout and result set type of the statement.
+     * @return Returns the first result or `null` if no results are found.
+     */
+    fun <T : Any> queryFirstOrNull(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+    ): T?
+
+    /**
+     * Execute a SQL query and map the first result to an instance of the specified class.
+     *  Only the first row is read, the statement is limited to a single row.
+     *
+     * @param clazz The class to map the result to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return Returns the first result.
+     * @throws KapperResultException if no results are found.
+     */
+    fun <T : Any> queryFirst(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): T = queryFirstOrNull(clazz, connection, sql, args) ?: throw KapperResultException("Expected a result but found none")
+
+    /**
+     * Execute a SQL query and map the first result to an instance of the specified class with a mapping function.
+     *  Only the first row is read, the statement is limited to a single row.
+     *
+     * @param clazz The class to map the result to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL query to execute.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @return Returns the first result.
+     * @throws KapperResultException if no results are found.
+     */
+    fun <T : Any> queryFirst(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+    ): T = queryFirstOrNull(clazz, connection, sql, mapper, args) ?: throw KapperResultException("Expected a result but found none")
+
     /**
      * Execute a SQL statement and return the number of affected rows.
      *
@@ -174,6 +581,102 @@ interface Kapper {
         args: Map<String, (T) -> Any?>,
     ): IntArray
 
+    /**
+     * Execute a SQL statement using objects and argument mapper functions to specify the query arguments,
+     * in batches of at most [BatchOptions.batchSize] statements.
+     *
+     * @param T The type of the object used to provide values for the SQL statement.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL statement to execute.
+     * @param objects The objects containing the values to be used in the SQL statement.
+     * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+     * @param options The size of the batches and whether to commit after each batch.
+     * @return The number of rows affected by each execution, across all batches.
+     */
+    fun <T : Any> executeAll(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        objects: Iterable<T>,
+        args: Map<String, (T) -> Any?>,
+        options: BatchOptions,
+    ): IntArray
+
+    /**
+     * Execute a SQL statement for each object of an [Iterator], in batches of at most [BatchOptions.batchSize] statements.
+     *
+     * The objects are read from the iterator while the batches are executed, so they do not have to be in memory at once.
+     * Only the aggregate counts of the executions are kept. From Java, pass `stream.iterator()` to execute a `Stream`.
+     *
+     * @param T The type of the object used to provide values for the SQL statement.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL statement to execute.
+     * @param objects The objects containing the values to be used in the SQL statement.
+     * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+     * @param options The size of the batches and whether to commit after each batch.
+     * @return The aggregate counts of the executions.
+     */
+    fun <T : Any> executeBatch(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        objects: Iterator<T>,
+        args: Map<String, (T) -> Any?>,
+        options: BatchOptions,
+    ): BatchResult
+
+    /**
+     * Insert a row for each object, using a single-row `INSERT INTO table (columns) VALUES (...)` SQL template.
+     *
+     * The template is expanded to insert many rows per statement, e.g. `VALUES (?, ?), (?, ?)`, or `INSERT ALL` on Oracle,
+     * as many as the bind parameter limit of the [DbFlavour] allows. This sends far fewer statements than a JDBC batch
+     * on drivers which execute a batch one statement at a time.
+     * When the template is not a single-row insert, or the database does not support multi-row inserts,
+     * the rows are inserted with [executeAll] instead.
+     *
+     * @param T The type of the object used to provide values for the SQL statement.
+     * @param connection The SQL connection to use.
+     * @param sql The single-row INSERT statement to execute.
+     * @param objects The objects containing the values to be inserted.
+     * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+     * @return The number of rows inserted, or [java.sql.Statement.SUCCESS_NO_INFO] when the template is not a single-row insert
+     *  and the driver did not report the number of rows affected by a statement of the batch.
+     */
+    fun <T : Any> insertAll(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        objects: Iterable<T>,
+        args: Map<String, (T) -> Any?>,
+    ): Int
+
+    /**
+     * Append the objects to a table, mapping the properties of a data class or record to the columns of the table.
+     *
+     * Properties are matched to columns by name like the auto-mapper does, ignoring case and underscores.
+     * Columns without a matching property are set to their default value.
+     * On DuckDB the rows are streamed through the native appender of the driver, on other databases
+     * they are inserted in JDBC batches. From Java, pass `stream.iterator()` to append a `Stream`.
+     * When appending to DuckDB fails, the rows appended before the failure are rolled back if the connection
+     * is in auto-commit mode. Otherwise they are part of the transaction of the caller, which should roll it back.
+     *
+     * @param T The type of the objects to append.
+     * @param clazz The class of the objects, a data class or record.
+     * @param connection The SQL connection to use.
+     * @param table The name of the table, optionally qualified with its schema. The name is not quoted,
+     *  and must be an identifier or a quoted identifier. An unqualified name is resolved in the current schema.
+     * @param objects The objects to append, read while the rows are appended.
+     * @return The number of rows appended.
+     * @throws KapperMappingException If a property has no matching column.
+     * @throws IllegalArgumentException If the table name is not an identifier.
+     */
+    fun <T : Any> appendAll(
+        clazz: Class<T>,
+        connection: Connection,
+        table: String,
+        objects: Iterator<T>,
+    ): Long
+
     /**
      * Execute a SQL statement with a RETURNING clause and map the results to a list of instances of the specified class.
      *
@@ -217,6 +720,53 @@ interface Kapper {
         args: Args,
     ): List<T>
 
+    /**
+     * Execute a SQL statement with a RETURNING clause and map the results to a list of instances of the specified class, applying the [options] to the statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL statement to execute, including a RETURNING clause.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return The rows returned by the RETURNING clause as a list of [T] instances.
+     */
+    fun <T : Any> executeReturning(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        args: Args,
+        options: QueryOptions,
+    ): List<T> {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating mapper for $clazz", e)
+            }
+        return executeReturning(clazz, connection, sql, mapper::createInstance, args.toMap(), options)
+    }
+
+    /**
+     * Execute a SQL statement with a RETURNING clause and map the results to a list of instances of the specified class with a mapping function, applying the [options] to the statement.
+     *
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL statement to execute, including a RETURNING clause.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param args Optional parameters to be substituted in the SQL query during execution. Parameter substitution is based on the Map keys.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return The rows returned by the RETURNING clause as a list of [T] instances.
+     */
+    fun <T : Any> executeReturning(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+    ): List<T>
+
     /**
      * Execute a SQL statement with a RETURNING clause using an object and argument mapper functions,
      * and map the results to a list of instances of the specified class.
@@ -275,4 +825,97 @@ interface Kapper {
         obj: A,
         args: Map<String, (A) -> Any?>,
     ): List<R>
+
+    /**
+     * Execute a SQL statement with a RETURNING clause using an object and argument mapper functions,
+     * and map the results to a list of instances of the specified class, applying the [options] to the statement.
+     *
+     * @param R The type to map the results to.
+     * @param A The type of the object used to provide parameter values.
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL statement to execute, including a RETURNING clause.
+     * @param obj The object containing the values to be used in the SQL statement.
+     * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return The rows returned by the RETURNING clause as a list of [R] instances.
+     */
+    fun <R : Any, A : Any> executeReturning(
+        clazz: Class<R>,
+        connection: Connection,
+        sql: String,
+        obj: A,
+        args: Map<String, (A) -> Any?>,
+        options: QueryOptions,
+    ): List<R> {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating auto-mapper for $clazz", e)
+            }
+        return executeReturning(clazz, connection, sql, mapper::createInstance, obj, args, options)
+    }
+
+    /**
+     * Execute a SQL statement with a RETURNING clause using an object, argument mapper functions and a custom result mapper,
+     * applying the [options] to the statement.
+     *
+     * @param R The type to map the results to.
+     * @param A The type of the object used to provide parameter values.
+     * @param clazz The class to map the results to.
+     * @param connection The SQL connection to use.
+     * @param sql The SQL statement to execute, including a RETURNING clause.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @param obj The object containing the values to be used in the SQL statement.
+     * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+     * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+     * @return The rows returned by the RETURNING clause as a list of [R] instances.
+     */
+    fun <R : Any, A : Any> executeReturning(
+        clazz: Class<R>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> R,
+        obj: A,
+        args: Map<String, (A) -> Any?>,
+        options: QueryOptions,
+    ): List<R>
+
+    /**
+     * Compile a SQL query into a [PreparedQuery] that can be executed many times.
+     * The results are mapped using the mapper registered for [clazz], or the auto-mapper if none is registered.
+     *
+     * @param clazz The class to map the results to.
+     * @param sql The SQL query to compile.
+     * @return A [PreparedQuery] which binds parameter values by slot.
+     */
+    fun <T : Any> compile(
+        clazz: Class<T>,
+        sql: String,
+    ): PreparedQuery<T> {
+        val mapper =
+            try {
+                mapperRegistry.get(clazz)
+            } catch (e: Exception) {
+                logger.error("Error creating instance of $clazz", e)
+                throw KapperMappingException("Error creating mapper for $clazz", e)
+            }
+        return compile(clazz, sql, mapper::createInstance)
+    }
+
+    /**
+     * Compile a SQL query into a [PreparedQuery] that can be executed many times.
+     *
+     * @param clazz The class to map the results to.
+     * @param sql The SQL query to compile.
+     * @param mapper Mapping function to map the [ResultSet] to the target class.
+     * @return A [PreparedQuery] which binds parameter values by slot.
+     */
+    fun <T : Any> compile(
+        clazz: Class<T>,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+    ): PreparedQuery<T>
 }
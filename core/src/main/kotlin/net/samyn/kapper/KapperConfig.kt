@@ -0,0 +1,31 @@
+package net.samyn.kapper
+
+/**
+ * Configuration of a [Kapper] instance.
+ *
+ * @property queryCacheSize The maximum number of parsed SQL templates the instance caches.
+ *  Parsing translates the named parameters in a template into a JDBC statement, so caching avoids re-parsing
+ *  templates that are executed repeatedly. Set to `0` to disable the cache.
+ * @property dbFlavour The [DbFlavour] of the database the instance is used with.
+ *  When `null`, the flavour is detected from the metadata of each connection, and cached per connection.
+ * @property queryOptions The [QueryOptions] applied to queries which are not given options of their own,
+ *  for example to set a fetch size for all queries.
+ */
+data class KapperConfig
+    @JvmOverloads
+    constructor(
+        val queryCacheSize: Int = DEFAULT_QUERY_CACHE_SIZE,
+        val dbFlavour: DbFlavour? = null,
+        val queryOptions: QueryOptions = QueryOptions.DEFAULT,
+    ) {
+        init {
+            require(queryCacheSize >= 0) { "queryCacheSize cannot be negative" }
+        }
+
+        companion object {
+            /**
+             * Default number of parsed SQL templates cached by a [Kapper] instance.
+             */
+            const val DEFAULT_QUERY_CACHE_SIZE = 1024
+        }
+    }
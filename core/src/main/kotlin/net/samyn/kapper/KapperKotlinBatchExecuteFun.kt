@@ -1,6 +1,7 @@
 package net.samyn.kapper
 
 import java.sql.Connection
+import java.util.stream.Stream
 
 /**
  * Execute a Batch of SQL statement using a collection of objects and argument mapper functions to specify the query arguments.
@@ -38,3 +39,182 @@ inline fun <reified T : Any> Connection.executeAll(
 ): IntArray {
     return Kapper.instance.executeAll(T::class.java, this, sql, objects, args.toMap())
 }
+
+/**
+ * Execute a Batch of SQL statement using a collection of objects and argument mapper functions to specify the query arguments,
+ * in batches of at most [BatchOptions.batchSize] statements.
+ *
+ * **Example**:
+ * ```kotlin
+ * val rowsAffected =
+ *     connection.executeAll(
+ *         "INSERT INTO users(id, name) VALUES(:id, :name)",
+ *         users,
+ *         BatchOptions(batchSize = 1000),
+ *         "id" to User::id,
+ *         "name" to User::name,
+ *     )
+ * ```
+ *
+ * @param T The type of the object used to provide values for the SQL statement.
+ * @param sql The SQL statement to execute.
+ * @param objects The objects containing the values to be used in the SQL statement.
+ * @param options The size of the batches and whether to commit after each batch.
+ * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+ * @return The number of rows affected by each execution, across all batches.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.executeAll(
+    sql: String,
+    objects: Iterable<T>,
+    options: BatchOptions,
+    vararg args: ArgMapper<T>,
+): IntArray {
+    return Kapper.instance.executeAll(T::class.java, this, sql, objects, args.toMap(), options)
+}
+
+/**
+ * Execute a SQL statement for each object of a [Sequence], in batches of at most [BatchOptions.batchSize] statements.
+ *
+ * The sequence is consumed while the batches are executed, so the objects do not have to be in memory at once,
+ * and only the aggregate counts of the executions are kept.
+ *
+ * **Example**:
+ * ```kotlin
+ * connection.withTransaction {
+ *     val result =
+ *         executeBatch(
+ *             "INSERT INTO users(id, name) VALUES(:id, :name)",
+ *             readUsers(file),
+ *             BatchOptions(batchSize = 1000, commitEachBatch = true),
+ *             "id" to User::id,
+ *             "name" to User::name,
+ *         )
+ *     println("Inserted ${result.updateCount} users in ${result.batchCount} batches")
+ * }
+ * ```
+ *
+ * @param T The type of the object used to provide values for the SQL statement.
+ * @param sql The SQL statement to execute.
+ * @param objects The objects containing the values to be used in the SQL statement.
+ * @param options The size of the batches and whether to commit after each batch.
+ * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+ * @return The aggregate counts of the executions.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.executeBatch(
+    sql: String,
+    objects: Sequence<T>,
+    options: BatchOptions,
+    vararg args: ArgMapper<T>,
+): BatchResult {
+    return Kapper.instance.executeBatch(T::class.java, this, sql, objects.iterator(), args.toMap(), options)
+}
+
+/**
+ * Execute a SQL statement for each object of an [Iterator], in batches of at most [BatchOptions.batchSize] statements.
+ *
+ * @see executeBatch
+ */
+inline fun <reified T : Any> Connection.executeBatch(
+    sql: String,
+    objects: Iterator<T>,
+    options: BatchOptions,
+    vararg args: ArgMapper<T>,
+): BatchResult {
+    return Kapper.instance.executeBatch(T::class.java, this, sql, objects, args.toMap(), options)
+}
+
+/**
+ * Execute a SQL statement for each object of a [Stream], in batches of at most [BatchOptions.batchSize] statements.
+ *
+ * @see executeBatch
+ */
+inline fun <reified T : Any> Connection.executeBatch(
+    sql: String,
+    objects: Stream<T>,
+    options: BatchOptions,
+    vararg args: ArgMapper<T>,
+): BatchResult {
+    return Kapper.instance.executeBatch(T::class.java, this, sql, objects.iterator(), args.toMap(), options)
+}
+
+/**
+ * Insert a row for each object, using a single-row `INSERT INTO table (columns) VALUES (...)` SQL template.
+ *
+ * The template is expanded to insert as many rows per statement as the bind parameter limit of the database allows.
+ * When the template is not a single-row insert, or the database does not support multi-row inserts,
+ * the rows are inserted in a JDBC batch instead.
+ *
+ * **Example**:
+ * ```kotlin
+ * val inserted =
+ *     connection.insertAll(
+ *         "INSERT INTO users(id, name) VALUES(:id, :name)",
+ *         users,
+ *         "id" to User::id,
+ *         "name" to User::name,
+ *     )
+ * ```
+ *
+ * @param T The type of the object used to provide values for the SQL statement.
+ * @param sql The single-row INSERT statement to execute.
+ * @param objects The objects containing the values to be inserted.
+ * @param args A map where the keys are the names of the parameters in the SQL statement, and the values are functions that extract the corresponding values from the object.
+ * @return The number of rows inserted, or [java.sql.Statement.SUCCESS_NO_INFO] when the template is not a single-row insert
+ *  and the driver did not report the number of rows affected by a statement of the batch.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.insertAll(
+    sql: String,
+    objects: Iterable<T>,
+    vararg args: ArgMapper<T>,
+): Int {
+    return Kapper.instance.insertAll(T::class.java, this, sql, objects, args.toMap())
+}
+
+/**
+ * Append the objects to the [table], mapping the properties of the data class or record to the columns of the table.
+ * On DuckDB the rows are streamed through the native appender of the driver, on other databases they are inserted in batches.
+ *
+ * **Example**:
+ * ```kotlin
+ * val appended = connection.appendAll("users", users)
+ * ```
+ *
+ * @param T The type of the objects to append, a data class or record.
+ * @param table The name of the table, optionally qualified with its schema.
+ * @param objects The objects to append.
+ * @return The number of rows appended.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.appendAll(
+    table: String,
+    objects: Iterable<T>,
+): Long {
+    return Kapper.instance.appendAll(T::class.java, this, table, objects.iterator())
+}
+
+/**
+ * Append the objects of a [Sequence] to the [table], reading them while the rows are appended.
+ *
+ * @see appendAll
+ */
+inline fun <reified T : Any> Connection.appendAll(
+    table: String,
+    objects: Sequence<T>,
+): Long {
+    return Kapper.instance.appendAll(T::class.java, this, table, objects.iterator())
+}
+
+/**
+ * Append the objects of a [Stream] to the [table], reading them while the rows are appended.
+ *
+ * @see appendAll
+ */
+inline fun <reified T : Any> Connection.appendAll(
+    table: String,
+    objects: Stream<T>,
+): Long {
+    return Kapper.instance.appendAll(T::class.java, this, table, objects.iterator())
+}
@@ -151,3 +151,56 @@ inline fun <reified R : Any, A : Any> Connection.executeReturning(
     obj: A,
     vararg args: ArgMapper<A>,
 ): List<R> = Kapper.instance.executeReturning(R::class.java, this, sql, mapper, obj, args.toMap())
+
+/**
+ * Execute a SQL statement with a RETURNING clause and map the results to a list of instances of the specified class, applying the [options] to the statement.
+ *
+ * **Example**:
+ * ```kotlin
+ * val deleted: List<User> = connection.executeReturning(
+ *     "DELETE FROM users WHERE active = :active RETURNING id, name",
+ *     QueryOptions(fetchSize = 1000),
+ *     "active" to false,
+ * )
+ * ```
+ *
+ * @param sql The SQL statement to execute.
+ * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+ * @param args Optional key-value pairs representing named parameters to substitute into the statement.
+ * @return The rows returned by the RETURNING clause as a list of [T] instances.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.executeReturning(
+    sql: String,
+    options: QueryOptions,
+    vararg args: Pair<String, Any?>,
+): List<T> = Kapper.instance.executeReturning(T::class.java, this, sql, args.toMap(), options)
+
+/**
+ * Execute a SQL statement with a RETURNING clause using an object and argument mapper functions,
+ * and map the results to a list of instances of the specified class, applying the [options] to the statement.
+ *
+ * **Example**:
+ * ```kotlin
+ * val result: List<Hero> = connection.executeReturning(
+ *     "INSERT INTO heroes (id, name) VALUES (:id, :name) RETURNING *",
+ *     hero,
+ *     QueryOptions(queryTimeout = 5),
+ *     "id" to Hero::id,
+ *     "name" to Hero::name,
+ * )
+ * ```
+ *
+ * @param sql The SQL statement to execute, including a RETURNING clause.
+ * @param obj The object containing the values to be used in the SQL statement.
+ * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+ * @param args Argument mappers that extract values from the object for parameter substitution.
+ * @return The rows returned by the RETURNING clause as a list of [R] instances.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified R : Any, A : Any> Connection.executeReturning(
+    sql: String,
+    obj: A,
+    options: QueryOptions,
+    vararg args: ArgMapper<A>,
+): List<R> = Kapper.instance.executeReturning(R::class.java, this, sql, obj, args.toMap(), options)
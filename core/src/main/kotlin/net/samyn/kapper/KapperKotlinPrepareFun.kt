@@ -0,0 +1,36 @@
+package net.samyn.kapper
+
+import java.sql.ResultSet
+
+/**
+ * Compile a SQL query into a [PreparedQuery] that can be executed many times, using the default [Kapper] instance.
+ *
+ * The SQL template is parsed once and each named parameter is resolved to a slot, so executing the query
+ * only binds the values by position.
+ *
+ * **Example**:
+ * ```kotlin
+ * // Compile once, for example as a property of a repository
+ * private val findById = Kapper.prepare<User>("SELECT id, name FROM users WHERE id = :id")
+ *
+ * // Execute many times
+ * fun find(connection: Connection, id: Int): User? = findById.querySingle(connection, id)
+ * ```
+ *
+ * @param sql The SQL query to compile.
+ * @return A [PreparedQuery] which maps the results to instances of [T].
+ */
+inline fun <reified T : Any> Kapper.Companion.prepare(sql: String): PreparedQuery<T> = instance.compile(T::class.java, sql)
+
+/**
+ * Compile a SQL query into a [PreparedQuery] that can be executed many times, using the default [Kapper] instance
+ * and a custom mapper.
+ *
+ * @param sql The SQL query to compile.
+ * @param mapper Custom mapping function to transform the [ResultSet] into the target class.
+ * @return A [PreparedQuery] which maps the results to instances of [T].
+ */
+inline fun <reified T : Any> Kapper.Companion.prepare(
+    sql: String,
+    noinline mapper: (ResultSet, Map<String, Field>) -> T,
+): PreparedQuery<T> = instance.compile(T::class.java, sql, mapper)
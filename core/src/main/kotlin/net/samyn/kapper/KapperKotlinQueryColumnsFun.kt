@@ -0,0 +1,28 @@
+package net.samyn.kapper
+
+import java.sql.Connection
+
+/**
+ * Execute a SQL query and read the results into a [ColumnBatch], which stores the values of each column in an array.
+ *
+ * Integer, big integer and double precision columns are read into primitive arrays, so their values are not boxed.
+ *
+ * **Example**:
+ * ```kotlin
+ * val batch = connection.queryColumns(
+ *     "SELECT sensor_id, reading FROM readings WHERE day = :day",
+ *     "day" to day,
+ * )
+ * val readings = batch.doubleColumn("reading")
+ * val total = readings.values.sum()
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The columns of the query result.
+ * @throws KapperQueryException If reading the results fails.
+ */
+fun Connection.queryColumns(
+    sql: String,
+    vararg args: Pair<String, Any?>,
+): ColumnBatch = Kapper.instance.queryColumns(this, sql, args.toMap())
@@ -0,0 +1,78 @@
+package net.samyn.kapper
+
+import java.sql.Connection
+import java.sql.ResultSet
+
+/**
+ * Execute a SQL query and map the first result to an instance of the specified class.
+ *  Only the first row is read, the statement is limited to a single row.
+ *
+ * **Example**:
+ * ```kotlin
+ * val newest: User = connection.queryFirst(
+ *     "SELECT id, name FROM users WHERE name LIKE :name ORDER BY created DESC",
+ *     "name" to "A%",
+ * )
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The first result.
+ * @throws KapperResultException If the query yields no results.
+ */
+inline fun <reified T : Any> Connection.queryFirst(
+    sql: String,
+    vararg args: Pair<String, Any?>,
+): T = Kapper.instance.queryFirst(T::class.java, this, sql, args.toMap())
+
+/**
+ * Execute a SQL query and map the first result to an instance of the specified class using a custom mapper.
+ *  Only the first row is read, the statement is limited to a single row.
+ *
+ * @param sql The SQL query to execute.
+ * @param mapper Custom mapping function to transform the [ResultSet] into the target class.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The first result.
+ * @throws KapperResultException If the query yields no results.
+ */
+inline fun <reified T : Any> Connection.queryFirst(
+    sql: String,
+    noinline mapper: (ResultSet, Map<String, Field>) -> T,
+    vararg args: Pair<String, Any?>,
+): T = Kapper.instance.queryFirst(T::class.java, this, sql, mapper, args.toMap())
+
+/**
+ * Execute a SQL query and map the first result to an instance of the specified class, or `null` if no results are found.
+ *  Only the first row is read, the statement is limited to a single row.
+ *
+ * **Example**:
+ * ```kotlin
+ * val newest: User? = connection.queryFirstOrNull(
+ *     "SELECT id, name FROM users WHERE name LIKE :name ORDER BY created DESC",
+ *     "name" to "A%",
+ * )
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The first result, or `null` if no results are found.
+ */
+inline fun <reified T : Any> Connection.queryFirstOrNull(
+    sql: String,
+    vararg args: Pair<String, Any?>,
+): T? = Kapper.instance.queryFirstOrNull(T::class.java, this, sql, args.toMap())
+
+/**
+ * Execute a SQL query and map the first result to an instance of the specified class using a custom mapper,
+ *  or `null` if no results are found. Only the first row is read, the statement is limited to a single row.
+ *
+ * @param sql The SQL query to execute.
+ * @param mapper Custom mapping function to transform the [ResultSet] into the target class.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The first result, or `null` if no results are found.
+ */
+inline fun <reified T : Any> Connection.queryFirstOrNull(
+    sql: String,
+    noinline mapper: (ResultSet, Map<String, Field>) -> T,
+    vararg args: Pair<String, Any?>,
+): T? = Kapper.instance.queryFirstOrNull(T::class.java, this, sql, mapper, args.toMap())
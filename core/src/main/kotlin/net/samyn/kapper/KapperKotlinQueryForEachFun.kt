@@ -0,0 +1,81 @@
+package net.samyn.kapper
+
+import java.sql.Connection
+import java.sql.ResultSet
+
+/**
+ * Execute a SQL query and pass each result, mapped to an instance of the specified class, to the [action].
+ *
+ * Rows are mapped and passed on one at a time, without collecting the results in a list,
+ *  so memory use does not depend on the size of the result.
+ *
+ * **Example**:
+ * ```kotlin
+ * connection.queryForEach<Order>(
+ *     "SELECT id, customer, amount FROM orders WHERE created > :since",
+ *     "since" to since,
+ * ) { order ->
+ *     writer.write(order)
+ * }
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @param action The action invoked for every result, in the order of the rows.
+ * @throws KapperQueryException If reading the results fails.
+ */
+inline fun <reified T : Any> Connection.queryForEach(
+    sql: String,
+    vararg args: Pair<String, Any?>,
+    crossinline action: (T) -> Unit,
+) = Kapper.instance.forEach(T::class.java, this, sql, args.toMap()) { action(it) }
+
+/**
+ * Execute a SQL query and pass each result, mapped to an instance of the specified class with a custom mapper, to the [action].
+ *
+ * @param sql The SQL query to execute.
+ * @param mapper Custom mapping function to transform the [ResultSet] into the target class.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @param action The action invoked for every result, in the order of the rows.
+ * @throws KapperQueryException If reading the results fails.
+ */
+inline fun <reified T : Any> Connection.queryForEach(
+    sql: String,
+    noinline mapper: (ResultSet, Map<String, Field>) -> T,
+    vararg args: Pair<String, Any?>,
+    crossinline action: (T) -> Unit,
+) = Kapper.instance.forEach(T::class.java, this, sql, mapper, args.toMap()) { action(it) }
+
+/**
+ * Execute a SQL query and accumulate the results, mapped to instances of the specified class, starting with the [initial] value.
+ *
+ * Rows are mapped and accumulated one at a time, without collecting the results in a list.
+ *
+ * **Example**:
+ * ```kotlin
+ * val total = connection.queryFold<Order, Long>(
+ *     "SELECT id, customer, amount FROM orders WHERE customer = :customer",
+ *     0L,
+ *     "customer" to customer,
+ * ) { sum, order ->
+ *     sum + order.amount
+ * }
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param initial The initial value of the accumulator.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @param operation Combines the accumulator with the next result into the new value of the accumulator.
+ * @return The value of the accumulator after the last result, or [initial] if there are no results.
+ * @throws KapperQueryException If reading the results fails.
+ */
+inline fun <reified T : Any, R> Connection.queryFold(
+    sql: String,
+    initial: R,
+    vararg args: Pair<String, Any?>,
+    crossinline operation: (acc: R, T) -> R,
+): R {
+    var accumulator = initial
+    Kapper.instance.forEach(T::class.java, this, sql, args.toMap()) { accumulator = operation(accumulator, it) }
+    return accumulator
+}
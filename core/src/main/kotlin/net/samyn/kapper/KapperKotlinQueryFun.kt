@@ -98,3 +98,27 @@ fun <T : Any> Connection.query(
     mapper: (ResultSet, Map<String, Field>) -> T,
     args: Map<String, Any?>,
 ): List<T> = Kapper.instance.query(clazz.java, this, sql, mapper, args)
+
+/**
+ * Execute a SQL query and map the results to a list of instances of the specified class, applying the [options] to the statement.
+ *
+ * **Example**:
+ * ```kotlin
+ * val users: List<User> = connection.query(
+ *     "SELECT id, name FROM users WHERE active = :active",
+ *     QueryOptions(fetchSize = 500, queryTimeout = 10),
+ *     "active" to true,
+ * )
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The query result as a list of [T] instances.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.query(
+    sql: String,
+    options: QueryOptions,
+    vararg args: Pair<String, Any?>,
+): List<T> = Kapper.instance.query(T::class.java, this, sql, args.toMap(), options)
@@ -0,0 +1,29 @@
+package net.samyn.kapper
+
+import java.sql.Connection
+
+/**
+ * Execute a SQL query and return the results as untyped [ResultRow]s, without mapping them to a class.
+ *
+ * Each row holds the values of its columns in an array, and the column labels are shared by all rows of the result.
+ *
+ * **Example**:
+ * ```kotlin
+ * val rows = connection.queryRows(
+ *     "SELECT department, COUNT(*) AS employees FROM staff GROUP BY department",
+ * )
+ * rows.forEach { println("${it["department"]}: ${it["employees"]}") }
+ *
+ * // or as maps
+ * val json = rows.map { it.asMap() }
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return The rows of the query result.
+ * @throws KapperQueryException If reading the results fails.
+ */
+fun Connection.queryRows(
+    sql: String,
+    vararg args: Pair<String, Any?>,
+): List<ResultRow> = Kapper.instance.queryRows(this, sql, args.toMap())
@@ -0,0 +1,73 @@
+package net.samyn.kapper
+
+import java.sql.Connection
+import java.sql.ResultSet
+
+/**
+ * Execute a SQL query and map the results lazily to a sequence of instances of the specified class.
+ *
+ * This function uses reflection to automatically map the result set columns to the properties of the specified class.
+ * Rows are mapped while the sequence is iterated, rather than all at once, which keeps memory use low for large results.
+ * The sequence must be closed, or iterated until the end, to close the result set and statement.
+ *
+ * **Example**:
+ * ```kotlin
+ * connection.queryAsSequence<User>(
+ *     "SELECT id, name FROM users WHERE active = :active",
+ *     "active" to true,
+ * ).use { users ->
+ *     users.forEach { writer.write(it) }
+ * }
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @param fetchSize The number of rows to fetch from the database at a time. Default is 1000.
+ * @return The query result as a [CloseableSequence] of [T] instances.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.queryAsSequence(
+    sql: String,
+    vararg args: Pair<String, Any?>,
+    fetchSize: Int = Kapper.DEFAULT_FETCH_SIZE,
+): CloseableSequence<T> =
+    Kapper.instance.queryAsSequence(
+        T::class.java,
+        this,
+        sql,
+        Kapper.mapperRegistry.get(T::class.java)::createInstance,
+        args.toMap(),
+        fetchSize,
+    )
+
+/**
+ * Execute a SQL query and map the results lazily to a sequence of instances of the specified class with a custom mapper.
+ *
+ * **Example**:
+ * ```kotlin
+ * connection.queryAsSequence(
+ *     sql = "SELECT id, name FROM users",
+ *     mapper = { resultSet, _ ->
+ *         User(
+ *             id = resultSet.getInt("id"),
+ *             name = resultSet.getString("name")
+ *         )
+ *     },
+ * ).use { users ->
+ *     users.forEach { writer.write(it) }
+ * }
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param mapper Custom mapping function to transform the [ResultSet] into the target class.
+ * @param args Optional parameters to be substituted in the SQL query during execution.
+ * @param fetchSize The number of rows to fetch from the database at a time. Default is 1000.
+ * @return The query result as a [CloseableSequence] of [T] instances.
+ * @throws KapperQueryException If there's a database error while reading the results.
+ */
+inline fun <reified T : Any> Connection.queryAsSequence(
+    sql: String,
+    noinline mapper: (ResultSet, Map<String, Field>) -> T,
+    vararg args: Pair<String, Any?>,
+    fetchSize: Int = Kapper.DEFAULT_FETCH_SIZE,
+): CloseableSequence<T> = Kapper.instance.queryAsSequence(T::class.java, this, sql, mapper, args.toMap(), fetchSize)
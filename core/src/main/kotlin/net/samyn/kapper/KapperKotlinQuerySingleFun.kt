@@ -106,3 +106,27 @@ fun <T : Any> Connection.querySingle(
     mapper: (ResultSet, Map<String, Field>) -> T,
     vararg args: Pair<String, Any?>,
 ): T? = Kapper.instance.querySingle(clazz.java, this, sql, mapper, args.toMap())
+
+/**
+ * Execute a SQL query and map the result to a single instance of the specified class, or null if no results found, applying the [options] to the statement.
+ *
+ * **Example**:
+ * ```kotlin
+ * val user: User? = connection.querySingle(
+ *     "SELECT id, name FROM users WHERE id = :id",
+ *     QueryOptions(queryTimeout = 5),
+ *     "id" to 1,
+ * )
+ * ```
+ *
+ * @param sql The SQL query to execute.
+ * @param options The fetch size, maximum number of rows, timeout and result set type of the statement.
+ * @param args Optional key-value pairs representing named parameters to substitute into the query.
+ * @return Returns a single result or `null` if no results are found. Throws an exception if more than one result is present.
+ * @throws java.sql.SQLException If there's a database error.
+ */
+inline fun <reified T : Any> Connection.querySingle(
+    sql: String,
+    options: QueryOptions,
+    vararg args: Pair<String, Any?>,
+): T? = Kapper.instance.querySingle(T::class.java, this, sql, args.toMap(), options)
@@ -0,0 +1,22 @@
+package net.samyn.kapper
+
+/**
+ * Provides a [Mapper] which is registered in a [MapperRegistry] automatically.
+ *
+ * Providers are discovered with [java.util.ServiceLoader], by listing their class names in
+ *  `META-INF/services/net.samyn.kapper.MapperProvider`. The mappers generated for classes annotated with
+ *  [GenerateMapper] are registered this way.
+ *
+ * Mappers registered explicitly take precedence over the mappers of providers.
+ */
+interface MapperProvider<T : Any> {
+    /**
+     * The class mapped by [mapper].
+     */
+    val type: Class<T>
+
+    /**
+     * The mapper to register for [type].
+     */
+    val mapper: Mapper<T>
+}
@@ -1,6 +1,7 @@
 package net.samyn.kapper
 
 import net.samyn.kapper.internal.automapper.createAutoMapper
+import java.util.ServiceLoader
 import java.util.concurrent.ConcurrentHashMap
 
 /**
@@ -11,10 +12,17 @@ import java.util.concurrent.ConcurrentHashMap
  *
  * Custom mappers can be used when the auto-mapper is available for the target class or types,
  * or when a marginal performance improvement is sought by avoiding reflection used by the auto-mappers.
+ *
+ * The mappers of the [MapperProvider]s found on the classpath, such as the mappers generated for classes annotated
+ * with [GenerateMapper], are registered when the registry first looks up a mapper.
+ * Register custom mappers before executing queries to use them instead.
  */
 class MapperRegistry {
     private val registry = ConcurrentHashMap<Class<*>, Mapper<*>>()
 
+    @Volatile
+    private var providersRegistered = false
+
     /**
      * Registers a mapper for a specific class.
      *
@@ -70,7 +78,19 @@ class MapperRegistry {
      * If no custom mapper is found, the auto-mapper is created and registered.
      */
     fun <T : Any> get(clazz: Class<T>): Mapper<T> {
+        registerProviders()
         @Suppress("UNCHECKED_CAST")
         return registry.computeIfAbsent(clazz) { createAutoMapper(it) } as Mapper<T>
     }
+
+    private fun registerProviders() {
+        if (providersRegistered) return
+        synchronized(registry) {
+            if (providersRegistered) return
+            ServiceLoader.load(MapperProvider::class.java).forEach { provider ->
+                registry.putIfAbsent(provider.type, provider.mapper)
+            }
+            providersRegistered = true
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package net.samyn.kapper
+
+import java.sql.Connection
+
+/**
+ * A SQL query that is parsed once and can be executed many times.
+ *
+ * When the query is compiled, each named parameter in the SQL template is resolved to a parameter slot.
+ * Values are then bound by slot, in the order of [parameterNames], avoiding the name lookups and the argument
+ * map allocations of the `query` functions that take named arguments.
+ *
+ * A [PreparedQuery] is immutable and can be shared between threads.
+ * Create one using [Kapper.compile] or the `Kapper.prepare` extension function.
+ *
+ * **Example**:
+ * ```kotlin
+ * val findById = Kapper.prepare<User>("SELECT id, name FROM users WHERE id = :id")
+ *
+ * val user: User? = findById.querySingle(connection, 1)
+ * ```
+ *
+ * @param T The type the results are mapped to.
+ */
+interface PreparedQuery<T : Any> {
+    /**
+     * The names of the parameters in the SQL template, in the order in which they first occur.
+     * Values are bound to the parameters in this order.
+     */
+    val parameterNames: List<String>
+
+    /**
+     * Returns the slot of the parameter with the given name.
+     *
+     * @param name The name of the parameter in the SQL template.
+     * @return The slot of the parameter.
+     * @throws KapperParseException If the SQL template does not contain a parameter with the given name.
+     */
+    fun slotOf(name: String): Int
+
+    /**
+     * Execute the query and map the results to a list of instances of [T].
+     *
+     * @param connection The SQL connection to use.
+     * @param values The parameter values, one for each of the [parameterNames], in the same order.
+     * @return The query result as a list of [T] instances.
+     */
+    fun query(
+        connection: Connection,
+        vararg values: Any?,
+    ): List<T>
+
+    /**
+     * Execute the query and map the result to a single instance of [T], or `null` if no results are found.
+     *
+     * @param connection The SQL connection to use.
+     * @param values The parameter values, one for each of the [parameterNames], in the same order.
+     * @return Returns a single result or `null` if no results are found. Throws an exception if more than one result is present.
+     */
+    fun querySingle(
+        connection: Connection,
+        vararg values: Any?,
+    ): T?
+
+    /**
+     * Create a new [Binder] to set the parameter values of this query by name or by slot.
+     */
+    fun bind(): Binder<T>
+
+    /**
+     * Reusable, fluent holder of parameter values for a [PreparedQuery].
+     *
+     * A [Binder] keeps its values between executions, so only the values that change need to be set again.
+     * A [Binder] is not thread-safe.
+     *
+     * **Example**:
+     * ```kotlin
+     * val heroes = findByAge.bind().set("min", 18).set("max", 65).query(connection)
+     * ```
+     */
+    interface Binder<T : Any> {
+        /**
+         * Set the value of the parameter with the given name.
+         *
+         * @throws KapperParseException If the SQL template does not contain a parameter with the given name.
+         */
+        fun set(
+            name: String,
+            value: Any?,
+        ): Binder<T>
+
+        /**
+         * Set the value of the parameter in the given slot.
+         *
+         * @see PreparedQuery.slotOf
+         */
+        fun set(
+            slot: Int,
+            value: Any?,
+        ): Binder<T>
+
+        /**
+         * Execute the query with the bound values and map the results to a list of instances of [T].
+         *
+         * @throws IllegalStateException If not all parameters have been bound.
+         */
+        fun query(connection: Connection): List<T>
+
+        /**
+         * Execute the query with the bound values and map the result to a single instance of [T],
+         * or `null` if no results are found.
+         *
+         * @throws IllegalStateException If not all parameters have been bound.
+         */
+        fun querySingle(connection: Connection): T?
+    }
+}
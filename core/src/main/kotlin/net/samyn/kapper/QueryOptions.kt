@@ -0,0 +1,42 @@
+package net.samyn.kapper
+
+import java.sql.ResultSet
+import java.sql.Statement
+
+/**
+ * Options applied to the statement of a query before it is executed.
+ *
+ * @property fetchSize The number of rows the driver fetches from the database at a time, see [Statement.setFetchSize].
+ *  Set to `0` to use the default of the driver, which for some drivers, such as PostgreSQL, reads the whole result into memory.
+ * @property maxRows The maximum number of rows a query returns, see [Statement.setMaxRows]. Set to `0` for no limit.
+ * @property queryTimeout The number of seconds the driver waits for a query to execute, see [Statement.setQueryTimeout].
+ *  Set to `0` for no limit.
+ * @property resultSetType The type of the result set, [ResultSet.TYPE_FORWARD_ONLY] by default.
+ * @property resultSetConcurrency The concurrency of the result set, [ResultSet.CONCUR_READ_ONLY] by default.
+ * @property fetchDirection The direction in which the rows are processed, a hint for the driver,
+ *  [ResultSet.FETCH_FORWARD] by default.
+ */
+data class QueryOptions
+    @JvmOverloads
+    constructor(
+        val fetchSize: Int = 0,
+        val maxRows: Int = 0,
+        val queryTimeout: Int = 0,
+        val resultSetType: Int = ResultSet.TYPE_FORWARD_ONLY,
+        val resultSetConcurrency: Int = ResultSet.CONCUR_READ_ONLY,
+        val fetchDirection: Int = ResultSet.FETCH_FORWARD,
+    ) {
+        init {
+            require(fetchSize >= 0) { "fetchSize cannot be negative" }
+            require(maxRows >= 0) { "maxRows cannot be negative" }
+            require(queryTimeout >= 0) { "queryTimeout cannot be negative" }
+        }
+
+        companion object {
+            /**
+             * The options of the driver: no fetch size, row limit or timeout, and a forward-only, read-only result set.
+             */
+            @JvmField
+            val DEFAULT = QueryOptions()
+        }
+    }
@@ -0,0 +1,83 @@
+package net.samyn.kapper
+
+import net.samyn.kapper.internal.RowColumns
+
+/**
+ * A row of an untyped query result, holding the values of its columns in an array.
+ *
+ * The column labels are shared by all rows of a result, so a row takes far less memory than a map per row.
+ *  Values are converted as they are by the auto-mapper.
+ */
+class ResultRow internal constructor(
+    private val columns: RowColumns,
+    private val values: Array<Any?>,
+) {
+    /**
+     * The number of columns of the row.
+     */
+    val size: Int
+        get() = values.size
+
+    /**
+     * The labels of the columns of the row, in the order of the query.
+     */
+    val columnNames: List<String>
+        get() = columns.names
+
+    /**
+     * The value of the column at [index], starting at `0`.
+     */
+    operator fun get(index: Int): Any? = values[index]
+
+    /**
+     * The value of the column with the label [name]. The label is matched ignoring case when there is no exact match.
+     *
+     * @throws KapperResultException if the row has no column with the label [name].
+     */
+    operator fun get(name: String): Any? {
+        val index = columns.indexOf(name)
+        if (index < 0) throw KapperResultException("Column '$name' not found in ${columns.names}")
+        return values[index]
+    }
+
+    /**
+     * Whether the row has a column with the label [name], ignoring case when there is no exact match.
+     */
+    fun hasColumn(name: String): Boolean = columns.indexOf(name) >= 0
+
+    /**
+     * A read-only [Map] view of the row, from column label to value, in the order of the columns.
+     */
+    fun asMap(): Map<String, Any?> =
+        object : AbstractMap<String, Any?>() {
+            override val entries: Set<Map.Entry<String, Any?>> =
+                object : AbstractSet<Map.Entry<String, Any?>>() {
+                    override val size: Int
+                        get() = this@ResultRow.size
+
+                    override fun iterator(): Iterator<Map.Entry<String, Any?>> =
+                        columns.names.indices.asSequence().map { Entry(columns.names[it], this@ResultRow[it]) }.iterator()
+                }
+
+            override fun containsKey(key: String): Boolean = columns.names.contains(key)
+
+            override fun get(key: String): Any? = if (containsKey(key)) this@ResultRow[key] else null
+        }
+
+    override fun equals(other: Any?): Boolean = other is ResultRow && columnNames == other.columnNames && values.contentEquals(other.values)
+
+    override fun hashCode(): Int = 31 * columnNames.hashCode() + values.contentHashCode()
+
+    override fun toString(): String = columns.names.indices.joinToString(", ", "ResultRow(", ")") { "${columns.names[it]}=${values[it]}" }
+
+    private class Entry(
+        override val key: String,
+        override val value: Any?,
+    ) : Map.Entry<String, Any?> {
+        override fun equals(other: Any?): Boolean = other is Map.Entry<*, *> && key == other.key && value == other.value
+
+        override fun hashCode(): Int = key.hashCode() xor value.hashCode()
+
+        override fun toString(): String = "$key=$value"
+    }
+}
@@ -0,0 +1,126 @@
+package net.samyn.kapper
+
+import net.samyn.kapper.internal.StatementCache
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import java.sql.ShardingKey
+import java.util.concurrent.Executor
+
+/**
+ * [Connection] which caches the prepared statements it creates, so repeated queries on a long-lived connection
+ *  do not re-prepare the same SQL.
+ *
+ * Closing a statement returned by [prepareStatement] clears its parameters and returns it to the cache.
+ *  The cache holds up to [maxSize] idle statements and closes the least recently used statement when it is full.
+ *  Closing the connection closes all cached statements.
+ *
+ * Only use this when the driver or connection pool does not already cache statements.
+ *
+ * **Example**
+ * ```kotlin
+ * DriverManager.getConnection(url).withStatementCache().use { connection ->
+ *     repeat(1000) { id ->
+ *         connection.querySingle<SuperHero>("SELECT * FROM super_heroes WHERE id = :id", "id" to id)
+ *     }
+ * }
+ * ```
+ *
+ * @param connection the connection to cache statements for.
+ * @param maxSize the maximum number of idle statements to cache. Set to `0` to disable the cache.
+ */
+class StatementCachingConnection
+    @JvmOverloads
+    constructor(
+        private val connection: Connection,
+        val maxSize: Int = DEFAULT_STATEMENT_CACHE_SIZE,
+    ) : Connection by connection {
+        companion object {
+            /**
+             * Default number of idle statements cached per connection.
+             */
+            const val DEFAULT_STATEMENT_CACHE_SIZE = 64
+        }
+
+        private val cache = StatementCache(maxSize)
+
+        /**
+         * Statistics of the statement cache of this connection.
+         */
+        val statementCacheStats: CacheStats
+            get() = cache.stats
+
+        override fun prepareStatement(sql: String): PreparedStatement =
+            cache.prepare(StatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY), this) {
+                connection.prepareStatement(sql)
+            }
+
+        override fun prepareStatement(
+            sql: String,
+            resultSetType: Int,
+            resultSetConcurrency: Int,
+        ): PreparedStatement =
+            cache.prepare(StatementCache.Key(sql, resultSetType, resultSetConcurrency), this) {
+                connection.prepareStatement(sql, resultSetType, resultSetConcurrency)
+            }
+
+        override fun close() {
+            try {
+                cache.close()
+            } finally {
+                connection.close()
+            }
+        }
+
+        override fun abort(executor: Executor?) {
+            try {
+                cache.close()
+            } finally {
+                connection.abort(executor)
+            }
+        }
+
+        override fun <T : Any?> unwrap(iface: Class<T>): T = if (iface.isInstance(this)) iface.cast(this) else connection.unwrap(iface)
+
+        override fun isWrapperFor(iface: Class<*>): Boolean = iface.isInstance(this) || connection.isWrapperFor(iface)
+
+        // default interface methods are not delegated.
+        override fun beginRequest() {
+            connection.beginRequest()
+        }
+
+        override fun endRequest() {
+            connection.endRequest()
+        }
+
+        override fun setShardingKeyIfValid(
+            shardingKey: ShardingKey?,
+            superShardingKey: ShardingKey?,
+            timeout: Int,
+        ): Boolean = connection.setShardingKeyIfValid(shardingKey, superShardingKey, timeout)
+
+        override fun setShardingKeyIfValid(
+            shardingKey: ShardingKey?,
+            timeout: Int,
+        ): Boolean = connection.setShardingKeyIfValid(shardingKey, timeout)
+
+        override fun setShardingKey(
+            shardingKey: ShardingKey?,
+            superShardingKey: ShardingKey?,
+        ) {
+            connection.setShardingKey(shardingKey, superShardingKey)
+        }
+
+        override fun setShardingKey(shardingKey: ShardingKey?) {
+            connection.setShardingKey(shardingKey)
+        }
+    }
+
+/**
+ * Wrap this connection in a [StatementCachingConnection], which caches the prepared statements it creates.
+ *
+ * @param maxSize the maximum number of idle statements to cache.
+ * @return this connection if it already caches statements, otherwise a new [StatementCachingConnection].
+ */
+fun Connection.withStatementCache(maxSize: Int = StatementCachingConnection.DEFAULT_STATEMENT_CACHE_SIZE): StatementCachingConnection =
+    this as? StatementCachingConnection ?: StatementCachingConnection(this, maxSize)
@@ -0,0 +1,79 @@
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.KapperParseException
+import net.samyn.kapper.internal.automapper.ParameterSetter
+import net.samyn.kapper.internal.automapper.parameterSetter
+import java.sql.PreparedStatement
+
+/**
+ * Plan to set the parameters of many objects using the same [args], for example for a batch.
+ *
+ * The parameter indexes of each argument are resolved once. The setter of each argument is specialised to the class
+ *  of the first non-null value of the argument, so every object only extracts its values and calls the setter.
+ *  Values of a different class are set with [net.samyn.kapper.internal.automapper.setParameter].
+ *
+ * @param args the functions extracting the argument values, by parameter name.
+ * @param tokens the map of parameter names to their indices in the SQL statement.
+ * @param dbFlavour the database flavour for type-specific handling.
+ */
+internal class ArgMapperPlan<T : Any>(
+    args: Map<String, (T) -> Any?>,
+    tokens: Map<String, List<Int>>,
+    private val dbFlavour: DbFlavour,
+) {
+    private val extractors: Array<(T) -> Any?> = args.values.toTypedArray()
+    private val indexes: Array<IntArray> =
+        args.keys.map { key ->
+            tokens[key]?.toIntArray()
+                ?: throw KapperParseException("Token with name '$key' not found in template")
+        }.toTypedArray()
+    private val types = arrayOfNulls<Class<*>>(extractors.size)
+    private val setters = arrayOfNulls<ParameterSetter>(extractors.size)
+
+    // arrays created for the parameters set since they were last freed, allocated when the first array is added.
+    private var arrays: MutableList<java.sql.Array>? = null
+
+    /**
+     * Set the parameters from [obj]. Arrays created for the parameters are kept until [freeArrays] is called.
+     *
+     * @param offset added to the parameter indexes, to set the parameters of a row of a multi-row statement.
+     */
+    fun setParameters(
+        stmt: PreparedStatement,
+        obj: T,
+        offset: Int = 0,
+    ) {
+        for (arg in extractors.indices) {
+            val value = extractors[arg](obj)
+            val setter = if (value == null) null else setter(arg, value.javaClass)
+            for (i in indexes[arg]) {
+                if (value != null && setter != null) {
+                    setter.set(stmt, i + offset, value)
+                } else {
+                    arrays = stmt.bindParameter(i + offset, value, dbFlavour, arrays)
+                }
+            }
+        }
+    }
+
+    /**
+     * Free the arrays created for the parameters set so far, after the statement is executed or when it fails.
+     */
+    fun freeArrays() {
+        arrays.free()
+        arrays = null
+    }
+
+    private fun setter(
+        arg: Int,
+        type: Class<*>,
+    ): ParameterSetter? {
+        val specialised = types[arg]
+        if (specialised == null) {
+            types[arg] = type
+            return parameterSetter(type, dbFlavour).also { setters[arg] = it }
+        }
+        return if (specialised === type) setters[arg] else null
+    }
+}
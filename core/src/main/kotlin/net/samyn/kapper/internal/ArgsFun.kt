@@ -8,27 +8,30 @@ import net.samyn.kapper.KapperParseException
 import net.samyn.kapper.internal.automapper.setParameter
 import java.sql.PreparedStatement
 
+// returned when no parameter created a resource, so binding scalar parameters allocates no cleanup.
+private val NO_CLEANUP: () -> Unit = {}
+
 @PublishedApi
 internal fun Args.setParameters(
     query: Query,
     stmt: PreparedStatement,
     dbFlavour: DbFlavour,
 ): () -> Unit {
-    val cleanups = mutableListOf<() -> Unit>()
+    var arrays: MutableList<java.sql.Array>? = null
     try {
-        this.forEach { a ->
+        for ((key, value) in this) {
             val indexes =
-                query.tokens[a.key]
-                    ?: throw KapperParseException("Token with name '${a.key}' not found in template")
-            indexes.forEach { i ->
-                cleanups.add(stmt.setParameter(i, a.value, dbFlavour))
+                query.tokens[key]
+                    ?: throw KapperParseException("Token with name '$key' not found in template")
+            for (i in indexes) {
+                arrays = stmt.bindParameter(i, value, dbFlavour, arrays)
             }
         }
     } catch (e: Exception) {
-        cleanups.forEach { it() }
+        arrays.free()
         throw e
     }
-    return { cleanups.forEach { it() } }
+    return arrays.cleanup()
 }
 
 /**
@@ -46,20 +49,105 @@ internal fun <T : Any> Map<String, (T) -> Any?>.setParameters(
     obj: T,
     dbFlavour: DbFlavour,
 ): () -> Unit {
-    val cleanups = mutableListOf<() -> Unit>()
+    var arrays: MutableList<java.sql.Array>? = null
     try {
-        this.forEach { (key, fn) ->
+        for ((key, fn) in this) {
             val indexes =
                 tokens[key]
                     ?: throw KapperParseException("Token with name '$key' not found in template")
             val value = fn(obj)
-            indexes.forEach { i ->
-                cleanups.add(stmt.setParameter(i, value, dbFlavour))
+            for (i in indexes) {
+                arrays = stmt.bindParameter(i, value, dbFlavour, arrays)
+            }
+        }
+    } catch (e: Exception) {
+        arrays.free()
+        throw e
+    }
+    return arrays.cleanup()
+}
+
+/**
+ * Set the parameters of each of the [objects] on a PreparedStatement and execute them in batches.
+ *
+ * The tokens of the arguments are resolved once, in an [ArgMapperPlan], rather than for every object.
+ *  Arrays created for the parameters of a batch are freed after the batch is executed, or when it fails.
+ *
+ * @param tokens The map of parameter names to their indices in the SQL statement.
+ * @param stmt The PreparedStatement to add the batches to.
+ * @param objects The objects to extract values from, one statement per object.
+ * @param dbFlavour The database flavor for type-specific handling.
+ * @param batchSize The maximum number of statements per batch, `0` to execute all statements in a single batch.
+ * @param onBatch Invoked with the update counts of each executed batch.
+ */
+internal inline fun <T : Any> Map<String, (T) -> Any?>.executeBatches(
+    tokens: Map<String, List<Int>>,
+    stmt: PreparedStatement,
+    objects: Iterator<T>,
+    dbFlavour: DbFlavour,
+    batchSize: Int,
+    onBatch: (IntArray) -> Unit,
+) {
+    val plan = ArgMapperPlan(this, tokens, dbFlavour)
+    var size = 0
+    try {
+        while (objects.hasNext()) {
+            plan.setParameters(stmt, objects.next())
+            logger.debug("Adding to batch: {}", stmt)
+            stmt.addBatch()
+            if (++size == batchSize) {
+                onBatch(stmt.executeBatch())
+                plan.freeArrays()
+                size = 0
+            }
+        }
+        if (size > 0) onBatch(stmt.executeBatch())
+    } finally {
+        plan.freeArrays()
+    }
+}
+
+/**
+ * Set parameter values on a PreparedStatement by parameter slot.
+ *
+ * @param slots the JDBC parameter indexes for each parameter slot.
+ * @param values the values to bind, one per parameter slot.
+ * @param dbFlavour The database flavor for type-specific handling.
+ * @return a cleanup function to invoke after statement execution.
+ */
+internal fun PreparedStatement.setParameters(
+    slots: Array<IntArray>,
+    values: Array<out Any?>,
+    dbFlavour: DbFlavour,
+): () -> Unit {
+    var arrays: MutableList<java.sql.Array>? = null
+    try {
+        for (slot in slots.indices) {
+            val value = values[slot]
+            for (i in slots[slot]) {
+                arrays = bindParameter(i, value, dbFlavour, arrays)
             }
         }
     } catch (e: Exception) {
-        cleanups.forEach { it() }
+        arrays.free()
         throw e
     }
-    return { cleanups.forEach { it() } }
+    return arrays.cleanup()
+}
+
+// set a parameter and track the array it created, if any. The list is only allocated for the first array.
+internal fun PreparedStatement.bindParameter(
+    index: Int,
+    value: Any?,
+    dbFlavour: DbFlavour,
+    arrays: MutableList<java.sql.Array>?,
+): MutableList<java.sql.Array>? {
+    val array = setParameter(index, value, dbFlavour) ?: return arrays
+    return (arrays ?: ArrayList(2)).apply { add(array) }
+}
+
+internal fun List<java.sql.Array>?.cleanup(): () -> Unit = if (this == null) NO_CLEANUP else ({ free() })
+
+internal fun List<java.sql.Array>?.free() {
+    this?.forEach { it.free() }
 }
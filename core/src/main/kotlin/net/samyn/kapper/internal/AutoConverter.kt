@@ -2,6 +2,8 @@
 
 package net.samyn.kapper.internal
 
+import net.samyn.kapper.Converter
+import net.samyn.kapper.Kapper
 import net.samyn.kapper.KapperUnsupportedOperationException
 import java.math.BigDecimal
 import java.time.Instant
@@ -18,32 +20,39 @@ fun interface AutoConverter {
     ): Any
 }
 
-// register converters
-//   we can/should extend this to allow users to register custom converters.
-private val converters: Map<Class<*>, (Any) -> Any> =
+// built-in converters by target class, registered converters take precedence, see ConverterRegistry.
+private val converters: Map<Class<*>, Converter<Any, Any>> =
     mapOf(
-        UUID::class.java to ::convertUUID,
-        LocalDate::class.java to ::convertLocalDate,
-        LocalDateTime::class.java to ::convertLocalDateTime,
-        LocalTime::class.java to ::convertLocalTime,
-        Instant::class.java to ::convertInstant,
-        Char::class.java to ::convertChar,
-        Character::class.java to ::convertChar,
-        Int::class.java to ::convertInt,
-        Integer::class.java to ::convertInt,
-        Long::class.java to ::convertLong,
-        java.lang.Long::class.java to ::convertLong,
-        Float::class.java to ::convertFloat,
-        java.lang.Float::class.java to ::convertFloat,
-        Double::class.java to ::convertDouble,
-        java.lang.Double::class.java to ::convertDouble,
-        BigDecimal::class.java to ::convertBigDecimal,
-        Date::class.java to ::convertDate,
-        Boolean::class.java to ::convertBoolean,
-        java.lang.Boolean::class.java to ::convertBoolean,
-        String::class.java to ::convertString,
+        UUID::class.java to Converter(::convertUUID),
+        LocalDate::class.java to Converter(::convertLocalDate),
+        LocalDateTime::class.java to Converter(::convertLocalDateTime),
+        LocalTime::class.java to Converter(::convertLocalTime),
+        Instant::class.java to Converter(::convertInstant),
+        Char::class.java to Converter(::convertChar),
+        Character::class.java to Converter(::convertChar),
+        Int::class.java to Converter(::convertInt),
+        Integer::class.java to Converter(::convertInt),
+        Long::class.java to Converter(::convertLong),
+        java.lang.Long::class.java to Converter(::convertLong),
+        Float::class.java to Converter(::convertFloat),
+        java.lang.Float::class.java to Converter(::convertFloat),
+        Double::class.java to Converter(::convertDouble),
+        java.lang.Double::class.java to Converter(::convertDouble),
+        BigDecimal::class.java to Converter(::convertBigDecimal),
+        Date::class.java to Converter(::convertDate),
+        Boolean::class.java to Converter(::convertBoolean),
+        java.lang.Boolean::class.java to Converter(::convertBoolean),
+        String::class.java to Converter(::convertString),
     )
 
+private val primitiveConverter = Converter(::convertToPrimitive)
+
+/**
+ * The built-in converter to the [target] class, or `null` when there is none.
+ *  Wrapper types are converted to primitive types which have no converter of their own.
+ */
+fun builtInConverter(target: Class<*>): Converter<Any, Any>? = converters[target] ?: primitiveConverter.takeIf { target.isPrimitive }
+
 fun convertToPrimitive(wrapper: Any): Any {
     return when (wrapper.javaClass) {
         Integer::class.java -> (wrapper as Number).toInt()
@@ -62,13 +71,5 @@ fun convertToPrimitive(wrapper: Any): Any {
 
 val autoConverter =
     AutoConverter { value, target ->
-        if (!converters.containsKey(target) && target.isPrimitive && !value.javaClass.isPrimitive) {
-            // convert from java type to primitive type here
-            return@AutoConverter convertToPrimitive(value)
-        }
-        // Kover considers this not covered, which I think is a bug.
-        //  https://github.com/Kotlin/kotlinx-kover/issues/729
-        converters[target]?.invoke(value) ?: throw KapperUnsupportedOperationException(
-            "Cannot auto-convert from ${value.javaClass} to ${target.canonicalName}",
-        )
+        Kapper.converterRegistry.convert(value, target)
     }
@@ -0,0 +1,51 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import java.util.Spliterator
+import java.util.Spliterators
+import java.util.function.Consumer
+
+/**
+ * A [Spliterator] over the rows of a query, read by [iterator].
+ *
+ * The rows are read by a single thread. [trySplit] reads the next [batchSize] rows, which are already mapped,
+ *  and hands them off as a separate spliterator, so parallel streams process batches on other threads
+ *  while this spliterator continues reading.
+ */
+internal class BatchingSpliterator<T : Any>(
+    private val iterator: Iterator<T>,
+    private val batchSize: Int,
+) : Spliterator<T> {
+    init {
+        require(batchSize > 0) { "Batch size must be positive" }
+    }
+
+    override fun tryAdvance(action: Consumer<in T>): Boolean {
+        if (!iterator.hasNext()) return false
+        action.accept(iterator.next())
+        return true
+    }
+
+    override fun forEachRemaining(action: Consumer<in T>) {
+        while (iterator.hasNext()) action.accept(iterator.next())
+    }
+
+    override fun trySplit(): Spliterator<T>? {
+        if (!iterator.hasNext()) return null
+        val batch = arrayOfNulls<Any>(batchSize)
+        var size = 0
+        while (size < batchSize && iterator.hasNext()) {
+            batch[size++] = iterator.next()
+        }
+        return Spliterators.spliterator(batch, 0, size, CHARACTERISTICS)
+    }
+
+    override fun estimateSize(): Long = Long.MAX_VALUE
+
+    override fun characteristics(): Int = CHARACTERISTICS
+
+    private companion object {
+        const val CHARACTERISTICS = Spliterator.ORDERED or Spliterator.NONNULL
+    }
+}
@@ -0,0 +1,152 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.Column
+import net.samyn.kapper.ColumnBatch
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperQueryException
+import net.samyn.kapper.internal.automapper.resolveColumnReader
+import java.sql.JDBCType
+import java.sql.ResultSet
+import java.sql.SQLException
+import java.util.BitSet
+
+private const val INITIAL_CAPACITY = 256
+private val INT_TYPES = setOf(JDBCType.INTEGER, JDBCType.SMALLINT, JDBCType.TINYINT)
+
+/**
+ * Read all rows in the [ResultSet] of the [query] into a [ColumnBatch].
+ *
+ * @param failureMessage creates the message of the [KapperQueryException] thrown when reading the results fails.
+ */
+internal inline fun ResultSet.readColumns(
+    query: Query,
+    dbFlavour: DbFlavour,
+    failureMessage: () -> String,
+): ColumnBatch {
+    try {
+        val builders =
+            extractQueryFields(query, dbFlavour).entries
+                .sortedBy { it.value.columnIndex }
+                .map { (name, field) -> ColumnBuilder.create(name, field) }
+        var rows = 0
+        while (next()) {
+            for (builder in builders) {
+                builder.read(this, rows)
+            }
+            rows++
+        }
+        return ColumnBatch(rows, builders.map { it.build(rows) })
+    } catch (e: SQLException) {
+        failureMessage().also {
+            logger.warn(it, e)
+            throw KapperQueryException(it, e)
+        }
+    }
+}
+
+/**
+ * Reads the values of a column into an array, which doubles in size when it is full.
+ *  SQL `NULL` values are recorded in a bitmap.
+ */
+internal abstract class ColumnBuilder(
+    protected val name: String,
+    protected val field: Field,
+) {
+    protected val index = field.columnIndex
+    protected val nulls = BitSet()
+
+    /**
+     * Read the value of the column of the current row of the [resultSet], which is row number [row] of the batch.
+     */
+    abstract fun read(
+        resultSet: ResultSet,
+        row: Int,
+    )
+
+    /**
+     * Create the column of the first [size] values read.
+     */
+    abstract fun build(size: Int): Column
+
+    private class IntBuilder(name: String, field: Field) : ColumnBuilder(name, field) {
+        private var values = IntArray(INITIAL_CAPACITY)
+
+        override fun read(
+            resultSet: ResultSet,
+            row: Int,
+        ) {
+            if (row == values.size) values = values.copyOf(row * 2)
+            values[row] = resultSet.getInt(index)
+            if (resultSet.wasNull()) nulls.set(row)
+        }
+
+        override fun build(size: Int) = Column.IntColumn(name, field, values.copyOf(size), nulls)
+    }
+
+    private class LongBuilder(name: String, field: Field) : ColumnBuilder(name, field) {
+        private var values = LongArray(INITIAL_CAPACITY)
+
+        override fun read(
+            resultSet: ResultSet,
+            row: Int,
+        ) {
+            if (row == values.size) values = values.copyOf(row * 2)
+            values[row] = resultSet.getLong(index)
+            if (resultSet.wasNull()) nulls.set(row)
+        }
+
+        override fun build(size: Int) = Column.LongColumn(name, field, values.copyOf(size), nulls)
+    }
+
+    private class DoubleBuilder(name: String, field: Field) : ColumnBuilder(name, field) {
+        private var values = DoubleArray(INITIAL_CAPACITY)
+
+        override fun read(
+            resultSet: ResultSet,
+            row: Int,
+        ) {
+            if (row == values.size) values = values.copyOf(row * 2)
+            values[row] = resultSet.getDouble(index)
+            if (resultSet.wasNull()) nulls.set(row)
+        }
+
+        override fun build(size: Int) = Column.DoubleColumn(name, field, values.copyOf(size), nulls)
+    }
+
+    private class ObjectBuilder(name: String, field: Field) : ColumnBuilder(name, field) {
+        private val reader = resolveColumnReader(field)
+        private var values = arrayOfNulls<Any?>(INITIAL_CAPACITY)
+
+        override fun read(
+            resultSet: ResultSet,
+            row: Int,
+        ) {
+            if (row == values.size) values = values.copyOf(row * 2)
+            val value = reader.read(resultSet)
+            values[row] = value
+            if (value == null) nulls.set(row)
+        }
+
+        override fun build(size: Int) = Column.ObjectColumn(name, field, values.copyOf(size), nulls)
+    }
+
+    companion object {
+        /**
+         * Create the builder of the column with the label [name], which stores the values of integer,
+         *  big integer and double precision columns in a primitive array.
+         */
+        fun create(
+            name: String,
+            field: Field,
+        ): ColumnBuilder =
+            when {
+                field.type in INT_TYPES -> IntBuilder(name, field)
+                field.type == JDBCType.BIGINT -> LongBuilder(name, field)
+                field.type == JDBCType.DOUBLE || field.typeName.equals("binary_double", ignoreCase = true) -> DoubleBuilder(name, field)
+                else -> ObjectBuilder(name, field)
+            }
+    }
+}
@@ -5,9 +5,22 @@ package net.samyn.kapper.internal
 import net.samyn.kapper.DbFlavour
 import java.sql.Connection
 
-fun Connection.getDbFlavour(): DbFlavour {
-    val productName = this.metaData.databaseProductName
-    return when {
+// connections are held weakly and compared by identity, reading the cache does not lock.
+private val dbFlavours = WeakIdentityCache<Connection, DbFlavour>()
+
+/**
+ * Get the [DbFlavour] of the connection.
+ * The flavour is detected from the database metadata the first time and cached for the lifetime of the connection.
+ */
+fun Connection.getDbFlavour(): DbFlavour = dbFlavours.getOrPut(this) { detectDbFlavour(it.metaData.databaseProductName) }
+
+/**
+ * Get the [configured] [DbFlavour], or the flavour of the connection if none is configured.
+ */
+internal fun Connection.resolveDbFlavour(configured: DbFlavour?): DbFlavour = configured ?: getDbFlavour()
+
+fun detectDbFlavour(productName: String): DbFlavour =
+    when {
         productName.contains("cockroach", ignoreCase = true) -> DbFlavour.POSTGRESQL
         productName.contains("postgres", ignoreCase = true) ||
             productName.contains("enterprisedb", ignoreCase = true) -> DbFlavour.POSTGRESQL
@@ -23,4 +36,3 @@ fun Connection.getDbFlavour(): DbFlavour {
         productName.contains("firebird", ignoreCase = true) -> DbFlavour.FIREBIRD
         else -> DbFlavour.UNKNOWN
     }
-}
@@ -0,0 +1,122 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.KapperUnsupportedOperationException
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.sql.Connection
+
+private const val DUCKDB_CONNECTION = "org.duckdb.DuckDBConnection"
+private const val DEFAULT_SCHEMA = "main"
+
+/**
+ * Appends rows to a DuckDB table through the native `DuckDBAppender` of the DuckDB JDBC driver.
+ *
+ * The driver is an optional dependency, so the appender is called through method handles.
+ *  The `append` overload for the class of a value is resolved the first time a value of that class is appended.
+ *
+ * Usage: call [beginRow], [append] a value (or [appendDefault]) for every column of the table in order,
+ *  call [endRow], and [close] the appender to flush the rows.
+ */
+internal class DuckDbAppender private constructor(
+    private val appender: Any,
+) : AutoCloseable {
+    private val appenderClass = appender.javaClass
+    private val lookup = MethodHandles.publicLookup()
+    private val beginRow = method("beginRow")
+    private val endRow = method("endRow")
+    private val appendNull = method("appendNull")
+    private val appendDefault by lazy { method("appendDefault") }
+    private val closeHandle = method("close")
+    private val appendHandles = HashMap<Class<*>, MethodHandle>()
+
+    fun beginRow() {
+        invoke(beginRow)
+    }
+
+    fun endRow() {
+        invoke(endRow)
+    }
+
+    fun append(value: Any?) {
+        when (value) {
+            null -> invoke(appendNull)
+            is Enum<*> -> append(value.name)
+            else -> invoke(appendHandles.getOrPut(value.javaClass) { appendHandle(value.javaClass) }, value)
+        }
+    }
+
+    fun appendDefault() {
+        invoke(appendDefault)
+    }
+
+    override fun close() {
+        invoke(closeHandle)
+    }
+
+    // the handles return Any? so invokeExact is called with the (Object)Object type of the handle.
+    private fun invoke(handle: MethodHandle): Any? = handle.invokeExact(appender)
+
+    private fun invoke(
+        handle: MethodHandle,
+        value: Any,
+    ): Any? = handle.invokeExact(appender, value)
+
+    private fun method(name: String): MethodHandle =
+        lookup.unreflect(appenderClass.getMethod(name))
+            .asType(MethodType.methodType(Any::class.java, Any::class.java))
+
+    // the overload for the primitive type of a boxed value, or for the class of the value or one of its superclasses.
+    private fun appendHandle(type: Class<*>): MethodHandle {
+        val method =
+            (listOfNotNull(type.kotlin.javaPrimitiveType) + generateSequence(type) { it.superclass })
+                .firstNotNullOfOrNull { parameterType ->
+                    try {
+                        appenderClass.getMethod("append", parameterType)
+                    } catch (_: NoSuchMethodException) {
+                        null
+                    }
+                } ?: throw KapperUnsupportedOperationException("Cannot append a value of type ${type.name} to DuckDB")
+        return lookup.unreflect(method)
+            .asType(MethodType.methodType(Any::class.java, Any::class.java, Any::class.java))
+    }
+
+    companion object {
+        /**
+         * Create an appender for the [table], optionally qualified with its schema and catalog,
+         *  in the current schema of the [connection] when it is not qualified.
+         *
+         * @return the appender, or `null` when the connection is not a DuckDB connection,
+         *  or the driver cannot create an appender for a table qualified with its catalog.
+         * @throws IllegalArgumentException if the [table] is not an identifier, optionally qualified with its schema.
+         */
+        fun create(
+            connection: Connection,
+            table: String,
+        ): DuckDbAppender? {
+            val duckDbConnectionClass =
+                try {
+                    Class.forName(DUCKDB_CONNECTION, false, connection.javaClass.classLoader)
+                } catch (_: ClassNotFoundException) {
+                    return null
+                }
+            if (!connection.isWrapperFor(duckDbConnectionClass)) return null
+            val duckDbConnection = connection.unwrap(duckDbConnectionClass)
+            val name = tableNameParts(table)
+            val schema = name.getOrNull(name.size - 2) ?: connection.schema ?: DEFAULT_SCHEMA
+            // the catalog is passed first when the table is qualified with it.
+            val args = name.dropLast(2) + schema + name.last()
+            val createAppender =
+                try {
+                    duckDbConnectionClass.getMethod("createAppender", *Array(args.size) { String::class.java })
+                } catch (_: NoSuchMethodException) {
+                    return null
+                }
+            val appender: Any =
+                MethodHandles.publicLookup().unreflect(createAppender).invokeWithArguments(duckDbConnection, *args.toTypedArray())
+            return DuckDbAppender(appender)
+        }
+    }
+}
@@ -3,72 +3,198 @@
 package net.samyn.kapper.internal
 
 import net.samyn.kapper.Args
+import net.samyn.kapper.BatchOptions
+import net.samyn.kapper.BatchResult
+import net.samyn.kapper.CacheStats
+import net.samyn.kapper.CloseableSequence
+import net.samyn.kapper.ColumnBatch
+import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
 import net.samyn.kapper.Kapper
-import net.samyn.kapper.KapperQueryException
-import net.samyn.kapper.KapperResultException
+import net.samyn.kapper.KapperConfig
+import net.samyn.kapper.KapperMappingException
+import net.samyn.kapper.PreparedQuery
+import net.samyn.kapper.QueryOptions
+import net.samyn.kapper.ResultRow
+import net.samyn.kapper.internal.automapper.createArgMappers
+import net.samyn.kapper.internal.automapper.normalisedColumnName
+import net.samyn.kapper.withTransaction
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.sql.Connection
+import java.sql.PreparedStatement
 import java.sql.ResultSet
-import java.sql.SQLException
+import java.sql.Statement
+import java.util.function.Consumer
+import java.util.stream.Stream
+import java.util.stream.StreamSupport
 
 internal class KapperImpl(
-    private val queryFactory: (String) -> Query = { Query(it) },
+    queryFactory: (String) -> Query = { Query(it) },
+    config: KapperConfig = KapperConfig(),
 ) : Kapper {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(this::class.java)
         private const val SQL_BLANK_ERROR = "SQL query cannot be empty or blank"
         private const val EXECUTING_STMT_LOG = "Executing prepared statement: {}"
+        private val DEFAULT_BATCH_OPTIONS = BatchOptions()
+        private val APPEND_BATCH_OPTIONS = BatchOptions(batchSize = 1000)
     }
 
+    private val queryCache = QueryCache(config.queryCacheSize, queryFactory)
+    private val configuredDbFlavour = config.dbFlavour
+    private val queryOptions = config.queryOptions
+
+    // options of queries reading every row of a large result, which fetch rows in batches unless a fetch size is configured.
+    private val streamingOptions =
+        if (queryOptions.fetchSize > 0) queryOptions else queryOptions.copy(fetchSize = Kapper.DEFAULT_FETCH_SIZE)
+
+    override val queryCacheStats: CacheStats
+        get() = queryCache.stats
+
+    override fun <T : Any> query(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+    ): List<T> = query(clazz, connection, sql, mapper, args, queryOptions)
+
     override fun <T : Any> query(
         clazz: Class<T>,
         connection: Connection,
         sql: String,
         mapper: (ResultSet, Map<String, Field>) -> T,
         args: Args,
+        options: QueryOptions,
+    ): List<T> = mapQuery(connection, sql, mapper, args, options, Int.MAX_VALUE)
+
+    // query mapping at most limit rows.
+    private fun <T : Any> mapQuery(
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+        limit: Int,
     ): List<T> {
         require(sql.isNotBlank()) { SQL_BLANK_ERROR }
-        return buildList {
-            connection.executeQuery(queryFactory(sql), args).use { rs ->
-                try {
-                    val fields = rs.extractFields(connection.getDbFlavour())
-                    while (rs.next()) {
-                        add(mapper(rs, fields))
-                    }
-                } catch (e: SQLException) {
-                    "Failed to execute query: $sql".also {
-                        logger.warn(it, e)
-                        throw KapperQueryException(it, e)
-                    }
-                }
-            }
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        return connection.executeQuery(query, args, options, dbFlavour).use { rs ->
+            rs.mapRows(query, dbFlavour, mapper, limit) { "Failed to execute query: $sql" }
         }
     }
 
-    override fun <T : Any> querySingle(
+    override fun <T : Any> queryAsSequence(
         clazz: Class<T>,
         connection: Connection,
         sql: String,
         mapper: (ResultSet, Map<String, Field>) -> T,
         args: Args,
-    ): T? {
-        val results = query(clazz, connection, sql, mapper, args)
-        if (results.size > 1) {
-            throw KapperResultException("Expected a single result but found ${results.size}")
+        fetchSize: Int,
+    ): CloseableSequence<T> {
+        require(sql.isNotBlank()) { SQL_BLANK_ERROR }
+        require(fetchSize >= 0) { "Fetch size must not be negative" }
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        val resultSet = connection.executeQuery(query, args, queryOptions.copy(fetchSize = fetchSize), dbFlavour)
+        return ResultSetSequence(resultSet, query, dbFlavour, mapper)
+    }
+
+    override fun <T : Any> stream(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        fetchSize: Int,
+    ): Stream<T> {
+        val rows = queryAsSequence(clazz, connection, sql, mapper, args, fetchSize)
+        val batchSize = if (fetchSize > 0) fetchSize else Kapper.DEFAULT_FETCH_SIZE
+        return StreamSupport.stream(BatchingSpliterator(rows.iterator(), batchSize), false)
+            .onClose(rows::close)
+    }
+
+    override fun <T : Any> forEach(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        action: Consumer<in T>,
+    ) {
+        require(sql.isNotBlank()) { SQL_BLANK_ERROR }
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        connection.executeQuery(query, args, streamingOptions, dbFlavour).use { rs ->
+            rs.forEachRow(query, dbFlavour, mapper, failureMessage = { "Failed to execute query: $sql" }) { action.accept(it) }
         }
-        return results.firstOrNull()
     }
 
+    override fun queryRows(
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): List<ResultRow> = mapQuery(connection, sql, resultRowMapper(), args, queryOptions, Int.MAX_VALUE)
+
+    override fun queryColumns(
+        connection: Connection,
+        sql: String,
+        args: Args,
+    ): ColumnBatch {
+        require(sql.isNotBlank()) { SQL_BLANK_ERROR }
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        return connection.executeQuery(query, args, streamingOptions, dbFlavour).use { rs ->
+            rs.readColumns(query, dbFlavour) { "Failed to execute query: $sql" }
+        }
+    }
+
+    override fun <T : Any> querySingle(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+    ): T? = querySingle(clazz, connection, sql, mapper, args, queryOptions)
+
+    override fun <T : Any> querySingle(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+    ): T? =
+        // a second row is only read to detect that the result is not unique.
+        mapQuery(connection, sql, mapper, args, options.limitRows(2), 2).singleResult()
+
+    override fun <T : Any> queryFirstOrNull(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+    ): T? = queryFirstOrNull(clazz, connection, sql, mapper, args, queryOptions)
+
+    override fun <T : Any> queryFirstOrNull(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
+    ): T? = mapQuery(connection, sql, mapper, args, options.limitRows(1), 1).firstOrNull()
+
     override fun execute(
         connection: Connection,
         sql: String,
         args: Args,
     ): Int {
-        val query = queryFactory(sql)
+        val query = queryCache.get(sql)
         connection.prepareStatement(query.sql).use { stmt ->
-            val cleanup = args.setParameters(query, stmt, connection.getDbFlavour())
+            val cleanup = args.setParameters(query, stmt, connection.resolveDbFlavour(configuredDbFlavour))
             try {
                 logger.debug(EXECUTING_STMT_LOG, stmt)
                 return stmt.executeUpdate()
@@ -85,9 +211,9 @@ internal class KapperImpl(
         obj: T,
         args: Map<String, (T) -> Any?>,
     ): Int {
-        val query = queryFactory(sql)
+        val query = queryCache.get(sql)
         connection.prepareStatement(query.sql).use { stmt ->
-            val cleanup = args.setParameters(query.tokens, stmt, obj, connection.getDbFlavour())
+            val cleanup = args.setParameters(query.tokens, stmt, obj, connection.resolveDbFlavour(configuredDbFlavour))
             try {
                 logger.debug(EXECUTING_STMT_LOG, stmt)
                 return stmt.executeUpdate()
@@ -103,22 +229,21 @@ internal class KapperImpl(
         sql: String,
         mapper: (ResultSet, Map<String, Field>) -> T,
         args: Args,
+    ): List<T> = executeReturning(clazz, connection, sql, mapper, args, queryOptions)
+
+    override fun <T : Any> executeReturning(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+        args: Args,
+        options: QueryOptions,
     ): List<T> {
         require(sql.isNotBlank()) { SQL_BLANK_ERROR }
-        return buildList {
-            connection.executeQuery(queryFactory(sql), args).use { rs ->
-                try {
-                    val fields = rs.extractFields(connection.getDbFlavour())
-                    while (rs.next()) {
-                        add(mapper(rs, fields))
-                    }
-                } catch (e: SQLException) {
-                    "Failed to execute statement: $sql".also {
-                        logger.warn(it, e)
-                        throw KapperQueryException(it, e)
-                    }
-                }
-            }
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        return connection.executeQuery(query, args, options, dbFlavour).use { rs ->
+            rs.mapRows(query, dbFlavour, mapper) { "Failed to execute statement: $sql" }
         }
     }
 
@@ -129,27 +254,27 @@ internal class KapperImpl(
         mapper: (ResultSet, Map<String, Field>) -> R,
         obj: A,
         args: Map<String, (A) -> Any?>,
+    ): List<R> = executeReturning(clazz, connection, sql, mapper, obj, args, queryOptions)
+
+    override fun <R : Any, A : Any> executeReturning(
+        clazz: Class<R>,
+        connection: Connection,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> R,
+        obj: A,
+        args: Map<String, (A) -> Any?>,
+        options: QueryOptions,
     ): List<R> {
         require(sql.isNotBlank()) { SQL_BLANK_ERROR }
-        val query = queryFactory(sql)
-        connection.prepareStatement(query.sql).use { stmt ->
-            val cleanup = args.setParameters(query.tokens, stmt, obj, connection.getDbFlavour())
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        connection.prepareQueryStatement(query.sql, options).use { stmt ->
+            val cleanup = args.setParameters(query.tokens, stmt, obj, dbFlavour)
             try {
+                stmt.applyOptions(options)
                 logger.debug(EXECUTING_STMT_LOG, stmt)
-                return buildList {
-                    stmt.executeQuery().use { rs ->
-                        try {
-                            val fields = rs.extractFields(connection.getDbFlavour())
-                            while (rs.next()) {
-                                add(mapper(rs, fields))
-                            }
-                        } catch (e: SQLException) {
-                            "Failed to execute statement: $sql".also {
-                                logger.warn(it, e)
-                                throw KapperQueryException(it, e)
-                            }
-                        }
-                    }
+                return stmt.executeQuery().use { rs ->
+                    rs.mapRows(query, dbFlavour, mapper) { "Failed to execute statement: $sql" }
                 }
             } finally {
                 cleanup()
@@ -163,21 +288,186 @@ internal class KapperImpl(
         sql: String,
         objects: Iterable<T>,
         args: Map<String, (T) -> Any?>,
+    ): IntArray = executeAll(clazz, connection, sql, objects, args, DEFAULT_BATCH_OPTIONS)
+
+    override fun <T : Any> executeAll(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        objects: Iterable<T>,
+        args: Map<String, (T) -> Any?>,
+        options: BatchOptions,
     ): IntArray {
-        val query = queryFactory(sql)
-        connection.prepareStatement(query.sql).use { stmt ->
-            val dbFlavour = connection.getDbFlavour()
-            val cleanups = mutableListOf<() -> Unit>()
-            for (obj in objects) {
-                cleanups.add(args.setParameters(query.tokens, stmt, obj, dbFlavour))
-                logger.debug("Adding to batch: {}", stmt)
-                stmt.addBatch()
+        val counts = mutableListOf<IntArray>()
+        executeBatches(connection, sql, objects.iterator(), args, options) { counts.add(it) }
+        return if (counts.size == 1) counts[0] else counts.flatMap { it.asList() }.toIntArray()
+    }
+
+    override fun <T : Any> executeBatch(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        objects: Iterator<T>,
+        args: Map<String, (T) -> Any?>,
+        options: BatchOptions,
+    ): BatchResult {
+        var statementCount = 0L
+        var updateCount = 0L
+        var unknownUpdateCount = 0L
+        val batchCount =
+            executeBatches(connection, sql, objects, args, options) { counts ->
+                statementCount += counts.size
+                for (count in counts) {
+                    if (count >= 0) {
+                        updateCount += count
+                    } else if (count == Statement.SUCCESS_NO_INFO) {
+                        unknownUpdateCount++
+                    }
+                }
             }
-            try {
-                return stmt.executeBatch()
-            } finally {
-                cleanups.forEach { it() }
+        return BatchResult(statementCount, batchCount, updateCount, unknownUpdateCount)
+    }
+
+    override fun <T : Any> insertAll(
+        clazz: Class<T>,
+        connection: Connection,
+        sql: String,
+        objects: Iterable<T>,
+        args: Map<String, (T) -> Any?>,
+    ): Int {
+        require(sql.isNotBlank()) { SQL_BLANK_ERROR }
+        val query = queryCache.get(sql)
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        val insert = query.multiRowInsert
+        val maxRows = insert?.maxRows(dbFlavour) ?: 0
+        if (insert == null || maxRows == 0) {
+            logger.debug("Inserting rows in a batch, the template is not a multi-row insert for {}: {}", dbFlavour, sql)
+            val result = executeBatch(clazz, connection, sql, objects.iterator(), args, DEFAULT_BATCH_OPTIONS)
+            return when {
+                result.unknownUpdateCount == 0L -> result.updateCount.toInt()
+                // every statement of a single-row insert inserts one row, whether the driver reports it or not
+                insert != null -> (result.updateCount + result.unknownUpdateCount).toInt()
+                else -> Statement.SUCCESS_NO_INFO
+            }
+        }
+        val rows = objects as? List<T> ?: objects.toList()
+        val plan = ArgMapperPlan(args, insert.rowTokens, dbFlavour)
+        var inserted = 0
+        var start = 0
+        var stmt: PreparedStatement? = null
+        var statementRows = 0
+        try {
+            while (start < rows.size) {
+                val count = insert.rowsPerStatement(rows.size - start, maxRows)
+                // statements of the same number of rows are reused, full statements are the most common.
+                val statement =
+                    stmt?.takeIf { count == statementRows }
+                        ?: connection.prepareStatement(insert.sql(count, dbFlavour)).also {
+                            stmt?.close()
+                            stmt = it
+                            statementRows = count
+                        }
+                for (row in 0 until count) {
+                    plan.setParameters(statement, rows[start + row], row * insert.parametersPerRow)
+                }
+                logger.debug(EXECUTING_STMT_LOG, statement)
+                inserted += statement.executeUpdate()
+                plan.freeArrays()
+                start += count
+            }
+        } finally {
+            plan.freeArrays()
+            stmt?.close()
+        }
+        return inserted
+    }
+
+    override fun <T : Any> appendAll(
+        clazz: Class<T>,
+        connection: Connection,
+        table: String,
+        objects: Iterator<T>,
+    ): Long {
+        require(table.isNotBlank()) { "Table name cannot be empty or blank" }
+        val columns = connection.tableColumns(table)
+        val properties = createArgMappers(clazz).associateBy { it.first.normalisedColumnName() }
+        // the property of each column of the table, columns without a property are set to their default.
+        val columnProperties = columns.map { properties[it.normalisedColumnName()] }
+        val unmatched = properties.keys - columns.map { it.normalisedColumnName() }.toSet()
+        if (unmatched.isNotEmpty()) {
+            throw KapperMappingException(
+                "No column found in table $table for properties ${unmatched.map { properties[it]!!.first }} of ${clazz.name}",
+            )
+        }
+        if (connection.resolveDbFlavour(configuredDbFlavour) == DbFlavour.DUCKDB) {
+            val appender = DuckDbAppender.create(connection, table)
+            if (appender != null) {
+                var count = 0L
+                // closing the appender flushes its rows, also when appending fails.
+                //  Without a transaction of the caller, the rows are appended in a transaction rolled back on failure.
+                val append: Connection.() -> Unit = { count = appender.use { it.appendRows(columnProperties, objects) } }
+                if (connection.autoCommit) connection.withTransaction(append) else connection.append()
+                return count
+            }
+        }
+        val inserted = columns.indices.filter { columnProperties[it] != null }
+        val quote = connection.metaData.identifierQuoteString
+        val sql =
+            "INSERT INTO $table (${inserted.joinToString { columns[it].quoteIdentifier(quote) }}) " +
+                "VALUES (${inserted.joinToString { ":${columnProperties[it]!!.first}" }})"
+        logger.debug("Appending rows in batches: {}", sql)
+        val args = inserted.associate { columnProperties[it]!! }
+        return executeBatch(clazz, connection, sql, objects, args, APPEND_BATCH_OPTIONS).statementCount
+    }
+
+    // append a row for each object, with the value of the property of each column, returning the number of rows.
+    private fun <T : Any> DuckDbAppender.appendRows(
+        columnProperties: List<Pair<String, (T) -> Any?>?>,
+        objects: Iterator<T>,
+    ): Long {
+        var count = 0L
+        objects.forEach { obj ->
+            beginRow()
+            for (property in columnProperties) {
+                if (property == null) appendDefault() else append(property.second(obj))
             }
+            endRow()
+            count++
+        }
+        return count
+    }
+
+    // execute the batches and commit each batch when requested, returning the number of batches.
+    private inline fun <T : Any> executeBatches(
+        connection: Connection,
+        sql: String,
+        objects: Iterator<T>,
+        args: Map<String, (T) -> Any?>,
+        options: BatchOptions,
+        onBatch: (IntArray) -> Unit,
+    ): Int {
+        require(!options.commitEachBatch || !connection.autoCommit) {
+            "commitEachBatch requires a connection with auto-commit disabled"
         }
+        val query = queryCache.get(sql)
+        var batchCount = 0
+        connection.prepareStatement(query.sql).use { stmt ->
+            val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+            args.executeBatches(query.tokens, stmt, objects, dbFlavour, options.batchSize) { counts ->
+                onBatch(counts)
+                batchCount++
+                if (options.commitEachBatch) connection.commit()
+            }
+        }
+        return batchCount
+    }
+
+    override fun <T : Any> compile(
+        clazz: Class<T>,
+        sql: String,
+        mapper: (ResultSet, Map<String, Field>) -> T,
+    ): PreparedQuery<T> {
+        require(sql.isNotBlank()) { SQL_BLANK_ERROR }
+        return PreparedQueryImpl(queryCache.get(sql), mapper, configuredDbFlavour, queryOptions)
     }
 }
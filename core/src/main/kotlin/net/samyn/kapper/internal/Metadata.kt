@@ -4,20 +4,100 @@ package net.samyn.kapper.internal
 
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
+import java.sql.Connection
 import java.sql.JDBCType
 import java.sql.ResultSet
+import java.sql.ResultSetMetaData
 
-fun ResultSet.extractFields(dbFlavour: DbFlavour): Map<String, Field> =
-    (1..this.metaData.columnCount).associate {
-        this.metaData.getColumnLabel(it) to
+private val jdbcTypes: Map<Int, JDBCType> = JDBCType.entries.associateBy { it.vendorTypeNumber }
+
+fun ResultSet.extractFields(dbFlavour: DbFlavour): Map<String, Field> {
+    val metaData = this.metaData
+    return (1..metaData.columnCount).associate {
+        metaData.getColumnLabel(it) to
             Field(
                 it,
-                this.metaData.getColumnType(it).jdbcType(),
-                this.metaData.getColumnTypeName(it),
+                metaData.getColumnType(it).jdbcType(),
+                metaData.getColumnTypeName(it),
                 dbFlavour,
             )
     }
+}
+
+/**
+ * Get the fields of the ResultSet of the [query].
+ * The fields are memoized on the query, and reused for as long as the query returns the same columns.
+ */
+internal fun ResultSet.extractQueryFields(
+    query: Query,
+    dbFlavour: DbFlavour,
+): Map<String, Field> {
+    val metaData = this.metaData
+    val cached = query.fields
+    if (cached != null && cached.dbFlavour == dbFlavour && cached.matches(metaData)) {
+        return cached.fields
+    }
+    return extractFields(dbFlavour).also { fields ->
+        query.fields = QueryFields(dbFlavour, Array(metaData.columnCount) { metaData.getColumnLabel(it + 1) }, fields)
+    }
+}
+
+internal fun Int.jdbcType() = jdbcTypes[this] ?: JDBCType.OTHER
+
+/**
+ * Fields of the results of a [Query] for a [DbFlavour], with the column labels they were created from.
+ */
+internal class QueryFields(
+    val dbFlavour: DbFlavour,
+    private val labels: Array<String>,
+    val fields: Map<String, Field>,
+) {
+    fun matches(metaData: ResultSetMetaData): Boolean {
+        if (metaData.columnCount != labels.size) return false
+        for (i in labels.indices) {
+            if (metaData.getColumnLabel(i + 1) != labels[i]) return false
+        }
+        return true
+    }
+}
+
+// a plain identifier, or an identifier in double quotes, backticks or brackets, which cannot end the identifier early.
+private const val IDENTIFIER = """(?:[\p{L}_][\p{L}\p{N}_$#]*|"[^"]+"|`[^`]+`|\[[^\]]+])"""
+private val identifier = Regex(IDENTIFIER)
+private val tableName = Regex("$IDENTIFIER(?:\\.$IDENTIFIER){0,2}")
+
+/**
+ * The names of the columns of the [table], in order.
+ *
+ * @throws IllegalArgumentException if the [table] is not an identifier, optionally qualified with its schema.
+ */
+internal fun Connection.tableColumns(table: String): List<String> {
+    requireTableName(table)
+    return createStatement().use { statement ->
+        statement.executeQuery("SELECT * FROM $table WHERE 1 = 0").use { resultSet ->
+            val metaData = resultSet.metaData
+            List(metaData.columnCount) { metaData.getColumnName(it + 1) }
+        }
+    }
+}
+
+/**
+ * The parts of the [table] name without their quotes: the catalog and schema when it is qualified, and the table.
+ *
+ * @throws IllegalArgumentException if the [table] is not an identifier, optionally qualified with its schema.
+ */
+internal fun tableNameParts(table: String): List<String> {
+    requireTableName(table)
+    // quoted identifiers cannot contain their closing quote, so the parts are the identifiers in the name.
+    return identifier.findAll(table).map { it.value.unquoteIdentifier() }.toList()
+}
+
+private fun requireTableName(table: String) = require(tableName.matches(table)) { "Invalid table name: $table" }
+
+private fun String.unquoteIdentifier(): String = if (first() in "\"`[") substring(1, length - 1) else this
 
-internal fun Int.jdbcType() =
-    JDBCType.entries.firstOrNull { it.vendorTypeNumber == this }
-        ?: JDBCType.OTHER
+/**
+ * Quote the identifier with the identifier [quote] of the database, see [java.sql.DatabaseMetaData.getIdentifierQuoteString],
+ *  so it is used as is. The identifier is not quoted when the database does not support quoted identifiers.
+ */
+internal fun String.quoteIdentifier(quote: String): String = if (quote.isBlank()) this else "$quote${replace(quote, quote + quote)}$quote"
@@ -0,0 +1,187 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.DbFlavour
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A single-row `INSERT ... VALUES (...)` template, which can be expanded to insert many rows in one statement.
+ *
+ * The parameter indexes in [rowTokens] are relative to a row: the parameters of row `r` are at the index plus
+ *  `r * parametersPerRow`.
+ *
+ * @property prefix the statement up to and including the `VALUES` keyword.
+ * @property rowSql the JDBC formatted values of a single row, e.g. `(?, ?)`.
+ * @property rowTokens the tokens of a single row and their indexes in [rowSql].
+ * @property parametersPerRow the number of JDBC parameters of a single row.
+ */
+class MultiRowInsert(
+    val prefix: String,
+    val rowSql: String,
+    val rowTokens: Map<String, List<Int>>,
+    val parametersPerRow: Int,
+) {
+    // expanded statements by flavour and number of rows, see rowsPerStatement for the row counts used.
+    private val statements = ConcurrentHashMap<Long, String>()
+
+    /**
+     * The maximum number of rows inserted by a single statement for the [dbFlavour],
+     *  or `0` when the flavour does not support multi-row inserts, or a single row exceeds its limits.
+     */
+    fun maxRows(dbFlavour: DbFlavour): Int {
+        val maxParameters = dbFlavour.maxParameters
+        if (maxParameters == 0 || parametersPerRow == 0) return 0
+        return minOf(maxParameters / parametersPerRow, dbFlavour.maxInsertRows(parametersPerRow))
+    }
+
+    /**
+     * The number of rows to insert with the next statement, when [remaining] rows are left to insert.
+     *  Statements insert [maxRows] rows, and the remainder is inserted in statements of a power of two rows,
+     *  so at most a few statement shapes are prepared and cached for any number of rows.
+     */
+    fun rowsPerStatement(
+        remaining: Int,
+        maxRows: Int,
+    ): Int = if (remaining >= maxRows) maxRows else Integer.highestOneBit(remaining)
+
+    /**
+     * The JDBC statement inserting [rows] rows for the [dbFlavour].
+     */
+    fun sql(
+        rows: Int,
+        dbFlavour: DbFlavour,
+    ): String =
+        statements.computeIfAbsent((dbFlavour.ordinal.toLong() shl Int.SIZE_BITS) or rows.toLong()) {
+            if (dbFlavour == DbFlavour.ORACLE) {
+                // Oracle does not support multi-row VALUES, INSERT ALL inserts into the same table for every row.
+                val into = "${prefix.substring(INSERT.length).trim()} $rowSql"
+                buildString {
+                    append("INSERT ALL")
+                    repeat(rows) { append(' ').append(into) }
+                    append(" SELECT 1 FROM DUAL")
+                }
+            } else {
+                buildString {
+                    append(prefix)
+                    repeat(rows) { row ->
+                        append(if (row == 0) " " else ", ")
+                        append(rowSql)
+                    }
+                }
+            }
+        }
+
+    companion object {
+        private const val INSERT = "INSERT"
+        private const val VALUES = "VALUES"
+
+        /**
+         * Recognise a single-row `INSERT INTO table [(columns)] VALUES (...)` [template].
+         *
+         * @return the multi-row insert, or `null` when the template is not a single-row insert,
+         *  for example because it inserts from a `SELECT`, or has a clause after the values such as `RETURNING`.
+         *  Templates with comments are not expanded either, as a comment can hide or contain any of these.
+         */
+        fun parse(template: String): MultiRowInsert? {
+            if (template.hasComment()) return null
+            val trimmed = template.trim().trimEnd(';').trim()
+            if (!trimmed.startsWith(INSERT, ignoreCase = true)) return null
+            val values = trimmed.indexOfKeyword(VALUES) ?: return null
+            val prefix = trimmed.substring(0, values + VALUES.length)
+            val rowStart = trimmed.indexOfFirst(values + VALUES.length) { !it.isWhitespace() }
+            if (rowStart < 0 || trimmed[rowStart] != '(') return null
+            val rowEnd = trimmed.closingParenthesis(rowStart) ?: return null
+            // only the values of a single row may follow the VALUES keyword
+            if (rowEnd != trimmed.length - 1) return null
+            if (parseQuery(prefix).second.isNotEmpty()) return null
+            val (rowSql, rowTokens) = parseQuery(trimmed.substring(rowStart))
+            return MultiRowInsert(prefix, rowSql, rowTokens, rowTokens.values.sumOf { it.size })
+        }
+
+        // index of the keyword outside of quotes and parentheses, only when it occurs once.
+        private fun String.indexOfKeyword(keyword: String): Int? {
+            var found: Int? = null
+            var depth = 0
+            var quote: Char? = null
+            for (i in indices) {
+                val c = this[i]
+                when {
+                    quote != null -> if (c == quote) quote = null
+                    c == '\'' || c == '"' -> quote = c
+                    c == '(' -> depth++
+                    c == ')' -> depth--
+                    depth == 0 && regionMatches(i, keyword, 0, keyword.length, ignoreCase = true) &&
+                        getOrNull(i - 1)?.isLetterOrDigit() != true &&
+                        getOrNull(i + keyword.length)?.isLetterOrDigit() != true -> {
+                        if (found != null) return null
+                        found = i
+                    }
+                }
+            }
+            return found
+        }
+
+        // whether a line or block comment starts outside of quotes.
+        private fun String.hasComment(): Boolean {
+            var quote: Char? = null
+            for (i in indices) {
+                val c = this[i]
+                when {
+                    quote != null -> if (c == quote) quote = null
+                    c == '\'' || c == '"' -> quote = c
+                    c == '-' && getOrNull(i + 1) == '-' -> return true
+                    c == '/' && getOrNull(i + 1) == '*' -> return true
+                }
+            }
+            return false
+        }
+
+        private fun String.indexOfFirst(
+            from: Int,
+            predicate: (Char) -> Boolean,
+        ): Int = (from until length).firstOrNull { predicate(this[it]) } ?: -1
+
+        // index of the parenthesis closing the one at start, ignoring parentheses in quotes.
+        private fun String.closingParenthesis(start: Int): Int? {
+            var depth = 0
+            var quote: Char? = null
+            for (i in start until length) {
+                val c = this[i]
+                when {
+                    quote != null -> if (c == quote) quote = null
+                    c == '\'' || c == '"' -> quote = c
+                    c == '(' -> depth++
+                    c == ')' -> if (--depth == 0) return i
+                }
+            }
+            return null
+        }
+    }
+}
+
+/**
+ * The maximum number of bind parameters of a single statement, or `0` when multi-row inserts are not supported.
+ *  Firebird has no multi-row `VALUES`, and the limits of an unknown database are not known.
+ */
+internal val DbFlavour.maxParameters: Int
+    get() =
+        when (this) {
+            DbFlavour.POSTGRESQL -> 65535
+            DbFlavour.MYSQL -> 65535
+            DbFlavour.SQLITE -> 32766
+            DbFlavour.ORACLE -> 65535
+            DbFlavour.MSSQLSERVER -> 2100
+            DbFlavour.DUCKDB -> 65535
+            DbFlavour.FIREBIRD -> 0
+            DbFlavour.UNKNOWN -> 0
+        }
+
+// SQL Server limits the number of rows of a VALUES clause,
+//  and Oracle the number of columns across all INTO clauses of an INSERT ALL (ORA-24335).
+private fun DbFlavour.maxInsertRows(parametersPerRow: Int): Int =
+    when (this) {
+        DbFlavour.MSSQLSERVER -> 1000
+        DbFlavour.ORACLE -> 999 / parametersPerRow
+        else -> Int.MAX_VALUE
+    }
@@ -0,0 +1,103 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperParseException
+import net.samyn.kapper.PreparedQuery
+import net.samyn.kapper.QueryOptions
+import java.sql.Connection
+import java.sql.ResultSet
+
+internal class PreparedQueryImpl<T : Any>(
+    private val query: Query,
+    private val mapper: (ResultSet, Map<String, Field>) -> T,
+    private val configuredDbFlavour: DbFlavour? = null,
+    private val options: QueryOptions = QueryOptions.DEFAULT,
+) : PreparedQuery<T> {
+    override val parameterNames: List<String> = query.tokens.keys.toList()
+
+    // JDBC parameter indexes for each slot; a parameter can occur more than once in the template.
+    private val slots: Array<IntArray> =
+        Array(parameterNames.size) { query.tokens.getValue(parameterNames[it]).toIntArray() }
+
+    private val slotsByName: Map<String, Int> =
+        parameterNames.withIndex().associate { it.value to it.index }
+
+    override fun slotOf(name: String): Int =
+        slotsByName[name] ?: throw KapperParseException("Token with name '$name' not found in template")
+
+    override fun query(
+        connection: Connection,
+        vararg values: Any?,
+    ): List<T> {
+        requireValues(values)
+        return execute(connection, values)
+    }
+
+    override fun querySingle(
+        connection: Connection,
+        vararg values: Any?,
+    ): T? {
+        requireValues(values)
+        return execute(connection, values, options.limitRows(2), 2).singleResult()
+    }
+
+    override fun bind(): PreparedQuery.Binder<T> = BinderImpl()
+
+    private fun execute(
+        connection: Connection,
+        values: Array<out Any?>,
+        options: QueryOptions = this.options,
+        limit: Int = Int.MAX_VALUE,
+    ): List<T> {
+        val dbFlavour = connection.resolveDbFlavour(configuredDbFlavour)
+        return connection.executePreparedQuery(query, options, dbFlavour) { stmt ->
+            stmt.setParameters(slots, values, dbFlavour)
+        }.use { rs ->
+            rs.mapRows(query, dbFlavour, mapper, limit) { "Failed to execute query: ${query.template}" }
+        }
+    }
+
+    private fun requireValues(values: Array<out Any?>) =
+        require(values.size == slots.size) {
+            "Expected ${slots.size} parameter values for $parameterNames but got ${values.size}"
+        }
+
+    private inner class BinderImpl : PreparedQuery.Binder<T> {
+        private val values = arrayOfNulls<Any?>(slots.size)
+        private val bound = BooleanArray(slots.size)
+
+        override fun set(
+            name: String,
+            value: Any?,
+        ): PreparedQuery.Binder<T> = set(slotOf(name), value)
+
+        override fun set(
+            slot: Int,
+            value: Any?,
+        ): PreparedQuery.Binder<T> {
+            require(slot in slots.indices) { "Parameter slot $slot is out of range for $parameterNames" }
+            values[slot] = value
+            bound[slot] = true
+            return this
+        }
+
+        override fun query(connection: Connection): List<T> {
+            checkBound()
+            return execute(connection, values)
+        }
+
+        override fun querySingle(connection: Connection): T? {
+            checkBound()
+            return execute(connection, values, options.limitRows(2), 2).singleResult()
+        }
+
+        private fun checkBound() {
+            for (slot in bound.indices) {
+                check(bound[slot]) { "Parameter '${parameterNames[slot]}' has not been bound" }
+            }
+        }
+    }
+}
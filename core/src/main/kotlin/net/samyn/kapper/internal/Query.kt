@@ -18,6 +18,14 @@ data class Query(
     val sql: String
     val tokens: Map<String, List<Int>>
 
+    // fields of the most recent result of this query, see extractQueryFields.
+    @JvmField
+    @Volatile
+    internal var fields: QueryFields? = null
+
+    // the template expanded to insert many rows in one statement, see insertAll.
+    internal val multiRowInsert: MultiRowInsert? by lazy { MultiRowInsert.parse(template) }
+
     init {
         val (sql: String, tokens: Map<String, List<Int>>) = queryParser(template)
         this.sql = sql
@@ -0,0 +1,74 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.CacheStats
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Concurrent, size-bounded cache of parsed [Query] instances, keyed by query template.
+ *
+ * Lookups are lock-free. When the cache grows beyond [maxSize], entries are evicted using a
+ *  second-chance (CLOCK) policy: the oldest entry is evicted unless it was used since it was last considered,
+ *  in which case it is moved to the back of the queue.
+ *  This keeps frequently used templates cached while only costing a flag check on a cache hit.
+ *
+ * A [maxSize] of `0` disables the cache and every lookup parses the template.
+ *
+ * @param maxSize the maximum number of templates to cache.
+ * @param queryFactory the function used to parse a template on a cache miss.
+ */
+internal class QueryCache(
+    private val maxSize: Int,
+    private val queryFactory: (String) -> Query,
+) {
+    private class Entry(val query: Query) {
+        @Volatile
+        var referenced = false
+    }
+
+    private val cache = ConcurrentHashMap<String, Entry>()
+    private val evictionQueue = ConcurrentLinkedQueue<String>()
+    private val hits = LongAdder()
+    private val misses = LongAdder()
+    private val evictions = LongAdder()
+
+    init {
+        require(maxSize >= 0) { "Query cache size cannot be negative" }
+    }
+
+    fun get(template: String): Query {
+        if (maxSize == 0) return queryFactory(template)
+        val cached = cache[template]
+        if (cached != null) {
+            hits.increment()
+            if (!cached.referenced) cached.referenced = true
+            return cached.query
+        }
+        misses.increment()
+        val entry = Entry(queryFactory(template))
+        val existing = cache.putIfAbsent(template, entry)
+        if (existing != null) return existing.query
+        evictionQueue.add(template)
+        evict()
+        return entry.query
+    }
+
+    val stats: CacheStats
+        get() = CacheStats(hits.sum(), misses.sum(), evictions.sum(), cache.size, maxSize)
+
+    private fun evict() {
+        while (cache.size > maxSize) {
+            val candidate = evictionQueue.poll() ?: return
+            val entry = cache[candidate] ?: continue
+            if (entry.referenced) {
+                entry.referenced = false
+                evictionQueue.add(candidate)
+            } else if (cache.remove(candidate, entry)) {
+                evictions.increment()
+            }
+        }
+    }
+}
@@ -3,10 +3,17 @@
 package net.samyn.kapper.internal
 
 import net.samyn.kapper.Args
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperQueryException
+import net.samyn.kapper.KapperResultException
+import net.samyn.kapper.QueryOptions
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.sql.Connection
+import java.sql.PreparedStatement
 import java.sql.ResultSet
+import java.sql.SQLException
 import java.sql.SQLType
 
 val logger: Logger = LoggerFactory.getLogger("net.samyn.kapper.coroutines.QueryExecution")
@@ -14,15 +21,29 @@ val logger: Logger = LoggerFactory.getLogger("net.samyn.kapper.coroutines.QueryE
 fun Connection.executeQuery(
     query: Query,
     args: Args,
-    // [fetch size 0 means batching is disabled](https://docs.oracle.com/en/java/javase/17/docs/api/java.sql/java/sql/Statement.html#setFetchSize(int)).
-    fetchSize: Int = 0,
+    options: QueryOptions = QueryOptions.DEFAULT,
+    dbFlavour: DbFlavour = getDbFlavour(),
+): ResultSet = executePreparedQuery(query, options, dbFlavour) { stmt -> args.setParameters(query, stmt, dbFlavour) }
+
+/**
+ * Prepare and execute the [query], using [bind] to set the statement parameters.
+ *
+ * @param options the options applied to the statement before it is executed.
+ * @param bind sets the parameters on the statement and returns a cleanup function to invoke after execution.
+ * @return a [ResultSet] which closes the statement when it is closed.
+ */
+internal fun Connection.executePreparedQuery(
+    query: Query,
+    options: QueryOptions,
+    dbFlavour: DbFlavour,
+    bind: (PreparedStatement) -> () -> Unit,
 ): ResultSet {
-    this.prepareStatement(query.sql).let { stmt ->
+    this.prepareQueryStatement(query.sql, options).let { stmt ->
         var cleanup: () -> Unit = {}
         try {
-            cleanup = args.setParameters(query, stmt, this.getDbFlavour())
+            cleanup = bind(stmt)
             logger.debug("Executing prepared statement for query: {}", stmt)
-            stmt.fetchSize = fetchSize
+            stmt.applyOptions(options)
             val rs = stmt.executeQuery()
             cleanup()
             return CloseableResultSet(rs) {
@@ -40,6 +61,94 @@ fun Connection.executeQuery(
     }
 }
 
+/**
+ * Prepare a statement for the [sql] with the result set type and concurrency of the [options].
+ */
+internal fun Connection.prepareQueryStatement(
+    sql: String,
+    options: QueryOptions,
+): PreparedStatement =
+    if (options.resultSetType == ResultSet.TYPE_FORWARD_ONLY && options.resultSetConcurrency == ResultSet.CONCUR_READ_ONLY) {
+        prepareStatement(sql)
+    } else {
+        prepareStatement(sql, options.resultSetType, options.resultSetConcurrency)
+    }
+
+/**
+ * Apply the fetch size, and the maximum number of rows, timeout and fetch direction when set, of the [options].
+ */
+internal fun PreparedStatement.applyOptions(options: QueryOptions) {
+    fetchSize = options.fetchSize
+    if (options.maxRows > 0) maxRows = options.maxRows
+    if (options.queryTimeout > 0) queryTimeout = options.queryTimeout
+    if (options.fetchDirection != ResultSet.FETCH_FORWARD) fetchDirection = options.fetchDirection
+}
+
+/**
+ * The [options] reading [rows] rows at most, replacing any configured maximum number of rows:
+ *  a single result query must read a second row to detect more than one result, also when fewer rows are configured.
+ *  The limit is also enforced when mapping the rows, for drivers which ignore the maximum number of rows.
+ */
+internal fun QueryOptions.limitRows(rows: Int): QueryOptions = if (maxRows == rows) this else copy(maxRows = rows)
+
+/**
+ * The single result of a query which read at most two rows, or `null` when there are no results.
+ *
+ * @throws KapperResultException when there is more than one result.
+ */
+internal fun <T : Any> List<T>.singleResult(): T? {
+    if (size > 1) {
+        throw KapperResultException("Expected a single result but found more than one")
+    }
+    return firstOrNull()
+}
+
+/**
+ * Map the rows in the [ResultSet] of the [query] using the [mapper].
+ *
+ * @param limit the maximum number of rows to map, the remaining rows are not read.
+ * @param failureMessage creates the message of the [KapperQueryException] thrown when reading the results fails.
+ */
+internal inline fun <T : Any> ResultSet.mapRows(
+    query: Query,
+    dbFlavour: DbFlavour,
+    mapper: (ResultSet, Map<String, Field>) -> T,
+    limit: Int = Int.MAX_VALUE,
+    failureMessage: () -> String,
+): List<T> =
+    buildList {
+        this@mapRows.forEachRow(query, dbFlavour, mapper, limit, failureMessage) { add(it) }
+    }
+
+/**
+ * Map the rows in the [ResultSet] of the [query] using the [mapper], and pass each row to the [action] as it is read.
+ *
+ * @param limit the maximum number of rows to map, the remaining rows are not read.
+ * @param failureMessage creates the message of the [KapperQueryException] thrown when reading the results fails.
+ */
+internal inline fun <T : Any> ResultSet.forEachRow(
+    query: Query,
+    dbFlavour: DbFlavour,
+    mapper: (ResultSet, Map<String, Field>) -> T,
+    limit: Int = Int.MAX_VALUE,
+    failureMessage: () -> String,
+    action: (T) -> Unit,
+) {
+    try {
+        val fields = extractQueryFields(query, dbFlavour)
+        var rows = 0
+        while (rows < limit && next()) {
+            action(mapper(this, fields))
+            rows++
+        }
+    } catch (e: SQLException) {
+        failureMessage().also {
+            logger.warn(it, e)
+            throw KapperQueryException(it, e)
+        }
+    }
+}
+
 private class CloseableResultSet(
     private val resultSet: ResultSet,
     private val onClose: () -> Unit = {},
@@ -0,0 +1,71 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.CloseableSequence
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperQueryException
+import java.sql.ResultSet
+import java.sql.SQLException
+
+/**
+ * A sequence mapping the rows of the [resultSet] of the [query] on demand.
+ * The result set, and the statement it closes, are closed when the last row is read or the sequence is closed.
+ */
+internal class ResultSetSequence<T : Any>(
+    private val resultSet: ResultSet,
+    private val query: Query,
+    private val dbFlavour: DbFlavour,
+    private val mapper: (ResultSet, Map<String, Field>) -> T,
+) : CloseableSequence<T> {
+    private var iterated = false
+    private var closed = false
+
+    override fun iterator(): Iterator<T> {
+        check(!iterated) { "The query results can only be iterated once" }
+        iterated = true
+        return RowIterator()
+    }
+
+    override fun close() {
+        if (!closed) {
+            closed = true
+            resultSet.close()
+        }
+    }
+
+    private inner class RowIterator : Iterator<T> {
+        private var fields: Map<String, Field>? = null
+        private var hasRow: Boolean? = null
+
+        override fun hasNext(): Boolean =
+            hasRow ?: (!closed && advance()).also {
+                hasRow = it
+                if (!it) close()
+            }
+
+        override fun next(): T {
+            if (!hasNext()) throw NoSuchElementException("No more rows")
+            hasRow = null
+            val rowFields = fields ?: readRow { resultSet.extractQueryFields(query, dbFlavour) }.also { fields = it }
+            return readRow { mapper(resultSet, rowFields) }
+        }
+
+        private fun advance(): Boolean = readRow { resultSet.next() }
+
+        private inline fun <R> readRow(read: () -> R): R =
+            try {
+                read()
+            } catch (e: SQLException) {
+                close()
+                "Failed to execute query: ${query.template}".let {
+                    logger.warn(it, e)
+                    throw KapperQueryException(it, e)
+                }
+            } catch (e: Exception) {
+                close()
+                throw e
+            }
+    }
+}
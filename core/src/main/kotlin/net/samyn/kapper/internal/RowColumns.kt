@@ -0,0 +1,48 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.Field
+import net.samyn.kapper.ResultRow
+import net.samyn.kapper.internal.automapper.ColumnReader
+import net.samyn.kapper.internal.automapper.resolveColumnReader
+import java.sql.ResultSet
+
+/**
+ * The columns of a result, shared by all [ResultRow]s of the result.
+ *  The column labels are indexed once, so a row only holds the array of its values.
+ */
+internal class RowColumns(
+    fields: Map<String, Field>,
+) {
+    private val ordered = fields.entries.sortedBy { it.value.columnIndex }
+    val names: List<String> = ordered.map { it.key }
+    private val readers: Array<ColumnReader> = ordered.map { resolveColumnReader(it.value) }.toTypedArray()
+    private val indexes: Map<String, Int> = names.withIndex().associate { it.value to it.index }
+
+    /**
+     * The index of the column with the label [name], ignoring case when there is no exact match, or `-1` if there is none.
+     */
+    fun indexOf(name: String): Int = indexes[name] ?: names.indexOfFirst { it.equals(name, ignoreCase = true) }
+
+    /**
+     * Read the values of the current row of the [resultSet].
+     */
+    fun read(resultSet: ResultSet): ResultRow = ResultRow(this, Array(readers.size) { readers[it].read(resultSet) })
+}
+
+/**
+ * A mapper of rows to [ResultRow]s, which indexes the columns for the first row of a result and shares them with the other rows.
+ */
+internal fun resultRowMapper(): (ResultSet, Map<String, Field>) -> ResultRow {
+    var columns: RowColumns? = null
+    var columnsFields: Map<String, Field>? = null
+    return { resultSet, fields ->
+        val current =
+            columns?.takeIf { columnsFields === fields } ?: RowColumns(fields).also {
+                columns = it
+                columnsFields = fields
+            }
+        current.read(resultSet)
+    }
+}
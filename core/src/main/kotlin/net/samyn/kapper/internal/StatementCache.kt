@@ -0,0 +1,296 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import net.samyn.kapper.CacheStats
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import java.sql.SQLException
+import java.sql.SQLType
+
+/**
+ * Size-bounded LRU cache of idle [PreparedStatement] instances for a single connection.
+ *
+ * A statement is handed out to a single caller at a time. Closing a [CachedPreparedStatement] resets it and
+ *  returns it to the cache instead of closing it, unless an idle statement with the same key is already cached.
+ *  When the cache grows beyond [maxSize], the least recently used statement is closed.
+ *
+ * A [maxSize] of `0` disables the cache and every statement is prepared by the connection.
+ *
+ * @param maxSize the maximum number of idle statements to cache.
+ */
+internal class StatementCache(
+    private val maxSize: Int,
+) {
+    companion object {
+        private val logger: Logger = LoggerFactory.getLogger(StatementCache::class.java)
+    }
+
+    data class Key(
+        val sql: String,
+        val resultSetType: Int,
+        val resultSetConcurrency: Int,
+    )
+
+    // access ordered, so the first entry is the least recently used.
+    private val idle = LinkedHashMap<Key, CachedPreparedStatement>(16, 0.75f, true)
+    private var hits = 0L
+    private var misses = 0L
+    private var evictions = 0L
+    private var closed = false
+
+    init {
+        require(maxSize >= 0) { "Statement cache size cannot be negative" }
+    }
+
+    fun prepare(
+        key: Key,
+        connection: Connection,
+        factory: () -> PreparedStatement,
+    ): PreparedStatement {
+        if (maxSize == 0) return factory()
+        synchronized(idle) {
+            if (!closed) {
+                val cached = idle.remove(key)
+                if (cached != null) {
+                    hits++
+                    cached.reopen()
+                    return cached
+                }
+            }
+            misses++
+        }
+        return CachedPreparedStatement(factory(), key, connection, this)
+    }
+
+    fun release(statement: CachedPreparedStatement) {
+        val evicted =
+            synchronized(idle) {
+                if (closed || idle.containsKey(statement.key)) {
+                    statement
+                } else {
+                    idle[statement.key] = statement
+                    if (idle.size > maxSize) {
+                        evictions++
+                        idle.values.iterator().let {
+                            val eldest = it.next()
+                            it.remove()
+                            eldest
+                        }
+                    } else {
+                        null
+                    }
+                }
+            }
+        evicted?.let { closeQuietly(it) }
+    }
+
+    /**
+     * Close all idle statements. Statements which are in use are closed when they are released.
+     */
+    fun close() {
+        val statements =
+            synchronized(idle) {
+                closed = true
+                idle.values.toList().also { idle.clear() }
+            }
+        statements.forEach { closeQuietly(it) }
+    }
+
+    val stats: CacheStats
+        get() = synchronized(idle) { CacheStats(hits, misses, evictions, idle.size, maxSize) }
+
+    private fun closeQuietly(statement: CachedPreparedStatement) {
+        try {
+            statement.closeStatement()
+        } catch (e: SQLException) {
+            logger.warn("Failed to close cached statement: ${statement.key.sql}", e)
+        }
+    }
+}
+
+/**
+ * [PreparedStatement] which is returned to its [StatementCache] when closed.
+ *
+ * Parameters, batches and the statement settings changed while in use are reset, and a result set left open
+ *  is closed, before the statement is returned, so the next user gets a statement in the same state as a newly
+ *  prepared one.
+ */
+internal class CachedPreparedStatement(
+    private val statement: PreparedStatement,
+    val key: StatementCache.Key,
+    private val connection: Connection,
+    private val cache: StatementCache,
+) : PreparedStatement by statement {
+    @Volatile
+    private var closed = false
+    private var batched = false
+
+    // the most recent result set of the statement, closed when the statement is returned to the cache.
+    private var openResultSet: ResultSet? = null
+    private val maxRows = Setting({ statement.maxRows }, { statement.maxRows = it })
+    private val fetchSize = Setting({ statement.fetchSize }, { statement.fetchSize = it })
+    private val fetchDirection = Setting({ statement.fetchDirection }, { statement.fetchDirection = it })
+    private val queryTimeout = Setting({ statement.queryTimeout }, { statement.queryTimeout = it })
+    private val maxFieldSize = Setting({ statement.maxFieldSize }, { statement.maxFieldSize = it })
+
+    fun reopen() {
+        closed = false
+    }
+
+    fun closeStatement() {
+        closed = true
+        statement.close()
+    }
+
+    override fun close() {
+        if (closed) return
+        closed = true
+        if (reset()) {
+            cache.release(this)
+        } else {
+            statement.close()
+        }
+    }
+
+    override fun isClosed(): Boolean = closed || statement.isClosed
+
+    override fun getConnection(): Connection = connection
+
+    override fun executeQuery(): ResultSet = statement.executeQuery().also { openResultSet = it }
+
+    override fun getResultSet(): ResultSet? = statement.resultSet?.also { openResultSet = it }
+
+    override fun getGeneratedKeys(): ResultSet = statement.generatedKeys.also { openResultSet = it }
+
+    override fun addBatch() {
+        statement.addBatch()
+        batched = true
+    }
+
+    override fun setMaxRows(max: Int) = maxRows.set(max)
+
+    override fun setLargeMaxRows(max: Long) {
+        maxRows.changed()
+        statement.largeMaxRows = max
+    }
+
+    override fun setFetchSize(rows: Int) = fetchSize.set(rows)
+
+    override fun setFetchDirection(direction: Int) = fetchDirection.set(direction)
+
+    override fun setQueryTimeout(seconds: Int) = queryTimeout.set(seconds)
+
+    override fun setMaxFieldSize(max: Int) = maxFieldSize.set(max)
+
+    private fun reset(): Boolean =
+        try {
+            if (statement.isClosed) {
+                false
+            } else {
+                openResultSet?.let { if (!it.isClosed) it.close() }
+                openResultSet = null
+                statement.clearParameters()
+                if (batched) {
+                    statement.clearBatch()
+                    batched = false
+                }
+                maxRows.restore()
+                fetchSize.restore()
+                fetchDirection.restore()
+                queryTimeout.restore()
+                maxFieldSize.restore()
+                statement.clearWarnings()
+                true
+            }
+        } catch (e: SQLException) {
+            false
+        }
+
+    /**
+     * Statement setting which remembers its original value when it is first changed, so it can be restored.
+     */
+    private class Setting(
+        private val read: () -> Int,
+        private val write: (Int) -> Unit,
+    ) {
+        private var initial = UNSET
+        private var current = UNSET
+
+        fun set(value: Int) {
+            changed(value)
+            write(value)
+        }
+
+        fun changed(value: Int = UNSET) {
+            if (initial == UNSET) initial = read()
+            current = value
+        }
+
+        fun restore() {
+            if (initial != UNSET && current != initial) write(initial)
+            initial = UNSET
+        }
+
+        companion object {
+            private const val UNSET = Int.MIN_VALUE
+        }
+    }
+
+    // default interface methods are not delegated.
+    override fun setObject(
+        parameterIndex: Int,
+        x: Any?,
+        targetSqlType: SQLType?,
+        scaleOrLength: Int,
+    ) {
+        statement.setObject(parameterIndex, x, targetSqlType, scaleOrLength)
+    }
+
+    override fun setObject(
+        parameterIndex: Int,
+        x: Any?,
+        targetSqlType: SQLType?,
+    ) {
+        statement.setObject(parameterIndex, x, targetSqlType)
+    }
+
+    override fun executeLargeUpdate(): Long = statement.executeLargeUpdate()
+
+    override fun getLargeUpdateCount(): Long = statement.largeUpdateCount
+
+    override fun getLargeMaxRows(): Long = statement.largeMaxRows
+
+    override fun executeLargeBatch(): LongArray = statement.executeLargeBatch()
+
+    override fun executeLargeUpdate(sql: String?): Long = statement.executeLargeUpdate(sql)
+
+    override fun executeLargeUpdate(
+        sql: String?,
+        autoGeneratedKeys: Int,
+    ): Long = statement.executeLargeUpdate(sql, autoGeneratedKeys)
+
+    override fun executeLargeUpdate(
+        sql: String?,
+        columnIndexes: IntArray?,
+    ): Long = statement.executeLargeUpdate(sql, columnIndexes)
+
+    override fun executeLargeUpdate(
+        sql: String?,
+        columnNames: Array<out String>?,
+    ): Long = statement.executeLargeUpdate(sql, columnNames)
+
+    override fun enquoteLiteral(`val`: String?): String = statement.enquoteLiteral(`val`)
+
+    override fun enquoteIdentifier(
+        identifier: String?,
+        alwaysQuote: Boolean,
+    ): String = statement.enquoteIdentifier(identifier, alwaysQuote)
+
+    override fun isSimpleIdentifier(identifier: String?): Boolean = statement.isSimpleIdentifier(identifier)
+
+    override fun enquoteNCharLiteral(`val`: String?): String = statement.enquoteNCharLiteral(`val`)
+}
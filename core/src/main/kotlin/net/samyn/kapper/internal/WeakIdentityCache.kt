@@ -0,0 +1,77 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal
+
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Lock-free cache of values by the identity of their keys, which are held weakly.
+ *
+ * Entries of keys which have been garbage collected are removed when the next value is added,
+ *  so the cache does not keep closed connections reachable.
+ */
+internal class WeakIdentityCache<K : Any, V : Any> {
+    private val entries = ConcurrentHashMap<Any, V>()
+    private val collected = ReferenceQueue<K>()
+
+    /**
+     * Get the value cached for the [key], or compute it with [compute] and cache it.
+     *  Concurrent callers may both compute the value of a new key, the first value cached is returned.
+     */
+    fun getOrPut(
+        key: K,
+        compute: (K) -> V,
+    ): V {
+        entries[LookupKey(key)]?.let { return it }
+        val value = compute(key)
+        purge()
+        return entries.putIfAbsent(WeakKey(key, collected), value) ?: value
+    }
+
+    val size: Int
+        get() {
+            purge()
+            return entries.size
+        }
+
+    private fun purge() {
+        while (true) {
+            val key = collected.poll() ?: return
+            entries.remove(key)
+        }
+    }
+
+    // the hash codes of both key types are the identity hash code of the referent, and they are equal when their
+    //  referents are the same instance. Lookups use a LookupKey, so no weak reference is created to read the cache.
+    private class WeakKey<K : Any>(
+        key: K,
+        queue: ReferenceQueue<K>,
+    ) : WeakReference<K>(key, queue) {
+        private val hash = System.identityHashCode(key)
+
+        override fun hashCode() = hash
+
+        override fun equals(other: Any?): Boolean =
+            other === this ||
+                when (other) {
+                    is WeakKey<*> -> get().let { it != null && it === other.get() }
+                    is LookupKey -> get().let { it != null && it === other.key }
+                    else -> false
+                }
+    }
+
+    private class LookupKey(
+        val key: Any,
+    ) {
+        override fun hashCode() = System.identityHashCode(key)
+
+        override fun equals(other: Any?): Boolean =
+            when (other) {
+                is WeakKey<*> -> other.get() === key
+                is LookupKey -> other.key === key
+                else -> false
+            }
+    }
+}
@@ -1,7 +1,16 @@
 package net.samyn.kapper.internal.automapper
 
+import net.samyn.kapper.ArgMapper
 import net.samyn.kapper.KapperMappingException
 import net.samyn.kapper.Mapper
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.AccessibleObject
+import kotlin.reflect.full.memberProperties
+import kotlin.reflect.full.primaryConstructor
+import kotlin.reflect.jvm.javaField
+import kotlin.reflect.jvm.javaGetter
 
 fun <T : Any> createAutoMapper(clazz: Class<T>): Mapper<T> {
     if (clazz.kotlin.isData) return KotlinDataClassMapper(clazz)
@@ -12,3 +21,48 @@ fun <T : Any> createAutoMapper(clazz: Class<T>): Mapper<T> {
             "Use a custom mapper instead.",
     )
 }
+
+private fun <A : AccessibleObject> A.accessible(): A = apply { trySetAccessible() }
+
+private val objectToObject = MethodType.methodType(Any::class.java, Any::class.java)
+
+/**
+ * Create argument mappers for the properties the auto-mapper maps, the primary constructor properties of a data class
+ *  or the components of a record, in declaration order.
+ */
+fun <T : Any> createArgMappers(clazz: Class<T>): List<ArgMapper<T>> {
+    val lookup = MethodHandles.lookup()
+    val getters: List<Pair<String, MethodHandle>> =
+        when {
+            clazz.kotlin.isData -> {
+                val constructor =
+                    clazz.kotlin.primaryConstructor
+                        ?: throw KapperMappingException("No primary constructor found for ${clazz.name}")
+                val properties = clazz.kotlin.memberProperties.associateBy { it.name }
+                constructor.parameters.mapNotNull { parameter ->
+                    val property = properties[parameter.name] ?: return@mapNotNull null
+                    val getter =
+                        property.javaGetter?.accessible()?.let(lookup::unreflect)
+                            ?: property.javaField?.accessible()?.let(lookup::unreflectGetter)
+                            ?: throw KapperMappingException("Cannot read property ${property.name} of ${clazz.name}")
+                    property.name to getter
+                }
+            }
+            clazz.isRecord ->
+                clazz.recordComponents.map { component ->
+                    component.name to lookup.unreflect(component.accessor.accessible())
+                }
+            else ->
+                throw KapperMappingException(
+                    "Cannot read properties of class ${clazz.name}. Only data classes and records are supported.",
+                )
+        }
+    return getters.map { (name, getter) ->
+        val handle = getter.asType(objectToObject)
+        name to { obj: T ->
+            // assign to Any? so invokeExact is called with the (Object)Object type of the handle
+            val value: Any? = handle.invokeExact(obj as Any)
+            value
+        }
+    }
+}
@@ -0,0 +1,150 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal.automapper
+
+import net.samyn.kapper.KapperMappingException
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Constructor
+import kotlin.jvm.internal.DefaultConstructorMarker
+import kotlin.reflect.KClass
+import kotlin.reflect.KFunction
+import kotlin.reflect.KParameter
+import kotlin.reflect.jvm.javaConstructor
+
+/**
+ * Invokes a constructor with an array of positional arguments.
+ */
+fun interface ConstructorInvoker<T> {
+    fun invoke(args: Array<Any?>): T
+}
+
+private val objectArrayToObject = MethodType.methodType(Any::class.java, Array<Any?>::class.java)
+
+/**
+ * Create a [ConstructorInvoker] for this constructor, backed by a [MethodHandle] which spreads the arguments.
+ * Arguments are passed to the constructor without copying the array, and exceptions thrown by the constructor
+ *  are not wrapped.
+ */
+fun <T> Constructor<T>.invoker(): ConstructorInvoker<T> {
+    trySetAccessible()
+    val handle =
+        MethodHandles.lookup()
+            .unreflectConstructor(this)
+            .asSpreader(Array<Any?>::class.java, parameterCount)
+            .asType(objectArrayToObject)
+    return ConstructorInvoker { args ->
+        // assign to Any? so invokeExact is called with the (Object[])Object type of the handle
+        val instance: Any? = handle.invokeExact(args)
+        @Suppress("UNCHECKED_CAST")
+        instance as T
+    }
+}
+
+// zero values of the primitive types, passed for absent primitive arguments
+val primitiveDefaults: Map<Class<*>, Any> =
+    mapOf(
+        Boolean::class.javaPrimitiveType!! to false,
+        Byte::class.javaPrimitiveType!! to 0.toByte(),
+        Short::class.javaPrimitiveType!! to 0.toShort(),
+        Char::class.javaPrimitiveType!! to 0.toChar(),
+        Int::class.javaPrimitiveType!! to 0,
+        Long::class.javaPrimitiveType!! to 0L,
+        Float::class.javaPrimitiveType!! to 0f,
+        Double::class.javaPrimitiveType!! to 0.0,
+    )
+
+/**
+ * Creates instances of a Kotlin class through its primary [constructor], using positional arguments.
+ *
+ * When the constructor has optional parameters, the synthetic constructor the Kotlin compiler generates for
+ *  default arguments is invoked, with a bitmask of the parameters which were not provided.
+ *  This avoids [KFunction.callBy], which needs a map of arguments for every instance.
+ *  Constructors which cannot be invoked directly, for example because they take value classes, fall back to
+ *  [KFunction.callBy].
+ *
+ * Usage: create the argument array with [arguments], set the value of each parameter at its index or mark the
+ *  parameter as [absent], and call [newInstance].
+ */
+class PrimaryConstructor<T : Any>(
+    private val constructor: KFunction<T>,
+) {
+    val parameters: List<KParameter> = constructor.parameters
+    private val size = parameters.size
+    private val hasOptional = parameters.any { it.isOptional }
+    private val maskCount = if (hasOptional) (size + Int.SIZE_BITS - 1) / Int.SIZE_BITS else 0
+
+    // the synthetic constructor takes the default constructor marker after the masks.
+    private val argumentsSize = if (hasOptional) size + maskCount + 1 else size
+
+    /**
+     * The Java constructor, when it can be invoked directly with a value for every parameter, otherwise `null`.
+     */
+    val directConstructor: Constructor<T>? = directConstructor()
+    private val invoker: ConstructorInvoker<T>? = directInvoker()
+    private val absentValues: Array<Any?> =
+        Array(size) { i ->
+            constructor.javaConstructor?.parameterTypes?.getOrNull(i)?.let { primitiveDefaults[it] }
+        }
+
+    fun arguments(): Array<Any?> =
+        arrayOfNulls<Any?>(argumentsSize).also { args ->
+            for (m in 0 until maskCount) args[size + m] = 0
+        }
+
+    /**
+     * Mark the optional parameter at [index] as not provided, so its default value is used.
+     */
+    fun absent(
+        args: Array<Any?>,
+        index: Int,
+    ) {
+        if (!parameters[index].isOptional) {
+            throw KapperMappingException("Parameter '${parameters[index].name}' is not optional")
+        }
+        args[index] = absentValues[index]
+        val mask = size + index / Int.SIZE_BITS
+        args[mask] = (args[mask] as Int) or (1 shl (index % Int.SIZE_BITS))
+    }
+
+    fun newInstance(args: Array<Any?>): T = invoker?.invoke(args) ?: callBy(args)
+
+    private fun isAbsent(
+        args: Array<Any?>,
+        index: Int,
+    ) = hasOptional && (args[size + index / Int.SIZE_BITS] as Int) and (1 shl (index % Int.SIZE_BITS)) != 0
+
+    private fun callBy(args: Array<Any?>): T {
+        val arguments = HashMap<KParameter, Any?>(size * 2)
+        for (i in 0 until size) {
+            if (!isAbsent(args, i)) arguments[parameters[i]] = args[i]
+        }
+        return constructor.callBy(arguments)
+    }
+
+    private fun directConstructor(): Constructor<T>? {
+        val javaConstructor = constructor.javaConstructor ?: return null
+        // value classes are passed as their underlying type, which callBy takes care of
+        if (javaConstructor.parameterCount != size ||
+            parameters.any { (it.type.classifier as? KClass<*>)?.isValue == true }
+        ) {
+            return null
+        }
+        return javaConstructor
+    }
+
+    private fun directInvoker(): ConstructorInvoker<T>? {
+        val javaConstructor = directConstructor ?: return null
+        if (!hasOptional) return javaConstructor.invoker()
+        val parameterTypes =
+            javaConstructor.parameterTypes +
+                Array(maskCount) { Int::class.javaPrimitiveType!! } +
+                DefaultConstructorMarker::class.java
+        return try {
+            javaConstructor.declaringClass.getDeclaredConstructor(*parameterTypes).invoker()
+        } catch (_: NoSuchMethodException) {
+            null
+        }
+    }
+}
@@ -0,0 +1,56 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal.automapper
+
+import net.samyn.kapper.Field
+
+private const val DEFAULT_MAX_SIZE = 16
+
+/**
+ * Small cache of values computed from a fields map, such as the bindings of a mapper, with an entry per distinct
+ *  fields map, so queries which map the same class in turn do not evict each other.
+ *
+ * Fields maps are compared by identity first, which is the common case as the fields of a query are memoized.
+ *  When no entry matches by identity, an entry of an equal fields map is used, so results of the same columns
+ *  share an entry even when their fields are extracted again, for example when their query is not cached.
+ *
+ * Entries are held in a copy-on-write array, so reading the cache does not lock.
+ *  When the cache is full, the least recently added entry is evicted.
+ *
+ * @param maxSize the maximum number of entries.
+ */
+internal class FieldsCache<V : Any>(
+    private val maxSize: Int = DEFAULT_MAX_SIZE,
+) {
+    private class Entry<V>(
+        val fields: Map<String, Field>,
+        val value: V,
+    )
+
+    @Volatile
+    private var entries: Array<Entry<V>> = emptyArray()
+
+    /**
+     * Get the value of the [fields], or compute it with [compute] and cache it.
+     */
+    fun getOrPut(
+        fields: Map<String, Field>,
+        compute: (Map<String, Field>) -> V,
+    ): V {
+        val current = entries
+        for (entry in current) {
+            if (entry.fields === fields) return entry.value
+        }
+        for (entry in current) {
+            if (entry.fields == fields) return entry.value
+        }
+        val value = compute(fields)
+        synchronized(this) {
+            entries = arrayOf(Entry(fields, value)) + entries.copyOf(minOf(entries.size, maxSize - 1)).requireNoNulls()
+        }
+        return value
+    }
+
+    val size: Int
+        get() = entries.size
+}
@@ -1,23 +1,98 @@
 package net.samyn.kapper.internal.automapper
 
+import net.samyn.kapper.ConverterRegistry
 import net.samyn.kapper.Field
+import net.samyn.kapper.Kapper
 import java.sql.ResultSet
 
-class FieldsConverter(
-    private val converter: SQLTypesConverter = sqlTypesConverter,
+/**
+ * Convert the fields of a row to [ColumnValue]s, or bind them to constructor parameters with [bind].
+ *
+ * The [ColumnReader] of each field is resolved once per fields map, so converting a row only invokes the readers.
+ *
+ * @param readerFactory resolves the [ColumnReader] of a field.
+ * @property readsPrimitives whether primitive parameters may be read from the result set with a [primitiveReader]
+ *  instead of their [ColumnReader], which is only the case for the default readers.
+ * @property converterRegistry the converters of the values read, a primitive parameter with a registered converter
+ *  for the values of its column is read with its [ColumnReader] and converted instead.
+ */
+class FieldsConverter private constructor(
+    private val readerFactory: (Field) -> ColumnReader,
+    val readsPrimitives: Boolean,
+    val converterRegistry: ConverterRegistry,
 ) {
+    constructor(converterRegistry: ConverterRegistry = Kapper.converterRegistry) :
+        this(::resolveColumnReader, true, converterRegistry)
+
+    constructor(readerFactory: (Field) -> ColumnReader) : this(readerFactory, false, Kapper.converterRegistry)
+
+    constructor(converter: SQLTypesConverter) :
+        this({ field -> ColumnReader { converter.convert(field, it) } }, false, Kapper.converterRegistry)
+
+    private class ColumnReaders(
+        val names: Array<String>,
+        val fields: Array<Field>,
+        val readers: Array<ColumnReader>,
+    )
+
+    // readers by fields map, results of the same query share the same fields map.
+    private val columnReaders = FieldsCache<ColumnReaders>()
+
     fun convert(
         resultSet: ResultSet,
         fields: Map<String, Field>,
-    ) = fields.map { field ->
-        ColumnValue(
-            field.key,
-            converter.convert(
-                field.value,
-                resultSet,
-            ),
+    ): List<ColumnValue> {
+        val columnReaders = columnReaders(fields)
+        val names = columnReaders.names
+        val readers = columnReaders.readers
+        return List(readers.size) { ColumnValue(names[it], readers[it].read(resultSet)) }
+    }
+
+    /**
+     * Bind the fields to parameters, matching the normalised column names with the normalised [parameterNames].
+     *  When several columns have the same normalised name, the last column is bound.
+     *
+     * @return the binding of the fields, with the reader of the column bound to each parameter.
+     */
+    fun bind(
+        fields: Map<String, Field>,
+        parameterNames: List<String>,
+    ): ColumnBinding {
+        val columnReaders = columnReaders(fields)
+        val indexesByName = HashMap<String, Int>(columnReaders.names.size * 2)
+        for (i in columnReaders.names.indices) {
+            indexesByName[columnReaders.names[i].normalisedColumnName()] = i
+        }
+        val indexes = parameterNames.map { indexesByName[it] }
+        return ColumnBinding(
+            fields,
+            Array(parameterNames.size) { indexes[it]?.let { i -> columnReaders.readers[i] } },
+            Array(parameterNames.size) { indexes[it]?.let { i -> columnReaders.fields[i] } },
         )
     }
+
+    private fun columnReaders(fields: Map<String, Field>): ColumnReaders =
+        columnReaders.getOrPut(fields) {
+            ColumnReaders(
+                it.keys.toTypedArray(),
+                it.values.toTypedArray(),
+                it.values.map(readerFactory).toTypedArray(),
+            )
+        }
 }
 
+/**
+ * Binding of the columns of a fields map to the parameters of a constructor.
+ *  A row is read by invoking the reader bound to each parameter, without converting it to [ColumnValue]s first.
+ *
+ * @property fields the fields map the binding was created for.
+ * @property readers the reader of the column bound to each parameter, `null` when no column is bound to it.
+ * @property columns the field of the column bound to each parameter, `null` when no column is bound to it.
+ */
+class ColumnBinding(
+    val fields: Map<String, Field>,
+    val readers: Array<ColumnReader?>,
+    val columns: Array<Field?>,
+)
+
 data class ColumnValue(val name: String, val value: Any?)
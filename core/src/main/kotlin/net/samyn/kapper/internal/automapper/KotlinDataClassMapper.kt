@@ -10,18 +10,18 @@ import net.samyn.kapper.internal.autoConverter
 import java.sql.ResultSet
 import java.util.concurrent.ConcurrentHashMap
 import kotlin.reflect.KClass
-import kotlin.reflect.KFunction
-import kotlin.reflect.KParameter
 import kotlin.reflect.full.primaryConstructor
 
 private data class ReflectionData<T : Any>(
-    val constructor: KFunction<T>,
-    val properties: Map<String, PropertyData<T>>,
+    val constructor: PrimaryConstructor<T>,
+    val properties: List<PropertyData<T>>,
+    val names: List<String> = properties.map { it.name },
 )
 
 private data class PropertyData<T : Any>(
-    val kProp: KParameter,
+    val name: String,
     val isOptional: Boolean,
+    val isNullable: Boolean,
     val type: KClass<T>,
     val javaType: Class<*> = type.javaObjectType,
 )
@@ -43,49 +43,103 @@ class KotlinDataClassMapper<T : Any>(
             val constructor =
                 it.kotlin.primaryConstructor
                     ?: throw KapperMappingException("No primary constructor found for ${it.name}")
+            // ordered by parameter index
             val properties =
-                constructor.parameters.associate { p ->
-                    p.name.normalisedColumnName() to
-                        PropertyData(
-                            p,
-                            p.isOptional,
-                            p.type.classifier as KClass<T>,
-                        )
-                } as Map<String, PropertyData<Any>>
-            ReflectionData(constructor, properties)
+                constructor.parameters.map { p ->
+                    PropertyData(
+                        p.name.normalisedColumnName(),
+                        p.isOptional,
+                        p.type.isMarkedNullable,
+                        p.type.classifier as KClass<T>,
+                    )
+                } as List<PropertyData<Any>>
+            ReflectionData(PrimaryConstructor(constructor), properties)
         } as ReflectionData<T>
 
-    private fun createInstance(columns: List<ColumnValue>): T {
-        val args = mutableMapOf<KParameter, Any?>()
-        val missing = mutableListOf<String>()
-        val normalisedColumns = columns.associateBy { it.name.normalisedColumnName() }
-        for ((name, prop) in reflectionData.properties) {
-            if (!normalisedColumns.containsKey(name)) {
-                if (!prop.isOptional) missing.add(name)
-                continue
-            }
-            val value = normalisedColumns[name]?.value
-            args[prop.kProp] =
-                when {
-                    value == null -> null
-                    !prop.javaType.isInstance(value) -> {
-                        typesConverter.convert(value, prop.type.java)
-                    }
-                    else -> value
-                }
-        }
+    private class BoundClass<T>(
+        val binding: ColumnBinding,
+        val rowConstructor: RowConstructor<T>?,
+    )
+
+    // bindings by fields map, results of the same query share the same fields map.
+    private val bindings = FieldsCache<BoundClass<T>>()
+
+    private fun bind(fields: Map<String, Field>): BoundClass<T> = bindings.getOrPut(fields, ::newBinding)
+
+    private fun newBinding(fields: Map<String, Field>): BoundClass<T> {
+        val binding = fieldsConverter.bind(fields, reflectionData.names)
+        val missing =
+            reflectionData.properties.filterIndexed { index, prop ->
+                binding.readers[index] == null && !prop.isOptional
+            }.map { it.name }
         if (missing.isNotEmpty()) {
             throw KapperMappingException("The following properties are non-optional and missing: $missing")
         }
-        return reflectionData.constructor.callBy(args)
+        return BoundClass(binding, rowConstructor(binding))
+    }
+
+    // primitive properties of columns with a matching type are read without boxing them,
+    //  when every property is bound and the constructor can be invoked directly.
+    private fun rowConstructor(binding: ColumnBinding): RowConstructor<T>? {
+        val constructor = reflectionData.constructor.directConstructor
+        if (!fieldsConverter.readsPrimitives || constructor == null || binding.readers.any { it == null }) return null
+        val types = constructor.parameterTypes.toList()
+        if (!RowConstructor.supports(types)) return null
+        val primitiveReaders =
+            types.mapIndexed { index, type ->
+                binding.columns[index]?.let {
+                    primitiveReader(it, type, nullMessage(reflectionData.properties[index]), fieldsConverter.converterRegistry)
+                }
+            }
+        if (primitiveReaders.all { it == null }) return null
+        return RowConstructor(
+            constructor,
+            primitiveReaders.mapIndexed { index, reader ->
+                reader ?: objectReader(types[index]) { readProperty(it, binding.readers[index]!!, index) }
+            },
+        )
+    }
+
+    private fun nullMessage(prop: PropertyData<T>) = "The property '${prop.name}' cannot be null."
+
+    private fun readProperty(
+        resultSet: ResultSet,
+        reader: ColumnReader,
+        index: Int,
+    ): Any? {
+        val value = reader.read(resultSet)
+        val prop = reflectionData.properties[index]
+        return when {
+            value == null -> {
+                if (!prop.isNullable) {
+                    throw KapperMappingException(nullMessage(prop))
+                }
+                null
+            }
+            !prop.javaType.isInstance(value) -> {
+                typesConverter.convert(value, prop.type.java)
+            }
+            else -> value
+        }
     }
 
     override fun createInstance(
         resultSet: ResultSet,
         fields: Map<String, Field>,
     ): T {
-        return createInstance(
-            fieldsConverter.convert(resultSet, fields),
-        )
+        val bound = bind(fields)
+        bound.rowConstructor?.let { return it.newInstance(resultSet) }
+        val readers = bound.binding.readers
+        val constructor = reflectionData.constructor
+        val args = constructor.arguments()
+        for (index in readers.indices) {
+            val reader = readers[index]
+            if (reader == null) {
+                constructor.absent(args, index)
+                continue
+            }
+            args[index] = readProperty(resultSet, reader, index)
+        }
+        return constructor.newInstance(args)
     }
 }
@@ -28,45 +28,87 @@ class RecordMapper<T : Any>(
     }
 
     private val recordComponents = clazz.recordComponents
+    private val names = recordComponents.map { it.name.normalisedColumnName() }
 
-    private fun createInstance(columns: List<ColumnValue>): T {
-        val args = arrayOfNulls<Any>(recordComponents.size)
-        val normalisedColumns = columns.associateBy { it.name.normalisedColumnName() }
-        val missing = mutableListOf<String>()
-        for ((idx, rc) in recordComponents.withIndex()) {
-            val name = rc.name.normalisedColumnName()
-            if (!normalisedColumns.containsKey(name)) {
-                if (rc.type.isPrimitive) {
-                    missing.add(name)
-                }
-                continue
+    // primitive components accept their boxed values without conversion
+    private val boxedTypes = recordComponents.map { it.type.kotlin.javaObjectType }
+
+    // the canonical constructor takes the record components in declaration order
+    private val canonicalConstructor = clazz.getDeclaredConstructor(*recordComponents.map { it.type }.toTypedArray())
+    private val canonical: ConstructorInvoker<T> = canonicalConstructor.invoker()
+
+    private class BoundRecord<T>(
+        val binding: ColumnBinding,
+        val rowConstructor: RowConstructor<T>?,
+    )
+
+    // bindings by fields map, results of the same query share the same fields map.
+    private val bindings = FieldsCache<BoundRecord<T>>()
+
+    private fun bind(fields: Map<String, Field>): BoundRecord<T> = bindings.getOrPut(fields, ::newBinding)
+
+    private fun newBinding(fields: Map<String, Field>): BoundRecord<T> {
+        val binding = fieldsConverter.bind(fields, names)
+        val missing =
+            names.filterIndexed { index, _ ->
+                binding.readers[index] == null && recordComponents[index].type.isPrimitive
             }
-            val value = normalisedColumns[name]?.value
-            args[idx] =
-                if (value == null) {
-                    if (rc.type.isPrimitive) {
-                        throw KapperMappingException("The record component '$name' cannot be null.")
-                    }
-                    null
-                } else if (!rc.type.isInstance(value)) {
-                    typesConverter.convert(value, rc.type)
-                } else {
-                    value
-                }
-        }
         if (missing.isNotEmpty()) {
             throw KapperMappingException("The following non-nullable record components are missing: $missing")
         }
-        val canonical = clazz.getDeclaredConstructor(*recordComponents.map { it.type }.toTypedArray())
-        return canonical.newInstance(*args)
+        return BoundRecord(binding, rowConstructor(binding))
+    }
+
+    // primitive components of columns with a matching type are read without boxing them.
+    private fun rowConstructor(binding: ColumnBinding): RowConstructor<T>? {
+        val types = recordComponents.map { it.type }
+        if (!fieldsConverter.readsPrimitives || !RowConstructor.supports(types)) return null
+        val primitiveReaders =
+            types.mapIndexed { index, type ->
+                binding.columns[index]?.let { primitiveReader(it, type, nullMessage(index), fieldsConverter.converterRegistry) }
+            }
+        if (primitiveReaders.all { it == null }) return null
+        return RowConstructor(
+            canonicalConstructor,
+            primitiveReaders.mapIndexed { index, reader ->
+                reader ?: objectReader(types[index]) { readComponent(it, binding.readers, index) }
+            },
+        )
+    }
+
+    private fun nullMessage(index: Int) = "The record component '${names[index]}' cannot be null."
+
+    private fun readComponent(
+        resultSet: ResultSet,
+        readers: Array<ColumnReader?>,
+        index: Int,
+    ): Any? {
+        val reader = readers[index] ?: return null
+        val value = reader.read(resultSet)
+        val type = recordComponents[index].type
+        return if (value == null) {
+            if (type.isPrimitive) {
+                throw KapperMappingException(nullMessage(index))
+            }
+            null
+        } else if (!boxedTypes[index].isInstance(value)) {
+            typesConverter.convert(value, type)
+        } else {
+            value
+        }
     }
 
     override fun createInstance(
         resultSet: ResultSet,
         fields: Map<String, Field>,
     ): T {
-        return createInstance(
-            fieldsConverter.convert(resultSet, fields),
-        )
+        val bound = bind(fields)
+        bound.rowConstructor?.let { return it.newInstance(resultSet) }
+        val readers = bound.binding.readers
+        val args = arrayOfNulls<Any>(readers.size)
+        for (index in readers.indices) {
+            args[index] = readComponent(resultSet, readers, index)
+        }
+        return canonical.invoke(args)
     }
 }
@@ -0,0 +1,230 @@
+@file:JvmSynthetic
+
+package net.samyn.kapper.internal.automapper
+
+import net.samyn.kapper.ConverterRegistry
+import net.samyn.kapper.Field
+import net.samyn.kapper.Kapper
+import net.samyn.kapper.KapperMappingException
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Constructor
+import java.sql.JDBCType
+import java.sql.ResultSet
+
+// a method handle has at most 255 parameter slots, long and double parameters take two slots.
+private const val MAX_PARAMETER_SLOTS = 254
+
+private val INT_COLUMNS = setOf(JDBCType.INTEGER, JDBCType.SMALLINT, JDBCType.TINYINT)
+private val SHORT_COLUMNS = setOf(JDBCType.SMALLINT, JDBCType.TINYINT)
+private val DOUBLE_COLUMNS = setOf(JDBCType.DOUBLE, JDBCType.FLOAT, JDBCType.REAL)
+private val FLOAT_COLUMNS = setOf(JDBCType.FLOAT, JDBCType.REAL)
+private val BOOLEAN_COLUMNS = setOf(JDBCType.BIT, JDBCType.BOOLEAN)
+
+/**
+ * Creates instances from the current row of a [ResultSet] by invoking a [constructor] through a single [MethodHandle],
+ *  composed of a reader for every parameter.
+ *
+ * Primitive parameters read with a [primitiveReader] are passed to the constructor without being boxed.
+ *
+ * @param readers a handle of type `(ResultSet)` to the parameter type for every parameter of the [constructor].
+ */
+class RowConstructor<T>(
+    constructor: Constructor<T>,
+    readers: List<MethodHandle>,
+) {
+    private val handle: MethodHandle
+
+    init {
+        constructor.trySetAccessible()
+        val target = MethodHandles.lookup().unreflectConstructor(constructor)
+        // every parameter reads from the same result set
+        handle =
+            MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(target, 0, *readers.toTypedArray()),
+                MethodType.methodType(target.type().returnType(), ResultSet::class.java),
+                *IntArray(readers.size),
+            ).asType(MethodType.methodType(Any::class.java, ResultSet::class.java))
+    }
+
+    fun newInstance(resultSet: ResultSet): T {
+        // assign to Any? so invokeExact is called with the (ResultSet)Object type of the handle
+        val instance: Any? = handle.invokeExact(resultSet)
+        @Suppress("UNCHECKED_CAST")
+        return instance as T
+    }
+
+    companion object {
+        /**
+         * Whether a [RowConstructor] can invoke a constructor with parameters of the [types].
+         */
+        fun supports(types: List<Class<*>>): Boolean =
+            types.sumOf { if (it == Long::class.javaPrimitiveType || it == Double::class.javaPrimitiveType) 2L else 1L } <=
+                MAX_PARAMETER_SLOTS
+    }
+}
+
+/**
+ * Resolve a handle of type `(ResultSet)` to the primitive [type], which reads the [field] with the getter of that type,
+ *  such as [ResultSet.getInt], without boxing the value.
+ *
+ * A SQL `NULL` value throws a [KapperMappingException] with the [nullMessage].
+ *
+ * @return the handle, or `null` when the [type] is not primitive or the column does not hold values of that type,
+ *  or when the [converterRegistry] has a converter for the values of the column to the [type],
+ *  in which case the column is read with its [ColumnReader] and converted.
+ */
+fun primitiveReader(
+    field: Field,
+    type: Class<*>,
+    nullMessage: String,
+    converterRegistry: ConverterRegistry = Kapper.converterRegistry,
+): MethodHandle? {
+    val typeName = field.typeName.lowercase()
+    val compatible =
+        when (type) {
+            Int::class.javaPrimitiveType -> field.type in INT_COLUMNS
+            Long::class.javaPrimitiveType -> field.type == JDBCType.BIGINT || field.type in INT_COLUMNS
+            Short::class.javaPrimitiveType -> field.type in SHORT_COLUMNS
+            Byte::class.javaPrimitiveType -> field.type == JDBCType.TINYINT
+            Double::class.javaPrimitiveType ->
+                field.type in DOUBLE_COLUMNS || typeName == "binary_double" || typeName == "binary_float"
+            Float::class.javaPrimitiveType -> field.type in FLOAT_COLUMNS || typeName == "binary_float"
+            Boolean::class.javaPrimitiveType -> field.type in BOOLEAN_COLUMNS
+            else -> false
+        }
+    if (!compatible) return null
+    // the values of other types are converted, registered converters take precedence over reading them directly.
+    val source = field.readerType()
+    if (source != type.kotlin.javaObjectType && converterRegistry.isRegistered(source, type)) return null
+    return MethodHandles.insertArguments(PrimitiveReaders.readers.getValue(type), 1, field.columnIndex, nullMessage)
+}
+
+// the class of the values the ColumnReader of a field compatible with a primitive type reads, see resolveColumnReader.
+private fun Field.readerType(): Class<*> =
+    when (type) {
+        JDBCType.BIGINT -> Long::class.javaObjectType
+        in INT_COLUMNS -> Int::class.javaObjectType
+        JDBCType.DOUBLE -> Double::class.javaObjectType
+        in FLOAT_COLUMNS -> Float::class.javaObjectType
+        in BOOLEAN_COLUMNS -> Boolean::class.javaObjectType
+        else -> if (typeName.lowercase() == "binary_double") Double::class.javaObjectType else Float::class.javaObjectType
+    }
+
+/**
+ * Create a handle of type `(ResultSet)` to the parameter [type], which returns the value of [read].
+ *  The value is unboxed when the [type] is primitive, and must not be `null` in that case.
+ */
+fun objectReader(
+    type: Class<*>,
+    read: (ResultSet) -> Any?,
+): MethodHandle = PrimitiveReaders.invokeFunction.bindTo(read).asType(MethodType.methodType(type, ResultSet::class.java))
+
+// the getters of SQL NULL values return zero or false, only then is wasNull checked.
+private object PrimitiveReaders {
+    private val lookup = MethodHandles.lookup()
+
+    val invokeFunction: MethodHandle =
+        MethodHandles.publicLookup()
+            .findVirtual(Function1::class.java, "invoke", MethodType.methodType(Any::class.java, Any::class.java))
+
+    // the readers by primitive type, resolved once
+    val readers: Map<Class<*>, MethodHandle> =
+        listOf(
+            Int::class to "readInt",
+            Long::class to "readLong",
+            Short::class to "readShort",
+            Byte::class to "readByte",
+            Double::class to "readDouble",
+            Float::class to "readFloat",
+            Boolean::class to "readBoolean",
+        ).associate { (type, name) -> type.javaPrimitiveType!! to handle(name, type.javaPrimitiveType!!) }
+
+    private fun handle(
+        name: String,
+        type: Class<*>,
+    ): MethodHandle =
+        lookup.findStatic(
+            PrimitiveReaders::class.java,
+            name,
+            MethodType.methodType(type, ResultSet::class.java, Int::class.javaPrimitiveType, String::class.java),
+        )
+
+    @JvmStatic
+    fun readInt(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Int {
+        val value = resultSet.getInt(index)
+        if (value == 0 && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+
+    @JvmStatic
+    fun readLong(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Long {
+        val value = resultSet.getLong(index)
+        if (value == 0L && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+
+    @JvmStatic
+    fun readShort(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Short {
+        val value = resultSet.getShort(index)
+        if (value == 0.toShort() && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+
+    @JvmStatic
+    fun readByte(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Byte {
+        val value = resultSet.getByte(index)
+        if (value == 0.toByte() && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+
+    @JvmStatic
+    fun readDouble(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Double {
+        val value = resultSet.getDouble(index)
+        if (value == 0.0 && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+
+    @JvmStatic
+    fun readFloat(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Float {
+        val value = resultSet.getFloat(index)
+        if (value == 0f && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+
+    @JvmStatic
+    fun readBoolean(
+        resultSet: ResultSet,
+        index: Int,
+        nullMessage: String,
+    ): Boolean {
+        val value = resultSet.getBoolean(index)
+        if (!value && resultSet.wasNull()) throw KapperMappingException(nullMessage)
+        return value
+    }
+}
@@ -42,52 +42,73 @@ private val INTEGER_TYPES = listOf(JDBCType.INTEGER, JDBCType.SMALLINT, JDBCType
 private val TIME_TYPES = listOf(JDBCType.TIME, JDBCType.TIME_WITH_TIMEZONE)
 private val TIMESTAMP_TYPES = listOf(JDBCType.TIMESTAMP, JDBCType.TIMESTAMP_WITH_TIMEZONE)
 
+/**
+ * Reads the value of a single column from the current row of a [ResultSet].
+ */
+fun interface ColumnReader {
+    fun read(resultSet: ResultSet): Any?
+}
+
 val sqlTypesConverter =
     SQLTypesConverter { field, resultSet ->
-        when (field.type) {
-            JDBCType.ARRAY -> convertArray(resultSet, field.columnIndex)
-            JDBCType.BIGINT -> resultSet.getNullableLong(field.columnIndex)
-            in BINARY_TYPES -> resultSet.getBytes(field.columnIndex)
+        resolveColumnReader(field).read(resultSet)
+    }
+
+/**
+ * Resolve the [ColumnReader] for a [Field].
+ *
+ * The conversion is selected from the field's type once, so the reader can be used for every row of a result
+ *  without inspecting the type again.
+ * Reading a field of an unsupported type throws [KapperUnsupportedOperationException].
+ */
+fun resolveColumnReader(field: Field): ColumnReader {
+    val index = field.columnIndex
+    val dbFlavour = field.dbFlavour
+    return when (field.type) {
+        JDBCType.ARRAY -> ColumnReader { convertArray(it, index) }
+        JDBCType.BIGINT -> ColumnReader { it.getNullableLong(index) }
+        in BINARY_TYPES -> ColumnReader { it.getBytes(index) }
 
-            in BOOLEAN_TYPES -> resultSet.getNullableBoolean(field.columnIndex)
-            in CHAR_TYPES -> resultSet.getString(field.columnIndex)?.toCharArray()
+        in BOOLEAN_TYPES -> ColumnReader { it.getNullableBoolean(index) }
+        in CHAR_TYPES -> ColumnReader { it.getString(index)?.toCharArray() }
 
-            in STRING_TYPES -> resultSet.getString(field.columnIndex)
+        in STRING_TYPES -> ColumnReader { it.getString(index) }
 
-            in DATE_TYPES -> convertDate(resultSet, field.columnIndex, field.dbFlavour)
+        in DATE_TYPES -> ColumnReader { convertDate(it, index, dbFlavour) }
 
-            in DECIMAL_TYPES -> convertDecimal(resultSet, field.columnIndex, field.dbFlavour)
+        in DECIMAL_TYPES -> ColumnReader { convertDecimal(it, index, dbFlavour) }
 
-            in FLOAT_TYPES -> resultSet.getNullableFloat(field.columnIndex)
+        in FLOAT_TYPES -> ColumnReader { it.getNullableFloat(index) }
 
-            JDBCType.DOUBLE ->
-                resultSet.getNullableDouble(field.columnIndex)
+        JDBCType.DOUBLE -> ColumnReader { it.getNullableDouble(index) }
 
-            in INTEGER_TYPES -> resultSet.getNullableInt(field.columnIndex)
+        in INTEGER_TYPES -> ColumnReader { it.getNullableInt(index) }
 
-            JDBCType.JAVA_OBJECT,
-            -> resultSet.getObject(field.columnIndex)
+        JDBCType.JAVA_OBJECT,
+        -> ColumnReader { it.getObject(index) }
 
-            in TIME_TYPES -> convertTime(resultSet, field.columnIndex, field.dbFlavour)
+        in TIME_TYPES -> ColumnReader { convertTime(it, index, dbFlavour) }
 
-            in TIMESTAMP_TYPES -> convertTimestamp(resultSet, field.columnIndex, field.typeName)
+        in TIMESTAMP_TYPES -> timestampReader(index, field.typeName)
 
-            // includes: DATALINK, DISTINCT, OTHER, REF, REF_CURSOR, STRUCT, NULL
-            else -> {
-                // use name if type is
-                when (field.typeName.lowercase()) {
-                    "uuid" -> resultSet.getString(field.columnIndex)?.let { UUID.fromString(it) }
-                    // oracle types
-                    "binary_float" -> resultSet.getNullableFloat(field.columnIndex)
-                    "binary_double" -> resultSet.getNullableDouble(field.columnIndex)
-                    else ->
+        // includes: DATALINK, DISTINCT, OTHER, REF, REF_CURSOR, STRUCT, NULL
+        else -> {
+            // use name if type is
+            when (field.typeName.lowercase()) {
+                "uuid" -> ColumnReader { rs -> rs.getString(index)?.let { UUID.fromString(it) } }
+                // oracle types
+                "binary_float" -> ColumnReader { it.getNullableFloat(index) }
+                "binary_double" -> ColumnReader { it.getNullableDouble(index) }
+                else ->
+                    ColumnReader {
                         throw KapperUnsupportedOperationException(
-                            "Conversion of field[${field.columnIndex}] from type ${field.typeName} is not supported",
+                            "Conversion of field[$index] from type ${field.typeName} is not supported",
                         )
-                }
+                    }
             }
         }
     }
+}
 
 /**
  * Returns the value of the specified column as an [Boolean], or `null` if the value is SQL `NULL`.
@@ -218,35 +239,37 @@ fun convertDecimal(
         else -> resultSet.getBigDecimal(fieldIndex)
     }
 
-fun convertTimestamp(
-    resultSet: ResultSet,
+/**
+ * Resolve the [ColumnReader] of a timestamp column, which reads a `LocalDateTime` for a column of the `DATE` type name
+ *  and an `Instant` otherwise.
+ */
+fun timestampReader(
     fieldIndex: Int,
     sqlTypeName: String,
-): Any? =
-    when (sqlTypeName.uppercase()) {
-        "DATE" -> {
-            resultSet.getTimestamp(fieldIndex)?.toLocalDateTime()
-        }
-        else -> resultSet.getTimestamp(fieldIndex)?.toInstant()
+): ColumnReader =
+    if (sqlTypeName.isDateTypeName()) {
+        ColumnReader { it.getTimestamp(fieldIndex)?.toLocalDateTime() }
+    } else {
+        ColumnReader { it.getTimestamp(fieldIndex)?.toInstant() }
     }
 
-private val NOOP: () -> Unit = {}
+private fun String.isDateTypeName() = this.equals("DATE", ignoreCase = true)
 
 /**
- * Sets a parameter on the PreparedStatement and returns a cleanup function.
+ * Sets a parameter on the PreparedStatement and returns the [java.sql.Array] created for it, if any.
  *
- * For array parameters, the cleanup function calls [java.sql.Array.free] on the created array.
+ * For array parameters, the caller must call [java.sql.Array.free] on the returned array.
  * Per the JDBC spec, Array.free() must not be called until after statement execution
  * (executeQuery/executeUpdate/executeBatch), because the driver may defer reading
  * the array data until that point.
  *
- * @return a cleanup function to invoke after statement execution. No-op for non-array types.
+ * @return the array to free after statement execution, or `null` for non-array types.
  */
 fun PreparedStatement.setParameter(
     index: Int,
     value: Any?,
     dbFlavour: DbFlavour,
-): () -> Unit {
+): java.sql.Array? {
     when (value) {
         is Byte -> setByte(index, value)
         is Short -> setShort(index, value)
@@ -258,29 +281,13 @@ fun PreparedStatement.setParameter(
         is Char -> setString(index, value.toString())
         is String -> setString(index, value)
         is ByteArray -> setBytes(index, value)
-        is Boolean ->
-            when (dbFlavour) {
-                DbFlavour.ORACLE -> setInt(index, if (value) 1 else 0)
-                else -> setBoolean(index, value)
-            }
-        is UUID ->
-            when (dbFlavour) {
-                DbFlavour.MYSQL -> setString(index, value.toString())
-                DbFlavour.ORACLE -> setBytes(index, value.toBytes())
-                else -> setObject(index, value)
-            }
+        is Boolean -> setBoolean(index, value, dbFlavour)
+        is UUID -> setUUID(index, value, dbFlavour)
         is Instant -> setTimestamp(index, Timestamp.from(value))
         is Date -> setDate(index, java.sql.Date(value.time))
         is LocalDate -> setDate(index, java.sql.Date.valueOf(value))
-        is LocalDateTime -> setTimestamp(index, Timestamp.from(value.atZone(java.time.ZoneOffset.systemDefault()).toInstant()))
-        is LocalTime ->
-            when (dbFlavour) {
-                // DuckDB's JDBC driver applies a timezone offset with setTime/getTime
-                // and does not support setObject with Types.TIME;
-                // using setString preserves the intended value.
-                DbFlavour.DUCKDB -> setString(index, value.toString())
-                else -> setTime(index, java.sql.Time.valueOf(value))
-            }
+        is LocalDateTime -> setLocalDateTime(index, value)
+        is LocalTime -> setLocalTime(index, value, dbFlavour)
         is IntArray,
         is LongArray,
         is ShortArray,
@@ -297,19 +304,104 @@ fun PreparedStatement.setParameter(
             val sqlTypeName = inferSqlArrayTypeName(elements, dbFlavour)
             val sqlArray = connection.createArrayOf(sqlTypeName, elements)
             setArray(index, sqlArray)
-            return sqlArray::free
+            return sqlArray
         }
         is Array<*> -> {
             val sqlTypeName = inferSqlArrayTypeName(value, dbFlavour)
             val sqlArray = connection.createArrayOf(sqlTypeName, value)
             setArray(index, sqlArray)
-            return sqlArray::free
+            return sqlArray
         }
         else -> setObject(index, value)
     }
-    return NOOP
+    return null
+}
+
+private fun PreparedStatement.setBoolean(
+    index: Int,
+    value: Boolean,
+    dbFlavour: DbFlavour,
+) = when (dbFlavour) {
+    DbFlavour.ORACLE -> setInt(index, if (value) 1 else 0)
+    else -> setBoolean(index, value)
 }
 
+private fun PreparedStatement.setUUID(
+    index: Int,
+    value: UUID,
+    dbFlavour: DbFlavour,
+) = when (dbFlavour) {
+    DbFlavour.MYSQL -> setString(index, value.toString())
+    DbFlavour.ORACLE -> setBytes(index, value.toBytes())
+    else -> setObject(index, value)
+}
+
+private fun PreparedStatement.setLocalDateTime(
+    index: Int,
+    value: LocalDateTime,
+) = setTimestamp(index, Timestamp.from(value.atZone(java.time.ZoneOffset.systemDefault()).toInstant()))
+
+private fun PreparedStatement.setLocalTime(
+    index: Int,
+    value: LocalTime,
+    dbFlavour: DbFlavour,
+) = when (dbFlavour) {
+    // DuckDB's JDBC driver applies a timezone offset with setTime/getTime
+    // and does not support setObject with Types.TIME;
+    // using setString preserves the intended value.
+    DbFlavour.DUCKDB -> setString(index, value.toString())
+    else -> setTime(index, java.sql.Time.valueOf(value))
+}
+
+/**
+ * Sets a non-null parameter value of a known class on a PreparedStatement,
+ *  without dispatching on the type of the value like [setParameter] does.
+ */
+fun interface ParameterSetter {
+    fun set(
+        statement: PreparedStatement,
+        index: Int,
+        value: Any,
+    )
+}
+
+private inline fun <reified V : Any> setter(crossinline set: PreparedStatement.(Int, V) -> Unit): Pair<Class<*>, ParameterSetter> =
+    V::class.javaObjectType to ParameterSetter { statement, index, value -> statement.set(index, value as V) }
+
+private val parameterSetters: Map<DbFlavour, Map<Class<*>, ParameterSetter>> =
+    DbFlavour.entries.associateWith { dbFlavour ->
+        mapOf(
+            setter<Byte> { index, value -> setByte(index, value) },
+            setter<Short> { index, value -> setShort(index, value) },
+            setter<Int> { index, value -> setInt(index, value) },
+            setter<Long> { index, value -> setLong(index, value) },
+            setter<Float> { index, value -> setFloat(index, value) },
+            setter<Double> { index, value -> setDouble(index, value) },
+            setter<BigDecimal> { index, value -> setBigDecimal(index, value) },
+            setter<Char> { index, value -> setString(index, value.toString()) },
+            setter<String> { index, value -> setString(index, value) },
+            setter<ByteArray> { index, value -> setBytes(index, value) },
+            setter<Boolean> { index, value -> setBoolean(index, value, dbFlavour) },
+            setter<UUID> { index, value -> setUUID(index, value, dbFlavour) },
+            setter<Instant> { index, value -> setTimestamp(index, Timestamp.from(value)) },
+            setter<Date> { index, value -> setDate(index, java.sql.Date(value.time)) },
+            setter<LocalDate> { index, value -> setDate(index, java.sql.Date.valueOf(value)) },
+            setter<LocalDateTime> { index, value -> setLocalDateTime(index, value) },
+            setter<LocalTime> { index, value -> setLocalTime(index, value, dbFlavour) },
+        )
+    }
+
+/**
+ * The [ParameterSetter] for values of exactly the class [type], which sets them like [setParameter] does.
+ *
+ * @return the setter, or `null` when values of [type] can only be set with [setParameter],
+ *  for example collections which are set as arrays that must be freed.
+ */
+fun parameterSetter(
+    type: Class<*>,
+    dbFlavour: DbFlavour,
+): ParameterSetter? = parameterSetters.getValue(dbFlavour)[type]
+
 internal fun inferSqlArrayTypeName(
     elements: Array<*>,
     dbFlavour: DbFlavour,
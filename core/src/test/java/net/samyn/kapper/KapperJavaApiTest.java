@@ -6,11 +6,15 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -219,6 +223,101 @@ class KapperJavaApiTest {
         }
     }
 
+    @Nested
+    class StreamTests {
+        @Test
+        void testStreamWithAutoMapperForRecord() throws Exception {
+            when(mockResultSet.next()).thenReturn(true, true, false);
+            when(mockResultSet.getInt(1)).thenReturn(1, 2);
+            when(mockResultSet.getString(2)).thenReturn("Test1", "Test2");
+
+            List<AutomappedTestEntity> result;
+            try (Stream<AutomappedTestEntity> stream = Kapper.getInstance().stream(
+                    AutomappedTestEntity.class,
+                    mockConnection,
+                    "SELECT * FROM test_table where id = :id",
+                    Map.of("id", 1)
+            )) {
+                result = stream.toList();
+            }
+
+            assertEquals(List.of(new AutomappedTestEntity(1, "Test1"), new AutomappedTestEntity(2, "Test2")), result);
+            verify(mockStatement).setFetchSize(Kapper.DEFAULT_FETCH_SIZE);
+            verify(mockResultSet).close();
+            verify(mockStatement).close();
+        }
+
+        @Test
+        void testParallelStreamWithMapperFunc() throws Exception {
+            when(mockResultSet.next()).thenAnswer(new Answer<Boolean>() {
+                private int row = 0;
+
+                @Override
+                public Boolean answer(InvocationOnMock invocation) {
+                    return ++row <= 2500;
+                }
+            });
+
+            long sum;
+            try (Stream<Integer> stream = Kapper.getInstance().stream(
+                    Integer.class,
+                    mockConnection,
+                    "SELECT * FROM test_table",
+                    (rs, fields) -> 1,
+                    Map.of(),
+                    100
+            )) {
+                sum = stream.parallel().mapToLong(Integer::longValue).sum();
+            }
+
+            assertEquals(2500, sum);
+            verify(mockStatement).setFetchSize(100);
+            verify(mockResultSet).close();
+        }
+
+        @Test
+        void testStreamClosedBeforeExhausted() throws Exception {
+            when(mockResultSet.next()).thenReturn(true);
+            when(mockResultSet.getInt(1)).thenReturn(1);
+            when(mockResultSet.getString(2)).thenReturn("Test1");
+
+            try (Stream<AutomappedTestEntity> stream = Kapper.getInstance().stream(
+                    AutomappedTestEntity.class,
+                    mockConnection,
+                    "SELECT * FROM test_table",
+                    Map.of()
+            )) {
+                assertEquals(new AutomappedTestEntity(1, "Test1"), stream.findFirst().orElseThrow());
+            }
+
+            verify(mockResultSet).close();
+            verify(mockStatement).close();
+        }
+    }
+
+    @Nested
+    class ForEachTests {
+        @Test
+        void testForEachWithAutoMapperForRecord() throws Exception {
+            when(mockResultSet.next()).thenReturn(true, true, false);
+            when(mockResultSet.getInt(1)).thenReturn(1, 2);
+            when(mockResultSet.getString(2)).thenReturn("Test1", "Test2");
+
+            List<AutomappedTestEntity> result = new ArrayList<>();
+            Kapper.getInstance().forEach(
+                    AutomappedTestEntity.class,
+                    mockConnection,
+                    "SELECT * FROM test_table where id = :id",
+                    Map.of("id", 1),
+                    result::add
+            );
+
+            assertEquals(List.of(new AutomappedTestEntity(1, "Test1"), new AutomappedTestEntity(2, "Test2")), result);
+            verify(mockStatement).setFetchSize(Kapper.DEFAULT_FETCH_SIZE);
+            verify(mockResultSet).close();
+        }
+    }
+
     @Nested
     class QuerySingleTests {
         @Test
@@ -1,5 +1,6 @@
 package net.samyn.kapper.internal.automapper;
 
+import net.samyn.kapper.ConverterRegistry;
 import net.samyn.kapper.Field;
 import net.samyn.kapper.KapperMappingException;
 import net.samyn.kapper.internal.AutoConverter;
@@ -14,7 +15,6 @@ import org.mockito.MockitoAnnotations;
 import java.sql.JDBCType;
 import java.sql.ResultSet;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -24,9 +24,6 @@ import static org.mockito.Mockito.*;
 class RecordMapperTest {
     private final AutoCloseable mocks;
 
-    @Mock
-    FieldsConverter fieldsConverter;
-
     @Mock
     AutoConverter autoConverter;
 
@@ -37,6 +34,8 @@ class RecordMapperTest {
 
     SuperHeroRecord hero = new SuperHeroRecord(UUID.randomUUID(), "Batman", "batman@dc.com", 85);
 
+    FieldsConverter fieldsConverter = fieldsConverter(hero.id(), hero.name(), hero.email(), hero.age());
+
     RecordMapperTest() {
         mocks = MockitoAnnotations.openMocks(this);
 
@@ -45,16 +44,14 @@ class RecordMapperTest {
         fields.put("email", new Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN));
         fields.put("age", new Field(4, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN));
 
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", hero.name()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("email", hero.email()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("age", hero.age())
-        ));
-
         when(autoConverter.convert(hero.age(), int.class)).thenReturn(hero.age());
     }
 
+    // reads the value of each column by its index
+    private static FieldsConverter fieldsConverter(Object... values) {
+        return new FieldsConverter(field -> resultSet -> values[field.getColumnIndex() - 1]);
+    }
+
     @AfterEach
     void tearDown() throws Exception {
         mocks.close();
@@ -66,13 +63,6 @@ class RecordMapperTest {
         fields.remove("email");
         fields.put(emailParam, new Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN));
 
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", hero.name()),
-                new net.samyn.kapper.internal.automapper.ColumnValue(emailParam, hero.email()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("age", hero.age())
-        ));
-
         RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
         SuperHeroRecord mapped = mapper.createInstance(rs, fields);
         assertEquals(mapped, hero);
@@ -80,11 +70,7 @@ class RecordMapperTest {
 
     @Test
     void shouldThrowWhenNonOptionalAreMissing() {
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", hero.name()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("email", hero.email())
-        ));
+        fields.remove("age");
 
         RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
         Exception ex = assertThrows(KapperMappingException.class, () -> mapper.createInstance(rs, fields));
@@ -94,12 +80,7 @@ class RecordMapperTest {
 
     @Test
     void shouldConvertWhenTypeNotKnown() {
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", 123),
-                new net.samyn.kapper.internal.automapper.ColumnValue("email", hero.email()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("age", hero.age())
-        ));
+        fieldsConverter = fieldsConverter(hero.id(), 123, hero.email(), hero.age());
         when(autoConverter.convert(123, String.class)).thenReturn("Foo");
 
         RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
@@ -109,12 +90,7 @@ class RecordMapperTest {
 
     @Test
     void shouldSetToNullWhenValueNull() {
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", hero.name()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("email", null),
-                new net.samyn.kapper.internal.automapper.ColumnValue("age", hero.age())
-        ));
+        fieldsConverter = fieldsConverter(hero.id(), hero.name(), null, hero.age());
 
         RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
         SuperHeroRecord mapped = mapper.createInstance(rs, fields);
@@ -123,11 +99,7 @@ class RecordMapperTest {
 
     @Test
     void nullableIsOptional() {
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", hero.name()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("age", hero.age())
-        ));
+        fields.remove("email");
 
         RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
         SuperHeroRecord mapped = mapper.createInstance(rs, fields);
@@ -136,11 +108,8 @@ class RecordMapperTest {
 
     @Test
     void primitiveCannotBeNull() {
-        when(fieldsConverter.convert(any(), any())).thenReturn(List.of(
-                new net.samyn.kapper.internal.automapper.ColumnValue("id", hero.id()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("name", hero.name()),
-                new net.samyn.kapper.internal.automapper.ColumnValue("age", null)
-        ));
+        fields.remove("email");
+        fieldsConverter = fieldsConverter(hero.id(), hero.name(), hero.email(), null);
 
         RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
         Exception ex =
@@ -159,6 +128,60 @@ class RecordMapperTest {
         assertEquals(mapped, hero);
     }
 
+    public record ValidatedRecord(String name) {
+        public ValidatedRecord {
+            if (name.isBlank()) {
+                throw new IllegalArgumentException("name cannot be blank");
+            }
+        }
+    }
+
+    @Test
+    void shouldNotWrapConstructorExceptions() {
+        Map<String, Field> validatedFields = Map.of("name", new Field(1, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN));
+        fieldsConverter = fieldsConverter(" ");
+
+        RecordMapper<ValidatedRecord> mapper = new RecordMapper<>(ValidatedRecord.class, autoConverter, fieldsConverter);
+        Exception ex = assertThrows(IllegalArgumentException.class, () -> mapper.createInstance(rs, validatedFields));
+        assertEquals("name cannot be blank", ex.getMessage());
+    }
+
+    @Test
+    void shouldBindColumnsAgainForOtherFields() {
+        RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
+        assertEquals(hero, mapper.createInstance(rs, fields));
+
+        Map<String, Field> otherFields = new HashMap<>(fields);
+        otherFields.remove("email");
+        assertEquals(new SuperHeroRecord(hero.id(), hero.name(), null, hero.age()), mapper.createInstance(rs, otherFields));
+    }
+
+    @Test
+    void shouldReuseMapperForManyRows() {
+        RecordMapper<SuperHeroRecord> mapper = new RecordMapper<>(SuperHeroRecord.class, autoConverter, fieldsConverter);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(hero, mapper.createInstance(rs, fields));
+        }
+    }
+
+    public record Reading(long id, String label) { }
+
+    @Test
+    void shouldConvertPrimitiveComponentWithRegisteredConverter() throws Exception {
+        ConverterRegistry registry = new ConverterRegistry();
+        registry.register(Integer.class, Long.class, value -> value * 1000L);
+        when(rs.getInt(1)).thenReturn(7);
+        when(rs.getString(2)).thenReturn("temperature");
+        Map<String, Field> readingFields = new HashMap<>();
+        readingFields.put("id", new Field(1, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN));
+        readingFields.put("label", new Field(2, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN));
+
+        RecordMapper<Reading> mapper =
+            new RecordMapper<>(Reading.class, registry::convert, new FieldsConverter(registry));
+        assertEquals(new Reading(7000L, "temperature"), mapper.createInstance(rs, readingFields));
+        verify(rs, never()).getLong(anyInt());
+    }
+
     static class NonPublicRecordHolder {
         // package-private record (not public)
         record NonPublicRecord(String value) {}
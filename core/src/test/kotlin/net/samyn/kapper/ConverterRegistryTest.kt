@@ -0,0 +1,96 @@
+package net.samyn.kapper
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import org.junit.jupiter.api.Test
+import java.math.BigDecimal
+import java.time.LocalDate
+
+class ConverterRegistryTest {
+    data class Money(val amount: BigDecimal)
+
+    private val registry = ConverterRegistry()
+
+    @Test
+    fun `when register inline able to convert`() {
+        registry.register<BigDecimal, Money> { Money(it) }
+
+        registry.convert(BigDecimal.TEN, Money::class.java) shouldBe Money(BigDecimal.TEN)
+    }
+
+    @Test
+    fun `when register able to convert`() {
+        registry.register(String::class.java, Money::class.java) { Money(BigDecimal(it)) }
+
+        registry.convert("1.5", Money::class.java) shouldBe Money(BigDecimal("1.5"))
+    }
+
+    @Test
+    fun `when duplicate registration throw`() {
+        registry.register<BigDecimal, Money> { Money(it) }
+
+        val exception =
+            shouldThrow<IllegalStateException> {
+                registry.register<BigDecimal, Money> { Money(it) }
+            }
+        exception.message shouldContain "is already registered"
+    }
+
+    @Test
+    fun `converter of most specific source type is used`() {
+        registry.register<Any, Money> { Money(BigDecimal(it.toString())) }
+        registry.register<Number, Money> { Money(BigDecimal.ONE) }
+        registry.register<Long, Money> { Money(BigDecimal.valueOf(it, 2)) }
+
+        registry.convert(150L, Money::class.java) shouldBe Money(BigDecimal("1.50"))
+        registry.convert(150, Money::class.java) shouldBe Money(BigDecimal.ONE)
+        registry.convert("150", Money::class.java) shouldBe Money(BigDecimal("150"))
+    }
+
+    @Test
+    fun `converter of boxed target is used for primitive target`() {
+        registry.register<String, Int> { it.length }
+
+        registry.convert("abc", Int::class.javaPrimitiveType!!) shouldBe 3
+    }
+
+    @Test
+    fun `registered converter takes precedence over built-in`() {
+        registry.register<String, LocalDate> { LocalDate.of(2024, 1, 1) }
+
+        registry.convert("today", LocalDate::class.java) shouldBe LocalDate.of(2024, 1, 1)
+    }
+
+    @Test
+    fun `when no converter registered use built-in`() {
+        registry.convert("2024-01-01", LocalDate::class.java) shouldBe LocalDate.of(2024, 1, 1)
+        registry.convert(1L, Int::class.javaPrimitiveType!!) shouldBe 1
+        registry.convert(1.toShort(), Short::class.javaPrimitiveType!!) shouldBe 1.toShort()
+    }
+
+    @Test
+    fun `when no converter available throw`() {
+        shouldThrow<KapperUnsupportedOperationException> {
+            registry.convert("123", Money::class.java)
+        }.message shouldContain "Cannot auto-convert from ${String::class.java} to ${Money::class.java.canonicalName}"
+    }
+
+    @Test
+    fun `converter is resolved once per source and target`() {
+        registry.register<BigDecimal, Money> { Money(it) }
+
+        registry.converter(BigDecimal::class.java, Money::class.java) shouldBeSameInstanceAs
+            registry.converter(BigDecimal::class.java, Money::class.java)
+    }
+
+    @Test
+    fun `registering converter resolves converters again`() {
+        registry.convert(1, String::class.java) shouldBe "1"
+
+        registry.register<Int, String> { "#$it" }
+
+        registry.convert(1, String::class.java) shouldBe "#1"
+    }
+}
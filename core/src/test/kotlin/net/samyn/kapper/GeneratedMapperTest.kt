@@ -0,0 +1,89 @@
+package net.samyn.kapper
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.Test
+import java.sql.JDBCType
+import java.sql.ResultSet
+import java.util.UUID
+
+class GeneratedMapperTest {
+    data class SuperHero(val id: UUID, val name: String, val email: String? = "batman@dc.com", val age: Int = 85)
+
+    // as generated by kapper-ksp
+    class SuperHeroKapperMapper : GeneratedMapper<SuperHero>(
+        SuperHero::class.java,
+        listOf(
+            Parameter("id", UUID::class.java, isNullable = false, isOptional = false),
+            Parameter("name", String::class.java, isNullable = false, isOptional = false),
+            Parameter("email", String::class.java, isNullable = true, isOptional = true),
+            Parameter("age", Int::class.javaPrimitiveType!!, isNullable = false, isOptional = true),
+        ),
+    ) {
+        override fun createInstance(row: Row): SuperHero =
+            if (row.isBound(2) && row.isBound(3)) {
+                SuperHero(
+                    id = row.get(0),
+                    name = row.get(1),
+                    email = row.getOrNull(2),
+                    age = row.get(3),
+                )
+            } else {
+                newInstance(row)
+            }
+    }
+
+    private val id = UUID.randomUUID()
+    private val resultSet =
+        mockk<ResultSet> {
+            every { getString(1) } returns id.toString()
+            every { getString(2) } returns "Batman"
+            every { getString(3) } returns null
+            every { getLong(4) } returns 42L
+            every { wasNull() } returns false
+        }
+    private val fields =
+        mapOf(
+            "ID" to Field(1, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "name" to Field(2, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "e_mail" to Field(3, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "age" to Field(4, JDBCType.BIGINT, "BIGINT", DbFlavour.UNKNOWN),
+        )
+    private val mapper = SuperHeroKapperMapper()
+
+    @Test
+    fun `map all columns and convert values`() {
+        mapper.createInstance(resultSet, fields) shouldBe SuperHero(id, "Batman", null, 42)
+    }
+
+    @Test
+    fun `when optional column missing use default`() {
+        mapper.createInstance(resultSet, fields - "age") shouldBe SuperHero(id, "Batman", null)
+        mapper.createInstance(resultSet, fields - "e_mail" - "age") shouldBe SuperHero(id, "Batman")
+    }
+
+    @Test
+    fun `when non-optional column missing throw`() {
+        shouldThrow<KapperMappingException> {
+            mapper.createInstance(resultSet, fields - "name")
+        }.message shouldContain "name"
+    }
+
+    @Test
+    fun `when non-nullable value null throw`() {
+        every { resultSet.getString(2) } returns null
+        shouldThrow<KapperMappingException> {
+            mapper.createInstance(resultSet, fields)
+        }.message shouldBe "The property 'name' cannot be null."
+    }
+
+    @Test
+    fun `provide mapper for type`() {
+        mapper.type shouldBe SuperHero::class.java
+        mapper.mapper shouldBeSameInstanceAs mapper
+    }
+}
@@ -1,5 +1,6 @@
 package net.samyn.kapper
 
+import io.kotest.matchers.shouldBe
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.mockkObject
@@ -11,6 +12,8 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.parallel.Isolated
 import java.sql.Connection
 import java.sql.ResultSet
+import java.util.function.Consumer
+import java.util.stream.Stream
 
 // Purpose of these tests is to exercise the public API of Kapper in Kotlin.
 //  additional tests of the Kapper implementation are in the KapperImplTest
@@ -123,6 +126,66 @@ class KapperExtensionFunctionApiTest {
         }
     }
 
+    @Nested
+    inner class QueryFirstTests {
+        @Test
+        fun queryFirst() {
+            every { kapperMock.queryFirst(TestEntity::class.java, connection, queryTemplate, any<Map<String, Any?>>()) } returns
+                TestEntity(1, "foo")
+            connection.queryFirst<TestEntity>(queryTemplate, "id" to 1)
+            verify { kapperMock.queryFirst(TestEntity::class.java, connection, queryTemplate, mapOf("id" to 1)) }
+        }
+
+        @Test
+        fun `queryFirst with custom mapper`() {
+            every { kapperMock.queryFirst(TestEntity::class.java, connection, queryTemplate, mapper, any()) } returns TestEntity(1, "foo")
+            connection.queryFirst<TestEntity>(queryTemplate, mapper, "id" to 1)
+            verify { kapperMock.queryFirst(TestEntity::class.java, connection, queryTemplate, mapper, mapOf("id" to 1)) }
+        }
+
+        @Test
+        fun queryFirstOrNull() {
+            connection.queryFirstOrNull<TestEntity>(queryTemplate, "id" to 1)
+            verify { kapperMock.queryFirstOrNull(TestEntity::class.java, connection, queryTemplate, mapOf("id" to 1)) }
+        }
+
+        @Test
+        fun `queryFirstOrNull with custom mapper`() {
+            connection.queryFirstOrNull<TestEntity>(queryTemplate, mapper, "id" to 1)
+            verify { kapperMock.queryFirstOrNull(TestEntity::class.java, connection, queryTemplate, mapper, mapOf("id" to 1)) }
+        }
+    }
+
+    @Nested
+    inner class QueryForEachTests {
+        @Test
+        fun queryForEach() {
+            every { kapperMock.forEach(TestEntity::class.java, connection, queryTemplate, mapOf("id" to 1), any()) } answers {
+                arg<Consumer<TestEntity>>(4).accept(TestEntity(1, "foo"))
+            }
+            val results = mutableListOf<TestEntity>()
+            connection.queryForEach<TestEntity>(queryTemplate, "id" to 1) { results.add(it) }
+            results shouldBe listOf(TestEntity(1, "foo"))
+        }
+
+        @Test
+        fun `queryForEach with custom mapper`() {
+            connection.queryForEach<TestEntity>(queryTemplate, mapper, "id" to 1) { }
+            verify { kapperMock.forEach(TestEntity::class.java, connection, queryTemplate, mapper, mapOf("id" to 1), any()) }
+        }
+
+        @Test
+        fun queryFold() {
+            every { kapperMock.forEach(TestEntity::class.java, connection, queryTemplate, mapOf("id" to 1), any()) } answers {
+                arg<Consumer<TestEntity>>(4).let {
+                    it.accept(TestEntity(1, "foo"))
+                    it.accept(TestEntity(2, "bar"))
+                }
+            }
+            connection.queryFold<TestEntity, Int>(queryTemplate, 10, "id" to 1) { sum, entity -> sum + entity.id } shouldBe 13
+        }
+    }
+
     @Nested
     inner class ExecuteTests {
         @Test
@@ -136,6 +199,26 @@ class KapperExtensionFunctionApiTest {
         }
     }
 
+    @Nested
+    inner class ExecuteReturningExtensionTests {
+        @Test
+        fun `executeReturning with object and options`() {
+            val entity = TestEntity(1, "foo")
+            val options = QueryOptions(queryTimeout = 5)
+            connection.executeReturning<TestEntity, TestEntity>(queryTemplate, entity, options, "name" to TestEntity::name)
+            verify {
+                kapperMock.executeReturning(
+                    TestEntity::class.java,
+                    connection,
+                    queryTemplate,
+                    entity,
+                    match<Map<String, (TestEntity) -> Any?>> { it.keys == setOf("name") },
+                    options,
+                )
+            }
+        }
+    }
+
     @Nested
     inner class ExecuteAllBatchExtensionTests {
         @Test
@@ -157,6 +240,67 @@ class KapperExtensionFunctionApiTest {
                 )
             }
         }
+
+        @Test
+        fun executeAll_batch_options_extension() {
+            val dtos = listOf(TestEntity(1, "foo"), TestEntity(2, "bar"))
+            connection.executeAll(
+                queryTemplate,
+                dtos,
+                BatchOptions(batchSize = 1),
+                "id" to TestEntity::id,
+            )
+            verify {
+                kapperMock.executeAll(
+                    TestEntity::class.java,
+                    connection,
+                    queryTemplate,
+                    dtos,
+                    mapOf("id" to TestEntity::id),
+                    BatchOptions(batchSize = 1),
+                )
+            }
+        }
+
+        @Test
+        fun executeBatch_sequence_extension() {
+            connection.executeBatch(
+                queryTemplate,
+                sequenceOf(TestEntity(1, "foo")),
+                BatchOptions(batchSize = 1),
+                "id" to TestEntity::id,
+            )
+            verify {
+                kapperMock.executeBatch(
+                    TestEntity::class.java,
+                    connection,
+                    queryTemplate,
+                    any(),
+                    mapOf("id" to TestEntity::id),
+                    BatchOptions(batchSize = 1),
+                )
+            }
+        }
+
+        @Test
+        fun executeBatch_stream_extension() {
+            connection.executeBatch(
+                queryTemplate,
+                Stream.of(TestEntity(1, "foo")),
+                BatchOptions(batchSize = 1),
+                "id" to TestEntity::id,
+            )
+            verify {
+                kapperMock.executeBatch(
+                    TestEntity::class.java,
+                    connection,
+                    queryTemplate,
+                    any(),
+                    mapOf("id" to TestEntity::id),
+                    BatchOptions(batchSize = 1),
+                )
+            }
+        }
     }
 
     @Nested
@@ -181,4 +325,19 @@ class KapperExtensionFunctionApiTest {
             }
         }
     }
+
+    @Nested
+    inner class PrepareExtensionTests {
+        @Test
+        fun prepare() {
+            Kapper.prepare<TestEntity>(queryTemplate)
+            verify { kapperMock.compile(TestEntity::class.java, queryTemplate) }
+        }
+
+        @Test
+        fun `prepare with custom mapper`() {
+            Kapper.prepare<TestEntity>(queryTemplate, mapper)
+            verify { kapperMock.compile(TestEntity::class.java, queryTemplate, mapper) }
+        }
+    }
 }
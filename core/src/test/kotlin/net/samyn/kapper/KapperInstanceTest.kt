@@ -35,6 +35,17 @@ class KapperInstanceTest {
         k1 shouldBeSameInstanceAs k2
     }
 
+    @Test
+    fun `createInstance with config should size query cache`() {
+        val k = Kapper.createInstance(KapperConfig(queryCacheSize = 42))
+        k.queryCacheStats.maxSize shouldBe 42
+    }
+
+    @Test
+    fun `createInstance with default config should enable query cache`() {
+        Kapper.createInstance().queryCacheStats.maxSize shouldBe KapperConfig.DEFAULT_QUERY_CACHE_SIZE
+    }
+
     data class Foo(val id: Int, val name: String)
 
     @Test
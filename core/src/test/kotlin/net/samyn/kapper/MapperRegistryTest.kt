@@ -77,7 +77,33 @@ class MapperRegistryTest {
         registry.get(Foo::class.java).javaClass shouldBe KotlinDataClassMapper::class.java
     }
 
+    @Test
+    fun `register mappers of providers`() {
+        registry.get(Provided::class.java).javaClass shouldBe ProvidedMapper::class.java
+    }
+
+    @Test
+    fun `when custom registration ignore provider`() {
+        val mapper = mockk<Mapper<Provided>>()
+        registry.register(Provided::class.java, mapper)
+
+        registry.get(Provided::class.java) shouldBeSameInstanceAs mapper
+    }
+
     data class Foo(val name: String)
 
+    data class Provided(val name: String)
+
+    // listed in META-INF/services/net.samyn.kapper.MapperProvider
+    class ProvidedMapper : MapperProvider<Provided>, Mapper<Provided> {
+        override val type = Provided::class.java
+        override val mapper = this
+
+        override fun createInstance(
+            resultSet: ResultSet,
+            fields: Map<String, Field>,
+        ) = Provided(resultSet.getString(1))
+    }
+
     data class Foo2(val name: String)
 }
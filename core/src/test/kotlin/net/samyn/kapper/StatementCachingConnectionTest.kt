@@ -0,0 +1,213 @@
+package net.samyn.kapper
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.kotest.matchers.types.shouldNotBeSameInstanceAs
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+import java.sql.SQLException
+
+class StatementCachingConnectionTest {
+    private val statements = mutableListOf<PreparedStatement>()
+    private val connection =
+        mockk<Connection>(relaxed = true) {
+            every { prepareStatement(any()) } answers { newStatement() }
+            every { prepareStatement(any(), any(), any()) } answers { newStatement() }
+        }
+
+    private fun newStatement() =
+        mockk<PreparedStatement>(relaxed = true) {
+            every { isClosed } returns false
+            every { fetchSize } returns 0
+        }.also { statements.add(it) }
+
+    @Test
+    fun `when statement closed reuse it`() {
+        val cachingConnection = connection.withStatementCache()
+        val first = cachingConnection.prepareStatement("SELECT 1")
+        first.close()
+        val second = cachingConnection.prepareStatement("SELECT 1")
+        second shouldBeSameInstanceAs first
+        second.isClosed shouldBe false
+        verify(exactly = 1) { connection.prepareStatement("SELECT 1") }
+        verify(exactly = 0) { statements[0].close() }
+    }
+
+    @Test
+    fun `when statement in use prepare another`() {
+        val cachingConnection = connection.withStatementCache()
+        val first = cachingConnection.prepareStatement("SELECT 1")
+        val second = cachingConnection.prepareStatement("SELECT 1")
+        second shouldNotBeSameInstanceAs first
+        first.close()
+        second.close()
+        // only one idle statement per SQL is kept
+        verify { statements[1].close() }
+        cachingConnection.statementCacheStats.size shouldBe 1
+    }
+
+    @Test
+    fun `cache by result set type and concurrency`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("SELECT 1").close()
+        cachingConnection.prepareStatement("SELECT 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY).close()
+        cachingConnection.prepareStatement("SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY).close()
+        verify(exactly = 1) { connection.prepareStatement("SELECT 1") }
+        verify(exactly = 1) {
+            connection.prepareStatement("SELECT 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+        }
+        cachingConnection.statementCacheStats.hits shouldBe 1
+    }
+
+    @Test
+    fun `when statement closed clear parameters`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("SELECT :id").close()
+        verify { statements[0].clearParameters() }
+    }
+
+    @Test
+    fun `when statement closed close open result set`() {
+        val cachingConnection = connection.withStatementCache()
+        val resultSet = mockk<ResultSet>(relaxed = true) { every { isClosed } returns false }
+        val statement = cachingConnection.prepareStatement("SELECT 1")
+        every { statements[0].executeQuery() } returns resultSet
+        statement.executeQuery() shouldBeSameInstanceAs resultSet
+        statement.close()
+        verify { resultSet.close() }
+        cachingConnection.prepareStatement("SELECT 1") shouldBeSameInstanceAs statement
+    }
+
+    @Test
+    fun `when result set already closed do not close it again`() {
+        val cachingConnection = connection.withStatementCache()
+        val resultSet = mockk<ResultSet>(relaxed = true) { every { isClosed } returns true }
+        val statement = cachingConnection.prepareStatement("SELECT 1")
+        every { statements[0].resultSet } returns resultSet
+        statement.execute()
+        statement.resultSet
+        statement.close()
+        verify(exactly = 0) { resultSet.close() }
+    }
+
+    @Test
+    fun `when statement batched clear batch`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("INSERT").apply {
+            addBatch()
+            close()
+        }
+        verify { statements[0].clearBatch() }
+    }
+
+    @Test
+    fun `when setting changed restore it`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("SELECT 1").apply {
+            fetchSize = 100
+            close()
+        }
+        verify { statements[0].fetchSize = 100 }
+        verify { statements[0].fetchSize = 0 }
+    }
+
+    @Test
+    fun `when setting unchanged do not restore it`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("SELECT 1").apply {
+            fetchSize = 0
+            close()
+        }
+        verify(exactly = 1) { statements[0].fetchSize = 0 }
+    }
+
+    @Test
+    fun `when reset fails close statement`() {
+        val cachingConnection = connection.withStatementCache()
+        val first = cachingConnection.prepareStatement("SELECT 1")
+        every { statements[0].clearParameters() } throws SQLException("test")
+        first.close()
+        verify { statements[0].close() }
+        cachingConnection.prepareStatement("SELECT 1") shouldNotBeSameInstanceAs first
+    }
+
+    @Test
+    fun `when full evict least recently used`() {
+        val cachingConnection = connection.withStatementCache(2)
+        cachingConnection.prepareStatement("SELECT 1").close()
+        cachingConnection.prepareStatement("SELECT 2").close()
+        cachingConnection.prepareStatement("SELECT 1").close()
+        cachingConnection.prepareStatement("SELECT 3").close()
+        verify { statements[1].close() }
+        verify(exactly = 0) { statements[0].close() }
+        cachingConnection.statementCacheStats.evictions shouldBe 1
+        cachingConnection.statementCacheStats.size shouldBe 2
+    }
+
+    @Test
+    fun `count hits and misses`() {
+        val cachingConnection = connection.withStatementCache()
+        repeat(3) { cachingConnection.prepareStatement("SELECT 1").close() }
+        cachingConnection.prepareStatement("SELECT 2").close()
+        val stats = cachingConnection.statementCacheStats
+        stats.hits shouldBe 2
+        stats.misses shouldBe 2
+        stats.maxSize shouldBe StatementCachingConnection.DEFAULT_STATEMENT_CACHE_SIZE
+    }
+
+    @Test
+    fun `when cache disabled do not wrap statements`() {
+        val cachingConnection = connection.withStatementCache(0)
+        cachingConnection.prepareStatement("SELECT 1") shouldBeSameInstanceAs statements[0]
+    }
+
+    @Test
+    fun `when connection closed close cached statements`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("SELECT 1").close()
+        cachingConnection.prepareStatement("SELECT 2").close()
+        cachingConnection.close()
+        verify { statements[0].close() }
+        verify { statements[1].close() }
+        verify { connection.close() }
+        cachingConnection.statementCacheStats.size shouldBe 0
+    }
+
+    @Test
+    fun `when connection closed close statements released later`() {
+        val cachingConnection = connection.withStatementCache()
+        val statement = cachingConnection.prepareStatement("SELECT 1")
+        cachingConnection.close()
+        statement.close()
+        verify { statements[0].close() }
+    }
+
+    @Test
+    fun `statement returns caching connection`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.prepareStatement("SELECT 1").connection shouldBeSameInstanceAs cachingConnection
+    }
+
+    @Test
+    fun `when already caching do not wrap again`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.withStatementCache() shouldBeSameInstanceAs cachingConnection
+    }
+
+    @Test
+    fun `unwrap returns caching connection`() {
+        val cachingConnection = connection.withStatementCache()
+        cachingConnection.unwrap(StatementCachingConnection::class.java) shouldBeSameInstanceAs cachingConnection
+    }
+
+    @Test
+    fun `when negative size throw`() {
+        shouldThrow<IllegalArgumentException> { connection.withStatementCache(-1) }
+    }
+}
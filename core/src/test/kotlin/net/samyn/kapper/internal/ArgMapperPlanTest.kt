@@ -0,0 +1,111 @@
+package net.samyn.kapper.internal
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.string.shouldContain
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.KapperParseException
+import org.junit.jupiter.api.Test
+import java.sql.PreparedStatement
+import java.util.UUID
+
+class ArgMapperPlanTest {
+    data class Hero(val id: Any?, val name: String?)
+
+    private val stmt = mockk<PreparedStatement>(relaxed = true)
+    private val args: Map<String, (Hero) -> Any?> =
+        mapOf(
+            "id" to Hero::id,
+            "name" to Hero::name,
+        )
+
+    @Test
+    fun `set parameters at all indexes of token`() {
+        val plan = ArgMapperPlan(args, mapOf("id" to listOf(1, 3), "name" to listOf(2)), DbFlavour.UNKNOWN)
+
+        plan.setParameters(stmt, Hero(1, "Batman"))
+
+        verify {
+            stmt.setInt(1, 1)
+            stmt.setInt(3, 1)
+            stmt.setString(2, "Batman")
+        }
+    }
+
+    @Test
+    fun `set parameters of every object with specialised setter`() {
+        val plan = ArgMapperPlan(args, mapOf("id" to listOf(1), "name" to listOf(2)), DbFlavour.UNKNOWN)
+
+        plan.setParameters(stmt, Hero(1, "Batman"))
+        plan.setParameters(stmt, Hero(2, "Robin"))
+
+        verify {
+            stmt.setInt(1, 1)
+            stmt.setString(2, "Batman")
+            stmt.setInt(1, 2)
+            stmt.setString(2, "Robin")
+        }
+    }
+
+    @Test
+    fun `set value of other class than first value`() {
+        val plan = ArgMapperPlan(args, mapOf("id" to listOf(1), "name" to listOf(2)), DbFlavour.UNKNOWN)
+
+        plan.setParameters(stmt, Hero(1, "Batman"))
+        plan.setParameters(stmt, Hero(2L, "Robin"))
+
+        verify {
+            stmt.setInt(1, 1)
+            stmt.setLong(1, 2L)
+        }
+    }
+
+    @Test
+    fun `set null value`() {
+        val plan = ArgMapperPlan(args, mapOf("id" to listOf(1), "name" to listOf(2)), DbFlavour.UNKNOWN)
+
+        plan.setParameters(stmt, Hero(1, null))
+        plan.setParameters(stmt, Hero(2, "Robin"))
+
+        verify {
+            stmt.setObject(2, null)
+            stmt.setString(2, "Robin")
+        }
+    }
+
+    @Test
+    fun `set value for db flavour`() {
+        val id = UUID.randomUUID()
+        val plan = ArgMapperPlan(args, mapOf("id" to listOf(1), "name" to listOf(2)), DbFlavour.MYSQL)
+
+        plan.setParameters(stmt, Hero(id, "Batman"))
+
+        verify { stmt.setString(1, id.toString()) }
+    }
+
+    @Test
+    fun `free arrays of all objects`() {
+        val sqlArray = mockk<java.sql.Array>(relaxed = true)
+        every { stmt.connection.createArrayOf(any(), any()) } returns sqlArray
+        val plan = ArgMapperPlan(args, mapOf("id" to listOf(1), "name" to listOf(2)), DbFlavour.POSTGRESQL)
+
+        plan.setParameters(stmt, Hero(listOf(1, 2), "Batman"))
+        plan.setParameters(stmt, Hero(listOf(3), "Robin"))
+        verify(exactly = 0) { sqlArray.free() }
+        plan.freeArrays()
+        verify(exactly = 2) { sqlArray.free() }
+        plan.freeArrays()
+        verify(exactly = 2) { sqlArray.free() }
+    }
+
+    @Test
+    fun `throws when token not found`() {
+        val ex =
+            shouldThrow<KapperParseException> {
+                ArgMapperPlan(args, mapOf("id" to listOf(1)), DbFlavour.UNKNOWN)
+            }
+        ex.message shouldContain "'name'"
+    }
+}
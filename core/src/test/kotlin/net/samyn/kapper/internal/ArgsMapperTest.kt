@@ -1,7 +1,10 @@
 package net.samyn.kapper.internal
 
+import io.kotest.matchers.shouldBe
+import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
+import io.mockk.verifyOrder
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.KapperParseException
 import net.samyn.kapper.internal.automapper.setParameter
@@ -45,4 +48,70 @@ class ArgsMapperTest {
             args.setParameters(tokens, stmt, user, DbFlavour.UNKNOWN)
         }
     }
+
+    @Test
+    fun `executeBatches adds batch for each object`() {
+        val tokens = mapOf("id" to listOf(1))
+        val stmt = mockk<PreparedStatement>(relaxed = true)
+        val args: Map<String, (User) -> Any?> = mapOf("id" to { u: User -> u.id })
+        args.executeBatches(tokens, stmt, listOf(User(1, "Alice"), User(2, "Bob")).iterator(), DbFlavour.UNKNOWN, 0) {}
+        verifyOrder {
+            stmt.setInt(1, 1)
+            stmt.addBatch()
+            stmt.setInt(1, 2)
+            stmt.addBatch()
+            stmt.executeBatch()
+        }
+    }
+
+    @Test
+    fun `executeBatches executes batch of batch size`() {
+        val tokens = mapOf("id" to listOf(1))
+        val stmt = mockk<PreparedStatement>(relaxed = true)
+        every { stmt.executeBatch() } returnsMany listOf(intArrayOf(1, 1), intArrayOf(1))
+        val args: Map<String, (User) -> Any?> = mapOf("id" to { u: User -> u.id })
+        val batches = mutableListOf<List<Int>>()
+        args.executeBatches(tokens, stmt, List(3) { User(it, "Hero") }.iterator(), DbFlavour.UNKNOWN, 2) {
+            batches.add(it.toList())
+        }
+        batches shouldBe listOf(listOf(1, 1), listOf(1))
+        verify(exactly = 3) { stmt.addBatch() }
+        verify(exactly = 2) { stmt.executeBatch() }
+    }
+
+    @Test
+    fun `executeBatches does not execute empty batch`() {
+        val stmt = mockk<PreparedStatement>(relaxed = true)
+        val args: Map<String, (User) -> Any?> = mapOf("id" to { u: User -> u.id })
+        args.executeBatches(mapOf("id" to listOf(1)), stmt, emptyList<User>().iterator(), DbFlavour.UNKNOWN, 0) {}
+        verify(exactly = 0) { stmt.executeBatch() }
+    }
+
+    @Test
+    fun `executeBatches frees arrays after each batch`() {
+        val tokens = mapOf("tags" to listOf(1))
+        val stmt = mockk<PreparedStatement>(relaxed = true)
+        val arrays = listOf(mockk<java.sql.Array>(relaxed = true), mockk<java.sql.Array>(relaxed = true))
+        every { stmt.connection.createArrayOf(any(), any()) } returnsMany arrays
+        val args: Map<String, (User) -> Any?> = mapOf("tags" to { u: User -> listOf(u.name) })
+        args.executeBatches(tokens, stmt, listOf(User(1, "Alice"), User(2, "Bob")).iterator(), DbFlavour.POSTGRESQL, 1) {
+            verify(exactly = 0) { arrays[1].free() }
+        }
+        arrays.forEach { verify(exactly = 1) { it.free() } }
+    }
+
+    @Test
+    fun `executeBatches frees arrays when setting parameters fails`() {
+        val tokens = mapOf("tags" to listOf(1))
+        val stmt = mockk<PreparedStatement>(relaxed = true)
+        val sqlArray = mockk<java.sql.Array>(relaxed = true)
+        every { stmt.connection.createArrayOf(any(), any()) } returns sqlArray
+        val args: Map<String, (User) -> Any?> =
+            mapOf("tags" to { u: User -> if (u.id == 1) listOf(u.name) else throw IllegalStateException("boom") })
+        assertThrows<IllegalStateException> {
+            args.executeBatches(tokens, stmt, listOf(User(1, "Alice"), User(2, "Bob")).iterator(), DbFlavour.POSTGRESQL, 0) {}
+        }
+        verify(exactly = 1) { sqlArray.free() }
+        verify(exactly = 0) { stmt.executeBatch() }
+    }
 }
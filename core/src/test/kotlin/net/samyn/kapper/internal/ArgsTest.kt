@@ -2,6 +2,8 @@ package net.samyn.kapper.internal
 
 import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.matchers.string.shouldContain
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
 import net.samyn.kapper.DbFlavour
@@ -36,4 +38,33 @@ class ArgsTest {
             }
         ex.message shouldContain "'id'"
     }
+
+    @Test
+    fun `scalar params share cleanup`() {
+        val cleanup = mapOf("foo" to 1, "bar" to "baz").setParameters(query, preparedStatementMock, DbFlavour.UNKNOWN)
+        mapOf("foo" to 2, "bar" to "qux").setParameters(query, preparedStatementMock, DbFlavour.UNKNOWN) shouldBeSameInstanceAs
+            cleanup
+    }
+
+    @Test
+    fun `free arrays after cleanup`() {
+        val sqlArray = mockk<java.sql.Array>(relaxed = true)
+        every { preparedStatementMock.connection.createArrayOf(any(), any()) } returns sqlArray
+        val cleanup =
+            mapOf("foo" to listOf(1, 2), "bar" to "baz")
+                .setParameters(query, preparedStatementMock, DbFlavour.POSTGRESQL)
+        verify(exactly = 0) { sqlArray.free() }
+        cleanup()
+        verify(exactly = 1) { sqlArray.free() }
+    }
+
+    @Test
+    fun `free arrays when setting params fails`() {
+        val sqlArray = mockk<java.sql.Array>(relaxed = true)
+        every { preparedStatementMock.connection.createArrayOf(any(), any()) } returns sqlArray
+        shouldThrow<KapperParseException> {
+            mapOf("foo" to listOf(1, 2), "id" to 1).setParameters(query, preparedStatementMock, DbFlavour.POSTGRESQL)
+        }
+        verify(exactly = 1) { sqlArray.free() }
+    }
 }
@@ -0,0 +1,49 @@
+package net.samyn.kapper.internal
+
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import org.junit.jupiter.api.Test
+import java.util.Spliterator
+import java.util.stream.StreamSupport
+
+class BatchingSpliteratorTest {
+    @Test
+    fun `split hands off a batch of rows`() {
+        val spliterator = BatchingSpliterator((1..5).iterator(), 2)
+
+        val batch = spliterator.trySplit().shouldNotBeNull()
+
+        batch.estimateSize() shouldBe 2L
+        buildList { batch.forEachRemaining { add(it) } } shouldBe listOf(1, 2)
+        buildList { spliterator.forEachRemaining { add(it) } } shouldBe listOf(3, 4, 5)
+    }
+
+    @Test
+    fun `split returns last partial batch and null when exhausted`() {
+        val spliterator = BatchingSpliterator((1..3).iterator(), 2)
+
+        spliterator.trySplit().shouldNotBeNull().estimateSize() shouldBe 2L
+        spliterator.trySplit().shouldNotBeNull().estimateSize() shouldBe 1L
+        spliterator.trySplit().shouldBeNull()
+        spliterator.tryAdvance { }.shouldBe(false)
+    }
+
+    @Test
+    fun `characteristics are ordered and non-null`() {
+        val spliterator = BatchingSpliterator((1..3).iterator(), 2)
+
+        spliterator.hasCharacteristics(Spliterator.ORDERED) shouldBe true
+        spliterator.hasCharacteristics(Spliterator.NONNULL) shouldBe true
+        spliterator.hasCharacteristics(Spliterator.SIZED) shouldBe false
+    }
+
+    @Test
+    fun `parallel stream processes all rows in order`() {
+        val rows = (1..10_000).toList()
+
+        StreamSupport.stream(BatchingSpliterator(rows.iterator(), 100), true)
+            .map { it * 2 }
+            .toList() shouldBe rows.map { it * 2 }
+    }
+}
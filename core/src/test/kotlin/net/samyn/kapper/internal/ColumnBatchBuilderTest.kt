@@ -0,0 +1,95 @@
+package net.samyn.kapper.internal
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import io.mockk.every
+import io.mockk.mockk
+import net.samyn.kapper.Column
+import net.samyn.kapper.ColumnBatch
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperResultException
+import org.junit.jupiter.api.Test
+import java.sql.JDBCType
+import java.sql.ResultSet
+
+class ColumnBatchBuilderTest {
+    private val resultSet = mockk<ResultSet>()
+
+    private fun field(type: JDBCType) = Field(1, type, type.name, DbFlavour.UNKNOWN)
+
+    @Test
+    fun `integer columns are read into int arrays`() {
+        every { resultSet.getInt(1) } returns 1 andThen 0 andThen 3
+        every { resultSet.wasNull() } returns false andThen true andThen false
+        val builder = ColumnBuilder.create("id", field(JDBCType.INTEGER))
+        repeat(3) { builder.read(resultSet, it) }
+
+        val column = builder.build(3).shouldBeInstanceOf<Column.IntColumn>()
+        column.values shouldBe intArrayOf(1, 0, 3)
+        column.isNull(1) shouldBe true
+        column.isNull(2) shouldBe false
+        column.getObject(1) shouldBe null
+        column.getObject(2) shouldBe 3
+    }
+
+    @Test
+    fun `bigint columns are read into long arrays`() {
+        every { resultSet.getLong(1) } returns 10L
+        every { resultSet.wasNull() } returns false
+        val builder = ColumnBuilder.create("count", field(JDBCType.BIGINT))
+        builder.read(resultSet, 0)
+
+        builder.build(1).shouldBeInstanceOf<Column.LongColumn>().values shouldBe longArrayOf(10L)
+    }
+
+    @Test
+    fun `double columns are read into double arrays`() {
+        every { resultSet.getDouble(1) } returns 1.5
+        every { resultSet.wasNull() } returns false
+        val builder = ColumnBuilder.create("reading", field(JDBCType.DOUBLE))
+        builder.read(resultSet, 0)
+
+        builder.build(1).shouldBeInstanceOf<Column.DoubleColumn>().values shouldBe doubleArrayOf(1.5)
+    }
+
+    @Test
+    fun `other columns are read into object arrays`() {
+        every { resultSet.getString(1) } returns "Batman" andThen null
+        val builder = ColumnBuilder.create("name", field(JDBCType.VARCHAR))
+        repeat(2) { builder.read(resultSet, it) }
+
+        val column = builder.build(2).shouldBeInstanceOf<Column.ObjectColumn>()
+        column.values.toList() shouldBe listOf("Batman", null)
+        column.isNull(1) shouldBe true
+    }
+
+    @Test
+    fun `arrays grow beyond their initial capacity`() {
+        var row = 0
+        every { resultSet.getInt(1) } answers { row }
+        every { resultSet.wasNull() } returns false
+        val builder = ColumnBuilder.create("id", field(JDBCType.INTEGER))
+        while (row < 1000) {
+            builder.read(resultSet, row)
+            row++
+        }
+
+        builder.build(1000).shouldBeInstanceOf<Column.IntColumn>().values shouldBe IntArray(1000) { it }
+    }
+
+    @Test
+    fun `batch finds columns by name and type`() {
+        every { resultSet.getInt(1) } returns 1
+        every { resultSet.wasNull() } returns false
+        val builder = ColumnBuilder.create("id", field(JDBCType.INTEGER))
+        builder.read(resultSet, 0)
+        val batch = ColumnBatch(1, listOf(builder.build(1)))
+
+        batch.intColumn("id")[0] shouldBe 1
+        shouldThrow<KapperResultException> { batch.longColumn("id") }
+        shouldThrow<KapperResultException> { batch.column("name") }
+        shouldThrow<IndexOutOfBoundsException> { batch.column("id").isNull(1) }
+    }
+}
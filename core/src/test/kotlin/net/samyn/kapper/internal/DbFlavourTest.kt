@@ -3,7 +3,9 @@ package net.samyn.kapper.internal
 import io.kotest.matchers.shouldBe
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.verify
 import net.samyn.kapper.DbFlavour
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
 import java.sql.Connection
@@ -172,4 +174,33 @@ class DbFlavourTest {
         every { connection.metaData.databaseProductName } returns value
         connection.getDbFlavour() shouldBe DbFlavour.UNKNOWN
     }
+
+    @Test
+    fun `when getDbFlavour called again use cached flavour`() {
+        every { connection.metaData.databaseProductName } returns "PostgreSQL"
+        connection.getDbFlavour() shouldBe DbFlavour.POSTGRESQL
+        connection.getDbFlavour() shouldBe DbFlavour.POSTGRESQL
+        verify(exactly = 1) { connection.metaData }
+    }
+
+    @Test
+    fun `cache flavour per connection`() {
+        val otherConnection = mockk<Connection>()
+        every { connection.metaData.databaseProductName } returns "PostgreSQL"
+        every { otherConnection.metaData.databaseProductName } returns "SQLite"
+        connection.getDbFlavour() shouldBe DbFlavour.POSTGRESQL
+        otherConnection.getDbFlavour() shouldBe DbFlavour.SQLITE
+    }
+
+    @Test
+    fun `when flavour configured do not read metadata`() {
+        connection.resolveDbFlavour(DbFlavour.DUCKDB) shouldBe DbFlavour.DUCKDB
+        verify(exactly = 0) { connection.metaData }
+    }
+
+    @Test
+    fun `detectDbFlavour ignores case`() {
+        detectDbFlavour("POSTGRESQL") shouldBe DbFlavour.POSTGRESQL
+        detectDbFlavour("duckdb") shouldBe DbFlavour.DUCKDB
+    }
 }
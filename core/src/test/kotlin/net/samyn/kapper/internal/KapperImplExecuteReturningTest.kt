@@ -9,7 +9,9 @@ import io.mockk.unmockkAll
 import io.mockk.verify
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
+import net.samyn.kapper.KapperConfig
 import net.samyn.kapper.KapperQueryException
+import net.samyn.kapper.QueryOptions
 import net.samyn.kapper.internal.automapper.setParameter
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.Test
@@ -59,7 +61,7 @@ class KapperImplExecuteReturningTest {
         mockkStatic(Connection::executeQuery)
         mockkStatic(Connection::getDbFlavour)
         mockkStatic(ResultSet::extractFields)
-        every { mockConnection.executeQuery(any(), any()) } returns mockResultSet
+        every { mockConnection.executeQuery(any(), any(), any(), any()) } returns mockResultSet
         every { mockConnection.getDbFlavour() } returns DbFlavour.UNKNOWN
         every { mockResultSet.extractFields(any()) } returns testFieldMeta
         every { mockMapper.invoke(any(), any()) } returns TestEntity(1, "test")
@@ -83,7 +85,22 @@ class KapperImplExecuteReturningTest {
             mockMapper,
             args,
         )
-        verify { mockConnection.executeQuery(mockQuery, args) }
+        verify { mockConnection.executeQuery(mockQuery, args, any(), any()) }
+    }
+
+    @Test
+    fun `executeReturning applies options`() {
+        every { mockResultSet.next() } returns false
+        val options = QueryOptions(queryTimeout = 5)
+        kapper.executeReturning(
+            TestEntity::class.java,
+            mockConnection,
+            mockSqlTemplate,
+            mockMapper,
+            mapOf("name" to "Superman"),
+            options,
+        )
+        verify { mockConnection.executeQuery(mockQuery, any(), options, any()) }
     }
 
     @Test
@@ -283,4 +300,42 @@ class KapperImplExecuteReturningTest {
             )
         }.cause shouldBe ex
     }
+
+    @Test
+    fun `executeReturning with object applies configured options`() {
+        every { mockResultSet.next() } returns false
+        val kapper = KapperImpl(mockQueryBuilder, KapperConfig(queryOptions = QueryOptions(fetchSize = 10, queryTimeout = 5)))
+        kapper.executeReturning(
+            TestEntity::class.java,
+            mockConnection,
+            mockSqlTemplate,
+            mockMapper,
+            TestEntity(1, "Superman"),
+            mapOf("name" to { e: TestEntity -> e.name }),
+        )
+        verify {
+            mockStatement.fetchSize = 10
+            mockStatement.queryTimeout = 5
+        }
+    }
+
+    @Test
+    fun `executeReturning with object applies options`() {
+        every { mockResultSet.next() } returns false
+        val kapper = KapperImpl(mockQueryBuilder, KapperConfig(queryOptions = QueryOptions(fetchSize = 10)))
+        kapper.executeReturning(
+            TestEntity::class.java,
+            mockConnection,
+            mockSqlTemplate,
+            mockMapper,
+            TestEntity(1, "Superman"),
+            mapOf("name" to { e: TestEntity -> e.name }),
+            QueryOptions(fetchSize = 20, queryTimeout = 5),
+        )
+        verify {
+            mockStatement.fetchSize = 20
+            mockStatement.queryTimeout = 5
+        }
+        verify(exactly = 0) { mockStatement.fetchSize = 10 }
+    }
 }
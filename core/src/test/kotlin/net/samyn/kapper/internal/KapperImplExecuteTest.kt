@@ -1,13 +1,20 @@
 package net.samyn.kapper.internal
 
+import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.mockkStatic
 import io.mockk.unmockkAll
 import io.mockk.verify
+import io.mockk.verifyOrder
 import io.mockk.verifySequence
+import net.samyn.kapper.BatchOptions
+import net.samyn.kapper.BatchResult
 import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.KapperConfig
+import net.samyn.kapper.KapperMappingException
 import net.samyn.kapper.internal.automapper.setParameter
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.Test
@@ -15,6 +22,8 @@ import org.junit.jupiter.api.parallel.Isolated
 import java.sql.Connection
 import java.sql.PreparedStatement
 import java.sql.ResultSet
+import java.sql.ResultSetMetaData
+import java.sql.Statement
 
 // Complements tests in KapperApiTest, targeting KapperImpl directly
 @Isolated // avoid running in parallel as this test uses static mock for KapperInstance
@@ -146,4 +155,238 @@ class KapperImplExecuteTest {
         }
         result shouldBe intArrayOf(1, 1)
     }
+
+    @Test
+    fun `executeAll with batch size executes batches`() {
+        val users = List(5) { User(it, "Hero $it") }
+        val args = mapOf("id" to { u: User -> u.id })
+        every { mockStatement.executeBatch() } returnsMany listOf(intArrayOf(1, 1), intArrayOf(1, 1), intArrayOf(1))
+        val result = kapper.executeAll(User::class.java, mockConnection, mockSqlTemplate, users, args, BatchOptions(2))
+        verify(exactly = 5) { mockStatement.addBatch() }
+        verify(exactly = 3) { mockStatement.executeBatch() }
+        verify(exactly = 0) { mockConnection.commit() }
+        result shouldBe intArrayOf(1, 1, 1, 1, 1)
+    }
+
+    @Test
+    fun `executeBatch returns aggregate counts`() {
+        val users = List(5) { User(it, "Hero $it") }
+        val args = mapOf("id" to { u: User -> u.id })
+        every { mockStatement.executeBatch() } returnsMany
+            listOf(intArrayOf(1, 2), intArrayOf(Statement.SUCCESS_NO_INFO, 0), intArrayOf(3))
+        val result =
+            kapper.executeBatch(User::class.java, mockConnection, mockSqlTemplate, users.iterator(), args, BatchOptions(2))
+        result shouldBe BatchResult(statementCount = 5, batchCount = 3, updateCount = 6, unknownUpdateCount = 1)
+    }
+
+    @Test
+    fun `executeBatch commits each batch`() {
+        val users = List(3) { User(it, "Hero $it") }
+        val args = mapOf("id" to { u: User -> u.id })
+        every { mockConnection.autoCommit } returns false
+        every { mockStatement.executeBatch() } returnsMany listOf(intArrayOf(1, 1), intArrayOf(1))
+        kapper.executeBatch(
+            User::class.java,
+            mockConnection,
+            mockSqlTemplate,
+            users.iterator(),
+            args,
+            BatchOptions(batchSize = 2, commitEachBatch = true),
+        )
+        verifyOrder {
+            mockStatement.executeBatch()
+            mockConnection.commit()
+            mockStatement.addBatch()
+            mockStatement.executeBatch()
+            mockConnection.commit()
+        }
+    }
+
+    @Test
+    fun `executeBatch commit each batch requires auto-commit disabled`() {
+        every { mockConnection.autoCommit } returns true
+        shouldThrow<IllegalArgumentException> {
+            kapper.executeBatch(
+                User::class.java,
+                mockConnection,
+                mockSqlTemplate,
+                listOf(User(1, "Alice")).iterator(),
+                mapOf("id" to { u: User -> u.id }),
+                BatchOptions(commitEachBatch = true),
+            )
+        }
+        verify(exactly = 0) { mockConnection.prepareStatement(any()) }
+    }
+
+    @Test
+    fun `insertAll inserts rows with a multi-row statement`() {
+        val template = "INSERT INTO users (id, name) VALUES (:id, :name)"
+        every { mockQueryBuilder(template) } returns Query(template)
+        every { mockStatement.executeUpdate() } returnsMany listOf(2, 1)
+        val insertKapper = KapperImpl(mockQueryBuilder, KapperConfig(dbFlavour = DbFlavour.POSTGRESQL))
+        val result =
+            insertKapper.insertAll(
+                User::class.java,
+                mockConnection,
+                template,
+                List(3) { User(it, "Hero $it") },
+                mapOf("id" to { u: User -> u.id }, "name" to { u: User -> u.name }),
+            )
+        verifyOrder {
+            mockConnection.prepareStatement("INSERT INTO users (id, name) VALUES (?, ?), (?, ?), (?, ?)")
+            mockStatement.setInt(1, 0)
+            mockStatement.setString(2, "Hero 0")
+            mockStatement.setInt(3, 1)
+            mockStatement.setString(4, "Hero 1")
+            mockStatement.executeUpdate()
+            mockStatement.close()
+            mockConnection.prepareStatement("INSERT INTO users (id, name) VALUES (?, ?)")
+            mockStatement.setInt(1, 2)
+            mockStatement.setString(2, "Hero 2")
+            mockStatement.executeUpdate()
+            mockStatement.close()
+        }
+        result shouldBe 3
+    }
+
+    @Test
+    fun `insertAll executes a batch when the template is not a multi-row insert`() {
+        every { mockQueryBuilder(mockSqlTemplate) } returns Query(mockSqlTemplate)
+        every { mockStatement.executeBatch() } returns intArrayOf(1, Statement.SUCCESS_NO_INFO)
+        val insertKapper = KapperImpl(mockQueryBuilder, KapperConfig(dbFlavour = DbFlavour.POSTGRESQL))
+        val result =
+            insertKapper.insertAll(
+                User::class.java,
+                mockConnection,
+                mockSqlTemplate,
+                listOf(User(1, "Alice"), User(2, "Bob")),
+                mapOf("id" to { u: User -> u.id }, "name" to { u: User -> u.name }),
+            )
+        verify(exactly = 2) { mockStatement.addBatch() }
+        verify(exactly = 0) { mockStatement.executeUpdate() }
+        result shouldBe Statement.SUCCESS_NO_INFO
+    }
+
+    @Test
+    fun `insertAll returns rows reported by the batch when the template is not a multi-row insert`() {
+        every { mockQueryBuilder(mockSqlTemplate) } returns Query(mockSqlTemplate)
+        every { mockStatement.executeBatch() } returns intArrayOf(1, 2)
+        val insertKapper = KapperImpl(mockQueryBuilder, KapperConfig(dbFlavour = DbFlavour.POSTGRESQL))
+        val result =
+            insertKapper.insertAll(
+                User::class.java,
+                mockConnection,
+                mockSqlTemplate,
+                listOf(User(1, "Alice"), User(2, "Bob")),
+                mapOf("id" to { u: User -> u.id }, "name" to { u: User -> u.name }),
+            )
+        result shouldBe 3
+    }
+
+    @Test
+    fun `insertAll counts a row for each single-row insert without update count`() {
+        val template = "INSERT INTO users (id, name) VALUES (:id, :name)"
+        every { mockQueryBuilder(template) } returns Query(template)
+        every { mockStatement.executeBatch() } returns intArrayOf(1, Statement.SUCCESS_NO_INFO)
+        val result =
+            kapper.insertAll(
+                User::class.java,
+                mockConnection,
+                template,
+                listOf(User(1, "Alice"), User(2, "Bob")),
+                mapOf("id" to { u: User -> u.id }, "name" to { u: User -> u.name }),
+            )
+        result shouldBe 2
+    }
+
+    @Test
+    fun `insertAll executes a batch when the template has comments`() {
+        val template = "INSERT INTO users (id, name) VALUES (:id, :name) -- RETURNING id"
+        every { mockQueryBuilder(template) } returns Query(template)
+        every { mockStatement.executeBatch() } returns intArrayOf(1, 1)
+        val insertKapper = KapperImpl(mockQueryBuilder, KapperConfig(dbFlavour = DbFlavour.POSTGRESQL))
+        val result =
+            insertKapper.insertAll(
+                User::class.java,
+                mockConnection,
+                template,
+                listOf(User(1, "Alice"), User(2, "Bob")),
+                mapOf("id" to { u: User -> u.id }, "name" to { u: User -> u.name }),
+            )
+        verify(exactly = 2) { mockStatement.addBatch() }
+        verify(exactly = 0) { mockStatement.executeUpdate() }
+        result shouldBe 2
+    }
+
+    @Test
+    fun `insertAll executes a batch when the database does not support multi-row inserts`() {
+        val template = "INSERT INTO users (id, name) VALUES (:id, :name)"
+        every { mockQueryBuilder(template) } returns Query(template)
+        every { mockStatement.executeBatch() } returns intArrayOf(1, 1)
+        val result =
+            kapper.insertAll(
+                User::class.java,
+                mockConnection,
+                template,
+                listOf(User(1, "Alice"), User(2, "Bob")),
+                mapOf("id" to { u: User -> u.id }, "name" to { u: User -> u.name }),
+            )
+        verify { mockConnection.prepareStatement("INSERT INTO users (id, name) VALUES (?, ?)") }
+        verify(exactly = 2) { mockStatement.addBatch() }
+        result shouldBe 2
+    }
+
+    private fun mockTableColumns(vararg columns: String) {
+        val resultSetMetaData =
+            mockk<ResultSetMetaData> {
+                every { columnCount } returns columns.size
+                columns.forEachIndexed { index, column -> every { getColumnName(index + 1) } returns column }
+            }
+        val resultSet = mockk<ResultSet>(relaxed = true) { every { metaData } returns resultSetMetaData }
+        every { mockConnection.createStatement() } returns
+            mockk<Statement>(relaxed = true) { every { executeQuery(any()) } returns resultSet }
+        every { mockConnection.metaData.identifierQuoteString } returns "\""
+    }
+
+    @Test
+    fun `appendAll inserts rows in batches when the database is not DuckDB`() {
+        val sql = "INSERT INTO users (\"ID\", \"NAME\") VALUES (:id, :name)"
+        mockTableColumns("ID", "NAME", "CREATED_AT")
+        every { mockQueryBuilder(sql) } returns Query(sql)
+        every { mockStatement.executeBatch() } returns intArrayOf(1, 1)
+        val result =
+            kapper.appendAll(User::class.java, mockConnection, "users", listOf(User(1, "Alice"), User(2, "Bob")).iterator())
+        verify { mockConnection.prepareStatement("INSERT INTO users (\"ID\", \"NAME\") VALUES (?, ?)") }
+        verify(exactly = 2) { mockStatement.addBatch() }
+        result shouldBe 2L
+    }
+
+    @Test
+    fun `appendAll inserts rows in batches when the connection is not a DuckDB connection`() {
+        val sql = "INSERT INTO users (\"id\", \"name\") VALUES (:id, :name)"
+        mockTableColumns("id", "name")
+        every { mockQueryBuilder(sql) } returns Query(sql)
+        every { mockStatement.executeBatch() } returns intArrayOf(1)
+        val duckDbKapper = KapperImpl(mockQueryBuilder, KapperConfig(dbFlavour = DbFlavour.DUCKDB))
+        val result = duckDbKapper.appendAll(User::class.java, mockConnection, "users", listOf(User(1, "Alice")).iterator())
+        verify { mockConnection.prepareStatement("INSERT INTO users (\"id\", \"name\") VALUES (?, ?)") }
+        result shouldBe 1L
+    }
+
+    @Test
+    fun `appendAll throws when a property has no column`() {
+        mockTableColumns("ID")
+        shouldThrow<KapperMappingException> {
+            kapper.appendAll(User::class.java, mockConnection, "users", listOf(User(1, "Alice")).iterator())
+        }.message shouldContain "[name]"
+        verify(exactly = 0) { mockConnection.prepareStatement(any()) }
+    }
+
+    @Test
+    fun `appendAll throws when the table is not an identifier`() {
+        shouldThrow<IllegalArgumentException> {
+            kapper.appendAll(User::class.java, mockConnection, "users; DROP TABLE users", listOf(User(1, "Alice")).iterator())
+        }.message shouldContain "Invalid table name"
+        verify(exactly = 0) { mockConnection.createStatement() }
+    }
 }
@@ -9,8 +9,10 @@ import io.mockk.unmockkAll
 import io.mockk.verify
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
+import net.samyn.kapper.KapperConfig
 import net.samyn.kapper.KapperQueryException
 import net.samyn.kapper.KapperResultException
+import net.samyn.kapper.QueryOptions
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.parallel.Isolated
@@ -51,7 +53,7 @@ class KapperImplQueryTest {
         mockkStatic(Connection::executeQuery)
         mockkStatic(Connection::getDbFlavour)
         mockkStatic(ResultSet::extractFields)
-        every { mockConnection.executeQuery(any(), any()) } returns mockResultSet
+        every { mockConnection.executeQuery(any(), any(), any(), any()) } returns mockResultSet
         every { mockConnection.getDbFlavour() } returns DbFlavour.UNKNOWN
         every { mockResultSet.extractFields(any()) } returns testFieldMeta
         every { mockMapper.invoke(any(), any()) } returns TestEntity(1, "test")
@@ -74,7 +76,38 @@ class KapperImplQueryTest {
                 mockMapper,
                 args,
             )
-        verify { mockConnection.executeQuery(mockQuery, args) }
+        verify { mockConnection.executeQuery(mockQuery, args, any(), any()) }
+    }
+
+    @Test
+    fun `query parses template once`() {
+        every { mockResultSet.next() } returns false
+        val kapper = KapperImpl(mockQueryBuilder)
+        repeat(3) {
+            kapper.query(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to it))
+        }
+        verify(exactly = 1) { mockQueryBuilder(mockSqlTemplate) }
+        kapper.queryCacheStats.hits shouldBe 2
+    }
+
+    @Test
+    fun `query parses template every time when cache disabled`() {
+        every { mockResultSet.next() } returns false
+        val kapper = KapperImpl(mockQueryBuilder, KapperConfig(queryCacheSize = 0))
+        repeat(3) {
+            kapper.query(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to it))
+        }
+        verify(exactly = 3) { mockQueryBuilder(mockSqlTemplate) }
+    }
+
+    @Test
+    fun `query uses configured db flavour`() {
+        every { mockResultSet.next() } returns false
+        val kapper = KapperImpl(mockQueryBuilder, KapperConfig(dbFlavour = DbFlavour.POSTGRESQL))
+        kapper.query(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1))
+        verify { mockConnection.executeQuery(mockQuery, any(), any(), DbFlavour.POSTGRESQL) }
+        verify { mockResultSet.extractFields(DbFlavour.POSTGRESQL) }
+        verify(exactly = 0) { mockConnection.getDbFlavour() }
     }
 
     @Test
@@ -147,7 +180,7 @@ class KapperImplQueryTest {
                 mockMapper,
                 args,
             )
-        verify { mockConnection.executeQuery(mockQuery, args) }
+        verify { mockConnection.executeQuery(mockQuery, args, any(), any()) }
     }
 
     @Test
@@ -207,4 +240,193 @@ class KapperImplQueryTest {
                 )
         }
     }
+
+    @Test
+    fun `querySingle reads at most two rows`() {
+        every { mockResultSet.next() } returns true
+        shouldThrow<KapperResultException> {
+            kapper.querySingle(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 3))
+        }
+        verify { mockConnection.executeQuery(mockQuery, any(), QueryOptions(maxRows = 2), any()) }
+        verify(exactly = 2) { mockMapper.invoke(any(), any()) }
+    }
+
+    @Test
+    fun `querySingle reads two rows when a lower maximum number of rows is configured`() {
+        every { mockResultSet.next() } returns true
+        shouldThrow<KapperResultException> {
+            kapper.querySingle(
+                TestEntity::class.java,
+                mockConnection,
+                mockSqlTemplate,
+                mockMapper,
+                mapOf("id" to 3),
+                QueryOptions(maxRows = 1),
+            )
+        }.message shouldBe "Expected a single result but found more than one"
+        verify { mockConnection.executeQuery(mockQuery, any(), QueryOptions(maxRows = 2), any()) }
+    }
+
+    @Test
+    fun `queryFirstOrNull reads one row`() {
+        every { mockResultSet.next() } returns true
+        val result = kapper.queryFirstOrNull(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 3))
+        result shouldBe TestEntity(1, "test")
+        verify { mockConnection.executeQuery(mockQuery, any(), QueryOptions(maxRows = 1), any()) }
+        verify(exactly = 1) { mockResultSet.next() }
+        verify(exactly = 1) { mockMapper.invoke(any(), any()) }
+        verify { mockResultSet.close() }
+    }
+
+    @Test
+    fun `queryFirstOrNull returns null when no results`() {
+        every { mockResultSet.next() } returns false
+        kapper.queryFirstOrNull(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 3)) shouldBe null
+    }
+
+    @Test
+    fun `queryFirst throws when no results`() {
+        every { mockResultSet.next() } returns false
+        shouldThrow<KapperResultException> {
+            kapper.queryFirst(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 3))
+        }
+    }
+
+    @Test
+    fun `forEach passes mapped rows to action`() {
+        every { mockResultSet.next() } returns true andThen true andThen false
+        every { mockMapper.invoke(any(), any()) } returns TestEntity(1, "Superman") andThen TestEntity(2, "Batman")
+        val results = mutableListOf<TestEntity>()
+        kapper.forEach(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1)) { results.add(it) }
+        results shouldBe listOf(TestEntity(1, "Superman"), TestEntity(2, "Batman"))
+        verify { mockConnection.executeQuery(mockQuery, any(), QueryOptions(fetchSize = 1000), any()) }
+        verify { mockResultSet.close() }
+    }
+
+    @Test
+    fun `forEach closes ResultSet when action throws`() {
+        every { mockResultSet.next() } returns true
+        shouldThrow<IllegalStateException> {
+            kapper.forEach(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1)) {
+                throw IllegalStateException("stop")
+            }
+        }
+        verify { mockResultSet.close() }
+    }
+
+    @Test
+    fun `forEach uses configured fetch size`() {
+        every { mockResultSet.next() } returns false
+        val options = QueryOptions(fetchSize = 50)
+        KapperImpl(mockQueryBuilder, KapperConfig(queryOptions = options))
+            .forEach(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1)) { }
+        verify { mockConnection.executeQuery(mockQuery, any(), options, any()) }
+    }
+
+    @Test
+    fun `queryRows returns untyped rows`() {
+        every { mockResultSet.next() } returns true andThen true andThen false
+        every { mockResultSet.getInt(1) } returns 1 andThen 2
+        every { mockResultSet.wasNull() } returns false
+        val rows = kapper.queryRows(mockConnection, mockSqlTemplate, mapOf("id" to 1))
+        rows.map { it["id"] } shouldBe listOf(1, 2)
+        verify { mockConnection.executeQuery(mockQuery, mapOf("id" to 1), any(), any()) }
+        verify { mockResultSet.close() }
+    }
+
+    @Test
+    fun `queryColumns reads rows into columns`() {
+        every { mockResultSet.next() } returns true andThen true andThen false
+        every { mockResultSet.getInt(1) } returns 1 andThen 2
+        every { mockResultSet.wasNull() } returns false
+        val batch = kapper.queryColumns(mockConnection, mockSqlTemplate, mapOf("id" to 1))
+        batch.rowCount shouldBe 2
+        batch.intColumn("id").values shouldBe intArrayOf(1, 2)
+        verify { mockConnection.executeQuery(mockQuery, any(), QueryOptions(fetchSize = 1000), any()) }
+        verify { mockResultSet.close() }
+    }
+
+    @Test
+    fun `queryAsSequence maps rows on demand`() {
+        every { mockResultSet.next() } returns true andThen true andThen false
+        val args = mapOf("id" to 1)
+        val results = kapper.queryAsSequence(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, args, 100)
+        verify { mockConnection.executeQuery(mockQuery, args, QueryOptions(fetchSize = 100), any()) }
+        verify(exactly = 0) { mockResultSet.next() }
+
+        val iterator = results.iterator()
+        iterator.next() shouldBe TestEntity(1, "test")
+        verify(exactly = 1) { mockMapper.invoke(mockResultSet, testFieldMeta) }
+        verify(exactly = 0) { mockResultSet.close() }
+        iterator.next()
+        iterator.hasNext() shouldBe false
+        verify(exactly = 2) { mockMapper.invoke(mockResultSet, testFieldMeta) }
+        verify(exactly = 1) { mockResultSet.close() }
+    }
+
+    @Test
+    fun `queryAsSequence closes result set when closed before exhausted`() {
+        every { mockResultSet.next() } returns true
+        kapper.queryAsSequence(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1), 0)
+            .use { results -> results.take(2).toList() shouldBe listOf(TestEntity(1, "test"), TestEntity(1, "test")) }
+        verify(exactly = 1) { mockResultSet.close() }
+    }
+
+    @Test
+    fun `queryAsSequence closes result set and throws KapperQueryException when reading fails`() {
+        every { mockResultSet.next() } returns true andThenThrows SQLException("connection lost")
+        val results =
+            kapper.queryAsSequence(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1), 0)
+        val iterator = results.iterator()
+        iterator.next()
+        shouldThrow<KapperQueryException> {
+            iterator.hasNext()
+        }
+        verify(exactly = 1) { mockResultSet.close() }
+    }
+
+    @Test
+    fun `queryAsSequence can be iterated once`() {
+        every { mockResultSet.next() } returns false
+        val results =
+            kapper.queryAsSequence(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1), 0)
+        results.toList() shouldBe emptyList()
+        shouldThrow<IllegalStateException> {
+            results.toList()
+        }
+    }
+
+    @Test
+    fun `query applies options`() {
+        every { mockResultSet.next() } returns false
+        val options = QueryOptions(fetchSize = 500, maxRows = 10, queryTimeout = 5)
+        kapper.query(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1), options)
+        verify { mockConnection.executeQuery(mockQuery, any(), options, any()) }
+    }
+
+    @Test
+    fun `query uses configured options`() {
+        every { mockResultSet.next() } returns false
+        val options = QueryOptions(fetchSize = 500)
+        val kapper = KapperImpl(mockQueryBuilder, KapperConfig(queryOptions = options))
+        kapper.query(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1))
+        kapper.querySingle(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1))
+        verify { mockConnection.executeQuery(mockQuery, any(), options, any()) }
+        verify { mockConnection.executeQuery(mockQuery, any(), options.copy(maxRows = 2), any()) }
+    }
+
+    @Test
+    fun `queryAsSequence overrides fetch size of configured options`() {
+        every { mockResultSet.next() } returns false
+        val kapper = KapperImpl(mockQueryBuilder, KapperConfig(queryOptions = QueryOptions(fetchSize = 500, maxRows = 10)))
+        kapper.queryAsSequence(TestEntity::class.java, mockConnection, mockSqlTemplate, mockMapper, mapOf("id" to 1), 50)
+        verify { mockConnection.executeQuery(mockQuery, any(), QueryOptions(fetchSize = 50, maxRows = 10), any()) }
+    }
+
+    @Test
+    fun `query options cannot be negative`() {
+        shouldThrow<IllegalArgumentException> { QueryOptions(fetchSize = -1) }
+        shouldThrow<IllegalArgumentException> { QueryOptions(maxRows = -1) }
+        shouldThrow<IllegalArgumentException> { QueryOptions(queryTimeout = -1) }
+    }
 }
@@ -1,35 +1,44 @@
 package net.samyn.kapper.internal
 
+import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.matchers.maps.shouldContainExactly
 import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.kotest.matchers.types.shouldNotBeSameInstanceAs
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.verify
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import java.sql.Connection
 import java.sql.JDBCType
 import java.sql.ResultSet
 import java.sql.ResultSetMetaData
+import java.sql.Statement
 import java.sql.Types
 
 class MetadataTest {
+    private val mockMetadata =
+        mockk<ResultSetMetaData> {
+            every { columnCount } returns 2
+            every { getColumnLabel(1) } returns "id"
+            every { getColumnType(1) } returns Types.INTEGER
+            every { getColumnTypeName(1) } returns JDBCType.valueOf(Types.INTEGER).name
+            every { getColumnLabel(2) } returns "name"
+            every { getColumnType(2) } returns Types.VARCHAR
+            every { getColumnTypeName(2) } returns JDBCType.valueOf(Types.VARCHAR).name
+        }
+    private val mockResultSet =
+        mockk<ResultSet> {
+            every { metaData } returns mockMetadata
+        }
+    private val query = Query("SELECT id, name FROM heroes")
+
     @Test
     fun `when extractFields create Map`() {
-        val mockMetadata =
-            mockk<ResultSetMetaData> {
-                every { columnCount } returns 2
-                every { getColumnLabel(1) } returns "id"
-                every { getColumnType(1) } returns Types.INTEGER
-                every { getColumnTypeName(1) } returns JDBCType.valueOf(Types.INTEGER).name
-                every { getColumnLabel(2) } returns "name"
-                every { getColumnType(2) } returns Types.VARCHAR
-                every { getColumnTypeName(2) } returns JDBCType.valueOf(Types.VARCHAR).name
-            }
-        val mockResultSet =
-            mockk<ResultSet> {
-                every { metaData } returns mockMetadata
-            }
-
         val fields = mockResultSet.extractFields(DbFlavour.UNKNOWN)
         fields.shouldContainExactly(
             mapOf(
@@ -39,6 +48,43 @@ class MetadataTest {
         )
     }
 
+    @Test
+    fun `when extractFields get metadata once`() {
+        mockResultSet.extractFields(DbFlavour.UNKNOWN)
+        verify(exactly = 1) { mockResultSet.metaData }
+    }
+
+    @Test
+    fun `when extractQueryFields with same columns reuse fields`() {
+        val first = mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN)
+        val second = mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN)
+        second shouldBeSameInstanceAs first
+        verify(exactly = 1) { mockMetadata.getColumnType(1) }
+    }
+
+    @Test
+    fun `when extractQueryFields with different labels extract fields again`() {
+        val first = mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN)
+        every { mockMetadata.getColumnLabel(2) } returns "alias"
+        val second = mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN)
+        second shouldNotBeSameInstanceAs first
+        second.keys shouldBe setOf("id", "alias")
+    }
+
+    @Test
+    fun `when extractQueryFields with different column count extract fields again`() {
+        mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN)
+        every { mockMetadata.columnCount } returns 1
+        mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN).keys shouldBe setOf("id")
+    }
+
+    @Test
+    fun `when extractQueryFields with different flavour extract fields again`() {
+        mockResultSet.extractQueryFields(query, DbFlavour.UNKNOWN)
+        mockResultSet.extractQueryFields(query, DbFlavour.POSTGRESQL).values.map { it.dbFlavour }.toSet() shouldBe
+            setOf(DbFlavour.POSTGRESQL)
+    }
+
     @Test
     fun `when jdbcType returns JDBCType`() {
         val jdbcType = JDBCType.INTEGER.vendorTypeNumber
@@ -52,4 +98,52 @@ class MetadataTest {
         val result = jdbcType.jdbcType()
         result shouldBe JDBCType.OTHER
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["heroes", "main.heroes", "\"Super Heroes\"", "`heroes`", "[dbo].[heroes]", "db.main.heroes"])
+    fun `when tableColumns with identifier select columns`(table: String) {
+        val statement = mockk<Statement>(relaxed = true) { every { executeQuery(any()) } returns mockk(relaxed = true) }
+        val connection = mockk<Connection> { every { createStatement() } returns statement }
+        connection.tableColumns(table)
+        verify { statement.executeQuery("SELECT * FROM $table WHERE 1 = 0") }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", "heroes; DROP TABLE heroes", "heroes WHERE 1 = 1 --", "\"he\"\"roes\"", "1heroes", "a.b.c.d"])
+    fun `when tableColumns with invalid table throw`(table: String) {
+        val connection = mockk<Connection>()
+        shouldThrow<IllegalArgumentException> {
+            connection.tableColumns(table)
+        }.message shouldBe "Invalid table name: $table"
+    }
+
+    @Test
+    fun `when tableNameParts split qualified names outside quotes and unquote them`() {
+        tableNameParts("heroes") shouldBe listOf("heroes")
+        tableNameParts("main.heroes") shouldBe listOf("main", "heroes")
+        tableNameParts("db.main.heroes") shouldBe listOf("db", "main", "heroes")
+        tableNameParts("\"T\"") shouldBe listOf("T")
+        tableNameParts("\"my.schema\".\"t\"") shouldBe listOf("my.schema", "t")
+        tableNameParts("`db`.[dbo].[super heroes]") shouldBe listOf("db", "dbo", "super heroes")
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", "heroes; DROP TABLE heroes", "a.b.c.d"])
+    fun `when tableNameParts with invalid table throw`(table: String) {
+        shouldThrow<IllegalArgumentException> {
+            tableNameParts(table)
+        }.message shouldBe "Invalid table name: $table"
+    }
+
+    @Test
+    fun `when quoteIdentifier quote and escape quotes`() {
+        "name".quoteIdentifier("\"") shouldBe "\"name\""
+        "na\"me".quoteIdentifier("\"") shouldBe "\"na\"\"me\""
+        "name".quoteIdentifier("`") shouldBe "`name`"
+    }
+
+    @Test
+    fun `when quoteIdentifier not supported do not quote`() {
+        "name".quoteIdentifier(" ") shouldBe "name"
+    }
 }
@@ -0,0 +1,142 @@
+package net.samyn.kapper.internal
+
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import net.samyn.kapper.DbFlavour
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import org.junit.jupiter.params.provider.ValueSource
+
+class MultiRowInsertTest {
+    private val template = "INSERT INTO super_heroes (id, name, age) VALUES (:id, :name, :age)"
+
+    @Test
+    fun `parse single-row insert`() {
+        val insert = MultiRowInsert.parse(template).shouldNotBeNull()
+        insert.prefix shouldBe "INSERT INTO super_heroes (id, name, age) VALUES"
+        insert.rowSql shouldBe "(?, ?, ?)"
+        insert.rowTokens shouldBe mapOf("id" to listOf(1), "name" to listOf(2), "age" to listOf(3))
+        insert.parametersPerRow shouldBe 3
+    }
+
+    @Test
+    fun `parse insert with functions, literals and trailing semicolon`() {
+        val insert =
+            MultiRowInsert.parse("insert into heroes (id, name, note) values (:id, upper(:name), 'a (values)');")
+                .shouldNotBeNull()
+        insert.rowSql shouldBe "(?, upper(?), 'a (values)')"
+        insert.parametersPerRow shouldBe 2
+    }
+
+    @Test
+    fun `parse counts repeated tokens per row`() {
+        val insert = MultiRowInsert.parse("INSERT INTO heroes (id, alias) VALUES (:id, :id)").shouldNotBeNull()
+        insert.rowTokens shouldBe mapOf("id" to listOf(1, 2))
+        insert.parametersPerRow shouldBe 2
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "UPDATE super_heroes SET name = :name WHERE id = :id",
+            "INSERT INTO super_heroes (id, name) SELECT id, name FROM villains WHERE id = :id",
+            "INSERT INTO super_heroes (id, name) VALUES (:id, :name) RETURNING id",
+            "INSERT INTO super_heroes (id, name) VALUES (:id, :name) ON CONFLICT DO NOTHING",
+            "INSERT INTO super_heroes (id, name) VALUES (:id, :name), (:id2, :name2)",
+            "INSERT INTO super_heroes (id, name) VALUES (:id, :name",
+        ],
+    )
+    fun `parse rejects templates which are not single-row inserts`(sql: String) {
+        MultiRowInsert.parse(sql).shouldBeNull()
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = [
+            "INSERT INTO super_heroes (id, name) VALUES (:id, :name) -- RETURNING id",
+            "INSERT INTO super_heroes (id, name) VALUES (:id, :name) /* ON CONFLICT DO NOTHING */",
+            "-- insert a hero\nINSERT INTO super_heroes (id, name) VALUES (:id, :name)",
+            "INSERT INTO super_heroes (id, name) /* VALUES (:a, :b) */ VALUES (:id, :name)",
+            "INSERT INTO super_heroes (id, name) VALUES (:id, -- the name\n:name)",
+        ],
+    )
+    fun `parse rejects templates with comments`(sql: String) {
+        MultiRowInsert.parse(sql).shouldBeNull()
+    }
+
+    @Test
+    fun `parse ignores comment markers in literals`() {
+        val insert =
+            MultiRowInsert.parse("INSERT INTO heroes (id, note) VALUES (:id, '-- /* not a comment */')").shouldNotBeNull()
+        insert.rowSql shouldBe "(?, '-- /* not a comment */')"
+    }
+
+    @Test
+    fun `sql expands values for each row`() {
+        val insert = MultiRowInsert.parse(template).shouldNotBeNull()
+        insert.sql(3, DbFlavour.POSTGRESQL) shouldBe
+            "INSERT INTO super_heroes (id, name, age) VALUES (?, ?, ?), (?, ?, ?), (?, ?, ?)"
+    }
+
+    @Test
+    fun `sql uses insert all for oracle`() {
+        val insert = MultiRowInsert.parse(template).shouldNotBeNull()
+        insert.sql(2, DbFlavour.ORACLE) shouldBe
+            "INSERT ALL INTO super_heroes (id, name, age) VALUES (?, ?, ?) " +
+            "INTO super_heroes (id, name, age) VALUES (?, ?, ?) SELECT 1 FROM DUAL"
+    }
+
+    @Test
+    fun `max rows is limited by the bind parameters of the database`() {
+        val insert = MultiRowInsert.parse(template).shouldNotBeNull()
+        insert.maxRows(DbFlavour.POSTGRESQL) shouldBe 21845
+        insert.maxRows(DbFlavour.SQLITE) shouldBe 10922
+        insert.maxRows(DbFlavour.MSSQLSERVER) shouldBe 700
+    }
+
+    @Test
+    fun `max rows is limited by the rows of a values clause on SQL Server`() {
+        val insert = MultiRowInsert.parse("INSERT INTO heroes (id) VALUES (:id)").shouldNotBeNull()
+        insert.maxRows(DbFlavour.MSSQLSERVER) shouldBe 1000
+    }
+
+    @Test
+    fun `max rows is limited by the columns of an insert all on Oracle`() {
+        val insert =
+            MultiRowInsert
+                .parse("INSERT INTO heroes (a, b, c, d, e) VALUES (:a, :b, :c, :d, :e)")
+                .shouldNotBeNull()
+        val maxRows = insert.maxRows(DbFlavour.ORACLE)
+        maxRows shouldBe 199
+        generateSequence(300) { remaining -> (remaining - insert.rowsPerStatement(remaining, maxRows)).takeIf { it > 0 } }
+            .map { insert.rowsPerStatement(it, maxRows) }
+            .toList() shouldBe listOf(199, 64, 32, 4, 1)
+    }
+
+    @Test
+    fun `max rows is zero when a single row exceeds the columns of an insert all on Oracle`() {
+        val columns = (1..1000).map { "c$it" }
+        val insert =
+            MultiRowInsert
+                .parse("INSERT INTO heroes (${columns.joinToString()}) VALUES (${columns.joinToString { ":$it" }})")
+                .shouldNotBeNull()
+        insert.maxRows(DbFlavour.ORACLE) shouldBe 0
+    }
+
+    @ParameterizedTest
+    @EnumSource(names = ["FIREBIRD", "UNKNOWN"])
+    fun `max rows is zero when multi-row inserts are not supported`(flavour: DbFlavour) {
+        MultiRowInsert.parse(template).shouldNotBeNull().maxRows(flavour) shouldBe 0
+    }
+
+    @Test
+    fun `rows per statement uses full statements and powers of two for the remainder`() {
+        val insert = MultiRowInsert.parse(template).shouldNotBeNull()
+        insert.rowsPerStatement(1500, 1000) shouldBe 1000
+        insert.rowsPerStatement(500, 1000) shouldBe 256
+        insert.rowsPerStatement(3, 1000) shouldBe 2
+        insert.rowsPerStatement(1, 1000) shouldBe 1
+    }
+}
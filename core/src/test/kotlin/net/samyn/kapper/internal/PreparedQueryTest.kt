@@ -0,0 +1,178 @@
+package net.samyn.kapper.internal
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperConfig
+import net.samyn.kapper.KapperParseException
+import net.samyn.kapper.KapperResultException
+import net.samyn.kapper.QueryOptions
+import org.junit.jupiter.api.Test
+import java.sql.Connection
+import java.sql.PreparedStatement
+import java.sql.ResultSet
+
+class PreparedQueryTest {
+    private val template = "SELECT * FROM heroes WHERE name = :name AND (age > :age OR alter_ego_age > :age)"
+    private val resultSet = mockk<ResultSet>(relaxed = true)
+    private val statement =
+        mockk<PreparedStatement>(relaxed = true) {
+            every { executeQuery() } returns resultSet
+        }
+    private val connection =
+        mockk<Connection>(relaxed = true) {
+            every { prepareStatement(any()) } returns statement
+        }
+    private val mapper = mockk<(ResultSet, Map<String, Field>) -> Hero>()
+    private val kapper = KapperImpl()
+
+    data class Hero(val name: String, val age: Int)
+
+    init {
+        every { mapper(any(), any()) } returns Hero("Batman", 85)
+    }
+
+    @Test
+    fun `parameter names in order of first occurrence`() {
+        val prepared = kapper.compile(Hero::class.java, template, mapper)
+        prepared.parameterNames.shouldContainExactly("name", "age")
+        prepared.slotOf("name") shouldBe 0
+        prepared.slotOf("age") shouldBe 1
+    }
+
+    @Test
+    fun `when slot not found throw`() {
+        val prepared = kapper.compile(Hero::class.java, template, mapper)
+        shouldThrow<KapperParseException> {
+            prepared.slotOf("id")
+        }.message shouldContain "'id'"
+    }
+
+    @Test
+    fun `query prepares parsed statement`() {
+        kapper.compile(Hero::class.java, template, mapper).query(connection, "Batman", 30)
+        verify { connection.prepareStatement("SELECT * FROM heroes WHERE name = ? AND (age > ? OR alter_ego_age > ?)") }
+    }
+
+    @Test
+    fun `query binds values by slot`() {
+        kapper.compile(Hero::class.java, template, mapper).query(connection, "Batman", 30)
+        verify { statement.setString(1, "Batman") }
+        verify { statement.setInt(2, 30) }
+        verify { statement.setInt(3, 30) }
+    }
+
+    @Test
+    fun `query maps results`() {
+        every { resultSet.next() } returns true andThen true andThen false
+        val results = kapper.compile(Hero::class.java, template, mapper).query(connection, "Batman", 30)
+        results.shouldContainExactly(Hero("Batman", 85), Hero("Batman", 85))
+    }
+
+    @Test
+    fun `query closes ResultSet`() {
+        kapper.compile(Hero::class.java, template, mapper).query(connection, "Batman", 30)
+        verify { resultSet.close() }
+    }
+
+    @Test
+    fun `when value count does not match throw`() {
+        val prepared = kapper.compile(Hero::class.java, template, mapper)
+        shouldThrow<IllegalArgumentException> {
+            prepared.query(connection, "Batman")
+        }
+    }
+
+    @Test
+    fun `querySingle returns single result`() {
+        every { resultSet.next() } returns true andThen false
+        kapper.compile(Hero::class.java, template, mapper).querySingle(connection, "Batman", 30) shouldBe Hero("Batman", 85)
+    }
+
+    @Test
+    fun `querySingle returns null when no results`() {
+        every { resultSet.next() } returns false
+        kapper.compile(Hero::class.java, template, mapper).querySingle(connection, "Batman", 30) shouldBe null
+    }
+
+    @Test
+    fun `when querySingle returns more than one result throw`() {
+        every { resultSet.next() } returns true andThen true andThen false
+        shouldThrow<KapperResultException> {
+            kapper.compile(Hero::class.java, template, mapper).querySingle(connection, "Batman", 30)
+        }
+    }
+
+    @Test
+    fun `querySingle reads at most two rows`() {
+        every { resultSet.next() } returns true
+        shouldThrow<KapperResultException> {
+            kapper.compile(Hero::class.java, template, mapper).querySingle(connection, "Batman", 30)
+        }
+        verify { statement.maxRows = 2 }
+        verify(exactly = 2) { mapper(any(), any()) }
+    }
+
+    @Test
+    fun `querySingle reads two rows when a lower maximum number of rows is configured`() {
+        every { resultSet.next() } returns true
+        val kapper = KapperImpl(config = KapperConfig(queryOptions = QueryOptions(maxRows = 1)))
+        shouldThrow<KapperResultException> {
+            kapper.compile(Hero::class.java, template, mapper).querySingle(connection, "Batman", 30)
+        }
+        verify { statement.maxRows = 2 }
+        verify(exactly = 0) { statement.maxRows = 1 }
+    }
+
+    @Test
+    fun `binder binds values by name`() {
+        kapper.compile(Hero::class.java, template, mapper)
+            .bind()
+            .set("age", 30)
+            .set("name", "Batman")
+            .query(connection)
+        verify { statement.setString(1, "Batman") }
+        verify { statement.setInt(2, 30) }
+        verify { statement.setInt(3, 30) }
+    }
+
+    @Test
+    fun `binder keeps values between executions`() {
+        val binder =
+            kapper.compile(Hero::class.java, template, mapper)
+                .bind()
+                .set(0, "Batman")
+                .set(1, 30)
+        binder.query(connection)
+        binder.set(1, 40).query(connection)
+        verify(exactly = 2) { statement.setString(1, "Batman") }
+        verify { statement.setInt(2, 40) }
+    }
+
+    @Test
+    fun `when binder not fully bound throw`() {
+        val binder = kapper.compile(Hero::class.java, template, mapper).bind().set("name", "Batman")
+        shouldThrow<IllegalStateException> {
+            binder.query(connection)
+        }.message shouldContain "'age'"
+    }
+
+    @Test
+    fun `when binder slot out of range throw`() {
+        shouldThrow<IllegalArgumentException> {
+            kapper.compile(Hero::class.java, template, mapper).bind().set(2, "Batman")
+        }
+    }
+
+    @Test
+    fun `when compile blank throw`() {
+        shouldThrow<IllegalArgumentException> {
+            kapper.compile(Hero::class.java, " ", mapper)
+        }
+    }
+}
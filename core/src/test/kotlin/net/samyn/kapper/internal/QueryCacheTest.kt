@@ -0,0 +1,111 @@
+package net.samyn.kapper.internal
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.kotest.matchers.types.shouldNotBeSameInstanceAs
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import net.samyn.kapper.KapperParseException
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class QueryCacheTest {
+    private val queryFactory = mockk<(String) -> Query>()
+
+    init {
+        every { queryFactory(any()) } answers { Query(firstArg()) }
+    }
+
+    @Test
+    fun `when template cached do not parse again`() {
+        val cache = QueryCache(10, queryFactory)
+        val first = cache.get("SELECT * FROM foo WHERE id = :id")
+        val second = cache.get("SELECT * FROM foo WHERE id = :id")
+        first shouldBeSameInstanceAs second
+        verify(exactly = 1) { queryFactory("SELECT * FROM foo WHERE id = :id") }
+    }
+
+    @Test
+    fun `when cache disabled always parse`() {
+        val cache = QueryCache(0, queryFactory)
+        val first = cache.get("SELECT * FROM foo")
+        val second = cache.get("SELECT * FROM foo")
+        first shouldNotBeSameInstanceAs second
+        verify(exactly = 2) { queryFactory("SELECT * FROM foo") }
+        cache.stats.size shouldBe 0
+    }
+
+    @Test
+    fun `count hits and misses`() {
+        val cache = QueryCache(10, queryFactory)
+        cache.get("SELECT 1")
+        cache.get("SELECT 1")
+        cache.get("SELECT 1")
+        cache.get("SELECT 2")
+        val stats = cache.stats
+        stats.hits shouldBe 2
+        stats.misses shouldBe 2
+        stats.size shouldBe 2
+        stats.maxSize shouldBe 10
+        stats.hitRate shouldBe 0.5
+    }
+
+    @Test
+    fun `when full evict oldest`() {
+        val cache = QueryCache(2, queryFactory)
+        cache.get("SELECT 1")
+        cache.get("SELECT 2")
+        cache.get("SELECT 3")
+        cache.stats.size shouldBe 2
+        cache.stats.evictions shouldBe 1
+        cache.get("SELECT 1")
+        verify(exactly = 2) { queryFactory("SELECT 1") }
+    }
+
+    @Test
+    fun `when full keep recently used`() {
+        val cache = QueryCache(2, queryFactory)
+        cache.get("SELECT 1")
+        cache.get("SELECT 2")
+        // mark SELECT 1 as used, so SELECT 2 is evicted instead
+        cache.get("SELECT 1")
+        cache.get("SELECT 3")
+        cache.get("SELECT 1")
+        verify(exactly = 1) { queryFactory("SELECT 1") }
+        cache.get("SELECT 2")
+        verify(exactly = 2) { queryFactory("SELECT 2") }
+    }
+
+    @Test
+    fun `when parse fails do not cache`() {
+        val failingFactory = mockk<(String) -> Query>()
+        every { failingFactory(any()) } throws KapperParseException("test")
+        val cache = QueryCache(10, failingFactory)
+        shouldThrow<KapperParseException> { cache.get("SELECT :!") }
+        shouldThrow<KapperParseException> { cache.get("SELECT :!") }
+        cache.stats.size shouldBe 0
+    }
+
+    @Test
+    fun `when accessed concurrently stay within bounds`() {
+        val cache = QueryCache(16, queryFactory)
+        val executor = Executors.newFixedThreadPool(8)
+        repeat(8) { t ->
+            executor.submit {
+                repeat(1000) { i -> cache.get("SELECT ${(i + t) % 64}") }
+            }
+        }
+        executor.shutdown()
+        executor.awaitTermination(10, TimeUnit.SECONDS) shouldBe true
+        (cache.stats.size <= 16) shouldBe true
+        cache.stats.hits + cache.stats.misses shouldBe 8000
+    }
+
+    @Test
+    fun `when negative size throw`() {
+        shouldThrow<IllegalArgumentException> { QueryCache(-1, queryFactory) }
+    }
+}
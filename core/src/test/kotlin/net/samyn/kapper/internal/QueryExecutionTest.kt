@@ -9,11 +9,13 @@ import io.mockk.unmockkAll
 import io.mockk.verify
 import net.samyn.kapper.Args
 import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.QueryOptions
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.parallel.Isolated
 import java.sql.Connection
 import java.sql.PreparedStatement
+import java.sql.ResultSet
 
 @Isolated // avoid running in parallel as this test uses static mock for KapperInstance
 class QueryExecutionTest {
@@ -95,7 +97,7 @@ class QueryExecutionTest {
 
     @Test
     fun `when fetchsize set`() {
-        connection.executeQuery(query, args, 10)
+        connection.executeQuery(query, args, QueryOptions(fetchSize = 10))
         verify { statement.fetchSize = 10 }
     }
 
@@ -104,4 +106,36 @@ class QueryExecutionTest {
         connection.executeQuery(query, args)
         verify { statement.fetchSize = 0 }
     }
+
+    @Test
+    fun `when max rows, timeout and fetch direction set`() {
+        connection.executeQuery(query, args, QueryOptions(maxRows = 2, queryTimeout = 30, fetchDirection = ResultSet.FETCH_REVERSE))
+        verify {
+            statement.maxRows = 2
+            statement.queryTimeout = 30
+            statement.fetchDirection = ResultSet.FETCH_REVERSE
+        }
+    }
+
+    @Test
+    fun `when options not set leave statement defaults`() {
+        connection.executeQuery(query, args)
+        verify(exactly = 0) {
+            statement.maxRows = any()
+            statement.queryTimeout = any()
+            statement.fetchDirection = any()
+        }
+    }
+
+    @Test
+    fun `when result set type set prepare statement with type and concurrency`() {
+        every { connection.prepareStatement(any(), any(), any()) } returns statement
+        connection.executeQuery(
+            query,
+            args,
+            QueryOptions(resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE, resultSetConcurrency = ResultSet.CONCUR_UPDATABLE),
+        )
+        verify { connection.prepareStatement("SELECT * FROM table", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_UPDATABLE) }
+        verify(exactly = 0) { connection.prepareStatement(any()) }
+    }
 }
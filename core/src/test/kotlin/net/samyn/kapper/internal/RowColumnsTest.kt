@@ -0,0 +1,63 @@
+package net.samyn.kapper.internal
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.mockk.every
+import io.mockk.mockk
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperResultException
+import org.junit.jupiter.api.Test
+import java.sql.JDBCType
+import java.sql.ResultSet
+
+class RowColumnsTest {
+    private val fields =
+        mapOf(
+            "name" to Field(2, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "id" to Field(1, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+        )
+    private val resultSet =
+        mockk<ResultSet> {
+            every { getInt(1) } returns 1 andThen 2
+            every { wasNull() } returns false
+            every { getString(2) } returns "Superman" andThen null
+        }
+
+    @Test
+    fun `rows hold values in column order`() {
+        val row = RowColumns(fields).read(resultSet)
+        row.columnNames shouldBe listOf("id", "name")
+        row.size shouldBe 2
+        row[0] shouldBe 1
+        row[1] shouldBe "Superman"
+    }
+
+    @Test
+    fun `get by name falls back to ignoring case`() {
+        val row = RowColumns(fields).read(resultSet)
+        row["name"] shouldBe "Superman"
+        row["NAME"] shouldBe "Superman"
+        row.hasColumn("Id") shouldBe true
+        shouldThrow<KapperResultException> { row["alter_ego"] }
+    }
+
+    @Test
+    fun `map view of row`() {
+        val row = RowColumns(fields).read(resultSet)
+        row.asMap() shouldBe mapOf("id" to 1, "name" to "Superman")
+        row.asMap().keys.toList() shouldBe listOf("id", "name")
+        row.asMap()["NAME"] shouldBe null
+    }
+
+    @Test
+    fun `mapper shares columns between rows of a result`() {
+        val mapper = resultRowMapper()
+        val first = mapper(resultSet, fields)
+        val second = mapper(resultSet, fields)
+        second.columnNames shouldBeSameInstanceAs first.columnNames
+        second["name"] shouldBe null
+        second.asMap() shouldBe mapOf("id" to 2, "name" to null)
+    }
+}
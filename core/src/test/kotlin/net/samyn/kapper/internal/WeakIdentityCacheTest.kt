@@ -0,0 +1,33 @@
+package net.samyn.kapper.internal
+
+import io.kotest.matchers.shouldBe
+import org.junit.jupiter.api.Test
+
+class WeakIdentityCacheTest {
+    private val cache = WeakIdentityCache<Any, String>()
+
+    // equal to every other key, so only identity distinguishes keys.
+    private class EqualKey {
+        override fun equals(other: Any?) = other is EqualKey
+
+        override fun hashCode() = 1
+    }
+
+    @Test
+    fun `when key cached do not compute again`() {
+        val key = Any()
+        var computed = 0
+        cache.getOrPut(key) { "value${++computed}" } shouldBe "value1"
+        cache.getOrPut(key) { "value${++computed}" } shouldBe "value1"
+        computed shouldBe 1
+    }
+
+    @Test
+    fun `cache by identity`() {
+        val first = EqualKey()
+        val second = EqualKey()
+        cache.getOrPut(first) { "first" } shouldBe "first"
+        cache.getOrPut(second) { "second" } shouldBe "second"
+        cache.size shouldBe 2
+    }
+}
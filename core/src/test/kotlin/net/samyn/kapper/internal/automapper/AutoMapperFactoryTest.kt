@@ -1,9 +1,11 @@
 package net.samyn.kapper.internal.automapper
 
 import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
 import io.kotest.matchers.types.shouldBeInstanceOf
 import net.samyn.kapper.KapperMappingException
 import org.junit.jupiter.api.Test
+import java.util.UUID
 
 class AutoMapperFactoryTest {
     data class Foo(val name: String)
@@ -26,4 +28,30 @@ class AutoMapperFactoryTest {
             createAutoMapper(RegularClass::class.java)
         }
     }
+
+    data class Hero(val id: Int, val name: String?, private val secret: String = "") {
+        val alias: String get() = "The $name"
+    }
+
+    @Test
+    fun `arg mappers read primary constructor properties of data class`() {
+        val argMappers = createArgMappers(Hero::class.java)
+        argMappers.map { it.first } shouldBe listOf("id", "name", "secret")
+        argMappers.map { it.second(Hero(1, null, "x")) } shouldBe listOf(1, null, "x")
+    }
+
+    @Test
+    fun `arg mappers read components of record`() {
+        val id = UUID.randomUUID()
+        val argMappers = createArgMappers(SuperHeroRecord::class.java)
+        argMappers.map { it.first } shouldBe listOf("id", "name", "email", "age")
+        argMappers.map { it.second(SuperHeroRecord(id, "Batman", null, 85)) } shouldBe listOf(id, "Batman", null, 85)
+    }
+
+    @Test
+    fun `arg mappers of regular class throw`() {
+        shouldThrow<KapperMappingException> {
+            createArgMappers(RegularClass::class.java)
+        }
+    }
 }
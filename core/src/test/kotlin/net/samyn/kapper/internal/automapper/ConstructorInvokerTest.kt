@@ -0,0 +1,141 @@
+package net.samyn.kapper.internal.automapper
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.shouldBe
+import net.samyn.kapper.KapperMappingException
+import org.junit.jupiter.api.Test
+import kotlin.reflect.full.primaryConstructor
+
+class ConstructorInvokerTest {
+    data class Hero(val name: String, val age: Int)
+
+    data class HeroWithDefaults(val name: String, val age: Int = 85, val email: String? = "batman@dc.com")
+
+    private data class PrivateHero(val name: String, val age: Int = 85)
+
+    @JvmInline
+    value class Alias(val value: String)
+
+    data class HeroWithAlias(val name: String, val alias: Alias? = null)
+
+    data class ManyDefaults(
+        val p0: Int,
+        val p1: Int = 1,
+        val p2: Int = 2,
+        val p3: Int = 3,
+        val p4: Int = 4,
+        val p5: Int = 5,
+        val p6: Int = 6,
+        val p7: Int = 7,
+        val p8: Int = 8,
+        val p9: Int = 9,
+        val p10: Int = 10,
+        val p11: Int = 11,
+        val p12: Int = 12,
+        val p13: Int = 13,
+        val p14: Int = 14,
+        val p15: Int = 15,
+        val p16: Int = 16,
+        val p17: Int = 17,
+        val p18: Int = 18,
+        val p19: Int = 19,
+        val p20: Int = 20,
+        val p21: Int = 21,
+        val p22: Int = 22,
+        val p23: Int = 23,
+        val p24: Int = 24,
+        val p25: Int = 25,
+        val p26: Int = 26,
+        val p27: Int = 27,
+        val p28: Int = 28,
+        val p29: Int = 29,
+        val p30: Int = 30,
+        val p31: Int = 31,
+        val p32: Int = 32,
+        val p33: String = "33",
+    )
+
+    @Test
+    fun `invoker creates instance`() {
+        val invoker = Hero::class.java.getDeclaredConstructor(String::class.java, Int::class.java).invoker()
+        invoker.invoke(arrayOf("Batman", 85)) shouldBe Hero("Batman", 85)
+    }
+
+    @Test
+    fun `invoker does not wrap constructor exceptions`() {
+        val invoker = Hero::class.java.getDeclaredConstructor(String::class.java, Int::class.java).invoker()
+        shouldThrow<NullPointerException> {
+            invoker.invoke(arrayOf(null, 85))
+        }
+    }
+
+    @Test
+    fun `primary constructor creates instance`() {
+        val constructor = PrimaryConstructor(Hero::class.primaryConstructor!!)
+        val args = constructor.arguments()
+        args[0] = "Batman"
+        args[1] = 85
+        constructor.newInstance(args) shouldBe Hero("Batman", 85)
+    }
+
+    @Test
+    fun `primary constructor uses defaults when absent`() {
+        val constructor = PrimaryConstructor(HeroWithDefaults::class.primaryConstructor!!)
+        val args = constructor.arguments()
+        args[0] = "Batman"
+        constructor.absent(args, 1)
+        args[2] = null
+        constructor.newInstance(args) shouldBe HeroWithDefaults("Batman", 85, null)
+    }
+
+    @Test
+    fun `primary constructor uses provided values when optional`() {
+        val constructor = PrimaryConstructor(HeroWithDefaults::class.primaryConstructor!!)
+        val args = constructor.arguments()
+        args[0] = "Superman"
+        args[1] = 86
+        args[2] = "superman@dc.com"
+        constructor.newInstance(args) shouldBe HeroWithDefaults("Superman", 86, "superman@dc.com")
+    }
+
+    @Test
+    fun `primary constructor supports more than 32 parameters`() {
+        val constructor = PrimaryConstructor(ManyDefaults::class.primaryConstructor!!)
+        val args = constructor.arguments()
+        args[0] = 0
+        (1..31).forEach { constructor.absent(args, it) }
+        args[32] = -32
+        constructor.absent(args, 33)
+        constructor.newInstance(args) shouldBe ManyDefaults(0, p32 = -32)
+    }
+
+    @Test
+    fun `primary constructor supports private classes`() {
+        val constructor = PrimaryConstructor(PrivateHero::class.primaryConstructor!!)
+        val args = constructor.arguments()
+        args[0] = "Batman"
+        constructor.absent(args, 1)
+        constructor.newInstance(args) shouldBe PrivateHero("Batman")
+    }
+
+    @Test
+    fun `primary constructor supports value classes`() {
+        val constructor = PrimaryConstructor(HeroWithAlias::class.primaryConstructor!!)
+        val args = constructor.arguments()
+        args[0] = "Batman"
+        args[1] = Alias("Bruce Wayne")
+        constructor.newInstance(args) shouldBe HeroWithAlias("Batman", Alias("Bruce Wayne"))
+        val defaultArgs = constructor.arguments()
+        defaultArgs[0] = "Batman"
+        constructor.absent(defaultArgs, 1)
+        constructor.newInstance(defaultArgs) shouldBe HeroWithAlias("Batman")
+    }
+
+    @Test
+    fun `when parameter not optional absent throws`() {
+        val constructor = PrimaryConstructor(Hero::class.primaryConstructor!!)
+        shouldThrow<KapperMappingException> {
+            constructor.absent(constructor.arguments(), 0)
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.samyn.kapper.internal.automapper
+
+import io.kotest.matchers.shouldBe
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import org.junit.jupiter.api.Test
+import java.sql.JDBCType
+
+class FieldsCacheTest {
+    private fun fields(vararg names: String) =
+        names.withIndex().associate { (index, name) -> name to Field(index + 1, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN) }
+
+    @Test
+    fun `compute value once per fields`() {
+        val cache = FieldsCache<String>()
+        val first = fields("id")
+        val second = fields("id", "name")
+        var computed = 0
+        repeat(3) {
+            cache.getOrPut(first) { "first${computed++}" } shouldBe "first0"
+            cache.getOrPut(second) { "second${computed++}" } shouldBe "second1"
+        }
+        computed shouldBe 2
+    }
+
+    @Test
+    fun `when fields equal use cached value`() {
+        val cache = FieldsCache<String>()
+        cache.getOrPut(fields("id")) { "first" }
+        cache.getOrPut(fields("id")) { "second" } shouldBe "first"
+        cache.size shouldBe 1
+    }
+
+    @Test
+    fun `when full evict least recently added`() {
+        val cache = FieldsCache<String>(2)
+        cache.getOrPut(fields("a")) { "a" }
+        cache.getOrPut(fields("b")) { "b" }
+        cache.getOrPut(fields("c")) { "c" }
+        cache.size shouldBe 2
+        cache.getOrPut(fields("b")) { "evicted" } shouldBe "b"
+        cache.getOrPut(fields("a")) { "evicted" } shouldBe "evicted"
+    }
+}
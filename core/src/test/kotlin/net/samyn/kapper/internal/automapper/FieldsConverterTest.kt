@@ -1,8 +1,10 @@
 package net.samyn.kapper.internal.automapper
 
 import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.verify
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
 import org.junit.jupiter.api.Test
@@ -48,4 +50,71 @@ class FieldsConverterTest {
         val result = fieldsConverter.convert(resultSet, fields)
         result shouldBe listOf(ColumnValue("email", null))
     }
+
+    @Test
+    fun `should resolve readers once per fields`() {
+        val readerFactory = mockk<(Field) -> ColumnReader>()
+        every { readerFactory(any()) } returns ColumnReader { 42 }
+        val fieldsConverter = FieldsConverter(readerFactory)
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.INTEGER, "Int", DbFlavour.UNKNOWN),
+            )
+
+        repeat(3) {
+            fieldsConverter.convert(resultSet, fields) shouldBe listOf(ColumnValue("id", 42))
+        }
+        verify(exactly = 1) { readerFactory(fields["id"]!!) }
+    }
+
+    @Test
+    fun `should resolve readers again for other fields`() {
+        val readerFactory = mockk<(Field) -> ColumnReader>()
+        every { readerFactory(any()) } returns ColumnReader { 42 }
+        val fieldsConverter = FieldsConverter(readerFactory)
+        val field = Field(1, JDBCType.INTEGER, "Int", DbFlavour.UNKNOWN)
+
+        fieldsConverter.convert(resultSet, mapOf("id" to field))
+        fieldsConverter.convert(resultSet, mapOf("other" to field)) shouldBe listOf(ColumnValue("other", 42))
+        verify(exactly = 2) { readerFactory(field) }
+    }
+
+    @Test
+    fun `should read values with resolved readers`() {
+        every { resultSet.getInt(1) } returns 42
+        every { resultSet.wasNull() } returns false
+        every { resultSet.getString(2) } returns "Bruce"
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+                "name" to Field(2, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            )
+        FieldsConverter().convert(resultSet, fields) shouldBe
+            listOf(
+                ColumnValue("id", 42),
+                ColumnValue("name", "Bruce"),
+            )
+    }
+
+    @Test
+    fun `should bind fields to parameters by normalised name`() {
+        every { resultSet.getString(1) } returns "Bruce"
+        every { resultSet.getString(2) } returns "batman@dc.com"
+        val fields =
+            mapOf(
+                "NAME" to Field(1, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+                "e_mail" to Field(2, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            )
+        val binding = FieldsConverter().bind(fields, listOf("email", "age", "name"))
+        binding.fields shouldBeSameInstanceAs fields
+        binding.readers.map { it?.read(resultSet) } shouldBe listOf("batman@dc.com", null, "Bruce")
+        binding.columns.toList() shouldBe listOf(fields["e_mail"], null, fields["NAME"])
+    }
+
+    @Test
+    fun `should only read primitives directly with the default readers`() {
+        FieldsConverter().readsPrimitives shouldBe true
+        FieldsConverter(sqlTypesConverter).readsPrimitives shouldBe false
+        FieldsConverter { _ -> ColumnReader { null } }.readsPrimitives shouldBe false
+    }
 }
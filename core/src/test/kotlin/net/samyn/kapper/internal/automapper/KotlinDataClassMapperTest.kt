@@ -5,7 +5,9 @@ import io.kotest.matchers.shouldBe
 import io.kotest.matchers.string.shouldContain
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.spyk
 import io.mockk.verify
+import net.samyn.kapper.ConverterRegistry
 import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
 import net.samyn.kapper.KapperMappingException
@@ -20,7 +22,9 @@ import java.util.UUID
 class KotlinDataClassMapperTest {
     private val autoTypesConverterMock = mockk<AutoConverter>(relaxed = true)
     private val resultSet = mockk<ResultSet>(relaxed = true)
-    private val fieldsConverterMock = mockk<FieldsConverter>(relaxed = true)
+
+    // reads the value of each column by its index
+    private fun fieldsConverter(vararg values: Any?) = FieldsConverter { field -> ColumnReader { values[field.columnIndex - 1] } }
 
     @ParameterizedTest
     @ValueSource(strings = ["email", "EMAIL", "eMail", "e-mail", "e_mail"])
@@ -33,14 +37,8 @@ class KotlinDataClassMapperTest {
                 emailParam to Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "age" to Field(4, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", batman.id),
-                ColumnValue("name", batman.name),
-                ColumnValue(emailParam, batman.email),
-                ColumnValue("age", batman.age),
-            )
-        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(batman.id, batman.name, batman.email, batman.age)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
         val instance = kotlinDataClassMapper.createInstance(resultSet, fields)
         instance.shouldBe(batman)
     }
@@ -53,12 +51,8 @@ class KotlinDataClassMapperTest {
                 "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", batman.id),
-                ColumnValue("name", batman.name),
-            )
-        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(batman.id, batman.name)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
         val instance = kotlinDataClassMapper.createInstance(resultSet, fields)
         instance.shouldBe(SuperHero(batman.id, "Batman", null, null))
     }
@@ -71,13 +65,8 @@ class KotlinDataClassMapperTest {
                 "email" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "age" to Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("name", "Batman"),
-                ColumnValue("email", "batman@dc.com"),
-                ColumnValue("age", 85),
-            )
-        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter("Batman", "batman@dc.com", 85)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
         val ex =
             shouldThrow<KapperMappingException> {
                 kotlinDataClassMapper.createInstance(resultSet, fields)
@@ -93,12 +82,8 @@ class KotlinDataClassMapperTest {
                 "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", UUID.randomUUID()),
-                ColumnValue("name", 123),
-            )
-        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(UUID.randomUUID(), 123)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
         kotlinDataClassMapper.createInstance(resultSet, fields)
         verify { autoTypesConverterMock.convert(123, String::class.java) }
     }
@@ -112,17 +97,26 @@ class KotlinDataClassMapperTest {
                 "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "email" to Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", batman.id),
-                ColumnValue("name", batman.name),
-                ColumnValue("email", null),
-            )
-        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(batman.id, batman.name, null)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
         val instance = kotlinDataClassMapper.createInstance(resultSet, fields)
         instance.shouldBe(SuperHero(batman.id, "Batman", null, null))
     }
 
+    @Test
+    fun `should throw when value null for non-nullable property`() {
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+                "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+            )
+        val fieldsConverter = fieldsConverter(UUID.randomUUID(), null)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
+        shouldThrow<KapperMappingException> {
+            kotlinDataClassMapper.createInstance(resultSet, fields)
+        }.message.shouldContain("name")
+    }
+
     abstract class NoPrimaryConstructor {
         constructor(id: UUID)
         constructor(name: String)
@@ -131,7 +125,7 @@ class KotlinDataClassMapperTest {
     @Test
     fun `should throw when no primary constructor`() {
         shouldThrow<KapperMappingException> {
-            KotlinDataClassMapper(NoPrimaryConstructor::class.java, autoTypesConverterMock, fieldsConverterMock)
+            KotlinDataClassMapper(NoPrimaryConstructor::class.java, autoTypesConverterMock, FieldsConverter())
         }
     }
 
@@ -145,14 +139,8 @@ class KotlinDataClassMapperTest {
                 "email" to Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "extra" to Field(4, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", batman.id),
-                ColumnValue("name", batman.name),
-                ColumnValue("email", batman.email),
-                ColumnValue("extra", 1234),
-            )
-        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(batman.id, batman.name, batman.email, 1234)
+        val kotlinDataClassMapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
         val instance = kotlinDataClassMapper.createInstance(resultSet, fields)
         instance.shouldBe(batman.copy(age = null))
     }
@@ -171,18 +159,80 @@ class KotlinDataClassMapperTest {
                 "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "tags" to Field(3, JDBCType.ARRAY, "INTEGER[]", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", id),
-                ColumnValue("name", "Batman"),
-                ColumnValue("tags", tags),
-            )
-        val mapper = KotlinDataClassMapper(HeroWithTags::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(id, "Batman", tags)
+        val mapper = KotlinDataClassMapper(HeroWithTags::class.java, autoTypesConverterMock, fieldsConverter)
         val instance = mapper.createInstance(resultSet, fields)
         instance.shouldBe(HeroWithTags(id, "Batman", listOf(1, 2, 3)))
         verify(exactly = 0) { autoTypesConverterMock.convert(any(), any()) }
     }
 
+    @Test
+    fun `should bind columns once per fields`() {
+        val id = UUID.randomUUID()
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+                "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+            )
+        val fieldsConverter = spyk(fieldsConverter(id, "Batman"))
+        val mapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
+        repeat(3) {
+            mapper.createInstance(resultSet, fields).shouldBe(SuperHero(id, "Batman"))
+        }
+        verify(exactly = 1) { fieldsConverter.bind(fields, any()) }
+        verify(exactly = 0) { fieldsConverter.convert(any(), any()) }
+    }
+
+    @Test
+    fun `should bind columns once per query when queries alternate`() {
+        val id = UUID.randomUUID()
+        val heroFields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+                "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+            )
+        val heroWithAgeFields = heroFields + ("age" to Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN))
+        val fieldsConverter = spyk(fieldsConverter(id, "Batman", 85))
+        val mapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
+        repeat(3) {
+            mapper.createInstance(resultSet, heroFields).shouldBe(SuperHero(id, "Batman"))
+            mapper.createInstance(resultSet, heroWithAgeFields).shouldBe(SuperHero(id, "Batman", age = 85))
+        }
+        verify(exactly = 1) { fieldsConverter.bind(heroFields, any()) }
+        verify(exactly = 1) { fieldsConverter.bind(heroWithAgeFields, any()) }
+    }
+
+    @Test
+    fun `should bind columns once for equal fields`() {
+        val id = UUID.randomUUID()
+        val fieldsConverter = spyk(fieldsConverter(id, "Batman"))
+        val mapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter)
+        repeat(3) {
+            // fields extracted again for every result, as when the query is not cached
+            val fields =
+                mapOf(
+                    "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+                    "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+                )
+            mapper.createInstance(resultSet, fields).shouldBe(SuperHero(id, "Batman"))
+        }
+        verify(exactly = 1) { fieldsConverter.bind(any(), any()) }
+    }
+
+    @Test
+    fun `should bind columns again for other fields`() {
+        val id = UUID.randomUUID()
+        val mapper = KotlinDataClassMapper(SuperHero::class.java, autoTypesConverterMock, fieldsConverter(id, "Batman", 85))
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+                "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
+            )
+        mapper.createInstance(resultSet, fields).shouldBe(SuperHero(id, "Batman"))
+        mapper.createInstance(resultSet, fields + ("age" to Field(3, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN)))
+            .shouldBe(SuperHero(id, "Batman", age = 85))
+    }
+
     data class HeroWithNullableTags(val id: UUID, val name: String, val tags: List<Int>? = null)
 
     @Test
@@ -194,14 +244,96 @@ class KotlinDataClassMapperTest {
                 "name" to Field(2, JDBCType.BIT, "SomeType", DbFlavour.UNKNOWN),
                 "tags" to Field(3, JDBCType.ARRAY, "INTEGER[]", DbFlavour.UNKNOWN),
             )
-        every { fieldsConverterMock.convert(resultSet, fields) } returns
-            listOf(
-                ColumnValue("id", id),
-                ColumnValue("name", "Batman"),
-                ColumnValue("tags", null),
-            )
-        val mapper = KotlinDataClassMapper(HeroWithNullableTags::class.java, autoTypesConverterMock, fieldsConverterMock)
+        val fieldsConverter = fieldsConverter(id, "Batman", null)
+        val mapper = KotlinDataClassMapper(HeroWithNullableTags::class.java, autoTypesConverterMock, fieldsConverter)
         val instance = mapper.createInstance(resultSet, fields)
         instance.shouldBe(HeroWithNullableTags(id, "Batman", null))
     }
+
+    data class Measurement(val id: Long, val count: Int, val value: Double, val label: String?)
+
+    @Test
+    fun `should read primitive properties without boxing`() {
+        every { resultSet.getLong(1) } returns 1L
+        every { resultSet.getInt(2) } returns 3
+        every { resultSet.getDouble(3) } returns 0.5
+        every { resultSet.getString(4) } returns "temperature"
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIGINT, "BIGINT", DbFlavour.UNKNOWN),
+                "count" to Field(2, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+                "value" to Field(3, JDBCType.DOUBLE, "DOUBLE", DbFlavour.UNKNOWN),
+                "label" to Field(4, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            )
+        val mapper = KotlinDataClassMapper(Measurement::class.java, autoTypesConverterMock, FieldsConverter())
+        mapper.createInstance(resultSet, fields) shouldBe Measurement(1L, 3, 0.5, "temperature")
+        verify(exactly = 0) { resultSet.getObject(any<Int>()) }
+        verify(exactly = 0) { autoTypesConverterMock.convert(any(), any()) }
+    }
+
+    @Test
+    fun `should convert primitive properties with registered converter`() {
+        every { resultSet.getInt(1) } returns 7
+        every { resultSet.getInt(2) } returns 3
+        every { resultSet.getDouble(3) } returns 0.5
+        every { resultSet.getString(4) } returns "temperature"
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+                "count" to Field(2, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+                "value" to Field(3, JDBCType.DOUBLE, "DOUBLE", DbFlavour.UNKNOWN),
+                "label" to Field(4, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            )
+        val registry = ConverterRegistry()
+        registry.register<Int, Long> { it * 1000L }
+        val mapper =
+            KotlinDataClassMapper(Measurement::class.java, { value, target -> registry.convert(value, target) }, FieldsConverter(registry))
+        mapper.createInstance(resultSet, fields) shouldBe Measurement(7000L, 3, 0.5, "temperature")
+        verify(exactly = 0) { resultSet.getLong(any<Int>()) }
+    }
+
+    @Test
+    fun `should build row constructor once per query when queries alternate`() {
+        every { resultSet.getLong(1) } returns 1L
+        every { resultSet.getInt(2) } returns 3
+        every { resultSet.getDouble(3) } returns 0.5
+        every { resultSet.getString(4) } returns "temperature"
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIGINT, "BIGINT", DbFlavour.UNKNOWN),
+                "count" to Field(2, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+                "value" to Field(3, JDBCType.DOUBLE, "DOUBLE", DbFlavour.UNKNOWN),
+                "label" to Field(4, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            )
+        val otherFields = fields + ("unused" to Field(5, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN))
+        val fieldsConverter = spyk(FieldsConverter())
+        val mapper = KotlinDataClassMapper(Measurement::class.java, autoTypesConverterMock, fieldsConverter)
+        repeat(3) {
+            mapper.createInstance(resultSet, fields) shouldBe Measurement(1L, 3, 0.5, "temperature")
+            mapper.createInstance(resultSet, otherFields) shouldBe Measurement(1L, 3, 0.5, "temperature")
+        }
+        // the row constructor is created with the binding
+        verify(exactly = 1) { fieldsConverter.bind(fields, any()) }
+        verify(exactly = 1) { fieldsConverter.bind(otherFields, any()) }
+        verify(exactly = 0) { resultSet.getObject(any<Int>()) }
+    }
+
+    @Test
+    fun `should throw when primitive property is null`() {
+        every { resultSet.getLong(1) } returns 0L
+        every { resultSet.getInt(2) } returns 3
+        every { resultSet.getDouble(3) } returns 0.5
+        every { resultSet.wasNull() } returns true
+        val fields =
+            mapOf(
+                "id" to Field(1, JDBCType.BIGINT, "INTEGER", DbFlavour.UNKNOWN),
+                "count" to Field(2, JDBCType.INTEGER, "INTEGER", DbFlavour.UNKNOWN),
+                "value" to Field(3, JDBCType.DOUBLE, "DOUBLE", DbFlavour.UNKNOWN),
+                "label" to Field(4, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            )
+        val mapper = KotlinDataClassMapper(Measurement::class.java, autoTypesConverterMock, FieldsConverter())
+        shouldThrow<KapperMappingException> {
+            mapper.createInstance(resultSet, fields)
+        }.message.shouldContain("'id' cannot be null")
+    }
 }
@@ -0,0 +1,124 @@
+package net.samyn.kapper.internal.automapper
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import net.samyn.kapper.ConverterRegistry
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.KapperMappingException
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import java.sql.JDBCType
+import java.sql.ResultSet
+
+class RowConstructorTest {
+    private val resultSet = mockk<ResultSet>(relaxed = true)
+
+    data class Reading(val id: Long, val count: Int, val value: Double, val label: String?)
+
+    private val constructor =
+        Reading::class.java.getDeclaredConstructor(
+            Long::class.java,
+            Int::class.java,
+            Double::class.java,
+            String::class.java,
+        )
+
+    private fun field(
+        index: Int,
+        type: JDBCType,
+        typeName: String = type.name,
+    ) = Field(index, type, typeName, DbFlavour.UNKNOWN)
+
+    @Test
+    fun `creates instance from primitive and object readers`() {
+        every { resultSet.getLong(1) } returns 1L
+        every { resultSet.getInt(2) } returns 3
+        every { resultSet.getDouble(3) } returns 0.5
+        val rowConstructor =
+            RowConstructor(
+                constructor,
+                listOf(
+                    primitiveReader(field(1, JDBCType.BIGINT), Long::class.java, "id")!!,
+                    primitiveReader(field(2, JDBCType.INTEGER), Int::class.java, "count")!!,
+                    primitiveReader(field(3, JDBCType.DOUBLE), Double::class.java, "value")!!,
+                    objectReader(String::class.java) { "temperature" },
+                ),
+            )
+        rowConstructor.newInstance(resultSet) shouldBe Reading(1L, 3, 0.5, "temperature")
+        verify(exactly = 0) { resultSet.wasNull() }
+    }
+
+    @Test
+    fun `object reader unboxes primitive parameters`() {
+        val rowConstructor =
+            RowConstructor(
+                constructor,
+                listOf(
+                    objectReader(Long::class.java) { 1L },
+                    objectReader(Int::class.java) { 3 },
+                    objectReader(Double::class.java) { 0.5 },
+                    objectReader(String::class.java) { null },
+                ),
+            )
+        rowConstructor.newInstance(resultSet) shouldBe Reading(1L, 3, 0.5, null)
+    }
+
+    @Test
+    fun `primitive reader throws when value is null`() {
+        every { resultSet.getInt(1) } returns 0
+        every { resultSet.wasNull() } returns true
+        val reader = primitiveReader(field(1, JDBCType.INTEGER), Int::class.java, "The property 'count' cannot be null.")!!
+        shouldThrow<KapperMappingException> {
+            reader.invoke(resultSet)
+        }.message shouldBe "The property 'count' cannot be null."
+    }
+
+    @Test
+    fun `primitive reader returns zero when value is not null`() {
+        every { resultSet.getInt(1) } returns 0
+        every { resultSet.wasNull() } returns false
+        val reader = primitiveReader(field(1, JDBCType.INTEGER), Int::class.java, "null")!!
+        reader.invoke(resultSet) shouldBe 0
+    }
+
+    @ParameterizedTest
+    @EnumSource(JDBCType::class, names = ["INTEGER", "SMALLINT", "TINYINT", "BIGINT"])
+    fun `long reader supports integer columns`(type: JDBCType) {
+        primitiveReader(field(1, type), Long::class.java, "null").shouldNotBeNull()
+    }
+
+    @Test
+    fun `double reader supports oracle binary double`() {
+        primitiveReader(field(1, JDBCType.OTHER, "BINARY_DOUBLE"), Double::class.java, "null").shouldNotBeNull()
+    }
+
+    @Test
+    fun `primitive reader not resolved for incompatible columns`() {
+        primitiveReader(field(1, JDBCType.VARCHAR), Int::class.java, "null").shouldBeNull()
+        primitiveReader(field(1, JDBCType.BIGINT), Int::class.java, "null").shouldBeNull()
+        primitiveReader(field(1, JDBCType.NUMERIC), Double::class.java, "null").shouldBeNull()
+        primitiveReader(field(1, JDBCType.INTEGER), Int::class.javaObjectType, "null").shouldBeNull()
+    }
+
+    @Test
+    fun `primitive reader not resolved when a converter is registered for the column values`() {
+        val registry = ConverterRegistry()
+        registry.register<Int, Long> { it * 1000L }
+        primitiveReader(field(1, JDBCType.INTEGER), Long::class.java, "null", registry).shouldBeNull()
+        primitiveReader(field(1, JDBCType.BIGINT), Long::class.java, "null", registry).shouldNotBeNull()
+        primitiveReader(field(1, JDBCType.INTEGER), Int::class.java, "null", registry).shouldNotBeNull()
+    }
+
+    @Test
+    fun `supports constructors within the parameter slots of a method handle`() {
+        RowConstructor.supports(List(254) { Int::class.java }) shouldBe true
+        RowConstructor.supports(List(128) { Long::class.java }) shouldBe false
+    }
+}
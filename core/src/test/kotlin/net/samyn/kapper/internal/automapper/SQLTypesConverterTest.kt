@@ -1,6 +1,8 @@
 package net.samyn.kapper.internal.automapper
 
 import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
 import io.kotest.matchers.shouldBe
 import io.mockk.every
 import io.mockk.mockk
@@ -190,6 +192,33 @@ class SQLTypesConverterTest {
         verify { expectedSetter(1, expectedValue) }
     }
 
+    @ParameterizedTest
+    @MethodSource("parameterSetTests")
+    fun `parameter setter should map values like setParameter`(
+        value: Any,
+        expectedSetter: (Int, Any?) -> Unit,
+    ) {
+        parameterSetter(value.javaClass, DbFlavour.UNKNOWN).shouldNotBeNull().set(statement, 1, value)
+        verify { expectedSetter(1, value) }
+    }
+
+    @ParameterizedTest
+    @MethodSource("parameterWithConvertTests")
+    internal fun `parameter setter should map and convert values like setParameter`(
+        value: Any,
+        expectedSetter: (Int, Any?) -> Unit,
+        expectedValue: Any?,
+        dbFlavour: DbFlavour,
+    ) {
+        parameterSetter(value.javaClass, dbFlavour).shouldNotBeNull().set(statement, 1, value)
+        verify { expectedSetter(1, expectedValue) }
+    }
+
+    @Test
+    fun `parameter setter not available for arrays`() {
+        parameterSetter(ArrayList::class.java, DbFlavour.POSTGRESQL).shouldBeNull()
+    }
+
     @ParameterizedTest
     @MethodSource("parameterSetTests")
     fun `should handle null values correctly`(
@@ -221,6 +250,22 @@ class SQLTypesConverterTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("convertSQLTypeUnsupportedTests")
+    fun `unsupported SQL types resolve reader which throws when read`(jdbcType: JDBCType) {
+        val field = Field(1, jdbcType, jdbcType.toString(), DbFlavour.UNKNOWN)
+        val reader = resolveColumnReader(field)
+        assertThrows<KapperUnsupportedOperationException> {
+            reader.read(resultSet)
+        }
+    }
+
+    @Test
+    fun `resolved reader reads column of field`() {
+        every { resultSet.getString(3) } returns "Batman"
+        resolveColumnReader(Field(3, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN)).read(resultSet) shouldBe "Batman"
+    }
+
     @Test
     fun `char needs converting`() {
         val field = Field(1, JDBCType.CHAR, "CHAR", DbFlavour.UNKNOWN)
@@ -641,13 +686,11 @@ class SQLTypesConverterTest {
         val sqlArray = mockk<java.sql.Array>(relaxed = true)
         every { statement.connection } returns conn
         every { conn.createArrayOf("int4", any()) } returns sqlArray
-        val cleanup = statement.setParameter(1, listOf(1, 2, 3), DbFlavour.POSTGRESQL)
+        statement.setParameter(1, listOf(1, 2, 3), DbFlavour.POSTGRESQL).shouldBe(sqlArray)
         verify { conn.createArrayOf("int4", any()) }
         verify { statement.setArray(1, sqlArray) }
         // free must not be called until after execution
         verify(exactly = 0) { sqlArray.free() }
-        cleanup()
-        verify { sqlArray.free() }
     }
 
     @Test
@@ -656,11 +699,9 @@ class SQLTypesConverterTest {
         val sqlArray = mockk<java.sql.Array>(relaxed = true)
         every { statement.connection } returns conn
         every { conn.createArrayOf("INTEGER", any()) } returns sqlArray
-        val cleanup = statement.setParameter(1, listOf(1, 2, 3), DbFlavour.DUCKDB)
+        statement.setParameter(1, listOf(1, 2, 3), DbFlavour.DUCKDB).shouldBe(sqlArray)
         verify { conn.createArrayOf("INTEGER", any()) }
         verify { statement.setArray(1, sqlArray) }
-        cleanup()
-        verify { sqlArray.free() }
     }
 
     @Test
@@ -693,17 +734,14 @@ class SQLTypesConverterTest {
         val sqlArray = mockk<java.sql.Array>(relaxed = true)
         every { statement.connection } returns conn
         every { conn.createArrayOf("int4", any()) } returns sqlArray
-        val cleanup = statement.setParameter(1, arrayOf(1, 2, 3), DbFlavour.POSTGRESQL)
+        statement.setParameter(1, arrayOf(1, 2, 3), DbFlavour.POSTGRESQL).shouldBe(sqlArray)
         verify { conn.createArrayOf("int4", any()) }
         verify { statement.setArray(1, sqlArray) }
-        cleanup()
-        verify { sqlArray.free() }
     }
 
     @Test
-    fun `non-array parameter returns noop cleanup`() {
-        val cleanup = statement.setParameter(1, 42, DbFlavour.UNKNOWN)
-        cleanup() // should not throw
+    fun `non-array parameter returns no array`() {
+        statement.setParameter(1, 42, DbFlavour.UNKNOWN).shouldBeNull()
     }
 
     // --- Type name inference tests ---
@@ -7,6 +7,7 @@ import net.samyn.kapper.DbFlavour
 import net.samyn.kapper.Field
 import net.samyn.kapper.Kapper
 import net.samyn.kapper.KapperQueryException
+import net.samyn.kapper.QueryOptions
 import net.samyn.kapper.internal.Query
 import net.samyn.kapper.internal.executeQuery
 import net.samyn.kapper.internal.extractFields
@@ -83,7 +84,7 @@ inline fun <reified T : Any> Connection.queryAsFlow(
     fetchSize: Int = 1000,
 ): Flow<T> {
     require(sql.isNotBlank()) { "SQL query cannot be empty or blank" }
-    this.executeQuery(Query(sql), args.toMap(), fetchSize).let { rs ->
+    this.executeQuery(Query(sql), args.toMap(), QueryOptions(fetchSize = fetchSize)).let { rs ->
         return queryFlow(rs, mapper, sql, this.getDbFlavour())
     }
 }
@@ -15,6 +15,7 @@ import net.samyn.kapper.Field
 import net.samyn.kapper.Kapper
 import net.samyn.kapper.KapperQueryException
 import net.samyn.kapper.Mapper
+import net.samyn.kapper.QueryOptions
 import net.samyn.kapper.internal.executeQuery
 import net.samyn.kapper.internal.extractFields
 import org.junit.jupiter.api.Test
@@ -42,7 +43,7 @@ class FlowQueryTest {
         mockkStatic(Connection::executeQuery)
         mockkStatic(ResultSet::extractFields)
         every { resultSet.extractFields(any()) } returns fields
-        every { connection.executeQuery(any(), any(), any()) } returns resultSet
+        every { connection.executeQuery(any(), any(), any(), any()) } returns resultSet
         every { mapper.invoke(resultSet, fields) } returns result
     }
 
@@ -168,7 +169,7 @@ class FlowQueryTest {
                 fetchSize = 10,
             ).toList()
         }
-        verify { connection.executeQuery(any(), any(), 10) }
+        verify { connection.executeQuery(any(), any(), QueryOptions(fetchSize = 10), any()) }
     }
 
     @Test
@@ -180,6 +181,6 @@ class FlowQueryTest {
                 "id" to 1,
             ).toList()
         }
-        verify { connection.executeQuery(any(), any(), 1000) }
+        verify { connection.executeQuery(any(), any(), QueryOptions(fetchSize = 1000), any()) }
     }
 }
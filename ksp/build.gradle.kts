@@ -0,0 +1,13 @@
+plugins {
+    id("kapper.library-conventions")
+    id("kapper.library-publish")
+}
+
+dependencies {
+    implementation(libs.ksp.api)
+
+    testImplementation(project(":kapper"))
+    testImplementation(libs.bundles.test)
+    testImplementation(libs.kotlin.compiler.embeddable)
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
@@ -0,0 +1,69 @@
+package net.samyn.kapper.ksp
+
+import com.google.devtools.ksp.processing.CodeGenerator
+import com.google.devtools.ksp.processing.Dependencies
+import com.google.devtools.ksp.processing.KSPLogger
+import com.google.devtools.ksp.processing.Resolver
+import com.google.devtools.ksp.processing.SymbolProcessor
+import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
+import com.google.devtools.ksp.processing.SymbolProcessorProvider
+import com.google.devtools.ksp.symbol.KSAnnotated
+import com.google.devtools.ksp.symbol.KSClassDeclaration
+import com.google.devtools.ksp.symbol.KSFile
+import com.google.devtools.ksp.validate
+
+private const val GENERATE_MAPPER = "net.samyn.kapper.GenerateMapper"
+private const val MAPPER_PROVIDER_SERVICE = "META-INF/services/net.samyn.kapper.MapperProvider"
+
+/**
+ * Generates mappers for the data classes annotated with `@GenerateMapper`.
+ *
+ * Each generated mapper is listed as a `MapperProvider` service, so Kapper registers it automatically.
+ */
+class KapperSymbolProcessor(
+    private val codeGenerator: CodeGenerator,
+    private val logger: KSPLogger,
+) : SymbolProcessor {
+    private val mappers = mutableListOf<String>()
+    private val sources = mutableListOf<KSFile>()
+
+    override fun process(resolver: Resolver): List<KSAnnotated> {
+        val (valid, deferred) = resolver.getSymbolsWithAnnotation(GENERATE_MAPPER).partition { it.validate() }
+        for (symbol in valid) {
+            if (symbol !is KSClassDeclaration) {
+                logger.error("@GenerateMapper can only be applied to data classes", symbol)
+                continue
+            }
+            val model = readMapperModel(symbol, logger) ?: continue
+            val source = symbol.containingFile
+            codeGenerator.createNewFile(
+                Dependencies(false, *listOfNotNull(source).toTypedArray()),
+                model.packageName,
+                model.mapperName,
+            ).bufferedWriter().use { it.write(generateMapper(model)) }
+            mappers.add(model.mapperQualifiedName)
+            source?.let { sources.add(it) }
+        }
+        return deferred
+    }
+
+    override fun finish() {
+        if (mappers.isEmpty()) return
+        // the service file lists the mappers of all processed classes
+        codeGenerator.createNewFileByPath(
+            Dependencies(true, *sources.toTypedArray()),
+            MAPPER_PROVIDER_SERVICE,
+            "",
+        ).bufferedWriter().use { writer ->
+            mappers.forEach { writer.appendLine(it) }
+        }
+    }
+}
+
+/**
+ * Creates the [KapperSymbolProcessor].
+ */
+class KapperSymbolProcessorProvider : SymbolProcessorProvider {
+    override fun create(environment: SymbolProcessorEnvironment): SymbolProcessor =
+        KapperSymbolProcessor(environment.codeGenerator, environment.logger)
+}
@@ -0,0 +1,71 @@
+package net.samyn.kapper.ksp
+
+private const val GENERATED_MAPPER = "net.samyn.kapper.GeneratedMapper"
+private const val ARG_MAPPER = "net.samyn.kapper.ArgMapper"
+
+/**
+ * Generate the source of the mapper of the class described by [model].
+ *
+ * The generated mapper extends `GeneratedMapper` and calls the primary constructor directly when a column is
+ *  bound to every parameter. Its companion object holds the `ArgMapper`s of the properties of the class.
+ */
+fun generateMapper(model: MapperModel): String =
+    buildString {
+        val visibility = if (model.isInternal) "internal" else "public"
+        val className = model.className
+        appendLine("// Generated by kapper-ksp. Do not edit.")
+        if (model.packageName.isNotEmpty()) {
+            appendLine("package ${model.packageName}")
+            appendLine()
+        }
+        appendLine("/**")
+        appendLine(" * Mapper of [$className], generated by kapper-ksp.")
+        appendLine(" */")
+        appendLine("$visibility class ${model.mapperName} : $GENERATED_MAPPER<$className>(")
+        appendLine("    $className::class.java,")
+        appendLine("    listOf(")
+        for (parameter in model.parameters) {
+            append("        $GENERATED_MAPPER.Parameter(")
+            append("\"${parameter.name}\", ${parameter.jvmClass}, ")
+            appendLine("isNullable = ${parameter.isNullable}, isOptional = ${parameter.isOptional}),")
+        }
+        appendLine("    ),")
+        appendLine(") {")
+        appendLine("    override fun createInstance(row: Row): $className =")
+        val optional = model.parameters.withIndex().filter { it.value.isOptional }.map { it.index }
+        if (optional.isEmpty()) {
+            appendConstructorCall(model, "        ")
+        } else {
+            appendLine("        if (${optional.joinToString(" && ") { "row.isBound($it)" }}) {")
+            appendConstructorCall(model, "            ")
+            appendLine("        } else {")
+            appendLine("            newInstance(row)")
+            appendLine("        }")
+        }
+        appendLine()
+        appendLine("    $visibility companion object {")
+        appendLine("        /**")
+        appendLine("         * Argument mappers of the properties of [$className].")
+        appendLine("         */")
+        appendLine("        @JvmField")
+        appendLine("        $visibility val argMappers: Array<$ARG_MAPPER<$className>> =")
+        appendLine("            arrayOf(")
+        for (parameter in model.parameters.filter { it.isProperty }) {
+            appendLine("                \"${parameter.name}\" to { obj: $className -> obj.`${parameter.name}` },")
+        }
+        appendLine("            )")
+        appendLine("    }")
+        appendLine("}")
+    }
+
+private fun StringBuilder.appendConstructorCall(
+    model: MapperModel,
+    indent: String,
+) {
+    appendLine("$indent${model.className}(")
+    for ((index, parameter) in model.parameters.withIndex()) {
+        val getter = if (parameter.isNullable) "getOrNull" else "get"
+        appendLine("$indent    `${parameter.name}` = row.$getter($index),")
+    }
+    appendLine("$indent)")
+}
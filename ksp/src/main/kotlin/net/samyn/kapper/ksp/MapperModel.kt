@@ -0,0 +1,72 @@
+package net.samyn.kapper.ksp
+
+/**
+ * Description of a class to generate a mapper for.
+ *
+ * @property packageName the package of the class.
+ * @property className the qualified name of the class.
+ * @property simpleNames the simple names of the class and the classes it is nested in, outermost first.
+ * @property isInternal whether the class is internal, in which case the mapper is internal as well.
+ * @property parameters the parameters of the primary constructor of the class.
+ */
+data class MapperModel(
+    val packageName: String,
+    val className: String,
+    val simpleNames: List<String>,
+    val isInternal: Boolean,
+    val parameters: List<ParameterModel>,
+) {
+    /**
+     * The simple name of the generated mapper.
+     */
+    val mapperName: String
+        get() = simpleNames.joinToString("_") + "KapperMapper"
+
+    /**
+     * The qualified name of the generated mapper.
+     */
+    val mapperQualifiedName: String
+        get() = if (packageName.isEmpty()) mapperName else "$packageName.$mapperName"
+}
+
+/**
+ * Description of a constructor parameter.
+ *
+ * @property name the name of the parameter.
+ * @property typeName the qualified name of the class of the parameter, without type arguments.
+ * @property isNullable whether the type of the parameter is nullable.
+ * @property isOptional whether the parameter has a default value.
+ * @property isProperty whether the parameter declares a property, which can be used as argument.
+ */
+data class ParameterModel(
+    val name: String,
+    val typeName: String,
+    val isNullable: Boolean,
+    val isOptional: Boolean,
+    val isProperty: Boolean = true,
+) {
+    /**
+     * The expression of the JVM class of the parameter, as it appears in the signature of the constructor.
+     */
+    val jvmClass: String
+        get() =
+            when {
+                typeName in primitives && !isNullable -> "$typeName::class.javaPrimitiveType!!"
+                typeName in primitives -> "$typeName::class.javaObjectType"
+                else -> "$typeName::class.java"
+            }
+
+    companion object {
+        private val primitives =
+            setOf(
+                "kotlin.Boolean",
+                "kotlin.Byte",
+                "kotlin.Short",
+                "kotlin.Char",
+                "kotlin.Int",
+                "kotlin.Long",
+                "kotlin.Float",
+                "kotlin.Double",
+            )
+    }
+}
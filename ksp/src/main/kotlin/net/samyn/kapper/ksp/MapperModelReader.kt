@@ -0,0 +1,102 @@
+package net.samyn.kapper.ksp
+
+import com.google.devtools.ksp.getDeclaredProperties
+import com.google.devtools.ksp.getVisibility
+import com.google.devtools.ksp.processing.KSPLogger
+import com.google.devtools.ksp.symbol.ClassKind
+import com.google.devtools.ksp.symbol.KSClassDeclaration
+import com.google.devtools.ksp.symbol.KSNode
+import com.google.devtools.ksp.symbol.KSType
+import com.google.devtools.ksp.symbol.KSTypeAlias
+import com.google.devtools.ksp.symbol.KSValueParameter
+import com.google.devtools.ksp.symbol.Modifier
+import com.google.devtools.ksp.symbol.Visibility
+
+private val visibleFromPackage = setOf(Visibility.PUBLIC, Visibility.INTERNAL)
+
+/**
+ * Read the [MapperModel] of a data class.
+ *
+ * @return the model, or `null` when no mapper can be generated for the class, after logging the reason.
+ */
+fun readMapperModel(
+    declaration: KSClassDeclaration,
+    logger: KSPLogger,
+): MapperModel? {
+    fun unsupported(
+        reason: String,
+        node: KSNode = declaration,
+    ): MapperModel? {
+        logger.error("Cannot generate mapper for ${declaration.simpleName.asString()}: $reason", node)
+        return null
+    }
+
+    val className = declaration.qualifiedName?.asString() ?: return unsupported("local classes are not supported")
+    if (declaration.classKind != ClassKind.CLASS || Modifier.DATA !in declaration.modifiers) {
+        return unsupported("only data classes are supported")
+    }
+    if (declaration.typeParameters.isNotEmpty()) {
+        return unsupported("generic classes are not supported")
+    }
+    // the class and the classes it is nested in, outermost first
+    val classes = generateSequence(declaration) { it.parentDeclaration as? KSClassDeclaration }.toList().asReversed()
+    if (classes.any { it.getVisibility() !in visibleFromPackage }) {
+        return unsupported("the class must be public or internal")
+    }
+    val constructor = declaration.primaryConstructor ?: return unsupported("no primary constructor found")
+    if (constructor.getVisibility() !in visibleFromPackage) {
+        return unsupported("the primary constructor must be public or internal")
+    }
+    // properties which can be read from the package of the mapper
+    val properties =
+        declaration.getDeclaredProperties()
+            .filter { it.getVisibility() in visibleFromPackage }
+            .map { it.simpleName.asString() }
+            .toSet()
+    val parameters =
+        constructor.parameters.map { parameter ->
+            readParameterModel(parameter, properties)
+                ?: return unsupported("the type of parameter '${parameter.name?.asString()}' is not supported", parameter)
+        }
+    return MapperModel(
+        declaration.packageName.asString(),
+        className,
+        classes.map { it.simpleName.asString() },
+        classes.any { it.getVisibility() == Visibility.INTERNAL },
+        parameters,
+    )
+}
+
+private fun readParameterModel(
+    parameter: KSValueParameter,
+    properties: Set<String>,
+): ParameterModel? {
+    val name = parameter.name?.asString() ?: return null
+    val type = parameter.type.resolve().expandAlias()
+    return ParameterModel(
+        name,
+        typeName(type) ?: return null,
+        type.isMarkedNullable,
+        parameter.hasDefault,
+        (parameter.isVal || parameter.isVar) && name in properties,
+    )
+}
+
+// the qualified name of the class of the type, or null for type parameters and value classes
+private fun typeName(type: KSType): String? {
+    val declaration = type.declaration as? KSClassDeclaration ?: return null
+    if (Modifier.VALUE in declaration.modifiers || Modifier.INLINE in declaration.modifiers) return null
+    val name = declaration.qualifiedName?.asString() ?: return null
+    if (name == "kotlin.Array") {
+        // arrays are not erased, an array of any type is an array of objects
+        val element = type.arguments.firstOrNull()?.type?.resolve()?.expandAlias()
+        return "kotlin.Array<${element?.let { typeName(it) } ?: "kotlin.Any"}>"
+    }
+    return name
+}
+
+private fun KSType.expandAlias(): KSType {
+    val alias = declaration as? KSTypeAlias ?: return this
+    val expanded = alias.type.resolve()
+    return (if (isMarkedNullable) expanded.makeNullable() else expanded).expandAlias()
+}
@@ -0,0 +1,128 @@
+package net.samyn.kapper.ksp
+
+import io.kotest.assertions.withClue
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import net.samyn.kapper.DbFlavour
+import net.samyn.kapper.Field
+import net.samyn.kapper.MapperProvider
+import org.jetbrains.kotlin.cli.common.ExitCode
+import org.jetbrains.kotlin.cli.jvm.K2JVMCompiler
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.ByteArrayOutputStream
+import java.io.PrintStream
+import java.net.URLClassLoader
+import java.nio.file.Path
+import java.sql.JDBCType
+import java.sql.ResultSet
+import java.util.UUID
+import kotlin.io.path.createDirectories
+import kotlin.io.path.writeText
+
+class GeneratedMapperCompilationTest {
+    @TempDir
+    lateinit var dir: Path
+
+    private val superHero =
+        MapperModel(
+            "net.samyn.kapper.example",
+            "net.samyn.kapper.example.SuperHero",
+            listOf("SuperHero"),
+            false,
+            listOf(
+                ParameterModel("id", "java.util.UUID", isNullable = false, isOptional = false),
+                ParameterModel("name", "kotlin.String", isNullable = false, isOptional = false),
+                ParameterModel("email", "kotlin.String", isNullable = true, isOptional = true),
+                ParameterModel("age", "kotlin.Int", isNullable = false, isOptional = true),
+            ),
+        )
+
+    private val id = UUID.randomUUID()
+    private val resultSet =
+        mockk<ResultSet> {
+            every { getString(1) } returns id.toString()
+            every { getString(2) } returns "Batman"
+            every { getString(3) } returns null
+            every { getLong(4) } returns 42L
+            every { wasNull() } returns false
+        }
+    private val fields =
+        mapOf(
+            "id" to Field(1, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "name" to Field(2, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "email" to Field(3, JDBCType.VARCHAR, "VARCHAR", DbFlavour.UNKNOWN),
+            "age" to Field(4, JDBCType.BIGINT, "BIGINT", DbFlavour.UNKNOWN),
+        )
+
+    private lateinit var provider: MapperProvider<Any>
+
+    @BeforeEach
+    fun compileMapper() {
+        val classLoader =
+            compile(
+                """
+                package net.samyn.kapper.example
+
+                @net.samyn.kapper.GenerateMapper
+                data class SuperHero(
+                    val id: java.util.UUID,
+                    val name: String,
+                    val email: String? = "batman@dc.com",
+                    val age: Int = 85,
+                )
+                """.trimIndent(),
+                generateMapper(superHero),
+            )
+        @Suppress("UNCHECKED_CAST")
+        provider =
+            classLoader.loadClass(superHero.mapperQualifiedName).getDeclaredConstructor().newInstance()
+                as MapperProvider<Any>
+    }
+
+    // compile the sources with the Kotlin compiler, as KSP compiles the generated mapper with the annotated class.
+    private fun compile(vararg sources: String): ClassLoader {
+        val files =
+            sources.mapIndexed { index, source ->
+                dir.resolve("src/Source$index.kt").also {
+                    it.parent.createDirectories()
+                    it.writeText(source)
+                }
+            }
+        val classes = dir.resolve("classes").createDirectories()
+        val messages = ByteArrayOutputStream()
+        val exitCode =
+            K2JVMCompiler().exec(
+                PrintStream(messages),
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", classes.toString(),
+                "-no-stdlib",
+                "-no-reflect",
+                "-jvm-target", "17",
+                *files.map { it.toString() }.toTypedArray(),
+            )
+        withClue(messages.toString()) {
+            exitCode shouldBe ExitCode.OK
+        }
+        return URLClassLoader(arrayOf(classes.toUri().toURL()), javaClass.classLoader)
+    }
+
+    @Test
+    fun `generated mapper maps row`() {
+        provider.mapper.createInstance(resultSet, fields).toString() shouldBe
+            "SuperHero(id=$id, name=Batman, email=null, age=42)"
+    }
+
+    @Test
+    fun `generated mapper uses default values of unbound parameters`() {
+        provider.mapper.createInstance(resultSet, fields - "email" - "age").toString() shouldBe
+            "SuperHero(id=$id, name=Batman, email=batman@dc.com, age=85)"
+    }
+
+    @Test
+    fun `generated mapper is provider of mapped class`() {
+        provider.type.name shouldBe superHero.className
+    }
+}
@@ -0,0 +1,89 @@
+package net.samyn.kapper.ksp
+
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.string.shouldContain
+import io.kotest.matchers.string.shouldNotContain
+import org.junit.jupiter.api.Test
+
+class MapperGeneratorTest {
+    private val superHero =
+        MapperModel(
+            "net.samyn.kapper.example",
+            "net.samyn.kapper.example.SuperHero",
+            listOf("SuperHero"),
+            false,
+            listOf(
+                ParameterModel("id", "java.util.UUID", isNullable = false, isOptional = false),
+                ParameterModel("name", "kotlin.String", isNullable = false, isOptional = false),
+                ParameterModel("email", "kotlin.String", isNullable = true, isOptional = true),
+                ParameterModel("age", "kotlin.Int", isNullable = false, isOptional = true),
+            ),
+        )
+
+    @Test
+    fun `name mapper after class`() {
+        superHero.mapperName shouldBe "SuperHeroKapperMapper"
+        superHero.mapperQualifiedName shouldBe "net.samyn.kapper.example.SuperHeroKapperMapper"
+    }
+
+    @Test
+    fun `name mapper of nested class after enclosing classes`() {
+        val model = superHero.copy(packageName = "", simpleNames = listOf("Universe", "SuperHero"))
+        model.mapperQualifiedName shouldBe "Universe_SuperHeroKapperMapper"
+    }
+
+    @Test
+    fun `use JVM class of parameter type`() {
+        ParameterModel("age", "kotlin.Int", isNullable = false, isOptional = false).jvmClass shouldBe
+            "kotlin.Int::class.javaPrimitiveType!!"
+        ParameterModel("age", "kotlin.Int", isNullable = true, isOptional = false).jvmClass shouldBe
+            "kotlin.Int::class.javaObjectType"
+        ParameterModel("id", "java.util.UUID", isNullable = false, isOptional = false).jvmClass shouldBe
+            "java.util.UUID::class.java"
+    }
+
+    @Test
+    fun `generate mapper extending generated mapper`() {
+        val source = generateMapper(superHero)
+        source shouldContain "package net.samyn.kapper.example"
+        source shouldContain
+            "public class SuperHeroKapperMapper : net.samyn.kapper.GeneratedMapper<net.samyn.kapper.example.SuperHero>("
+        source shouldContain
+            "net.samyn.kapper.GeneratedMapper.Parameter(\"age\", kotlin.Int::class.javaPrimitiveType!!, " +
+            "isNullable = false, isOptional = true),"
+    }
+
+    @Test
+    fun `call constructor when optional parameters bound`() {
+        val source = generateMapper(superHero)
+        source shouldContain "if (row.isBound(2) && row.isBound(3)) {"
+        source shouldContain "`id` = row.get(0),"
+        source shouldContain "`email` = row.getOrNull(2),"
+        source shouldContain "newInstance(row)"
+    }
+
+    @Test
+    fun `when no optional parameters always call constructor`() {
+        val source = generateMapper(superHero.copy(parameters = superHero.parameters.take(2)))
+        source shouldNotContain "isBound"
+        source shouldNotContain "newInstance(row)"
+    }
+
+    @Test
+    fun `generate arg mappers for properties`() {
+        val model =
+            superHero.copy(
+                parameters = superHero.parameters + ParameterModel("secret", "kotlin.String", false, false, false),
+            )
+        val source = generateMapper(model)
+        source shouldContain "\"email\" to { obj: net.samyn.kapper.example.SuperHero -> obj.`email` },"
+        source shouldNotContain "obj.`secret`"
+    }
+
+    @Test
+    fun `when class internal generate internal mapper`() {
+        val source = generateMapper(superHero.copy(isInternal = true))
+        source shouldContain "internal class SuperHeroKapperMapper"
+        source shouldContain "internal val argMappers"
+    }
+}
@@ -0,0 +1,111 @@
+package net.samyn.kapper.ksp
+
+import com.google.devtools.ksp.processing.KSPLogger
+import com.google.devtools.ksp.symbol.ClassKind
+import com.google.devtools.ksp.symbol.KSClassDeclaration
+import com.google.devtools.ksp.symbol.KSFunctionDeclaration
+import com.google.devtools.ksp.symbol.KSName
+import com.google.devtools.ksp.symbol.KSPropertyDeclaration
+import com.google.devtools.ksp.symbol.KSType
+import com.google.devtools.ksp.symbol.KSValueParameter
+import com.google.devtools.ksp.symbol.Modifier
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+
+class MapperModelReaderTest {
+    private val logger = mockk<KSPLogger>(relaxed = true)
+
+    private fun ksName(name: String) = mockk<KSName> { every { asString() } returns name }
+
+    private fun classDeclaration(
+        qualifiedName: String,
+        modifiers: Set<Modifier> = emptySet(),
+    ) = mockk<KSClassDeclaration>(relaxed = true) {
+        every { this@mockk.qualifiedName } returns ksName(qualifiedName)
+        every { simpleName } returns ksName(qualifiedName.substringAfterLast('.'))
+        every { packageName } returns ksName(qualifiedName.substringBeforeLast('.'))
+        every { classKind } returns ClassKind.CLASS
+        every { this@mockk.modifiers } returns modifiers + Modifier.PUBLIC
+        every { typeParameters } returns emptyList()
+        every { parentDeclaration } returns null
+        every { declarations } returns emptySequence()
+    }
+
+    private fun parameter(
+        name: String,
+        type: KSClassDeclaration,
+        isNullable: Boolean = false,
+        hasDefault: Boolean = false,
+    ) = mockk<KSValueParameter>(relaxed = true) {
+        every { this@mockk.name } returns ksName(name)
+        every { this@mockk.hasDefault } returns hasDefault
+        every { isVal } returns true
+        every { this@mockk.type.resolve() } returns
+            mockk<KSType>(relaxed = true) {
+                every { declaration } returns type
+                every { isMarkedNullable } returns isNullable
+            }
+    }
+
+    private fun property(name: String) =
+        mockk<KSPropertyDeclaration>(relaxed = true) {
+            every { simpleName } returns ksName(name)
+            every { modifiers } returns setOf(Modifier.PUBLIC)
+        }
+
+    @Test
+    fun `read data class`() {
+        val hero = classDeclaration("net.samyn.kapper.example.SuperHero", setOf(Modifier.DATA))
+        val constructor =
+            mockk<KSFunctionDeclaration>(relaxed = true) {
+                every { modifiers } returns setOf(Modifier.PUBLIC)
+                every { parameters } returns
+                    listOf(
+                        parameter("name", classDeclaration("kotlin.String")),
+                        parameter("age", classDeclaration("kotlin.Int"), isNullable = true, hasDefault = true),
+                    )
+            }
+        every { hero.primaryConstructor } returns constructor
+        every { hero.declarations } returns sequenceOf(property("name"), property("age"))
+
+        readMapperModel(hero, logger) shouldBe
+            MapperModel(
+                "net.samyn.kapper.example",
+                "net.samyn.kapper.example.SuperHero",
+                listOf("SuperHero"),
+                false,
+                listOf(
+                    ParameterModel("name", "kotlin.String", isNullable = false, isOptional = false),
+                    ParameterModel("age", "kotlin.Int", isNullable = true, isOptional = true),
+                ),
+            )
+    }
+
+    @Test
+    fun `when not data class log error`() {
+        val hero = classDeclaration("net.samyn.kapper.example.SuperHero")
+
+        readMapperModel(hero, logger).shouldBeNull()
+        verify { logger.error("Cannot generate mapper for SuperHero: only data classes are supported", hero) }
+    }
+
+    @Test
+    fun `when parameter is value class log error`() {
+        val hero = classDeclaration("net.samyn.kapper.example.SuperHero", setOf(Modifier.DATA))
+        val alias = parameter("alias", classDeclaration("net.samyn.kapper.example.Alias", setOf(Modifier.VALUE)))
+        every { hero.primaryConstructor } returns
+            mockk<KSFunctionDeclaration>(relaxed = true) {
+                every { modifiers } returns setOf(Modifier.PUBLIC)
+                every { parameters } returns listOf(alias)
+            }
+
+        readMapperModel(hero, logger).shouldBeNull()
+        verify {
+            logger.error("Cannot generate mapper for SuperHero: the type of parameter 'alias' is not supported", alias)
+        }
+    }
+}
@@ -11,9 +11,11 @@ develocity {
 }
 
 rootProject.name = "kapper"
-include("benchmark","core", "coroutines", "examples:kotlin-example", "examples:java-example")
+include("benchmark","core", "coroutines", "ksp", "apt", "examples:kotlin-example", "examples:java-example")
 project(":benchmark").name = "kapper-benchmark"
 project(":core").name = "kapper"
 project(":coroutines").name = "kapper-coroutines"
+project(":ksp").name = "kapper-ksp"
+project(":apt").name = "kapper-apt"
 project(":examples:kotlin-example").name = "kapper-kotlin-example"
 project(":examples:java-example").name = "kapper-java-example"